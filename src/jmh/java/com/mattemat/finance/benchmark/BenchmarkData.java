@@ -0,0 +1,78 @@
+package com.mattemat.finance.benchmark;
+
+import com.mattemat.finance.dto.request.SubscriptionRequestDto;
+import com.mattemat.finance.entity.Subscription;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic fixtures shaped like production data: 170 currencies with ten-decimal rates and
+ * subscriptions with two-decimal amounts spread over them.
+ */
+public final class BenchmarkData {
+
+    public static final int CURRENCIES = 170;
+
+    private static final int[] BILLING_CYCLES = {1, 1, 1, 3, 6, 12};
+
+    private BenchmarkData() {
+    }
+
+    public static String code(int index) {
+        return "C" + (index % CURRENCIES);
+    }
+
+    public static Map<String, BigDecimal> rates() {
+        SplittableRandom random = new SplittableRandom(42);
+        Map<String, BigDecimal> rates = new HashMap<>();
+        for (int i = 0; i < CURRENCIES; i++) {
+            rates.put(code(i), BigDecimal.valueOf(random.nextLong(1_000_000_000L, 50_000_000_000_000L), 10));
+        }
+        rates.put(code(0), BigDecimal.ONE);
+        return rates;
+    }
+
+    public static List<SubscriptionRequestDto> requests(int size) {
+        SplittableRandom random = new SplittableRandom(7);
+        List<SubscriptionRequestDto> requests = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            SubscriptionRequestDto request = new SubscriptionRequestDto();
+            request.setName("Subscription " + i);
+            request.setFromCurrency(code(random.nextInt(CURRENCIES)));
+            request.setToCurrency(code(random.nextInt(CURRENCIES)));
+            request.setAmount(BigDecimal.valueOf(random.nextLong(99, 50_000), 2));
+            request.setBillingCycle(BILLING_CYCLES[random.nextInt(BILLING_CYCLES.length)]);
+            request.setSubscriptionDate(LocalDate.of(2024, 1, 1).plusDays(random.nextInt(365)));
+            requests.add(request);
+        }
+        return requests;
+    }
+
+    public static List<Subscription> subscriptions(int size) {
+        SplittableRandom random = new SplittableRandom(11);
+        LocalDateTime now = LocalDateTime.of(2024, 8, 18, 3, 59, 59);
+        List<Subscription> subscriptions = new ArrayList<>(size);
+        for (SubscriptionRequestDto request : requests(size)) {
+            Subscription subscription = new Subscription();
+            subscription.setId((long) subscriptions.size() + 1);
+            subscription.setName(request.getName());
+            subscription.setCurrency(request.getFromCurrency());
+            subscription.setAmount(request.getAmount());
+            subscription.setConvertedAmount(BigDecimal.valueOf(random.nextLong(1, 10_000_000L), 2));
+            subscription.setBillingCycle(request.getBillingCycle());
+            subscription.setSubscriptionDate(request.getSubscriptionDate());
+            subscription.setNextSubscriptionDate(request.getSubscriptionDate().plusMonths(request.getBillingCycle()));
+            subscription.setCreatedAt(now);
+            subscription.setUpdatedAt(now);
+            subscriptions.add(subscription);
+        }
+        return subscriptions;
+    }
+}
@@ -0,0 +1,141 @@
+package com.mattemat.finance.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * Runs the JMH benchmarks with the GC profiler and compares them with the committed baseline.
+ * <p>
+ * Allocation per operation ({@code gc.alloc.rate.norm}) is stable across machines and is held to
+ * {@code jmh.alloc-tolerance}; throughput depends on the machine and is only held to the looser
+ * {@code jmh.score-tolerance}. Any regression fails the build. Run with
+ * {@code -Djmh.update-baseline=true} to record the current results as the new baseline.
+ */
+public final class BenchmarkRunner {
+
+    private static final String ALLOCATION = "gc.alloc.rate.norm";
+    private static final double ALLOCATION_SLACK_BYTES = 16;
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws RunnerException, IOException {
+        Path results = Path.of(System.getProperty("jmh.results", "target/jmh/results.json"));
+        Path baseline = Path.of(System.getProperty("jmh.baseline", "src/jmh/baseline.properties"));
+        boolean updateBaseline = Boolean.getBoolean("jmh.update-baseline");
+        double scoreTolerance = Double.parseDouble(System.getProperty("jmh.score-tolerance", "0.50"));
+        double allocationTolerance = Double.parseDouble(System.getProperty("jmh.alloc-tolerance", "0.10"));
+        Files.createDirectories(results.toAbsolutePath().getParent());
+
+        Options options = new OptionsBuilder()
+                .include(System.getProperty("jmh.include", "com.mattemat.finance"))
+                .addProfiler(GCProfiler.class)
+                .forks(1)
+                .warmupIterations(3)
+                .warmupTime(TimeValue.seconds(1))
+                .measurementIterations(5)
+                .measurementTime(TimeValue.seconds(1))
+                .resultFormat(ResultFormatType.JSON)
+                .result(results.toString())
+                .build();
+        Map<String, double[]> current = summarize(new Runner(options).run());
+
+        if (updateBaseline) {
+            writeBaseline(baseline, current);
+            System.out.printf("Baseline with %d benchmarks written to %s%n", current.size(), baseline);
+            return;
+        }
+
+        Properties expected = new Properties();
+        if (Files.exists(baseline)) {
+            try (Reader reader = Files.newBufferedReader(baseline)) {
+                expected.load(reader);
+            }
+        }
+
+        List<String> regressions = new ArrayList<>();
+        System.out.printf("%n%-55s %14s %14s %12s %12s%n", "Benchmark", "ops/ms", "baseline", "B/op", "baseline");
+        current.forEach((key, values) -> {
+            String baselineScore = expected.getProperty(key + ".score");
+            String baselineAllocation = expected.getProperty(key + ".alloc");
+            System.out.printf("%-55s %14.3f %14s %12.1f %12s%n",
+                    key, values[0], baselineScore == null ? "new" : baselineScore,
+                    values[1], baselineAllocation == null ? "new" : baselineAllocation);
+            if (baselineScore != null && values[0] < Double.parseDouble(baselineScore) * (1 - scoreTolerance)) {
+                regressions.add(key + " throughput " + format(values[0]) + " ops/ms < baseline " + baselineScore);
+            }
+            if (baselineAllocation != null
+                    && values[1] > Double.parseDouble(baselineAllocation) * (1 + allocationTolerance) + ALLOCATION_SLACK_BYTES) {
+                regressions.add(key + " allocation " + format(values[1]) + " B/op > baseline " + baselineAllocation);
+            }
+        });
+
+        if (!regressions.isEmpty()) {
+            System.out.println();
+            regressions.forEach(regression -> System.out.println("REGRESSION " + regression));
+            System.exit(1);
+        }
+        System.out.printf("%nNo regressions against %s%n", baseline);
+    }
+
+    private static Map<String, double[]> summarize(Collection<RunResult> runResults) {
+        Map<String, double[]> summary = new TreeMap<>();
+        for (RunResult runResult : runResults) {
+            String benchmark = runResult.getParams().getBenchmark();
+            StringBuilder key = new StringBuilder(benchmark.substring(benchmark.lastIndexOf('.', benchmark.lastIndexOf('.') - 1) + 1));
+            for (String param : runResult.getParams().getParamsKeys()) {
+                key.append('.').append(param).append('=').append(runResult.getParams().getParam(param));
+            }
+            double allocation = Double.NaN;
+            for (Map.Entry<String, Result> secondary : runResult.getSecondaryResults().entrySet()) {
+                if (secondary.getKey().endsWith(ALLOCATION)) {
+                    allocation = secondary.getValue().getScore();
+                }
+            }
+            summary.put(key.toString(), new double[]{runResult.getPrimaryResult().getScore(), allocation});
+        }
+        return summary;
+    }
+
+    private static void writeBaseline(Path baseline, Map<String, double[]> current) throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add("# JMH baseline: throughput in ops/ms and allocation in bytes per operation.");
+        lines.add("# Regenerate with: mvn -Pjmh verify -Djmh.update-baseline=true");
+        current.forEach((key, values) -> {
+            // Parameter values are joined with '=', which Properties would take as the separator.
+            String escaped = key.replace("=", "\\=");
+            lines.add(escaped + ".score=" + format(values[0]));
+            lines.add(escaped + ".alloc=" + format(values[1]));
+        });
+        try (Writer writer = Files.newBufferedWriter(baseline)) {
+            for (String line : lines) {
+                writer.write(line);
+                writer.write(System.lineSeparator());
+            }
+        }
+    }
+
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%.3f", value);
+    }
+}
@@ -0,0 +1,58 @@
+package com.mattemat.finance.benchmark;
+
+import com.mattemat.finance.dto.request.SubscriptionRequestDto;
+import com.mattemat.finance.dto.response.SubscriptionResponseDto;
+import com.mattemat.finance.entity.Subscription;
+import com.mattemat.finance.mapper.SubscriptionMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link SubscriptionMapper} over a single row, a default page and the largest page.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class MapperBenchmark {
+
+    @Param({"1", "50", "500"})
+    private int size;
+
+    private final SubscriptionMapper mapper = new SubscriptionMapper();
+    private List<Subscription> subscriptions;
+    private List<SubscriptionRequestDto> requests;
+
+    @Setup
+    public void setUp() {
+        subscriptions = BenchmarkData.subscriptions(size);
+        requests = BenchmarkData.requests(size);
+    }
+
+    @Benchmark
+    public List<SubscriptionResponseDto> toDto() {
+        List<SubscriptionResponseDto> dtos = new ArrayList<>(subscriptions.size());
+        for (Subscription subscription : subscriptions) {
+            dtos.add(mapper.toDto(subscription));
+        }
+        return dtos;
+    }
+
+    @Benchmark
+    public List<Subscription> toEntity() {
+        List<Subscription> entities = new ArrayList<>(requests.size());
+        for (SubscriptionRequestDto request : requests) {
+            entities.add(mapper.toEntity(request));
+        }
+        return entities;
+    }
+}
@@ -0,0 +1,57 @@
+package com.mattemat.finance.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.mattemat.finance.dto.response.SubscriptionResponseDto;
+import com.mattemat.finance.mapper.SubscriptionMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of {@link SubscriptionResponseDto} lists, configured like the application's
+ * {@link ObjectMapper} (Java time module, ISO dates).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SerializationBenchmark {
+
+    @Param({"1", "50", "500"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private List<SubscriptionResponseDto> dtos;
+    private byte[] json;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        SubscriptionMapper mapper = new SubscriptionMapper();
+        dtos = BenchmarkData.subscriptions(size).stream().map(mapper::toDto).toList();
+        json = objectMapper.writeValueAsBytes(dtos);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(dtos);
+    }
+
+    @Benchmark
+    public SubscriptionResponseDto[] deserialize() throws IOException {
+        return objectMapper.readValue(json, SubscriptionResponseDto[].class);
+    }
+}
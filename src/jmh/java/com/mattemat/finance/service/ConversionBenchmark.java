@@ -0,0 +1,59 @@
+package com.mattemat.finance.service;
+
+import com.mattemat.finance.benchmark.BenchmarkData;
+import com.mattemat.finance.dto.request.SubscriptionRequestDto;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link SubscriptionServiceImpl#convertedAmount} against a warm {@link ExchangeRateCache}, one
+ * operation per request across 1,024 requests with random currency pairs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ConversionBenchmark {
+
+    private static final int REQUESTS = 1_024;
+
+    private SubscriptionServiceImpl subscriptionService;
+    private List<SubscriptionRequestDto> requests;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        ExchangeRateCache exchangeRateCache = new ExchangeRateCache(null, Duration.ofMinutes(5));
+        exchangeRateCache.publish(BenchmarkData.rates());
+        subscriptionService = new SubscriptionServiceImpl(
+                new CurrencyConversionService(exchangeRateCache, null), null, null, null, null, null, null,
+                new SubscriptionMetrics(new CompositeMeterRegistry()));
+        requests = BenchmarkData.requests(REQUESTS);
+    }
+
+    @Benchmark
+    public BigDecimal convertedAmount() {
+        SubscriptionRequestDto request = requests.get(next++ & (REQUESTS - 1));
+        return subscriptionService.convertedAmount(
+                request.getAmount(), request.getFromCurrency(), request.getToCurrency());
+    }
+
+    @Benchmark
+    public void convertedAmountBatch(Blackhole blackhole) {
+        for (SubscriptionRequestDto request : requests) {
+            blackhole.consume(subscriptionService.convertedAmount(
+                    request.getAmount(), request.getFromCurrency(), request.getToCurrency()));
+        }
+    }
+}
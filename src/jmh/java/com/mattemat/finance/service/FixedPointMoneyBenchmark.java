@@ -0,0 +1,94 @@
+package com.mattemat.finance.service;
+
+import com.mattemat.finance.benchmark.BenchmarkData;
+import com.mattemat.finance.dto.request.SubscriptionRequestDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The conversion arithmetic alone, without rate lookups or metrics: {@link FixedPointMoney#convert}
+ * and a {@link CrossRateMatrix} cell against the {@link BigDecimal} formula they replaced and
+ * against an exact {@link BigDecimal} reference that rounds once like the fixed-point version.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class FixedPointMoneyBenchmark {
+
+    private static final int REQUESTS = 1_024;
+
+    private BigDecimal[] amounts;
+    private BigDecimal[] fromRates;
+    private BigDecimal[] toRates;
+    private long[] minorUnits;
+    private long[] scaledFromRates;
+    private long[] scaledToRates;
+    private CrossRateMatrix crossRates;
+    private int[] fromIndexes;
+    private int[] toIndexes;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Map<String, BigDecimal> rates = BenchmarkData.rates();
+        List<SubscriptionRequestDto> requests = BenchmarkData.requests(REQUESTS);
+        amounts = new BigDecimal[REQUESTS];
+        fromRates = new BigDecimal[REQUESTS];
+        toRates = new BigDecimal[REQUESTS];
+        minorUnits = new long[REQUESTS];
+        scaledFromRates = new long[REQUESTS];
+        scaledToRates = new long[REQUESTS];
+        ExchangeRateCache exchangeRateCache = new ExchangeRateCache(null, Duration.ofMinutes(5));
+        exchangeRateCache.publish(rates);
+        crossRates = exchangeRateCache.crossRates();
+        fromIndexes = new int[REQUESTS];
+        toIndexes = new int[REQUESTS];
+        for (int i = 0; i < REQUESTS; i++) {
+            SubscriptionRequestDto request = requests.get(i);
+            amounts[i] = request.getAmount();
+            fromRates[i] = rates.get(request.getFromCurrency());
+            toRates[i] = rates.get(request.getToCurrency());
+            minorUnits[i] = FixedPointMoney.toMinorUnits(amounts[i]);
+            scaledFromRates[i] = FixedPointMoney.toScaledRate(fromRates[i]);
+            scaledToRates[i] = FixedPointMoney.toScaledRate(toRates[i]);
+            fromIndexes[i] = crossRates.indexOf(request.getFromCurrency());
+            toIndexes[i] = crossRates.indexOf(request.getToCurrency());
+        }
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimalDivideThenMultiply() {
+        int i = next++ & (REQUESTS - 1);
+        return amounts[i].divide(fromRates[i], RoundingMode.HALF_UP).multiply(toRates[i]);
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimalExact() {
+        int i = next++ & (REQUESTS - 1);
+        return amounts[i].multiply(toRates[i]).divide(fromRates[i], FixedPointMoney.AMOUNT_SCALE, RoundingMode.HALF_UP);
+    }
+
+    @Benchmark
+    public long fixedPoint() {
+        int i = next++ & (REQUESTS - 1);
+        return FixedPointMoney.convert(minorUnits[i], scaledFromRates[i], scaledToRates[i]);
+    }
+
+    @Benchmark
+    public long crossRateMatrix() {
+        int i = next++ & (REQUESTS - 1);
+        return crossRates.convert(minorUnits[i], fromIndexes[i], toIndexes[i]);
+    }
+}
@@ -0,0 +1,69 @@
+package com.mattemat.finance.service;
+
+import com.mattemat.finance.benchmark.BenchmarkData;
+import com.mattemat.finance.dto.request.SubscriptionRequestDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of {@link SubscriptionMetrics} recording. {@code noop} registers meters that record nothing,
+ * {@code prometheus} is the production registry with percentile histograms; the difference between
+ * the two is the overhead of leaving metrics on. It is not negligible against an in-memory
+ * conversion, which is why {@code finance.conversion} has no percentile histogram.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class MetricsOverheadBenchmark {
+
+    private static final int REQUESTS = 1_024;
+
+    @Param({"noop", "prometheus"})
+    private String registry;
+
+    private SubscriptionMetrics subscriptionMetrics;
+    private SubscriptionServiceImpl subscriptionService;
+    private List<SubscriptionRequestDto> requests;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        MeterRegistry meterRegistry = "prometheus".equals(registry)
+                ? new PrometheusMeterRegistry(PrometheusConfig.DEFAULT)
+                : new CompositeMeterRegistry();
+        subscriptionMetrics = new SubscriptionMetrics(meterRegistry);
+        ExchangeRateCache exchangeRateCache = new ExchangeRateCache(null, Duration.ofMinutes(5));
+        exchangeRateCache.publish(BenchmarkData.rates());
+        subscriptionService = new SubscriptionServiceImpl(
+                new CurrencyConversionService(exchangeRateCache, null), null, null, null, null, null, null,
+                subscriptionMetrics);
+        requests = BenchmarkData.requests(REQUESTS);
+    }
+
+    @Benchmark
+    public BigDecimal convertedAmount() {
+        SubscriptionRequestDto request = requests.get(next++ & (REQUESTS - 1));
+        return subscriptionService.convertedAmount(
+                request.getAmount(), request.getFromCurrency(), request.getToCurrency());
+    }
+
+    @Benchmark
+    public SubscriptionRequestDto timedOperation() {
+        return subscriptionMetrics.time("read", () -> requests.get(next++ & (REQUESTS - 1)));
+    }
+}
@@ -0,0 +1,207 @@
+package com.mattemat.finance.loadtest;
+
+import com.mattemat.finance.loadtest.SubscriptionTraffic.Operation;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histograms and outcome counts of one measured run.
+ * <p>
+ * Response times are recorded in microseconds from the moment the request was scheduled to be sent,
+ * not from when it was sent, so a stalled server is charged for every request that should have gone
+ * out during the stall (coordinated omission). The service time from the actual send is kept
+ * alongside as {@code all-uncorrected}; a wide gap between the two means requests queued in the
+ * client or the server's accept backlog.
+ */
+final class LoadReport {
+
+    static final String ALL = "all";
+    static final String UNCORRECTED = "all-uncorrected";
+
+    private static final long HIGHEST_MICROS = TimeUnit.MINUTES.toMicros(1);
+    private static final int SIGNIFICANT_DIGITS = 3;
+    private static final double[] PERCENTILES = {50, 99, 99.9};
+    private static final String[] PERCENTILE_KEYS = {"p50", "p99", "p999"};
+
+    private final int rate;
+    private final Map<Operation, Histogram> responseTimes = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+    private final Histogram all = histogram();
+    private final Histogram uncorrected = histogram();
+    private final LongAdder rejected = new LongAdder();
+    private long sent;
+    private double seconds;
+
+    LoadReport(int rate) {
+        this.rate = rate;
+        for (Operation operation : Operation.values()) {
+            responseTimes.put(operation, histogram());
+            errors.put(operation, new LongAdder());
+        }
+    }
+
+    /**
+     * Records one completed or failed request.
+     *
+     * @param status the HTTP status, or {@code 0} if no response arrived
+     */
+    void record(Operation operation, int status, long scheduledNanos, long sentNanos, long completedNanos) {
+        long responseMicros = Math.min(HIGHEST_MICROS, TimeUnit.NANOSECONDS.toMicros(completedNanos - scheduledNanos));
+        responseTimes.get(operation).recordValue(responseMicros);
+        all.recordValue(responseMicros);
+        uncorrected.recordValue(Math.min(HIGHEST_MICROS, TimeUnit.NANOSECONDS.toMicros(completedNanos - sentNanos)));
+        if (status == 503) {
+            rejected.increment();
+        } else if (status < 200 || status >= 300) {
+            errors.get(operation).increment();
+        }
+    }
+
+    void finish(long sent, long elapsedNanos) {
+        this.sent = sent;
+        this.seconds = elapsedNanos / 1_000_000_000.0;
+    }
+
+    long errors() {
+        return errors.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    long sent() {
+        return sent;
+    }
+
+    /**
+     * Returns the comparable figures keyed as in the baseline file: {@code rate}, throughput,
+     * rejections and errors, then p50, p99 and p999 in milliseconds for all requests and per
+     * operation.
+     */
+    Map<String, Double> summary() {
+        Map<String, Double> summary = new LinkedHashMap<>();
+        summary.put("rate", (double) rate);
+        summary.put("throughput", (all.getTotalCount() - rejected.sum() - errors()) / seconds);
+        summary.put("rejected", (double) rejected.sum());
+        summary.put("errors", (double) errors());
+        percentiles(summary, ALL, all);
+        percentiles(summary, UNCORRECTED, uncorrected);
+        responseTimes.forEach((operation, histogram) -> {
+            if (histogram.getTotalCount() > 0) {
+                percentiles(summary, operation.key(), histogram);
+            }
+        });
+        return summary;
+    }
+
+    void print(PrintStream out) {
+        out.printf("%n%d requests offered at %d/s over %.1f s: %.1f successful/s, %d rejected, %d errors%n",
+                sent, rate, seconds, (all.getTotalCount() - rejected.sum() - errors()) / seconds, rejected.sum(), errors());
+        out.printf("%n%-16s %10s %8s %10s %10s %10s %10s%n", "Operation", "count", "errors", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        responseTimes.forEach((operation, histogram) -> print(out, operation.key(), histogram, errors.get(operation).sum()));
+        print(out, ALL, all, errors());
+        print(out, UNCORRECTED, uncorrected, errors());
+    }
+
+    /**
+     * Writes the summary as {@code summary.properties} and each histogram's percentile distribution
+     * as an {@code .hgrm} file that HdrHistogram's plotter can overlay with another run's.
+     */
+    void write(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        writeProperties(directory.resolve("summary.properties"), summary(),
+                "Load test summary: throughput in requests/s, latencies in ms.");
+        writeDistribution(directory.resolve(ALL + ".hgrm"), all);
+        writeDistribution(directory.resolve(UNCORRECTED + ".hgrm"), uncorrected);
+        for (Map.Entry<Operation, Histogram> entry : responseTimes.entrySet()) {
+            writeDistribution(directory.resolve(entry.getKey().key() + ".hgrm"), entry.getValue());
+        }
+    }
+
+    /**
+     * Compares with a baseline recorded at the same rate: p50 and p99 may grow by
+     * {@code latencyTolerance}, throughput may drop by {@code throughputTolerance}. p999 rests on a
+     * handful of samples per run and is reported but not held to the baseline.
+     *
+     * @return a description of each regression, empty if there are none
+     */
+    List<String> regressions(Properties baseline, double latencyTolerance, double throughputTolerance) {
+        List<String> regressions = new ArrayList<>();
+        summary().forEach((key, value) -> {
+            String expected = baseline.getProperty(key);
+            if (expected == null) {
+                return;
+            }
+            double limit = Double.parseDouble(expected);
+            if (key.equals("throughput") && value < limit * (1 - throughputTolerance)) {
+                regressions.add("throughput " + format(value) + "/s < baseline " + expected);
+            } else if ((key.endsWith(".p50") || key.endsWith(".p99")) && value > limit * (1 + latencyTolerance)) {
+                regressions.add(key + " " + format(value) + " ms > baseline " + expected);
+            }
+        });
+        return regressions;
+    }
+
+    static Properties readProperties(Path path) throws IOException {
+        Properties properties = new Properties();
+        if (Files.exists(path)) {
+            try (Reader reader = Files.newBufferedReader(path)) {
+                properties.load(reader);
+            }
+        }
+        return properties;
+    }
+
+    static void writeProperties(Path path, Map<String, Double> values, String... comments) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(path)) {
+            for (String comment : comments) {
+                writer.write("# " + comment + System.lineSeparator());
+            }
+            for (Map.Entry<String, Double> entry : values.entrySet()) {
+                writer.write(entry.getKey() + "=" + format(entry.getValue()) + System.lineSeparator());
+            }
+        }
+    }
+
+    static String format(double value) {
+        return String.format(Locale.ROOT, "%.3f", value);
+    }
+
+    private static void print(PrintStream out, String key, Histogram histogram, long errors) {
+        out.printf("%-16s %10d %8d %10.2f %10.2f %10.2f %10.2f%n", key, histogram.getTotalCount(), errors,
+                millis(histogram, 50), millis(histogram, 99), millis(histogram, 99.9), histogram.getMaxValue() / 1000.0);
+    }
+
+    private static void percentiles(Map<String, Double> summary, String key, Histogram histogram) {
+        for (int i = 0; i < PERCENTILES.length; i++) {
+            summary.put(key + "." + PERCENTILE_KEYS[i], millis(histogram, PERCENTILES[i]));
+        }
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    private static void writeDistribution(Path path, Histogram histogram) throws IOException {
+        try (PrintStream out = new PrintStream(Files.newOutputStream(path))) {
+            histogram.outputPercentileDistribution(out, 1000.0);
+        }
+    }
+
+    private static Histogram histogram() {
+        return new ConcurrentHistogram(HIGHEST_MICROS, SIGNIFICANT_DIGITS);
+    }
+}
@@ -0,0 +1,175 @@
+package com.mattemat.finance.loadtest;
+
+import com.mattemat.finance.FinanceApplication;
+import com.mattemat.finance.loadtest.SubscriptionTraffic.Operation;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+/**
+ * Boots {@link FinanceApplication} on an in-memory H2 database, seeds it, and drives the
+ * {@link SubscriptionTraffic} mix over HTTP at a fixed arrival rate, then compares the
+ * {@link LoadReport} with a baseline recorded on the same machine.
+ * <p>
+ * The load is an open model: requests arrive as a Poisson process at {@code loadtest.rate} per second
+ * whether or not earlier ones have completed, each sent on its own virtual thread, as independent
+ * users would. A closed loop of N clients would instead slow down with the server and hide the
+ * queueing a real burst causes. Latency regressions beyond {@code loadtest.latency-tolerance},
+ * throughput below {@code loadtest.throughput-tolerance}, or more than 1% failed requests fail the
+ * build. Run with {@code -Dloadtest.update-baseline=true} to record the current results as the new
+ * baseline in {@code loadtest.baseline}; baselines only compare at the same rate and mix, on the same
+ * machine, so none is committed and a run without one only checks the error ratio.
+ */
+public final class LoadTestRunner {
+
+    private static final double MAX_ERROR_RATIO = 0.01;
+
+    private LoadTestRunner() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        int rate = Integer.getInteger("loadtest.rate", 200);
+        Duration warmup = Duration.parse(System.getProperty("loadtest.warmup", "PT15S"));
+        Duration duration = Duration.parse(System.getProperty("loadtest.duration", "PT60S"));
+        int subscriptions = Integer.getInteger("loadtest.subscriptions", 10_000);
+        Map<Operation, Integer> mix = SubscriptionTraffic.parseMix(
+                System.getProperty("loadtest.mix", "read=35,page=25,convert=15,create=10,update=10,delete=5"));
+        long seed = Long.getLong("loadtest.seed", 42);
+        Path results = Path.of(System.getProperty("loadtest.results", "target/loadtest"));
+        Path baseline = Path.of(System.getProperty("loadtest.baseline", "src/loadtest/baseline.properties"));
+        boolean updateBaseline = Boolean.getBoolean("loadtest.update-baseline");
+        double latencyTolerance = Double.parseDouble(System.getProperty("loadtest.latency-tolerance", "1.00"));
+        double throughputTolerance = Double.parseDouble(System.getProperty("loadtest.throughput-tolerance", "0.05"));
+
+        // Devtools would otherwise restart the application on another thread, out of reach of the
+        // exit status.
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        LoadReport report;
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(FinanceApplication.class)
+                .run(applicationArgs(System.getProperty("loadtest.app-args", "")));
+             HttpClient client = HttpClient.newBuilder()
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .executor(Executors.newVirtualThreadPerTaskExecutor())
+                     .build()) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            URI base = URI.create("http://localhost:" + port + "/api/v1/");
+            System.out.printf("Seeding %d subscriptions%n", subscriptions);
+            SubscriptionTraffic traffic = SubscriptionTraffic.seed(context, base, subscriptions, mix);
+            SplittableRandom random = new SplittableRandom(seed);
+
+            System.out.printf("Warming up at %d requests/s for %s%n", rate, warmup);
+            drive(client, traffic, random, rate, warmup, new LoadReport(rate));
+            System.out.printf("Measuring at %d requests/s for %s%n", rate, duration);
+            report = drive(client, traffic, random, rate, duration, new LoadReport(rate));
+        }
+
+        report.print(System.out);
+        report.write(results);
+        System.out.printf("%nReports written to %s%n", results);
+
+        if (updateBaseline) {
+            LoadReport.writeProperties(baseline, report.summary(),
+                    "Load test baseline: throughput in requests/s, latencies in ms, at the rate below.",
+                    "Regenerate with: mvn -Ploadtest verify -Dloadtest.update-baseline=true");
+            System.out.printf("Baseline written to %s%n", baseline);
+            return;
+        }
+
+        List<String> regressions = new ArrayList<>();
+        if (report.errors() > report.sent() * MAX_ERROR_RATIO) {
+            regressions.add(report.errors() + " of " + report.sent() + " requests failed");
+        }
+        Properties expected = LoadReport.readProperties(baseline);
+        String baselineRate = expected.getProperty("rate");
+        boolean comparable = baselineRate != null && Double.parseDouble(baselineRate) == rate;
+        if (comparable) {
+            regressions.addAll(report.regressions(expected, latencyTolerance, throughputTolerance));
+        }
+        if (!regressions.isEmpty()) {
+            System.out.println();
+            regressions.forEach(regression -> System.out.println("REGRESSION " + regression));
+            System.exit(1);
+        }
+        if (comparable) {
+            System.out.printf("%nNo regressions against %s%n", baseline);
+        } else {
+            System.out.printf("%nNo baseline at %d requests/s in %s to compare with%n", rate, baseline);
+        }
+    }
+
+    /**
+     * Sends requests at Poisson-distributed arrival times for {@code duration} and records each
+     * against its scheduled time. Waits for every request to complete before returning.
+     */
+    private static LoadReport drive(HttpClient client, SubscriptionTraffic traffic, SplittableRandom random,
+                                    int rate, Duration duration, LoadReport report) {
+        long meanIntervalNanos = 1_000_000_000L / rate;
+        long sent = 0;
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        try (ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor()) {
+            long scheduled = start;
+            while (scheduled < end) {
+                Operation operation = traffic.next(random);
+                HttpRequest request = traffic.request(operation, random);
+                long wait;
+                while ((wait = scheduled - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                long scheduledAt = scheduled;
+                senders.execute(() -> send(client, traffic, operation, request, scheduledAt, report));
+                sent++;
+                scheduled += (long) (-Math.log(1 - random.nextDouble()) * meanIntervalNanos);
+            }
+        }
+        report.finish(sent, System.nanoTime() - start);
+        return report;
+    }
+
+    private static void send(HttpClient client, SubscriptionTraffic traffic, Operation operation,
+                             HttpRequest request, long scheduledNanos, LoadReport report) {
+        long sentNanos = System.nanoTime();
+        int status = 0;
+        try {
+            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+            status = response.statusCode();
+            if (operation == Operation.CREATE && status == 201) {
+                response.headers().firstValue("Location").ifPresent(traffic::created);
+            }
+        } catch (IOException e) {
+            // Recorded below as a failed request, charged up to the moment it failed.
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        report.record(operation, status, scheduledNanos, sentNanos, System.nanoTime());
+    }
+
+    private static String[] applicationArgs(String extra) {
+        // Arguments rather than default properties, which the YAML files override.
+        return Stream.concat(
+                Stream.of(
+                        "--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:loadtest;NON_KEYWORDS=VALUE;DB_CLOSE_DELAY=-1",
+                        "--logging.level.com.mattemat.finance=WARN"),
+                Arrays.stream(extra.trim().split("\\s+")).filter(arg -> !arg.isEmpty())
+        ).toArray(String[]::new);
+    }
+}
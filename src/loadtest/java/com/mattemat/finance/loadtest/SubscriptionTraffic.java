@@ -0,0 +1,210 @@
+package com.mattemat.finance.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mattemat.finance.dto.request.ConversionRequestDto;
+import com.mattemat.finance.dto.request.SubscriptionBatchRequestDto;
+import com.mattemat.finance.dto.request.SubscriptionRequestDto;
+import com.mattemat.finance.service.ExchangeRateCache;
+import com.mattemat.finance.service.SubscriptionServiceImpl;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * The seeded dataset and the request mix driven against it.
+ * <p>
+ * Reads, pages and updates target the seeded subscriptions. Deletes only remove subscriptions
+ * created during the run, so the seeded set stays the same size and reads never miss; a delete
+ * drawn before any create has completed is sent as a read instead. Requests are drawn from a seeded
+ * {@link SplittableRandom}, so two runs with the same seed send the same sequence.
+ */
+final class SubscriptionTraffic {
+
+    static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private static final Map<String, BigDecimal> RATES = Map.of(
+            "USD", BigDecimal.ONE,
+            "SGD", new BigDecimal("1.35"),
+            "EUR", new BigDecimal("0.92"),
+            "GBP", new BigDecimal("0.79"),
+            "JPY", new BigDecimal("151.20"));
+    private static final List<String> CURRENCIES = List.of("USD", "SGD", "EUR", "GBP", "JPY");
+    private static final int PAGE_SIZE = 50;
+    private static final int CONVERSIONS_PER_REQUEST = 10;
+
+    enum Operation {
+        READ, PAGE, CONVERT, CREATE, UPDATE, DELETE;
+
+        String key() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private final URI base;
+    private final ObjectMapper objectMapper;
+    private final long firstId;
+    private final int subscriptions;
+    private final Operation[] weighted;
+    private final Queue<Long> created = new ConcurrentLinkedQueue<>();
+
+    private SubscriptionTraffic(URI base, ObjectMapper objectMapper, long firstId, int subscriptions, Map<Operation, Integer> mix) {
+        this.base = base;
+        this.objectMapper = objectMapper;
+        this.firstId = firstId;
+        this.subscriptions = subscriptions;
+        List<Operation> slots = new ArrayList<>();
+        mix.forEach((operation, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                slots.add(operation);
+            }
+        });
+        if (slots.isEmpty()) {
+            throw new IllegalArgumentException("Traffic mix has no operations");
+        }
+        this.weighted = slots.toArray(Operation[]::new);
+    }
+
+    /**
+     * Loads the exchange rates and {@code subscriptions} subscriptions into the application, which
+     * must be freshly started on an empty database.
+     */
+    static SubscriptionTraffic seed(ConfigurableApplicationContext context, URI base, int subscriptions, Map<Operation, Integer> mix) {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        context.getBean(TransactionTemplate.class).executeWithoutResult(status ->
+                RATES.forEach((code, value) -> jdbcTemplate.update(
+                        "INSERT INTO currencies (code, value, created_at, updated_at) VALUES (?, ?, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)",
+                        code, value)));
+        context.getBean(ExchangeRateCache.class).refresh();
+
+        SubscriptionServiceImpl subscriptionService = context.getBean(SubscriptionServiceImpl.class);
+        SplittableRandom random = new SplittableRandom(0);
+        long firstId = -1;
+        for (int offset = 0; offset < subscriptions; offset += SubscriptionServiceImpl.MAX_BATCH_SIZE) {
+            List<SubscriptionBatchRequestDto.Operation> operations = new ArrayList<>();
+            for (int i = offset; i < Math.min(subscriptions, offset + SubscriptionServiceImpl.MAX_BATCH_SIZE); i++) {
+                SubscriptionBatchRequestDto.Operation operation = new SubscriptionBatchRequestDto.Operation();
+                operation.setType(SubscriptionBatchRequestDto.OperationType.CREATE);
+                operation.setSubscription(subscription("Subscription " + i, random));
+                operations.add(operation);
+            }
+            long batchFirstId = subscriptionService.applyBatch(operations).getResults().getFirst().getId();
+            if (firstId < 0) {
+                firstId = batchFirstId;
+            }
+        }
+        return new SubscriptionTraffic(base, context.getBean(ObjectMapper.class), firstId, subscriptions, mix);
+    }
+
+    /**
+     * Parses a mix such as {@code read=35,page=25,create=10} into operation weights.
+     */
+    static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid traffic mix entry: " + entry);
+            }
+            weights.put(Operation.valueOf(parts[0].trim().toUpperCase(Locale.ROOT)), Integer.parseInt(parts[1].trim()));
+        }
+        return weights;
+    }
+
+    Operation next(SplittableRandom random) {
+        Operation operation = weighted[random.nextInt(weighted.length)];
+        return operation == Operation.DELETE && created.isEmpty() ? Operation.READ : operation;
+    }
+
+    HttpRequest request(Operation operation, SplittableRandom random) {
+        HttpRequest.Builder request = switch (operation) {
+            case READ -> HttpRequest.newBuilder(subscription(seededId(random)));
+            case PAGE -> HttpRequest.newBuilder(base.resolve("subscriptions/page?limit=" + PAGE_SIZE
+                    + "&cursor=" + SubscriptionServiceImpl.encodeCursor(seededId(random) - 1)));
+            case CONVERT -> json(HttpRequest.newBuilder(base.resolve("conversions")), "POST", conversions(random));
+            case CREATE -> json(HttpRequest.newBuilder(base.resolve("subscriptions")), "POST",
+                    subscription("Load test", random));
+            case UPDATE -> json(HttpRequest.newBuilder(subscription(seededId(random))), "PUT",
+                    subscription("Updated", random));
+            case DELETE -> {
+                Long id = created.poll();
+                yield id == null
+                        ? HttpRequest.newBuilder(subscription(seededId(random)))
+                        : HttpRequest.newBuilder(subscription(id)).DELETE();
+            }
+        };
+        return request.timeout(REQUEST_TIMEOUT).build();
+    }
+
+    /**
+     * Remembers the subscription a successful create returned, for a later delete.
+     */
+    void created(String location) {
+        created.add(Long.parseLong(location.substring(location.lastIndexOf('/') + 1)));
+    }
+
+    private long seededId(SplittableRandom random) {
+        return firstId + random.nextInt(subscriptions);
+    }
+
+    private URI subscription(long id) {
+        return base.resolve("subscriptions/" + id);
+    }
+
+    private HttpRequest.Builder json(HttpRequest.Builder request, String method, Object body) {
+        try {
+            return request.header("Content-Type", "application/json")
+                    .method(method, HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static ConversionRequestDto conversions(SplittableRandom random) {
+        List<ConversionRequestDto.Conversion> conversions = new ArrayList<>(CONVERSIONS_PER_REQUEST);
+        for (int i = 0; i < CONVERSIONS_PER_REQUEST; i++) {
+            ConversionRequestDto.Conversion conversion = new ConversionRequestDto.Conversion();
+            conversion.setAmount(amount(random));
+            conversion.setFromCurrency(currency(random));
+            conversion.setToCurrency(currency(random));
+            conversions.add(conversion);
+        }
+        ConversionRequestDto request = new ConversionRequestDto();
+        request.setConversions(conversions);
+        return request;
+    }
+
+    private static SubscriptionRequestDto subscription(String name, SplittableRandom random) {
+        SubscriptionRequestDto request = new SubscriptionRequestDto();
+        request.setName(name);
+        request.setFromCurrency(currency(random));
+        request.setToCurrency(currency(random));
+        request.setAmount(amount(random));
+        request.setBillingCycle(1 + random.nextInt(12));
+        request.setSubscriptionDate(LocalDate.of(2024, 1, 1).plusDays(random.nextInt(366)));
+        return request;
+    }
+
+    private static String currency(SplittableRandom random) {
+        return CURRENCIES.get(random.nextInt(CURRENCIES.size()));
+    }
+
+    private static BigDecimal amount(SplittableRandom random) {
+        return BigDecimal.valueOf(100 + random.nextInt(10_000), 2);
+    }
+}
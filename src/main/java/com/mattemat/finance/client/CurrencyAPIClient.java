@@ -0,0 +1,129 @@
+package com.mattemat.finance.client;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * HTTP client for the currency rate provider.
+ * <p>
+ * Requests are gzip-encoded and conditional: the ETag and Last-Modified validators of the last
+ * payload that was {@link #remember(ProviderResponse) remembered} are sent back, so an unchanged
+ * snapshot costs a 304 with no body.
+ */
+@Component
+@Slf4j
+public class CurrencyAPIClient {
+
+    private final HttpClient httpClient;
+    private final String url;
+    private final String apiKey;
+    private final Duration readTimeout;
+
+    private volatile String etag;
+    private volatile String lastModified;
+
+    public CurrencyAPIClient(
+            @Value("${finance.rates.provider.url:}") String url,
+            @Value("${finance.rates.provider.api-key:}") String apiKey,
+            @Value("${finance.rates.provider.connect-timeout:PT2S}") Duration connectTimeout,
+            @Value("${finance.rates.provider.read-timeout:PT5S}") Duration readTimeout) {
+        this.url = url;
+        this.apiKey = apiKey;
+        this.readTimeout = readTimeout;
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(connectTimeout)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+    }
+
+    public boolean isConfigured() {
+        return !url.isBlank();
+    }
+
+    public ProviderResponse fetchLatest() {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(url))
+                .timeout(readTimeout)
+                .header("Accept", "application/json")
+                .header("Accept-Encoding", "gzip")
+                .GET();
+        if (!apiKey.isBlank()) {
+            request.header("apikey", apiKey);
+        }
+        if (etag != null) {
+            request.header("If-None-Match", etag);
+        }
+        if (lastModified != null) {
+            request.header("If-Modified-Since", lastModified);
+        }
+
+        HttpResponse<byte[]> response;
+        try {
+            response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Currency provider request failed", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Currency provider request interrupted", e);
+        }
+
+        int status = response.statusCode();
+        if (status == 304) {
+            log.debug("CurrencyAPIClient - Rates not modified since {}", etag == null ? lastModified : etag);
+            return ProviderResponse.unchanged();
+        }
+        if (status != 200) {
+            throw new IllegalStateException("Currency provider responded with status " + status);
+        }
+
+        boolean gzip = response.headers().firstValue("Content-Encoding")
+                .map(encoding -> encoding.equalsIgnoreCase("gzip"))
+                .orElse(false);
+        log.debug("CurrencyAPIClient - Received {} bytes (gzip: {})", response.body().length, gzip);
+        return new ProviderResponse(
+                false,
+                response.body(),
+                gzip,
+                response.headers().firstValue("ETag").orElse(null),
+                response.headers().firstValue("Last-Modified").orElse(null));
+    }
+
+    public void remember(ProviderResponse response) {
+        if (!response.notModified()) {
+            this.etag = response.etag();
+            this.lastModified = response.lastModified();
+        }
+    }
+
+    public record ProviderResponse(
+            boolean notModified,
+            byte[] body,
+            boolean gzip,
+            String etag,
+            String lastModified) {
+
+        static ProviderResponse unchanged() {
+            return new ProviderResponse(true, null, false, null, null);
+        }
+
+        public InputStream openBody() {
+            try {
+                InputStream inputStream = new ByteArrayInputStream(body);
+                return gzip ? new GZIPInputStream(inputStream) : inputStream;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to decode provider payload", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.mattemat.finance.controller;
+
+import com.mattemat.finance.dto.request.ConversionRequestDto;
+import com.mattemat.finance.dto.response.ConversionResponseDto;
+import com.mattemat.finance.service.CurrencyConversionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/conversions")
+@RequiredArgsConstructor
+public class ConversionController {
+
+    private final CurrencyConversionService currencyConversionService;
+
+    @PostMapping
+    public ResponseEntity<ConversionResponseDto> convert(@RequestBody ConversionRequestDto request) {
+        log.info("ConversionController - convert() called");
+        var conversions = request.getConversions();
+
+        if (conversions == null || conversions.isEmpty() || conversions.size() > CurrencyConversionService.MAX_CONVERSIONS) {
+            log.warn("convert() received {} conversions, expected 1 to {}",
+                    conversions == null ? 0 : conversions.size(), CurrencyConversionService.MAX_CONVERSIONS);
+            return ResponseEntity.badRequest().build();
+        }
+
+        ConversionResponseDto response = currencyConversionService.convertAll(conversions, request.getAsOf());
+        log.info("ConversionController - convert() converted {} amounts with {} failures",
+                conversions.size(), response.getFailed());
+        return ResponseEntity.ok(response);
+    }
+}
@@ -0,0 +1,68 @@
+package com.mattemat.finance.controller;
+
+import com.mattemat.finance.entity.Subscription;
+import com.mattemat.finance.service.OwnerContext;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.regex.Pattern;
+
+/**
+ * Resolves the owner of an API request from the {@value #OWNER_HEADER} header and binds it to
+ * {@link OwnerContext} while the request runs.
+ * <p>
+ * The header is expected to be set by the gateway that authenticates the caller. Requests without
+ * it act as {@link Subscription#DEFAULT_OWNER}, unless {@code finance.owner.required} is set, in
+ * which case they are rejected with 400 like malformed owner ids.
+ */
+@Slf4j
+@Component
+public class OwnerFilter extends OncePerRequestFilter {
+
+    public static final String OWNER_HEADER = "X-Owner-Id";
+
+    private static final Pattern OWNER_ID = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+
+    private final boolean required;
+
+    public OwnerFilter(@Value("${finance.owner.required:false}") boolean required) {
+        this.required = required;
+    }
+
+    public static boolean isValidOwnerId(String ownerId) {
+        return ownerId != null && OWNER_ID.matcher(ownerId).matches();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String owner = request.getHeader(OWNER_HEADER);
+        if (owner == null && !required) {
+            owner = Subscription.DEFAULT_OWNER;
+        }
+        if (!isValidOwnerId(owner)) {
+            log.warn("OwnerFilter - Rejecting {} {} without a valid owner id", request.getMethod(), request.getRequestURI());
+            response.sendError(HttpStatus.BAD_REQUEST.value(), "Missing or invalid " + OWNER_HEADER + " header");
+            return;
+        }
+        OwnerContext.set(owner);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            OwnerContext.clear();
+        }
+    }
+}
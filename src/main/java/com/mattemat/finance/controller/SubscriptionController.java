@@ -1,16 +1,42 @@
 package com.mattemat.finance.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mattemat.finance.dto.request.SubscriptionBatchRequestDto;
+import com.mattemat.finance.dto.request.SubscriptionFilterDto;
 import com.mattemat.finance.dto.request.SubscriptionRequestDto;
+import com.mattemat.finance.dto.response.ReconversionProgressResponseDto;
+import com.mattemat.finance.dto.response.SpendSummaryResponseDto;
+import com.mattemat.finance.dto.response.SubscriptionBatchResponseDto;
+import com.mattemat.finance.dto.response.SubscriptionImportResponseDto;
+import com.mattemat.finance.dto.response.SubscriptionPageResponseDto;
 import com.mattemat.finance.dto.response.SubscriptionResponseDto;
+import com.mattemat.finance.dto.response.UpcomingRenewalsResponseDto;
+import com.mattemat.finance.service.OwnerContext;
+import com.mattemat.finance.service.RenewalCalendarService;
+import com.mattemat.finance.service.SpendSummaryService;
+import com.mattemat.finance.service.SubscriptionExportService;
+import com.mattemat.finance.service.SubscriptionImportService;
+import com.mattemat.finance.service.SubscriptionReconversionService;
 import com.mattemat.finance.service.SubscriptionServiceImpl;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
 
 @Slf4j
 @RestController
@@ -18,7 +44,15 @@ import java.util.List;
 @RequiredArgsConstructor
 public class SubscriptionController {
 
+    private static final long UNMATCHABLE_VERSION = -1;
+
     private final SubscriptionServiceImpl subscriptionService;
+    private final SpendSummaryService spendSummaryService;
+    private final SubscriptionReconversionService reconversionService;
+    private final RenewalCalendarService renewalCalendarService;
+    private final SubscriptionExportService exportService;
+    private final SubscriptionImportService importService;
+    private final ObjectMapper objectMapper;
 
     @GetMapping
     public ResponseEntity<List<SubscriptionResponseDto>> getSubscriptions() {
@@ -29,6 +63,122 @@ public class SubscriptionController {
         return ResponseEntity.ok(subscriptions);
     }
 
+    @GetMapping("/page")
+    public ResponseEntity<SubscriptionPageResponseDto> getSubscriptionPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        log.info("SubscriptionController - getSubscriptionPage() called with cursor {} and limit {}", cursor, limit);
+        SubscriptionPageResponseDto page;
+        try {
+            page = subscriptionService.readPage(cursor, limit);
+        } catch (IllegalArgumentException e) {
+            log.warn("getSubscriptionPage() received an invalid cursor {}", cursor);
+            return ResponseEntity.badRequest().build();
+        }
+
+        log.info("SubscriptionController - getSubscriptionPage() returned {} subscriptions", page.getItems().size());
+        return ResponseEntity.ok(page);
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<SubscriptionPageResponseDto> searchSubscriptions(
+            SubscriptionFilterDto filter,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        log.info("SubscriptionController - searchSubscriptions() called with cursor {} and limit {}", cursor, limit);
+        SubscriptionPageResponseDto page;
+        try {
+            page = subscriptionService.search(filter, cursor, limit);
+        } catch (IllegalArgumentException e) {
+            log.warn("searchSubscriptions() received invalid criteria: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+
+        log.info("SubscriptionController - searchSubscriptions() returned {} subscriptions", page.getItems().size());
+        return ResponseEntity.ok(page);
+    }
+
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamSubscriptions() {
+        log.info("SubscriptionController - streamSubscriptions() called");
+        // The body is written on another thread, outside the request's owner binding.
+        String ownerId = OwnerContext.current();
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.writeStartArray();
+                long count = subscriptionService.streamAll(ownerId, subscription -> {
+                    try {
+                        generator.writeObject(subscription);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+                log.info("SubscriptionController - streamSubscriptions() streamed {} subscriptions", count);
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportSubscriptions(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        log.info("SubscriptionController - exportSubscriptions() called with format {} and gzip {}", format, gzip);
+        SubscriptionExportService.Format exportFormat = SubscriptionExportService.Format.parse(format);
+        if (exportFormat == null) {
+            log.warn("exportSubscriptions() received an unknown format {}", format);
+            return ResponseEntity.badRequest().build();
+        }
+
+        String filename = "subscriptions." + exportFormat.extension() + (gzip ? ".gz" : "");
+        String ownerId = OwnerContext.current();
+        StreamingResponseBody body = outputStream -> {
+            long count = exportService.export(ownerId, exportFormat, gzip, outputStream);
+            log.info("SubscriptionController - exportSubscriptions() exported {} subscriptions", count);
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(gzip ? "application/gzip" : exportFormat.mediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(filename).build().toString())
+                .body(body);
+    }
+
+    @GetMapping("/summary")
+    public ResponseEntity<SpendSummaryResponseDto> getSummary() {
+        log.info("SubscriptionController - getSummary() called");
+        return ResponseEntity.ok(spendSummaryService.summary());
+    }
+
+    @PostMapping("/summary/rebuild")
+    public ResponseEntity<SpendSummaryResponseDto> rebuildSummary() {
+        log.info("SubscriptionController - rebuildSummary() called");
+        SpendSummaryResponseDto summary = spendSummaryService.rebuild();
+
+        log.info("SubscriptionController - rebuildSummary() summarized {} subscriptions", summary.getSubscriptions());
+        return ResponseEntity.ok(summary);
+    }
+
+    @GetMapping("/renewals")
+    public ResponseEntity<UpcomingRenewalsResponseDto> getUpcomingRenewals(
+            @RequestParam(defaultValue = "7") int days) {
+        log.info("SubscriptionController - getUpcomingRenewals() called for {} days", days);
+        if (days < 0 || days > renewalCalendarService.horizonDays()) {
+            log.warn("getUpcomingRenewals() received {} days, expected 0 to {}", days, renewalCalendarService.horizonDays());
+            return ResponseEntity.badRequest().build();
+        }
+        UpcomingRenewalsResponseDto renewals = renewalCalendarService.upcoming(days);
+
+        log.info("SubscriptionController - getUpcomingRenewals() returned {} renewals", renewals.getRenewals().size());
+        return ResponseEntity.ok(renewals);
+    }
+
+    @GetMapping("/reconversion")
+    public ResponseEntity<ReconversionProgressResponseDto> getReconversionProgress() {
+        log.info("SubscriptionController - getReconversionProgress() called");
+        return ResponseEntity.ok(reconversionService.progress());
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<SubscriptionResponseDto> getSubscription(@PathVariable Long id) {
         log.info("SubscriptionController - getSubscription() called with id {}", id);
@@ -39,14 +189,24 @@ public class SubscriptionController {
             return ResponseEntity.notFound().build();
         }
 
+        // Spring answers 304 instead when If-None-Match matches the ETag.
         log.info("SubscriptionController - getSubscription() returned subscription with id {}", subscription.getId());
-        return ResponseEntity.ok(subscription);
+        return ResponseEntity.ok().eTag(etag(subscription)).body(subscription);
     }
 
     @PostMapping
     public ResponseEntity<SubscriptionResponseDto> createSubscription(@RequestBody SubscriptionRequestDto request) {
         log.info("SubscriptionController - createSubscription() called");
-        SubscriptionResponseDto subscription = subscriptionService.create(request);
+        SubscriptionResponseDto subscription;
+        try {
+            subscription = subscriptionService.create(request);
+        } catch (RejectedExecutionException e) {
+            log.warn("createSubscription() rejected: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").build();
+        } catch (IllegalArgumentException | ArithmeticException e) {
+            log.warn("createSubscription() could not convert the amount: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
 
         URI location = ServletUriComponentsBuilder.fromCurrentRequest()
                 .path("/{id}")
@@ -54,17 +214,62 @@ public class SubscriptionController {
                 .toUri();
 
         log.info("SubscriptionController - createSubscription() created record successfully with id: {}", subscription.getId());
-        return ResponseEntity.created(location).body(subscription);
+        return ResponseEntity.created(location).eTag(etag(subscription)).body(subscription);
     }
 
-    @PutMapping("/{id}")
-    public ResponseEntity<?> updateSubscription(
-            @PathVariable Long id, @RequestBody SubscriptionRequestDto request) {
-        log.info("SubscriptionController - updateSubscription() called with id {}", id);
-        subscriptionService.update(id, request);
+    @PostMapping("/batch")
+    public ResponseEntity<SubscriptionBatchResponseDto> applyBatch(@RequestBody SubscriptionBatchRequestDto request) {
+        log.info("SubscriptionController - applyBatch() called");
+        var operations = request.getOperations();
 
-        log.info("SubscriptionController - updateSubscription() updated record with id {}", id);
-        var subscription = subscriptionService.read(id);
+        if (operations == null || operations.isEmpty() || operations.size() > SubscriptionServiceImpl.MAX_BATCH_SIZE) {
+            log.warn("applyBatch() received {} operations, expected 1 to {}",
+                    operations == null ? 0 : operations.size(), SubscriptionServiceImpl.MAX_BATCH_SIZE);
+            return ResponseEntity.badRequest().build();
+        }
+
+        SubscriptionBatchResponseDto response = subscriptionService.applyBatch(operations);
+        log.info("SubscriptionController - applyBatch() applied {} operations with {} failures",
+                operations.size(), response.getFailed());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Reads the CSV straight from the request body, so uploads are not bound by multipart limits or
+     * held in memory.
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.TEXT_PLAIN_VALUE})
+    public ResponseEntity<SubscriptionImportResponseDto> importSubscriptions(InputStream inputStream) throws IOException {
+        log.info("SubscriptionController - importSubscriptions() called");
+        SubscriptionImportResponseDto response;
+        try {
+            response = importService.importCsv(inputStream);
+        } catch (IllegalArgumentException e) {
+            log.warn("importSubscriptions() received an invalid CSV: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+
+        log.info("SubscriptionController - importSubscriptions() imported {} subscriptions with {} rejected",
+                response.getImported(), response.getRejected());
+        return ResponseEntity.ok(response);
+    }
+
+    @PutMapping("/{id}")
+    public ResponseEntity<SubscriptionResponseDto> updateSubscription(
+            @PathVariable Long id,
+            @RequestBody SubscriptionRequestDto request,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        log.info("SubscriptionController - updateSubscription() called with id {} and If-Match {}", id, ifMatch);
+        SubscriptionResponseDto subscription;
+        try {
+            subscription = subscriptionService.update(id, request, expectedVersion(ifMatch));
+        } catch (OptimisticLockingFailureException e) {
+            log.warn("updateSubscription() lost a concurrent write for id {} with If-Match {}", id, ifMatch);
+            return ResponseEntity.status(lockFailureStatus(ifMatch)).build();
+        } catch (IllegalArgumentException | ArithmeticException e) {
+            log.warn("updateSubscription() could not convert the amount for id {}: {}", id, e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
 
         if (subscription == null) {
             log.warn("updateSubscription() found no subscription with id {}", id);
@@ -72,21 +277,59 @@ public class SubscriptionController {
         }
 
         log.info("SubscriptionController - updateSubscription() returned updated subscription with id {}", subscription.getId());
-        return ResponseEntity.ok(subscription);
+        return ResponseEntity.ok().eTag(etag(subscription)).body(subscription);
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<?> deleteSubscription(@PathVariable Long id) {
-        log.info("SubscriptionController - deleteSubscription() called with id {}", id);
-        subscriptionService.delete(id);
+    public ResponseEntity<Void> deleteSubscription(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        log.info("SubscriptionController - deleteSubscription() called with id {} and If-Match {}", id, ifMatch);
+        boolean deleted;
+        try {
+            deleted = subscriptionService.delete(id, expectedVersion(ifMatch));
+        } catch (OptimisticLockingFailureException e) {
+            log.warn("deleteSubscription() lost a concurrent write for id {} with If-Match {}", id, ifMatch);
+            return ResponseEntity.status(lockFailureStatus(ifMatch)).build();
+        }
 
-        log.info("SubscriptionController - deleteSubscription() deleted record with id {}", id);
-        if (subscriptionService.read(id) != null) {
+        if (!deleted) {
             log.warn("deleteSubscription() found no subscription with id {}", id);
-            return ResponseEntity.badRequest().build();
+            return ResponseEntity.notFound().build();
         }
 
         log.info("SubscriptionController - deleteSubscription() successfully deleted record with id {}", id);
         return ResponseEntity.noContent().build();
     }
+
+    public static String etag(SubscriptionResponseDto subscription) {
+        return "\"" + subscription.getVersion() + "\"";
+    }
+
+    /**
+     * 412 when the client sent If-Match and it no longer holds; 409 when an unconditional write lost
+     * to a concurrent one, as there was no precondition to fail.
+     */
+    public static HttpStatus lockFailureStatus(String ifMatch) {
+        return ifMatch != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT;
+    }
+
+    /**
+     * Parses a single strong entity tag from If-Match into a version; {@code null} when the header
+     * is absent or {@code *}. Weak or unrecognised tags never match.
+     */
+    public static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() > 2 && tag.charAt(0) == '"' && tag.charAt(tag.length() - 1) == '"') {
+            try {
+                return Long.parseLong(tag.substring(1, tag.length() - 1));
+            } catch (NumberFormatException e) {
+                log.debug("If-Match {} is not a subscription version", ifMatch);
+            }
+        }
+        return UNMATCHABLE_VERSION;
+    }
 }
@@ -0,0 +1,25 @@
+package com.mattemat.finance.dto.request;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Getter
+@Setter
+public class ConversionRequestDto {
+
+    private List<Conversion> conversions;
+    // Converts at the rates in effect on this date instead of current rates when set.
+    private LocalDate asOf;
+
+    @Getter
+    @Setter
+    public static class Conversion {
+        private BigDecimal amount;
+        private String fromCurrency;
+        private String toCurrency;
+    }
+}
@@ -0,0 +1,27 @@
+package com.mattemat.finance.dto.request;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class SubscriptionBatchRequestDto {
+
+    private List<Operation> operations;
+
+    public enum OperationType {
+        CREATE,
+        UPDATE,
+        DELETE
+    }
+
+    @Getter
+    @Setter
+    public static class Operation {
+        private OperationType type;
+        private Long id;
+        private SubscriptionRequestDto subscription;
+    }
+}
@@ -0,0 +1,25 @@
+package com.mattemat.finance.dto.request;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Search criteria for subscriptions; unset fields do not filter and ranges include both ends.
+ */
+@Getter
+@Setter
+public class SubscriptionFilterDto {
+    private String currency;
+    private String namePrefix;
+    private Integer billingCycle;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate nextFrom;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate nextTo;
+    private BigDecimal minAmount;
+    private BigDecimal maxAmount;
+}
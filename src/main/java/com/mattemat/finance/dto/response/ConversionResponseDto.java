@@ -0,0 +1,29 @@
+package com.mattemat.finance.dto.response;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+@Getter
+@Setter
+public class ConversionResponseDto {
+
+    private Instant ratesLoadedAt;
+    private int succeeded;
+    private int failed;
+    private List<Result> results;
+
+    @Getter
+    @Setter
+    public static class Result {
+        private int index;
+        private BigDecimal amount;
+        private String fromCurrency;
+        private String toCurrency;
+        private BigDecimal convertedAmount;
+        private String message;
+    }
+}
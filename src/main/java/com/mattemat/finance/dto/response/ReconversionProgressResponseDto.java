@@ -0,0 +1,23 @@
+package com.mattemat.finance.dto.response;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.List;
+
+@Getter
+@Setter
+public class ReconversionProgressResponseDto {
+
+    private boolean running;
+    private long pendingJobs;
+    private Long jobId;
+    private List<String> currencies;
+    private long lastId;
+    private long rowsScanned;
+    private long rowsUpdated;
+    private double rowsPerSecond;
+    private Instant startedAt;
+    private Instant updatedAt;
+}
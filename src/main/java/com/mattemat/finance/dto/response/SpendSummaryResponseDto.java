@@ -0,0 +1,41 @@
+package com.mattemat.finance.dto.response;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+@Getter
+@Setter
+public class SpendSummaryResponseDto {
+
+    private long subscriptions;
+    // The currency of the totals below; with several target currencies it and the totals are null.
+    private String currency;
+    private BigDecimal totalConvertedAmount;
+    private BigDecimal monthlyConvertedAmount;
+    private List<CurrencyTotal> byCurrency;
+    private List<BillingCycleTotal> byBillingCycle;
+    private Instant rebuiltAt;
+
+    @Getter
+    @Setter
+    public static class CurrencyTotal {
+        private String currency;
+        private long subscriptions;
+        private BigDecimal convertedAmount;
+        private BigDecimal monthlyConvertedAmount;
+    }
+
+    @Getter
+    @Setter
+    public static class BillingCycleTotal {
+        private String currency;
+        private Integer billingCycle;
+        private long subscriptions;
+        private BigDecimal convertedAmount;
+        private BigDecimal monthlyConvertedAmount;
+    }
+}
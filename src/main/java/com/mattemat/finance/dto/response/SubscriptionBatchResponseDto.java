@@ -0,0 +1,34 @@
+package com.mattemat.finance.dto.response;
+
+import com.mattemat.finance.dto.request.SubscriptionBatchRequestDto.OperationType;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class SubscriptionBatchResponseDto {
+
+    private int succeeded;
+    private int failed;
+    private List<Result> results;
+
+    public enum Status {
+        CREATED,
+        UPDATED,
+        DELETED,
+        NOT_FOUND,
+        INVALID
+    }
+
+    @Getter
+    @Setter
+    public static class Result {
+        private int index;
+        private OperationType type;
+        private Long id;
+        private Status status;
+        private String message;
+    }
+}
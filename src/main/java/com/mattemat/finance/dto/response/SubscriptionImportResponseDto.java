@@ -0,0 +1,23 @@
+package com.mattemat.finance.dto.response;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class SubscriptionImportResponseDto {
+
+    private long imported;
+    private long rejected;
+    private long elapsedMillis;
+    private List<Rejection> rejections;
+
+    @Getter
+    @Setter
+    public static class Rejection {
+        private long line;
+        private String message;
+    }
+}
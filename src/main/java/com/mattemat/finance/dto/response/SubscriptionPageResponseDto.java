@@ -0,0 +1,13 @@
+package com.mattemat.finance.dto.response;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class SubscriptionPageResponseDto {
+    private List<SubscriptionResponseDto> items;
+    private String nextCursor;
+}
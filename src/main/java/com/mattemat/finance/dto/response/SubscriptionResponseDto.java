@@ -1,6 +1,8 @@
 package com.mattemat.finance.dto.response;
 
+import lombok.AllArgsConstructor;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 import java.math.BigDecimal;
@@ -9,6 +11,8 @@ import java.time.LocalDateTime;
 
 @Getter
 @Setter
+@NoArgsConstructor
+@AllArgsConstructor
 public class SubscriptionResponseDto {
     private Long id;
     private String name;
@@ -20,4 +24,5 @@ public class SubscriptionResponseDto {
     private LocalDate nextSubscriptionDate;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private Long version;
 }
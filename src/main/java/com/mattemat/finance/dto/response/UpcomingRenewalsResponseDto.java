@@ -0,0 +1,27 @@
+package com.mattemat.finance.dto.response;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Getter
+@Setter
+public class UpcomingRenewalsResponseDto {
+
+    private LocalDate from;
+    private LocalDate until;
+    private List<Renewal> renewals;
+
+    @Getter
+    @Setter
+    public static class Renewal {
+        private Long id;
+        private String currency;
+        private BigDecimal amount;
+        private Integer billingCycle;
+        private LocalDate nextSubscriptionDate;
+    }
+}
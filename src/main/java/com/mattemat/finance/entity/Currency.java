@@ -3,6 +3,8 @@ package com.mattemat.finance.entity;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -10,6 +12,8 @@ import java.time.LocalDateTime;
 @Getter
 @NoArgsConstructor
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "currencies")
 @Table(name = "currencies")
 public class Currency {
 
@@ -17,15 +21,12 @@ public class Currency {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(nullable = false, length = 10)
+    @Column(nullable = false, unique = true, length = 10)
     private String code;
 
-    @Column(nullable = false, precision = 8, scale = 2)
+    @Column(nullable = false, precision = 20, scale = 10)
     private BigDecimal value;
 
-    @Column(name = "converted_amount", nullable = false, precision = 8, scale = 2)
-    private BigDecimal convertedAmount;
-
     @Column(name = "created_at", updatable = false, nullable = false)
     private LocalDateTime createdAt;
 
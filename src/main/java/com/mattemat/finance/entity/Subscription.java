@@ -4,6 +4,9 @@ import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.PartitionKey;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -13,12 +16,26 @@ import java.time.LocalDateTime;
 @Setter
 @NoArgsConstructor
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "subscriptions")
 @Table(name = "subscriptions")
 public class Subscription {
+
+    public static final String DEFAULT_OWNER = "default";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "subscriptions_seq")
+    @SequenceGenerator(name = "subscriptions_seq", sequenceName = "subscriptions_seq", allocationSize = 50)
     private Long id;
 
+    /**
+     * Hash partition key on PostgreSQL; Hibernate adds it to the {@code WHERE} clause of every
+     * update and delete so they touch a single partition.
+     */
+    @PartitionKey
+    @Column(name = "owner_id", nullable = false, updatable = false, length = 64)
+    private String ownerId = DEFAULT_OWNER;
+
     @Column(nullable = false)
     private String name;
 
@@ -31,6 +48,9 @@ public class Subscription {
     @Column(name = "converted_amount", nullable = false, precision = 8, scale = 2)
     private BigDecimal convertedAmount;
 
+    @Column(name = "converted_currency", length = 10)
+    private String convertedCurrency;
+
     @Column(nullable = false)
     private Integer billingCycle;
 
@@ -40,6 +60,10 @@ public class Subscription {
     @Column(name = "next_subscription_date", nullable = false)
     private LocalDate nextSubscriptionDate;
 
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     @Column(name = "created_at", updatable = false, nullable = false)
     private LocalDateTime createdAt;
 
@@ -43,6 +43,7 @@ public class SubscriptionMapper {
         dto.setNextSubscriptionDate(subscription.getNextSubscriptionDate());
         dto.setCreatedAt(subscription.getCreatedAt());
         dto.setUpdatedAt(subscription.getUpdatedAt());
+        dto.setVersion(subscription.getVersion());
         log.debug("Subscription entity converted to SubscriptionResponseDto");
         return dto;
     }
@@ -1,15 +1,34 @@
 package com.mattemat.finance.repository;
 
 import com.mattemat.finance.entity.Currency;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.util.List;
 
 @Repository
 public interface CurrencyRepository extends JpaRepository<Currency, Long> {
 
+    // A native query names its table as a query space so cached results are invalidated on writes.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "currencies")
+    })
     @Query(value = "SELECT value FROM currencies WHERE code = ?1", nativeQuery = true)
     BigDecimal findByCurrency(String code);
+
+    // Not cached: ExchangeRateCache polls this to pick up rates written by other instances.
+    @Query(value = "SELECT code, value FROM currencies", nativeQuery = true)
+    List<CurrencyRate> findAllRates();
+
+    interface CurrencyRate {
+        String getCode();
+
+        BigDecimal getValue();
+    }
 }
@@ -0,0 +1,45 @@
+package com.mattemat.finance.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@Repository
+public class CurrencySnapshotRepository {
+
+    private static final String POSTGRESQL_UPSERT = """
+            INSERT INTO currencies (code, value, created_at, updated_at)
+            VALUES (?, ?, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)
+            ON CONFLICT (code) DO UPDATE SET value = EXCLUDED.value, updated_at = EXCLUDED.updated_at
+            """;
+
+    private static final String H2_UPSERT = """
+            MERGE INTO currencies c
+            USING (VALUES (CAST(? AS VARCHAR(10)), CAST(? AS DECIMAL(20, 10)))) AS s(code, value)
+            ON c.code = s.code
+            WHEN MATCHED THEN UPDATE SET value = s.value, updated_at = CURRENT_TIMESTAMP
+            WHEN NOT MATCHED THEN INSERT (code, value, created_at, updated_at)
+                VALUES (s.code, s.value, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String upsertSql;
+
+    public CurrencySnapshotRepository(JdbcTemplate jdbcTemplate, DataSource dataSource) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.upsertSql = SqlDialect.of(dataSource) == SqlDialect.POSTGRESQL ? POSTGRESQL_UPSERT : H2_UPSERT;
+    }
+
+    @Transactional
+    public int upsertAll(Map<String, BigDecimal> rates) {
+        List<Object[]> rows = new ArrayList<>(rates.size());
+        rates.forEach((code, value) -> rows.add(new Object[]{code, value}));
+        return jdbcTemplate.batchUpdate(upsertSql, rows).length;
+    }
+}
@@ -0,0 +1,85 @@
+package com.mattemat.finance.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@Repository
+public class RateHistoryRepository {
+
+    private static final String APPEND = """
+            INSERT INTO currency_rate_history (code, effective_at, rate) VALUES (?, ?, ?)
+            """;
+
+    private static final String RATES_SINCE = """
+            SELECT code, effective_at, rate
+            FROM currency_rate_history h
+            WHERE h.effective_at >= ?
+               OR h.effective_at = (SELECT MAX(p.effective_at)
+                                    FROM currency_rate_history p
+                                    WHERE p.code = h.code AND p.effective_at < ?)
+            ORDER BY code, effective_at
+            """;
+
+    private static final String RATE_AT = """
+            SELECT rate
+            FROM currency_rate_history
+            WHERE code = ? AND effective_at <= ?
+            ORDER BY effective_at DESC
+            FETCH FIRST 1 ROWS ONLY
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public RateHistoryRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Transactional
+    public int appendAll(Map<String, BigDecimal> rates, Instant effectiveAt) {
+        OffsetDateTime timestamp = utc(effectiveAt);
+        List<Object[]> rows = new ArrayList<>(rates.size());
+        rates.forEach((code, rate) -> rows.add(new Object[]{code, timestamp, rate}));
+        return jdbcTemplate.batchUpdate(APPEND, rows).length;
+    }
+
+    /**
+     * Streams every rate effective at or after {@code since}, plus the last rate before it for each
+     * code, ordered by code and time.
+     */
+    public void forEachSince(Instant since, RatePointHandler handler) {
+        OffsetDateTime timestamp = utc(since);
+        jdbcTemplate.query(RATES_SINCE, resultSet -> {
+            handler.accept(
+                    resultSet.getString("code"),
+                    resultSet.getObject("effective_at", OffsetDateTime.class).toInstant(),
+                    resultSet.getBigDecimal("rate"));
+        }, timestamp, timestamp);
+    }
+
+    public BigDecimal findRateAt(String code, Instant at) {
+        List<BigDecimal> rates = jdbcTemplate.queryForList(RATE_AT, BigDecimal.class, code, utc(at));
+        return rates.isEmpty() ? null : rates.getFirst();
+    }
+
+    /**
+     * Binds instants with an explicit UTC offset, so what is stored does not depend on the JVM's
+     * default time zone.
+     */
+    private static OffsetDateTime utc(Instant instant) {
+        return instant.atOffset(ZoneOffset.UTC);
+    }
+
+    @FunctionalInterface
+    public interface RatePointHandler {
+        void accept(String code, Instant effectiveAt, BigDecimal rate);
+    }
+}
@@ -0,0 +1,47 @@
+package com.mattemat.finance.repository;
+
+import com.mattemat.finance.dto.response.SubscriptionResponseDto;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.function.Consumer;
+
+@Repository
+public class SubscriptionExportRepository {
+
+    private static final String EXPORT = """
+            SELECT id, name, currency, amount, converted_amount, billing_cycle, subscription_date,
+                   next_subscription_date, created_at, updated_at, version
+            FROM subscriptions
+            WHERE owner_id = ?
+            ORDER BY id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SubscriptionExportRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Hands every subscription of {@code ownerId} to {@code consumer} in id order through one forward-only, read-only
+     * cursor, holding at most {@code fetchSize} rows at a time. PostgreSQL only honours the fetch
+     * size with auto-commit off, so call this inside a transaction.
+     */
+    public long forEach(String ownerId, int fetchSize, Consumer<SubscriptionResponseDto> consumer) {
+        long[] count = {0};
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    EXPORT, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setString(1, ownerId);
+            statement.setFetchSize(fetchSize);
+            return statement;
+        }, rs -> {
+            consumer.accept(SubscriptionSearchRepository.RESPONSE_MAPPER.mapRow(rs, (int) count[0]));
+            count[0]++;
+        });
+        return count[0];
+    }
+}
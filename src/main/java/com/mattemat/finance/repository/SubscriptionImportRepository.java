@@ -0,0 +1,193 @@
+package com.mattemat.finance.repository;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Appends subscriptions without going through Hibernate: {@code COPY FROM STDIN} on PostgreSQL and
+ * JDBC batches elsewhere. Ids come from {@code subscriptions_seq} in the same blocks of 50 that
+ * Hibernate's pooled optimizer takes, so imported ids never collide with ones the entity allocates.
+ * Call inside a transaction.
+ */
+@Repository
+public class SubscriptionImportRepository {
+
+    private static final int ID_BLOCK = 50;
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    private static final String COLUMNS = """
+            id, owner_id, name, currency, amount, converted_amount, converted_currency, billing_cycle,
+            subscription_date, next_subscription_date, version, created_at, updated_at""";
+
+    private static final String COPY = "COPY subscriptions (" + COLUMNS + ") FROM STDIN WITH (FORMAT csv)";
+
+    private static final String INSERT = "INSERT INTO subscriptions (" + COLUMNS + ")\n"
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0, ?, ?)";
+
+    private static final String POSTGRESQL_ID_BLOCKS = """
+            SELECT nextval('subscriptions_seq')
+            FROM generate_series(1, ?)
+            """;
+
+    private static final String H2_ID_BLOCKS = """
+            SELECT NEXT VALUE FOR subscriptions_seq
+            FROM SYSTEM_RANGE(1, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSource dataSource;
+    private final SqlDialect dialect;
+
+    public SubscriptionImportRepository(JdbcTemplate jdbcTemplate, DataSource dataSource) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSource = dataSource;
+        this.dialect = SqlDialect.of(dataSource);
+    }
+
+    /**
+     * Inserts the rows for {@code ownerId} with fresh ids, stamped {@code createdAt}, and returns the
+     * number inserted.
+     */
+    public int insert(String ownerId, List<Row> rows, LocalDateTime createdAt) {
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        long[] ids = allocateIds(rows.size());
+        return dialect == SqlDialect.POSTGRESQL ? copy(ownerId, rows, ids, createdAt) : batchInsert(ownerId, rows, ids, createdAt);
+    }
+
+    /**
+     * Expands each sequence value {@code v} into the ids {@code v - 49} to {@code v}, as the pooled
+     * optimizer does. A fresh sequence starts at 1, whose block holds only id 1.
+     */
+    private long[] allocateIds(int count) {
+        long[] ids = new long[count];
+        int allocated = 0;
+        while (allocated < count) {
+            int blocks = (count - allocated + ID_BLOCK - 1) / ID_BLOCK;
+            List<Long> values = jdbcTemplate.queryForList(
+                    dialect == SqlDialect.POSTGRESQL ? POSTGRESQL_ID_BLOCKS : H2_ID_BLOCKS, Long.class, blocks);
+            for (long value : values) {
+                for (long id = Math.max(value - ID_BLOCK + 1, 1); id <= value && allocated < count; id++) {
+                    ids[allocated++] = id;
+                }
+            }
+        }
+        return ids;
+    }
+
+    private int copy(String ownerId, List<Row> rows, long[] ids, LocalDateTime createdAt) {
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            PGConnection pgConnection = connection.unwrap(PGConnection.class);
+            String timestamp = Timestamp.valueOf(createdAt).toString();
+            try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+                    new PGCopyOutputStream(pgConnection, COPY, COPY_BUFFER_SIZE), StandardCharsets.UTF_8), COPY_BUFFER_SIZE)) {
+                StringBuilder line = new StringBuilder(256);
+                for (int i = 0; i < rows.size(); i++) {
+                    Row row = rows.get(i);
+                    line.setLength(0);
+                    line.append(ids[i]).append(',');
+                    appendQuoted(line, ownerId);
+                    line.append(',');
+                    appendQuoted(line, row.name());
+                    line.append(',');
+                    appendQuoted(line, row.currency());
+                    line.append(',').append(row.amount().toPlainString())
+                            .append(',').append(row.convertedAmount().toPlainString())
+                            .append(',');
+                    appendQuoted(line, row.convertedCurrency());
+                    line.append(',').append(row.billingCycle())
+                            .append(',').append(row.subscriptionDate())
+                            .append(',').append(row.nextSubscriptionDate())
+                            .append(",0,").append(timestamp)
+                            .append(',').append(timestamp)
+                            .append('\n');
+                    writer.append(line);
+                }
+            }
+            return rows.size();
+        } catch (SQLException e) {
+            throw new IllegalStateException("COPY into subscriptions failed", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException("COPY into subscriptions failed", e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    private int batchInsert(String ownerId, List<Row> rows, long[] ids, LocalDateTime createdAt) {
+        Timestamp timestamp = Timestamp.valueOf(createdAt);
+        jdbcTemplate.batchUpdate(INSERT, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement statement, int i) throws SQLException {
+                Row row = rows.get(i);
+                statement.setLong(1, ids[i]);
+                statement.setString(2, ownerId);
+                statement.setString(3, row.name());
+                statement.setString(4, row.currency());
+                statement.setBigDecimal(5, row.amount());
+                statement.setBigDecimal(6, row.convertedAmount());
+                statement.setString(7, row.convertedCurrency());
+                statement.setInt(8, row.billingCycle());
+                statement.setDate(9, Date.valueOf(row.subscriptionDate()));
+                statement.setDate(10, Date.valueOf(row.nextSubscriptionDate()));
+                statement.setTimestamp(11, timestamp);
+                statement.setTimestamp(12, timestamp);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return rows.size();
+            }
+        });
+        return rows.size();
+    }
+
+    /**
+     * Always quotes, so COPY reads an empty string as itself rather than as NULL.
+     */
+    private static void appendQuoted(StringBuilder line, String value) {
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                line.append('"');
+            }
+            line.append(c);
+        }
+        line.append('"');
+    }
+
+    public record Row(
+            String name,
+            String currency,
+            BigDecimal amount,
+            BigDecimal convertedAmount,
+            String convertedCurrency,
+            int billingCycle,
+            LocalDate subscriptionDate,
+            LocalDate nextSubscriptionDate) {
+    }
+}
@@ -0,0 +1,144 @@
+package com.mattemat.finance.repository;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+@Repository
+public class SubscriptionReconversionRepository {
+
+    private static final String ENQUEUE = """
+            INSERT INTO subscription_reconversions (currencies)
+            VALUES (:currencies)
+            """;
+
+    private static final String NEXT_PENDING = """
+            SELECT id, currencies, last_id, rows_updated, created_at
+            FROM subscription_reconversions
+            WHERE completed_at IS NULL
+            ORDER BY id
+            FETCH FIRST 1 ROWS ONLY
+            """;
+
+    private static final String COUNT_PENDING = """
+            SELECT COUNT(*)
+            FROM subscription_reconversions
+            WHERE completed_at IS NULL
+            """;
+
+    private static final String AFFECTED_ROWS = """
+            SELECT id, currency, converted_currency
+            FROM subscriptions
+            WHERE id > :afterId AND converted_currency IS NOT NULL
+              AND (currency IN (:currencies) OR converted_currency IN (:currencies))
+            ORDER BY id
+            FETCH FIRST :limit ROWS ONLY
+            """;
+
+    // The guard skips rows already at the new amount, so a resumed chunk does not bump them again,
+    // and rows whose new amount would not fit converted_amount.
+    private static final String RECONVERT = """
+            UPDATE subscriptions
+            SET converted_amount = ROUND(amount * :rate, 2),
+                updated_at = CURRENT_TIMESTAMP,
+                version = version + 1
+            WHERE id IN (:ids) AND currency = :fromCurrency AND converted_currency = :toCurrency
+              AND converted_amount <> ROUND(amount * :rate, 2)
+              AND ABS(amount * :rate) < 999999.995
+            """;
+
+    private static final String CHECKPOINT = """
+            UPDATE subscription_reconversions
+            SET last_id = :lastId,
+                rows_updated = rows_updated + :rowsUpdated,
+                updated_at = CURRENT_TIMESTAMP
+            WHERE id = :id
+            """;
+
+    private static final String COMPLETE = """
+            UPDATE subscription_reconversions
+            SET completed_at = CURRENT_TIMESTAMP,
+                updated_at = CURRENT_TIMESTAMP
+            WHERE id = :id
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public SubscriptionReconversionRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Transactional
+    public long enqueue(Collection<String> currencies) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(ENQUEUE,
+                new MapSqlParameterSource("currencies", String.join(",", currencies)),
+                keyHolder, new String[]{"id"});
+        return Objects.requireNonNull(keyHolder.getKey()).longValue();
+    }
+
+    public Optional<Job> findNextPending() {
+        return jdbcTemplate.query(NEXT_PENDING, Map.of(), (rs, rowNum) -> new Job(
+                        rs.getLong("id"),
+                        List.copyOf(Arrays.asList(rs.getString("currencies").split(","))),
+                        rs.getLong("last_id"),
+                        rs.getLong("rows_updated"),
+                        rs.getTimestamp("created_at").toInstant()))
+                .stream()
+                .findFirst();
+    }
+
+    public long countPending() {
+        Long pending = jdbcTemplate.queryForObject(COUNT_PENDING, Map.of(), Long.class);
+        return pending == null ? 0 : pending;
+    }
+
+    public List<AffectedRow> findAffectedRows(Collection<String> currencies, long afterId, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("currencies", currencies)
+                .addValue("afterId", afterId)
+                .addValue("limit", limit);
+        return jdbcTemplate.query(AFFECTED_ROWS, params, (rs, rowNum) -> new AffectedRow(
+                rs.getLong("id"),
+                rs.getString("currency"),
+                rs.getString("converted_currency")));
+    }
+
+    public int reconvert(List<Long> ids, String fromCurrency, String toCurrency, BigDecimal rate) {
+        return jdbcTemplate.update(RECONVERT, new MapSqlParameterSource()
+                .addValue("ids", ids)
+                .addValue("fromCurrency", fromCurrency)
+                .addValue("toCurrency", toCurrency)
+                .addValue("rate", rate));
+    }
+
+    public void checkpoint(long jobId, long lastId, int rowsUpdated) {
+        jdbcTemplate.update(CHECKPOINT, new MapSqlParameterSource()
+                .addValue("id", jobId)
+                .addValue("lastId", lastId)
+                .addValue("rowsUpdated", rowsUpdated));
+    }
+
+    @Transactional
+    public void complete(long jobId) {
+        jdbcTemplate.update(COMPLETE, Map.of("id", jobId));
+    }
+
+    public record Job(long id, List<String> currencies, long lastId, long rowsUpdated, Instant createdAt) {
+    }
+
+    public record AffectedRow(long id, String currency, String convertedCurrency) {
+    }
+}
@@ -0,0 +1,84 @@
+package com.mattemat.finance.repository;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@Repository
+public class SubscriptionRenewalRepository {
+
+    private static final String OVERDUE_ID_RANGE = """
+            SELECT MIN(id) AS min_id, MAX(id) AS max_id
+            FROM subscriptions
+            WHERE next_subscription_date < :asOf AND billing_cycle > 0
+            """;
+
+    private static final String OVERDUE_IDS = """
+            SELECT id
+            FROM subscriptions
+            WHERE next_subscription_date < :asOf AND billing_cycle > 0 AND id > :afterId AND id <= :upToId
+            ORDER BY id
+            FETCH FIRST :limit ROWS ONLY
+            """;
+
+    // Whole cycles from subscription_date to the start of the as-of month; the next date is either
+    // that many cycles or one more, both counted from subscription_date so month-end days don't drift.
+    private static final String ELAPSED_CYCLES = """
+            CAST(FLOOR(GREATEST(0, :asOfMonth - (EXTRACT(YEAR FROM subscription_date) * 12
+                + EXTRACT(MONTH FROM subscription_date) - 1)) / billing_cycle) AS INTEGER)""";
+
+    private static final String ADVANCE_TO_AS_OF = """
+            UPDATE subscriptions
+            SET next_subscription_date = CASE
+                    WHEN subscription_date + (%1$s * billing_cycle) * INTERVAL '1' MONTH >= :asOf
+                    THEN subscription_date + (%1$s * billing_cycle) * INTERVAL '1' MONTH
+                    ELSE subscription_date + ((%1$s + 1) * billing_cycle) * INTERVAL '1' MONTH
+                END,
+                updated_at = CURRENT_TIMESTAMP,
+                version = version + 1
+            WHERE id IN (:ids) AND next_subscription_date < :asOf AND billing_cycle > 0
+            """.formatted(ELAPSED_CYCLES);
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public SubscriptionRenewalRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public Optional<long[]> findOverdueIdRange(LocalDate asOf) {
+        Map<String, Object> range = jdbcTemplate.queryForMap(OVERDUE_ID_RANGE, Map.of("asOf", asOf));
+        if (range.get("min_id") == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new long[]{
+                ((Number) range.get("min_id")).longValue(),
+                ((Number) range.get("max_id")).longValue()});
+    }
+
+    public List<Long> findOverdueIds(LocalDate asOf, long afterId, long upToId, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("asOf", asOf)
+                .addValue("afterId", afterId)
+                .addValue("upToId", upToId)
+                .addValue("limit", limit);
+        return jdbcTemplate.queryForList(OVERDUE_IDS, params, Long.class);
+    }
+
+    /**
+     * Moves each overdue subscription in {@code ids} to its first billing date on or after
+     * {@code asOf}, counted in whole cycles from {@code subscription_date}.
+     */
+    @Transactional
+    public int advanceToAsOf(List<Long> ids, LocalDate asOf) {
+        return jdbcTemplate.update(ADVANCE_TO_AS_OF, new MapSqlParameterSource()
+                .addValue("ids", ids)
+                .addValue("asOf", asOf)
+                .addValue("asOfMonth", asOf.getYear() * 12 + asOf.getMonthValue() - 1));
+    }
+}
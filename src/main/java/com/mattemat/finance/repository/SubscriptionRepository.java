@@ -1,9 +1,110 @@
 package com.mattemat.finance.repository;
 
+import com.mattemat.finance.dto.response.SubscriptionResponseDto;
 import com.mattemat.finance.entity.Subscription;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 @Repository
 public interface SubscriptionRepository extends JpaRepository<Subscription, Long> {
+
+    /**
+     * Selects columns straight into response DTOs, so list reads allocate one object per row and
+     * leave nothing in the persistence context to snapshot or dirty-check.
+     */
+    String RESPONSE_PROJECTION = """
+            SELECT new com.mattemat.finance.dto.response.SubscriptionResponseDto(
+                s.id, s.name, s.currency, s.amount, s.convertedAmount, s.billingCycle,
+                s.subscriptionDate, s.nextSubscriptionDate, s.createdAt, s.updatedAt, s.version)
+            FROM Subscription s
+            """;
+
+    /**
+     * Looks a subscription up by its full key, so PostgreSQL reads one partition rather than
+     * probing every partition's primary key for the id.
+     */
+    Optional<Subscription> findByOwnerIdAndId(String ownerId, Long id);
+
+    List<Subscription> findByOwnerIdAndIdIn(String ownerId, Collection<Long> ids);
+
+    /**
+     * Deletes in one statement, like {@link #deleteAllInBatch(Iterable)}, but keyed by owner so it
+     * stays on one partition.
+     */
+    @Modifying
+    @Query("DELETE FROM Subscription s WHERE s.ownerId = :ownerId AND s.id IN :ids")
+    int deleteByOwnerIdAndIds(@Param("ownerId") String ownerId, @Param("ids") Collection<Long> ids);
+
+    // Not cacheable: the query cache would hold every projected row of the owner in one entry.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(RESPONSE_PROJECTION + "WHERE s.ownerId = :ownerId ORDER BY s.id")
+    List<SubscriptionResponseDto> findAllResponses(@Param("ownerId") String ownerId);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500")
+    })
+    @Query(RESPONSE_PROJECTION + "WHERE s.ownerId = :ownerId AND s.id > :afterId ORDER BY s.id")
+    List<SubscriptionResponseDto> findResponsesAfter(@Param("ownerId") String ownerId, @Param("afterId") long afterId,
+                                                     Limit limit);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(RESPONSE_PROJECTION + "WHERE s.ownerId = :ownerId ORDER BY s.id")
+    Stream<SubscriptionResponseDto> streamAllResponses(@Param("ownerId") String ownerId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("""
+            SELECT s.id AS id, s.ownerId AS ownerId, s.currency AS currency, s.amount AS amount,
+                   s.billingCycle AS billingCycle, s.nextSubscriptionDate AS nextSubscriptionDate
+            FROM Subscription s
+            """)
+    Stream<RenewalView> streamRenewals();
+
+    @Query("""
+            SELECT s.ownerId AS ownerId, s.convertedCurrency AS convertedCurrency, s.billingCycle AS billingCycle,
+                   COUNT(s) AS subscriptions, SUM(s.convertedAmount) AS convertedAmount
+            FROM Subscription s
+            GROUP BY s.ownerId, s.convertedCurrency, s.billingCycle
+            """)
+    List<SpendTotal> sumByOwnerConvertedCurrencyAndBillingCycle();
+
+    interface RenewalView {
+        Long getId();
+
+        String getOwnerId();
+
+        String getCurrency();
+
+        BigDecimal getAmount();
+
+        Integer getBillingCycle();
+
+        LocalDate getNextSubscriptionDate();
+    }
+
+    interface SpendTotal {
+        String getOwnerId();
+
+        String getConvertedCurrency();
+
+        Integer getBillingCycle();
+
+        Long getSubscriptions();
+
+        BigDecimal getConvertedAmount();
+    }
 }
@@ -0,0 +1,137 @@
+package com.mattemat.finance.repository;
+
+import com.mattemat.finance.dto.request.SubscriptionFilterDto;
+import com.mattemat.finance.dto.response.SubscriptionResponseDto;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds one SQL statement per filter, always scoped to one owner and with a predicate only for
+ * each criterion that is set, so the planner can pick the index that matches:
+ * {@code (owner_id, currency, next_subscription_date)} and
+ * {@code (owner_id, billing_cycle, next_subscription_date)} for combined filters, and
+ * {@code (owner_id, name)}, {@code (owner_id, amount)}, {@code (owner_id, next_subscription_date)}
+ * or {@code (owner_id, currency, next_subscription_date)} otherwise.
+ * Pages are keyset-paginated by id; matches are sorted by id after the index lookup, so a filter
+ * pays for the rows it matches rather than for the table.
+ */
+@Repository
+public class SubscriptionSearchRepository {
+
+    private static final String SELECT = """
+            SELECT id, name, currency, amount, converted_amount, billing_cycle, subscription_date,
+                   next_subscription_date, created_at, updated_at, version
+            FROM subscriptions
+            """;
+
+    private static final String ORDER_AND_LIMIT = """
+            ORDER BY id
+            FETCH FIRST :limit ROWS ONLY
+            """;
+
+    static final RowMapper<SubscriptionResponseDto> RESPONSE_MAPPER = (rs, rowNum) -> new SubscriptionResponseDto(
+            rs.getLong("id"),
+            rs.getString("name"),
+            rs.getString("currency"),
+            rs.getBigDecimal("amount"),
+            rs.getBigDecimal("converted_amount"),
+            rs.getInt("billing_cycle"),
+            rs.getObject("subscription_date", LocalDate.class),
+            rs.getObject("next_subscription_date", LocalDate.class),
+            rs.getObject("created_at", LocalDateTime.class),
+            rs.getObject("updated_at", LocalDateTime.class),
+            rs.getLong("version"));
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final SqlDialect dialect;
+
+    public SubscriptionSearchRepository(NamedParameterJdbcTemplate jdbcTemplate, DataSource dataSource) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dialect = SqlDialect.of(dataSource);
+    }
+
+    public List<SubscriptionResponseDto> search(String ownerId, SubscriptionFilterDto filter, long afterId, int limit) {
+        SearchQuery query = buildQuery(ownerId, filter, afterId, limit);
+        return jdbcTemplate.query(query.sql(), query.params(), RESPONSE_MAPPER);
+    }
+
+    public SearchQuery buildQuery(String ownerId, SubscriptionFilterDto filter, long afterId, int limit) {
+        List<String> conditions = new ArrayList<>();
+        MapSqlParameterSource params = new MapSqlParameterSource("limit", limit);
+        conditions.add("owner_id = :ownerId");
+        params.addValue("ownerId", ownerId);
+        // Left out on the first page, where it matches every row and would only compete with the
+        // filter's own index as a range on the primary key.
+        if (afterId > 0) {
+            conditions.add("id > :afterId");
+            params.addValue("afterId", afterId);
+        }
+        if (filter.getCurrency() != null) {
+            conditions.add("currency = :currency");
+            params.addValue("currency", filter.getCurrency());
+        }
+        if (filter.getNamePrefix() != null) {
+            addNamePrefix(filter.getNamePrefix(), conditions, params);
+        }
+        if (filter.getBillingCycle() != null) {
+            conditions.add("billing_cycle = :billingCycle");
+            params.addValue("billingCycle", filter.getBillingCycle());
+        }
+        if (filter.getNextFrom() != null) {
+            conditions.add("next_subscription_date >= :nextFrom");
+            params.addValue("nextFrom", filter.getNextFrom());
+        }
+        if (filter.getNextTo() != null) {
+            conditions.add("next_subscription_date <= :nextTo");
+            params.addValue("nextTo", filter.getNextTo());
+        }
+        if (filter.getMinAmount() != null) {
+            conditions.add("amount >= :minAmount");
+            params.addValue("minAmount", filter.getMinAmount());
+        }
+        if (filter.getMaxAmount() != null) {
+            conditions.add("amount <= :maxAmount");
+            params.addValue("maxAmount", filter.getMaxAmount());
+        }
+
+        StringBuilder sql = new StringBuilder(SELECT);
+        sql.append("WHERE ").append(String.join("\n  AND ", conditions)).append('\n');
+        sql.append(ORDER_AND_LIMIT);
+        return new SearchQuery(sql.toString(), params);
+    }
+
+    /**
+     * PostgreSQL plans {@code LIKE 'prefix%'} against the {@code varchar_pattern_ops} index. H2
+     * cannot use an index for a bound {@code LIKE} pattern, so it also gets the equivalent range,
+     * which is exact there because H2 compares strings by code point.
+     */
+    private void addNamePrefix(String prefix, List<String> conditions, MapSqlParameterSource params) {
+        conditions.add("name LIKE :namePattern ESCAPE '\\'");
+        params.addValue("namePattern", escapeLike(prefix) + "%");
+        if (dialect == SqlDialect.H2 && !prefix.isEmpty()) {
+            conditions.add("name >= :namePrefix");
+            params.addValue("namePrefix", prefix);
+            int last = prefix.codePointBefore(prefix.length());
+            if (last < Character.MAX_CODE_POINT) {
+                conditions.add("name < :namePrefixEnd");
+                params.addValue("namePrefixEnd", prefix.substring(0, prefix.length() - Character.charCount(last))
+                        + Character.toString(last + 1));
+            }
+        }
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    public record SearchQuery(String sql, MapSqlParameterSource params) {
+    }
+}
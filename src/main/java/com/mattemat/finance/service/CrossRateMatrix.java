@@ -0,0 +1,167 @@
+package com.mattemat.finance.service;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Immutable N×N table of cross rates between every pair of currencies in a rate snapshot.
+ * <p>
+ * Each cell holds {@code toRate / fromRate} as a 62-bit mantissa and a binary shift, so a
+ * conversion is an index lookup, one 64×64-bit multiply and a rounding shift, with no division and
+ * no allocation. Mantissas are normalized to at least 2<sup>61</sup>, a relative error below
+ * 2<sup>-62</sup>, so results are within one minor unit of {@link FixedPointMoney#convert} on the
+ * same rates and equal to it except next to a rounding tie. Pairs whose cross rate cannot be
+ * normalized fall back to {@link FixedPointMoney#convert}.
+ * <p>
+ * 170 currencies take about 254 KiB.
+ */
+public final class CrossRateMatrix {
+
+    private static final int MANTISSA_BITS = 62;
+    private static final int MAX_SHIFT = 126;
+    private static final byte DIRECT = -1;
+
+    private final Instant loadedAt;
+    private final String[] codes;
+    private final long[] rates;
+    private final Map<String, Integer> indexes;
+    private final long[] mantissas;
+    private final byte[] shifts;
+
+    private CrossRateMatrix(Instant loadedAt, String[] codes, long[] rates) {
+        int size = codes.length;
+        this.loadedAt = loadedAt;
+        this.codes = codes;
+        this.rates = rates;
+        this.indexes = new HashMap<>(size * 2);
+        for (int i = 0; i < size; i++) {
+            indexes.put(codes[i], i);
+        }
+        this.mantissas = new long[size * size];
+        this.shifts = new byte[size * size];
+        for (int from = 0; from < size; from++) {
+            for (int to = 0; to < size; to++) {
+                setCell(from * size + to, rates[from], rates[to]);
+            }
+        }
+    }
+
+    /**
+     * Builds the matrix from rates scaled for {@link FixedPointMoney}, loaded at {@code loadedAt}.
+     */
+    public static CrossRateMatrix of(Map<String, Long> scaledRates, Instant loadedAt) {
+        String[] codes = scaledRates.keySet().stream().sorted().toArray(String[]::new);
+        long[] rates = new long[codes.length];
+        for (int i = 0; i < codes.length; i++) {
+            rates[i] = scaledRates.get(codes[i]);
+        }
+        return new CrossRateMatrix(loadedAt, codes, rates);
+    }
+
+    public Instant loadedAt() {
+        return loadedAt;
+    }
+
+    public int size() {
+        return codes.length;
+    }
+
+    public List<String> codes() {
+        return List.of(codes);
+    }
+
+    /**
+     * Returns the index of the currency, matching case-insensitively, or -1 if it is not in the
+     * snapshot. Upper-case codes do not allocate.
+     */
+    public int indexOf(String code) {
+        Integer index = indexes.get(code);
+        if (index == null) {
+            index = indexes.get(code.toUpperCase(Locale.ROOT));
+        }
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * Returns the rate of the currency at {@code index}, scaled for {@link FixedPointMoney}.
+     */
+    public long scaledRate(int index) {
+        return rates[index];
+    }
+
+    public BigDecimal crossRate(int from, int to) {
+        int cell = from * codes.length + to;
+        if (shifts[cell] == DIRECT) {
+            return BigDecimal.valueOf(rates[to]).divide(BigDecimal.valueOf(rates[from]), MathContext.DECIMAL64);
+        }
+        return new BigDecimal(BigInteger.valueOf(mantissas[cell]))
+                .divide(new BigDecimal(BigInteger.ONE.shiftLeft(shifts[cell])), MathContext.DECIMAL64);
+    }
+
+    /**
+     * Converts minor units between the currencies at the given indexes, rounding half up (away
+     * from zero on ties).
+     *
+     * @throws ArithmeticException if the result does not fit a {@code long}
+     */
+    public long convert(long minorUnits, int from, int to) {
+        int cell = from * codes.length + to;
+        int shift = shifts[cell];
+        if (shift == DIRECT) {
+            return FixedPointMoney.convert(minorUnits, rates[from], rates[to]);
+        }
+        if (minorUnits == Long.MIN_VALUE) {
+            throw new ArithmeticException("Amount overflows");
+        }
+        long magnitude = Math.abs(minorUnits);
+        long mantissa = mantissas[cell];
+        long high = Math.multiplyHigh(magnitude, mantissa);
+        long low = magnitude * mantissa;
+
+        // Add half of the last unit kept, then shift it away.
+        if (shift > 64) {
+            high += 1L << (shift - 65);
+        } else if (shift > 0) {
+            long rounded = low + (1L << (shift - 1));
+            if (Long.compareUnsigned(rounded, low) < 0) {
+                high++;
+            }
+            low = rounded;
+        }
+        long result;
+        if (shift >= 64) {
+            result = high >>> (shift - 64);
+        } else if (high >>> shift != 0) {
+            throw new ArithmeticException("Converted amount overflows");
+        } else {
+            result = shift == 0 ? low : (high << (64 - shift)) | (low >>> shift);
+        }
+        if (result < 0) {
+            throw new ArithmeticException("Converted amount overflows");
+        }
+        return minorUnits < 0 ? -result : result;
+    }
+
+    private void setCell(int cell, long fromRate, long toRate) {
+        BigInteger numerator = BigInteger.valueOf(toRate);
+        BigInteger denominator = BigInteger.valueOf(fromRate);
+        int shift = MANTISSA_BITS - 1 + denominator.bitLength() - numerator.bitLength();
+        for (int attempt = 0; attempt < 3 && shift >= 0 && shift <= MAX_SHIFT; attempt++) {
+            BigInteger mantissa = numerator.shiftLeft(shift).add(denominator.shiftRight(1)).divide(denominator);
+            int bits = mantissa.bitLength();
+            if (bits == MANTISSA_BITS) {
+                mantissas[cell] = mantissa.longValueExact();
+                shifts[cell] = (byte) shift;
+                return;
+            }
+            shift += bits < MANTISSA_BITS ? 1 : -1;
+        }
+        shifts[cell] = DIRECT;
+    }
+}
@@ -0,0 +1,134 @@
+package com.mattemat.finance.service;
+
+import com.mattemat.finance.dto.request.ConversionRequestDto;
+import com.mattemat.finance.dto.response.ConversionResponseDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Converts amounts at current rates through the {@link CrossRateMatrix} of the
+ * {@link ExchangeRateCache} snapshot, or on request at the rates of a past date from
+ * {@link RateHistoryService}.
+ */
+@Service
+@Slf4j
+public class CurrencyConversionService {
+
+    public static final int MAX_CONVERSIONS = 10_000;
+
+    private final ExchangeRateCache exchangeRateCache;
+    private final RateHistoryService rateHistoryService;
+
+    public CurrencyConversionService(ExchangeRateCache exchangeRateCache, RateHistoryService rateHistoryService) {
+        this.exchangeRateCache = exchangeRateCache;
+        this.rateHistoryService = rateHistoryService;
+    }
+
+    /**
+     * Converts minor units at current rates. Currencies missing from the snapshot are looked up
+     * through {@link ExchangeRateCache#scaledRate}.
+     *
+     * @throws IllegalArgumentException if there is no rate for either currency
+     * @throws ArithmeticException      if the result does not fit a {@code long}
+     */
+    public long convert(long minorUnits, String fromCurrency, String toCurrency) {
+        CrossRateMatrix crossRates = exchangeRateCache.crossRates();
+        int from = crossRates.indexOf(fromCurrency);
+        int to = crossRates.indexOf(toCurrency);
+        if (from >= 0 && to >= 0) {
+            return crossRates.convert(minorUnits, from, to);
+        }
+        return FixedPointMoney.convert(minorUnits,
+                exchangeRateCache.scaledRate(fromCurrency), exchangeRateCache.scaledRate(toCurrency));
+    }
+
+    /**
+     * Converts minor units at the last rates effective on {@code asOf} (UTC), or at current rates
+     * when neither currency has history by then.
+     *
+     * @throws IllegalArgumentException if only one of the currencies has history by {@code asOf}, as
+     *                                  pairing it with today's rate would give an amount of neither
+     *                                  date, or if there is no rate for either currency
+     * @throws ArithmeticException      if the result does not fit a {@code long}
+     */
+    public long convertAsOf(long minorUnits, String fromCurrency, String toCurrency, LocalDate asOf) {
+        long fromCurrencyRate = rateHistoryService.scaledRateOn(fromCurrency, asOf);
+        long toCurrencyRate = rateHistoryService.scaledRateOn(toCurrency, asOf);
+        if (fromCurrencyRate == FixedPointMoney.NO_RATE && toCurrencyRate == FixedPointMoney.NO_RATE) {
+            return convert(minorUnits, fromCurrency, toCurrency);
+        }
+        if (fromCurrencyRate == FixedPointMoney.NO_RATE || toCurrencyRate == FixedPointMoney.NO_RATE) {
+            throw new IllegalArgumentException("No exchange rate history for currency "
+                    + (fromCurrencyRate == FixedPointMoney.NO_RATE ? fromCurrency : toCurrency) + " on " + asOf);
+        }
+        return FixedPointMoney.convert(minorUnits, fromCurrencyRate, toCurrencyRate);
+    }
+
+    /**
+     * Converts every item against one rate snapshot, or as of {@code asOf} when it is not
+     * {@code null}. Invalid items are reported in their result and do not fail the others.
+     */
+    public ConversionResponseDto convertAll(List<ConversionRequestDto.Conversion> conversions, LocalDate asOf) {
+        log.info("CurrencyConversionService - Converting {} amounts as of {}", conversions.size(), asOf == null ? "now" : asOf);
+        CrossRateMatrix crossRates = exchangeRateCache.crossRates();
+        List<ConversionResponseDto.Result> results = new ArrayList<>(conversions.size());
+        int failed = 0;
+
+        for (int i = 0; i < conversions.size(); i++) {
+            ConversionRequestDto.Conversion conversion = conversions.get(i);
+            ConversionResponseDto.Result result = new ConversionResponseDto.Result();
+            result.setIndex(i);
+            results.add(result);
+            if (conversion == null || conversion.getAmount() == null
+                    || conversion.getFromCurrency() == null || conversion.getToCurrency() == null) {
+                result.setMessage("Amount and currencies are required");
+                failed++;
+                continue;
+            }
+            result.setAmount(conversion.getAmount());
+            result.setFromCurrency(conversion.getFromCurrency());
+            result.setToCurrency(conversion.getToCurrency());
+
+            if (asOf != null) {
+                try {
+                    long converted = convertAsOf(FixedPointMoney.toMinorUnits(conversion.getAmount()),
+                            conversion.getFromCurrency(), conversion.getToCurrency(), asOf);
+                    result.setConvertedAmount(FixedPointMoney.toAmount(converted));
+                } catch (IllegalArgumentException e) {
+                    result.setMessage(e.getMessage());
+                    failed++;
+                } catch (ArithmeticException e) {
+                    result.setMessage("Amount is out of range");
+                    failed++;
+                }
+                continue;
+            }
+            int from = crossRates.indexOf(conversion.getFromCurrency());
+            int to = crossRates.indexOf(conversion.getToCurrency());
+            if (from < 0 || to < 0) {
+                result.setMessage("Unknown currency " + (from < 0 ? conversion.getFromCurrency() : conversion.getToCurrency()));
+                failed++;
+                continue;
+            }
+            try {
+                long converted = crossRates.convert(FixedPointMoney.toMinorUnits(conversion.getAmount()), from, to);
+                result.setConvertedAmount(FixedPointMoney.toAmount(converted));
+            } catch (ArithmeticException e) {
+                result.setMessage("Amount is out of range");
+                failed++;
+            }
+        }
+
+        ConversionResponseDto response = new ConversionResponseDto();
+        response.setRatesLoadedAt(crossRates.loadedAt());
+        response.setResults(results);
+        response.setFailed(failed);
+        response.setSucceeded(results.size() - failed);
+        log.info("CurrencyConversionService - Converted {} amounts with {} failures", response.getSucceeded(), failed);
+        return response;
+    }
+}
@@ -0,0 +1,45 @@
+package com.mattemat.finance.service;
+
+import com.mattemat.finance.entity.Currency;
+import com.mattemat.finance.entity.Subscription;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Cache;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+
+/**
+ * Evicts second-level cache entries for rows written with plain JDBC, which Hibernate does not
+ * see. Call once the writing transaction has committed. Does nothing when the cache is disabled.
+ */
+@Component
+@Slf4j
+public class EntityCacheEvictor {
+
+    private final Cache cache;
+
+    public EntityCacheEvictor(EntityManagerFactory entityManagerFactory) {
+        this.cache = entityManagerFactory.getCache().unwrap(Cache.class);
+    }
+
+    /**
+     * Whether the subscription can be loaded by id without a query. Always false when the cache is
+     * disabled.
+     */
+    public boolean containsSubscription(Long id) {
+        return cache.containsEntity(Subscription.class, id);
+    }
+
+    public void evictSubscriptions(Collection<Long> ids) {
+        ids.forEach(id -> cache.evictEntityData(Subscription.class, id));
+        cache.evictQueryRegions();
+        log.debug("EntityCacheEvictor - Evicted {} subscriptions and cached query results", ids.size());
+    }
+
+    public void evictCurrencies() {
+        cache.evictEntityData(Currency.class);
+        cache.evictQueryRegions();
+        log.debug("EntityCacheEvictor - Evicted currencies and cached query results");
+    }
+}
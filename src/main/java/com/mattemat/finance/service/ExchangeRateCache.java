@@ -0,0 +1,172 @@
+package com.mattemat.finance.service;
+
+import com.mattemat.finance.repository.CurrencyRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Read-mostly cache of the {@code currencies} table.
+ * <p>
+ * The whole table is loaded in one query and published as an immutable snapshot through a
+ * volatile reference, so readers never lock. A rate served from the cache is at most
+ * {@code finance.rates.refresh-interval} plus one load old, as long as refreshes succeed; a
+ * failed refresh keeps the previous snapshot and {@link #stats()} reports its age. A refresh loads the
+ * table without holding any lock and only swaps the snapshot under it; rates from a
+ * {@link #publish} that landed while it was loading are kept over the older ones it read.
+ */
+@Component
+@Slf4j
+public class ExchangeRateCache {
+
+    private final CurrencyRepository currencyRepository;
+    private final Duration refreshInterval;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder refreshes = new LongAdder();
+    private final LongAdder refreshFailures = new LongAdder();
+
+    // A ReentrantLock rather than synchronized, so a writer waiting for it never pins a virtual
+    // thread to its carrier.
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private volatile Snapshot snapshot = Snapshot.of(Map.of(), Instant.EPOCH);
+
+    public ExchangeRateCache(
+            CurrencyRepository currencyRepository,
+            @Value("${finance.rates.refresh-interval:PT5M}") Duration refreshInterval) {
+        this.currencyRepository = currencyRepository;
+        this.refreshInterval = refreshInterval;
+    }
+
+    /**
+     * Returns the rate scaled for {@link FixedPointMoney}. Hits read a value scaled when the snapshot
+     * was published, so they do not allocate.
+     *
+     * @throws IllegalArgumentException if there is no rate for the code
+     */
+    public long scaledRate(String code) {
+        CrossRateMatrix crossRates = snapshot.crossRates();
+        int index = crossRates.indexOf(code);
+        if (index >= 0) {
+            hits.increment();
+            return crossRates.scaledRate(index);
+        }
+        misses.increment();
+        log.debug("ExchangeRateCache - Cache miss for currency {}", code);
+        BigDecimal loaded = currencyRepository.findByCurrency(code);
+        if (loaded == null) {
+            throw new IllegalArgumentException("No exchange rate for currency: " + code);
+        }
+        return FixedPointMoney.toScaledRate(loaded);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${finance.rates.refresh-interval:PT5M}",
+            initialDelayString = "${finance.rates.refresh-interval:PT5M}")
+    public void refresh() {
+        try {
+            Snapshot before = snapshot;
+            Map<String, BigDecimal> rates = new HashMap<>();
+            currencyRepository.findAllRates().forEach(rate -> rates.put(rate.getCode(), rate.getValue()));
+            Snapshot loaded = Snapshot.of(rates, Instant.now());
+            lock.lock();
+            try {
+                Snapshot current = snapshot;
+                if (current != before) {
+                    current.rates().forEach((code, rate) -> {
+                        if (!rate.equals(before.rates().get(code))) {
+                            rates.put(code, rate);
+                        }
+                    });
+                    loaded = Snapshot.of(rates, loaded.loadedAt());
+                }
+                snapshot = loaded;
+            } finally {
+                lock.unlock();
+            }
+            refreshes.increment();
+            log.info("ExchangeRateCache - Loaded {} currency rates", rates.size());
+        } catch (RuntimeException e) {
+            refreshFailures.increment();
+            log.warn("ExchangeRateCache - Refresh failed, keeping snapshot from {}", snapshot.loadedAt(), e);
+        }
+    }
+
+    public void publish(Map<String, BigDecimal> updatedRates) {
+        lock.lock();
+        try {
+            Map<String, BigDecimal> rates = new HashMap<>(snapshot.rates());
+            rates.putAll(updatedRates);
+            snapshot = Snapshot.of(rates, Instant.now());
+        } finally {
+            lock.unlock();
+        }
+        refreshes.increment();
+        log.info("ExchangeRateCache - Published {} updated currency rates", updatedRates.size());
+    }
+
+    public Map<String, BigDecimal> rates() {
+        return snapshot.rates();
+    }
+
+    /**
+     * Returns the cross rates of the current snapshot, built once when the snapshot is published.
+     */
+    public CrossRateMatrix crossRates() {
+        return snapshot.crossRates();
+    }
+
+    public Stats stats() {
+        Snapshot current = snapshot;
+        return new Stats(
+                hits.sum(),
+                misses.sum(),
+                refreshes.sum(),
+                refreshFailures.sum(),
+                current.rates().size(),
+                current.loadedAt(),
+                refreshInterval);
+    }
+
+    private record Snapshot(Map<String, BigDecimal> rates, CrossRateMatrix crossRates, Instant loadedAt) {
+
+        /**
+         * Rates that cannot be scaled are left out of {@code crossRates}, so lookups for them miss
+         * and fail in {@link FixedPointMoney#toScaledRate}.
+         */
+        static Snapshot of(Map<String, BigDecimal> rates, Instant loadedAt) {
+            Map<String, Long> scaledRates = new HashMap<>();
+            rates.forEach((code, rate) -> {
+                try {
+                    scaledRates.put(code, FixedPointMoney.toScaledRate(rate));
+                } catch (ArithmeticException e) {
+                    log.warn("ExchangeRateCache - Rate {} for {} cannot be scaled", rate, code);
+                }
+            });
+            return new Snapshot(Map.copyOf(rates), CrossRateMatrix.of(scaledRates, loadedAt), loadedAt);
+        }
+    }
+
+    public record Stats(
+            long hits,
+            long misses,
+            long refreshes,
+            long refreshFailures,
+            int size,
+            Instant loadedAt,
+            Duration maxStaleness) {
+    }
+}
@@ -0,0 +1,11 @@
+package com.mattemat.finance.service;
+
+import java.time.Instant;
+import java.util.Set;
+
+/**
+ * Published by {@link RateSnapshotIngestionService} once rates that differ from the previous
+ * snapshot have been committed and published to the {@link ExchangeRateCache}.
+ */
+public record ExchangeRatesChangedEvent(Set<String> currencies, Instant effectiveAt) {
+}
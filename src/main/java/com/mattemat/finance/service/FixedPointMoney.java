@@ -0,0 +1,141 @@
+package com.mattemat.finance.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Fixed-point money arithmetic on {@code long}s.
+ * <p>
+ * Amounts are minor units at {@value #AMOUNT_SCALE} decimal places, the scale of the amount
+ * columns, and rates are units of the base currency scaled by 10<sup>{@value #RATE_SCALE}</sup>.
+ * {@link #convert} computes {@code amount * toRate / fromRate} exactly in 128 bits and rounds once,
+ * half up, so its result is always within half a minor unit of the exact quotient of its inputs.
+ * Against a {@link BigDecimal} conversion with unrounded rates, the only other error comes from
+ * rounding each rate to {@value #RATE_SCALE} places: the result is off by at most half a minor unit
+ * plus the result times the two rates' relative rounding errors, under 10<sup>-6</sup> for rates of
+ * at least 10<sup>-4</sup>.
+ * <p>
+ * The {@code long} methods never allocate. Results that do not fit a {@code long} throw
+ * {@link ArithmeticException} instead of wrapping.
+ */
+public final class FixedPointMoney {
+
+    public static final int AMOUNT_SCALE = 2;
+    public static final int RATE_SCALE = 10;
+
+    /**
+     * Returned by scaled-rate lookups that have no rate; real rates are strictly positive.
+     */
+    public static final long NO_RATE = 0L;
+
+    private static final long MASK_32 = 0xFFFFFFFFL;
+
+    private FixedPointMoney() {
+    }
+
+    /**
+     * Rounds {@code amount} half up to {@value #AMOUNT_SCALE} places and returns it in minor units.
+     *
+     * @throws ArithmeticException if the amount does not fit a {@code long}
+     */
+    public static long toMinorUnits(BigDecimal amount) {
+        // Moving the point keeps a compact amount compact; unscaledValue() would inflate a BigInteger.
+        return amount.setScale(AMOUNT_SCALE, RoundingMode.HALF_UP).scaleByPowerOfTen(AMOUNT_SCALE).longValueExact();
+    }
+
+    public static BigDecimal toAmount(long minorUnits) {
+        return BigDecimal.valueOf(minorUnits, AMOUNT_SCALE);
+    }
+
+    /**
+     * Rounds {@code rate} half up to {@value #RATE_SCALE} places and returns it scaled.
+     *
+     * @throws ArithmeticException if the rate is not positive after rounding or does not fit a
+     *                             {@code long}
+     */
+    public static long toScaledRate(BigDecimal rate) {
+        long scaled = rate.setScale(RATE_SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+        if (scaled <= 0) {
+            throw new ArithmeticException("Exchange rate must be positive: " + rate);
+        }
+        return scaled;
+    }
+
+    /**
+     * Converts {@code minorUnits} from the currency with {@code fromRate} to the currency with
+     * {@code toRate}, rounding half up (away from zero on ties).
+     *
+     * @throws ArithmeticException if a rate is not positive or the result does not fit a {@code long}
+     */
+    public static long convert(long minorUnits, long fromRate, long toRate) {
+        if (fromRate <= 0 || toRate <= 0) {
+            throw new ArithmeticException("Exchange rates must be positive");
+        }
+        if (minorUnits == Long.MIN_VALUE) {
+            throw new ArithmeticException("Amount overflows");
+        }
+        long magnitude = Math.abs(minorUnits);
+        long high = Math.multiplyHigh(magnitude, toRate);
+        long low = magnitude * toRate;
+
+        long quotient;
+        long remainder;
+        if (high == 0 && low >= 0) {
+            quotient = low / fromRate;
+            remainder = low - quotient * fromRate;
+        } else {
+            // The quotient fits 64 unsigned bits only while the high word is below the divisor.
+            if (high >= fromRate) {
+                throw new ArithmeticException("Converted amount overflows");
+            }
+            quotient = divideUnsigned(high, low, fromRate);
+            remainder = low - quotient * fromRate;
+            if (quotient < 0) {
+                throw new ArithmeticException("Converted amount overflows");
+            }
+        }
+        if (remainder >= fromRate - remainder) {
+            quotient = Math.addExact(quotient, 1);
+        }
+        return minorUnits < 0 ? -quotient : quotient;
+    }
+
+    /**
+     * Divides the unsigned 128-bit value {@code high:low} by {@code divisor}, which must be greater
+     * than {@code high}. Knuth's algorithm D on 32-bit digits, as in Hacker's Delight {@code divlu}.
+     */
+    private static long divideUnsigned(long high, long low, long divisor) {
+        int shift = Long.numberOfLeadingZeros(divisor);
+        long normalized = divisor << shift;
+        long divisorHigh = normalized >>> 32;
+        long divisorLow = normalized & MASK_32;
+        long numeratorHigh = shift == 0 ? high : (high << shift) | (low >>> (64 - shift));
+        long numeratorLow = low << shift;
+        long numerator1 = numeratorLow >>> 32;
+        long numerator0 = numeratorLow & MASK_32;
+
+        long quotient1 = Long.divideUnsigned(numeratorHigh, divisorHigh);
+        long remainderHat = numeratorHigh - quotient1 * divisorHigh;
+        while (Long.compareUnsigned(quotient1, MASK_32) > 0
+                || Long.compareUnsigned(quotient1 * divisorLow, (remainderHat << 32) | numerator1) > 0) {
+            quotient1--;
+            remainderHat += divisorHigh;
+            if (Long.compareUnsigned(remainderHat, MASK_32) > 0) {
+                break;
+            }
+        }
+
+        long numerator21 = (numeratorHigh << 32) + numerator1 - quotient1 * normalized;
+        long quotient0 = Long.divideUnsigned(numerator21, divisorHigh);
+        remainderHat = numerator21 - quotient0 * divisorHigh;
+        while (Long.compareUnsigned(quotient0, MASK_32) > 0
+                || Long.compareUnsigned(quotient0 * divisorLow, (remainderHat << 32) | numerator0) > 0) {
+            quotient0--;
+            remainderHat += divisorHigh;
+            if (Long.compareUnsigned(remainderHat, MASK_32) > 0) {
+                break;
+            }
+        }
+        return (quotient1 << 32) | quotient0;
+    }
+}
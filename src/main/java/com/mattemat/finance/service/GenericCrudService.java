@@ -9,7 +9,7 @@ public interface GenericCrudService<T, K> {
 
     List<K> readAll();
 
-    void update(Long id, T t);
+    K update(Long id, T t);
 
-    void delete(Long id);
+    boolean delete(Long id);
 }
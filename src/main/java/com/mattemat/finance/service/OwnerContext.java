@@ -0,0 +1,30 @@
+package com.mattemat.finance.service;
+
+import com.mattemat.finance.entity.Subscription;
+
+/**
+ * Owner of the subscriptions the current request works on, bound by {@code OwnerFilter} for the
+ * duration of the request. Threads with no owner bound, such as scheduled jobs and tests, see
+ * {@link Subscription#DEFAULT_OWNER}. Work handed to another thread must carry the owner along
+ * explicitly.
+ */
+public final class OwnerContext {
+
+    private static final ThreadLocal<String> OWNER = new ThreadLocal<>();
+
+    private OwnerContext() {
+    }
+
+    public static String current() {
+        String owner = OWNER.get();
+        return owner == null ? Subscription.DEFAULT_OWNER : owner;
+    }
+
+    public static void set(String owner) {
+        OWNER.set(owner);
+    }
+
+    public static void clear() {
+        OWNER.remove();
+    }
+}
@@ -0,0 +1,134 @@
+package com.mattemat.finance.service;
+
+import com.mattemat.finance.client.CurrencyAPIClient;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps the {@link ExchangeRateCache} in step with the live rate provider.
+ * <p>
+ * Conversions never wait on the provider: they read whatever snapshot the cache holds, and once
+ * that snapshot is older than {@code finance.rates.provider.max-age} a refresh runs in the
+ * background. Concurrent {@link #refresh()} calls share one in-flight request, and a failed
+ * refresh is not retried before {@code finance.rates.provider.retry-backoff} has passed, so an
+ * outage costs the provider one request per backoff window rather than one per conversion.
+ */
+@Service
+@Slf4j
+public class ProviderRateRefresher {
+
+    private final CurrencyAPIClient currencyAPIClient;
+    private final RateSnapshotIngestionService ingestionService;
+    private final Duration maxAge;
+    private final Duration retryBackoff;
+
+    private final AtomicReference<CompletableFuture<RefreshOutcome>> inFlight = new AtomicReference<>();
+    private final LongAdder upstreamCalls = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    private volatile Instant lastSuccessAt = Instant.EPOCH;
+    private volatile Instant lastFailureAt = Instant.EPOCH;
+
+    public ProviderRateRefresher(
+            CurrencyAPIClient currencyAPIClient,
+            RateSnapshotIngestionService ingestionService,
+            @Value("${finance.rates.provider.max-age:PT1H}") Duration maxAge,
+            @Value("${finance.rates.provider.retry-backoff:PT30S}") Duration retryBackoff) {
+        this.currencyAPIClient = currencyAPIClient;
+        this.ingestionService = ingestionService;
+        this.maxAge = maxAge;
+        this.retryBackoff = retryBackoff;
+    }
+
+    @Scheduled(fixedDelayString = "${finance.rates.provider.check-interval:PT1M}",
+            initialDelayString = "${finance.rates.provider.check-interval:PT1M}")
+    public void revalidateIfStale() {
+        if (!currencyAPIClient.isConfigured() || !isStale()) {
+            return;
+        }
+        if (lastFailureAt.plus(retryBackoff).isAfter(Instant.now())) {
+            log.debug("ProviderRateRefresher - Backing off after failure at {}", lastFailureAt);
+            return;
+        }
+        refresh();
+    }
+
+    public boolean isStale() {
+        return lastSuccessAt.plus(maxAge).isBefore(Instant.now());
+    }
+
+    public CompletableFuture<RefreshOutcome> refresh() {
+        while (true) {
+            CompletableFuture<RefreshOutcome> current = inFlight.get();
+            if (current != null) {
+                coalesced.increment();
+                return current;
+            }
+            CompletableFuture<RefreshOutcome> next = new CompletableFuture<>();
+            if (inFlight.compareAndSet(null, next)) {
+                Thread.ofVirtual().name("rate-refresh").start(() -> run(next));
+                return next;
+            }
+        }
+    }
+
+    private void run(CompletableFuture<RefreshOutcome> future) {
+        RefreshOutcome outcome;
+        try {
+            outcome = fetchAndIngest();
+        } catch (RuntimeException e) {
+            failures.increment();
+            lastFailureAt = Instant.now();
+            log.warn("ProviderRateRefresher - Refresh failed, serving snapshot from {}", lastSuccessAt, e);
+            inFlight.set(null);
+            future.completeExceptionally(e);
+            return;
+        }
+        inFlight.set(null);
+        future.complete(outcome);
+    }
+
+    private RefreshOutcome fetchAndIngest() {
+        upstreamCalls.increment();
+        CurrencyAPIClient.ProviderResponse response = currencyAPIClient.fetchLatest();
+        if (response.notModified()) {
+            lastSuccessAt = Instant.now();
+            return new RefreshOutcome(false, 0);
+        }
+        try (InputStream inputStream = response.openBody()) {
+            RateSnapshotIngestionService.IngestionResult result = ingestionService.ingest(inputStream);
+            currencyAPIClient.remember(response);
+            lastSuccessAt = Instant.now();
+            return new RefreshOutcome(true, result.currencies());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read provider payload", e);
+        }
+    }
+
+    public Stats stats() {
+        return new Stats(upstreamCalls.sum(), coalesced.sum(), failures.sum(), lastSuccessAt, lastFailureAt);
+    }
+
+    public record RefreshOutcome(boolean modified, int currencies) {
+    }
+
+    public record Stats(
+            long upstreamCalls,
+            long coalesced,
+            long failures,
+            Instant lastSuccessAt,
+            Instant lastFailureAt) {
+    }
+}
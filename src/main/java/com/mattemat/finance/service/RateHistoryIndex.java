@@ -0,0 +1,154 @@
+package com.mattemat.finance.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory rate history covering everything from {@link #coverageStart()} onwards.
+ * <p>
+ * Each currency is a pair of parallel primitive arrays, epoch milliseconds and rates scaled by
+ * 10<sup>{@value #SCALE}</sup>, sorted by time, so a year of hourly rates costs 16 bytes per
+ * point and a lookup is one binary search. Rates too large for a scaled {@code long} are not
+ * indexed; {@link #rateAt} then returns {@code null} and the caller falls back to the database.
+ * <p>
+ * Writes are serialized; readers never lock. Appends at the end of a series fill spare capacity
+ * that readers of the previous {@link Series} cannot see, anything else copies the arrays.
+ */
+public final class RateHistoryIndex {
+
+    static final int SCALE = FixedPointMoney.RATE_SCALE;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final Instant coverageStart;
+    private final Map<String, Series> series = new ConcurrentHashMap<>();
+    private final Set<String> unindexed = ConcurrentHashMap.newKeySet();
+
+    public RateHistoryIndex(Instant coverageStart) {
+        this.coverageStart = coverageStart;
+    }
+
+    public Instant coverageStart() {
+        return coverageStart;
+    }
+
+    public boolean covers(String code, Instant at) {
+        return covers(code, at.toEpochMilli());
+    }
+
+    public boolean covers(String code, long epochMilli) {
+        return epochMilli >= coverageStart.toEpochMilli() && !unindexed.contains(code);
+    }
+
+    /**
+     * Returns the rate effective at {@code at}, or {@code null} if the code has no rate at or
+     * before that time in this index.
+     */
+    public BigDecimal rateAt(String code, Instant at) {
+        Series current = series.get(code);
+        int index = current == null ? -1 : current.indexAt(at.toEpochMilli());
+        return index < 0 ? null : BigDecimal.valueOf(current.rates()[index], SCALE).stripTrailingZeros();
+    }
+
+    /**
+     * Returns the rate effective at {@code epochMilli} scaled for {@link FixedPointMoney}, or
+     * {@link FixedPointMoney#NO_RATE}. Does not allocate.
+     */
+    public long scaledRateAt(String code, long epochMilli) {
+        Series current = series.get(code);
+        int index = current == null ? -1 : current.indexAt(epochMilli);
+        return index < 0 ? FixedPointMoney.NO_RATE : current.rates()[index];
+    }
+
+    public BigDecimal latest(String code) {
+        Series current = series.get(code);
+        return current == null ? null : BigDecimal.valueOf(current.rates()[current.size() - 1], SCALE).stripTrailingZeros();
+    }
+
+    public synchronized void append(String code, Instant effectiveAt, BigDecimal rate) {
+        if (unindexed.contains(code)) {
+            return;
+        }
+        long scaled;
+        try {
+            scaled = rate.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            unindexed.add(code);
+            series.remove(code);
+            return;
+        }
+        long time = effectiveAt.toEpochMilli();
+        Series current = series.get(code);
+        if (current == null) {
+            long[] times = new long[INITIAL_CAPACITY];
+            long[] rates = new long[INITIAL_CAPACITY];
+            times[0] = time;
+            rates[0] = scaled;
+            series.put(code, new Series(times, rates, 1));
+            return;
+        }
+        series.put(code, current.with(time, scaled));
+    }
+
+    /**
+     * Drops spare capacity left by appends; used once a bulk load is complete.
+     */
+    public synchronized void compact() {
+        series.replaceAll((code, current) -> new Series(
+                Arrays.copyOf(current.times(), current.size()),
+                Arrays.copyOf(current.rates(), current.size()),
+                current.size()));
+    }
+
+    public int size() {
+        return series.values().stream().mapToInt(Series::size).sum();
+    }
+
+    public long footprintBytes() {
+        return series.values().stream().mapToLong(current -> 2L * Long.BYTES * current.times().length).sum();
+    }
+
+    private record Series(long[] times, long[] rates, int size) {
+
+        /**
+         * Returns the index of the last point at or before {@code time}, or -1.
+         */
+        int indexAt(long time) {
+            int index = Arrays.binarySearch(times, 0, size, time);
+            return index < 0 ? -index - 2 : index;
+        }
+
+        Series with(long time, long rate) {
+            if (time > times[size - 1]) {
+                if (size < times.length) {
+                    times[size] = time;
+                    rates[size] = rate;
+                    return new Series(times, rates, size + 1);
+                }
+                long[] grownTimes = Arrays.copyOf(times, size * 2);
+                long[] grownRates = Arrays.copyOf(rates, size * 2);
+                grownTimes[size] = time;
+                grownRates[size] = rate;
+                return new Series(grownTimes, grownRates, size + 1);
+            }
+
+            int index = Arrays.binarySearch(times, 0, size, time);
+            long[] copiedTimes = Arrays.copyOf(times, Math.max(times.length, size + 1));
+            long[] copiedRates = Arrays.copyOf(rates, copiedTimes.length);
+            if (index >= 0) {
+                copiedRates[index] = rate;
+                return new Series(copiedTimes, copiedRates, size);
+            }
+            int insertAt = -index - 1;
+            System.arraycopy(times, insertAt, copiedTimes, insertAt + 1, size - insertAt);
+            System.arraycopy(rates, insertAt, copiedRates, insertAt + 1, size - insertAt);
+            copiedTimes[insertAt] = time;
+            copiedRates[insertAt] = rate;
+            return new Series(copiedTimes, copiedRates, size + 1);
+        }
+    }
+}
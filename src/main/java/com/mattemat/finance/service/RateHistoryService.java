@@ -0,0 +1,126 @@
+package com.mattemat.finance.service;
+
+import com.mattemat.finance.repository.RateHistoryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Point-in-time exchange rates backed by the append-only {@code currency_rate_history} table.
+ * <p>
+ * Only rates that changed are appended. Lookups within {@code finance.rates.history.retention}
+ * are answered from a {@link RateHistoryIndex}; older ones query the table.
+ */
+@Service
+@Slf4j
+public class RateHistoryService {
+
+    private static final long MILLIS_PER_DAY = Duration.ofDays(1).toMillis();
+
+    private final RateHistoryRepository rateHistoryRepository;
+    private final Duration retention;
+
+    // Guards reload and publish; a ReentrantLock so a reload reading from the database does not
+    // pin a virtual thread.
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile RateHistoryIndex index = new RateHistoryIndex(Instant.now());
+
+    public RateHistoryService(
+            RateHistoryRepository rateHistoryRepository,
+            @Value("${finance.rates.history.retention:P400D}") Duration retention) {
+        this.rateHistoryRepository = rateHistoryRepository;
+        this.retention = retention;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${finance.rates.history.reload-cron:-}")
+    public void reload() {
+        lock.lock();
+        try {
+            long start = System.nanoTime();
+            RateHistoryIndex reloaded = new RateHistoryIndex(Instant.now().minus(retention));
+            rateHistoryRepository.forEachSince(reloaded.coverageStart(), reloaded::append);
+            reloaded.compact();
+            index = reloaded;
+            log.info("RateHistoryService - Indexed {} rate points ({} KiB) in {} ms",
+                    reloaded.size(), reloaded.footprintBytes() / 1024, (System.nanoTime() - start) / 1_000_000);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Appends the rates that differ from the latest indexed value and returns them. Must run in
+     * the transaction that writes the snapshot; call {@link #publish} once it has committed.
+     */
+    public Map<String, BigDecimal> append(Map<String, BigDecimal> rates, Instant effectiveAt) {
+        Map<String, BigDecimal> changed = new HashMap<>();
+        rates.forEach((code, rate) -> {
+            BigDecimal latest = index.latest(code);
+            if (latest == null || latest.compareTo(rate) != 0) {
+                changed.put(code, rate);
+            }
+        });
+        if (!changed.isEmpty()) {
+            rateHistoryRepository.appendAll(changed, effectiveAt.truncatedTo(ChronoUnit.MILLIS));
+        }
+        return changed;
+    }
+
+    public void publish(Map<String, BigDecimal> changed, Instant effectiveAt) {
+        lock.lock();
+        try {
+            RateHistoryIndex current = index;
+            Instant truncated = effectiveAt.truncatedTo(ChronoUnit.MILLIS);
+            changed.forEach((code, rate) -> current.append(code, truncated, rate));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the rate effective at {@code at}, or {@code null} if there is no history for the code
+     * at that time.
+     */
+    public BigDecimal rateAt(String code, Instant at) {
+        RateHistoryIndex current = index;
+        if (current.covers(code, at)) {
+            return current.rateAt(code, at);
+        }
+        return rateHistoryRepository.findRateAt(code, at);
+    }
+
+    /**
+     * Returns the last rate effective on {@code date} (UTC), or {@code null} if there is none.
+     */
+    public BigDecimal rateOn(String code, LocalDate date) {
+        return rateAt(code, date.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant().minusMillis(1));
+    }
+
+    /**
+     * Returns the last rate effective on {@code date} (UTC) scaled for {@link FixedPointMoney}, or
+     * {@link FixedPointMoney#NO_RATE} if there is none. Lookups answered by the index do not allocate.
+     */
+    public long scaledRateOn(String code, LocalDate date) {
+        long endOfDay = (date.toEpochDay() + 1) * MILLIS_PER_DAY - 1;
+        RateHistoryIndex current = index;
+        if (current.covers(code, endOfDay)) {
+            return current.scaledRateAt(code, endOfDay);
+        }
+        BigDecimal rate = rateHistoryRepository.findRateAt(code, Instant.ofEpochMilli(endOfDay));
+        return rate == null ? FixedPointMoney.NO_RATE : FixedPointMoney.toScaledRate(rate);
+    }
+}
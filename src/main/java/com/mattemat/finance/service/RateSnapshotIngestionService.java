@@ -0,0 +1,147 @@
+package com.mattemat.finance.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mattemat.finance.dto.response.CurrencyConversionResponseDto;
+import com.mattemat.finance.repository.CurrencySnapshotRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.URLConnection;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Loads a provider rate payload ({@code {"data": {"USD": {"code": "USD", "value": 1.0}, ...}}})
+ * into the {@code currencies} table and the {@link ExchangeRateCache}.
+ * <p>
+ * The payload is read entry by entry with Jackson's streaming parser, upserted in one JDBC batch
+ * inside a single transaction, and published to the cache only after that transaction commits.
+ * Rates that changed since the previous snapshot are also appended to the rate history and
+ * announced with an {@link ExchangeRatesChangedEvent}.
+ */
+@Service
+@Slf4j
+public class RateSnapshotIngestionService {
+
+    private static final int TIMEOUT_MILLIS = 10_000;
+
+    private final ObjectMapper objectMapper;
+    private final CurrencySnapshotRepository currencySnapshotRepository;
+    private final ExchangeRateCache exchangeRateCache;
+    private final RateHistoryService rateHistoryService;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityCacheEvictor entityCacheEvictor;
+    private final ApplicationEventPublisher eventPublisher;
+    private final String source;
+
+    public RateSnapshotIngestionService(
+            ObjectMapper objectMapper,
+            CurrencySnapshotRepository currencySnapshotRepository,
+            ExchangeRateCache exchangeRateCache,
+            RateHistoryService rateHistoryService,
+            TransactionTemplate transactionTemplate,
+            EntityCacheEvictor entityCacheEvictor,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${finance.rates.source:}") String source) {
+        this.objectMapper = objectMapper;
+        this.currencySnapshotRepository = currencySnapshotRepository;
+        this.exchangeRateCache = exchangeRateCache;
+        this.rateHistoryService = rateHistoryService;
+        this.transactionTemplate = transactionTemplate;
+        this.entityCacheEvictor = entityCacheEvictor;
+        this.eventPublisher = eventPublisher;
+        this.source = source;
+    }
+
+    @Scheduled(cron = "${finance.rates.ingest-cron:-}")
+    public void ingestConfiguredSource() {
+        if (source.isBlank()) {
+            log.warn("RateSnapshotIngestionService - No finance.rates.source configured, skipping ingestion");
+            return;
+        }
+        ingest(URI.create(source));
+    }
+
+    public IngestionResult ingest(URI uri) {
+        log.info("RateSnapshotIngestionService - Ingesting rates from {}", uri);
+        try {
+            URLConnection connection = uri.toURL().openConnection();
+            connection.setConnectTimeout(TIMEOUT_MILLIS);
+            connection.setReadTimeout(TIMEOUT_MILLIS);
+            try (InputStream inputStream = connection.getInputStream()) {
+                return ingest(inputStream);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read rates from " + uri, e);
+        }
+    }
+
+    public IngestionResult ingest(InputStream inputStream) {
+        long start = System.nanoTime();
+        Map<String, BigDecimal> rates = parse(inputStream);
+        Instant effectiveAt = Instant.now();
+        Map<String, BigDecimal> changed = transactionTemplate.execute(status -> {
+            currencySnapshotRepository.upsertAll(rates);
+            return rateHistoryService.append(rates, effectiveAt);
+        });
+        entityCacheEvictor.evictCurrencies();
+        exchangeRateCache.publish(rates);
+        rateHistoryService.publish(changed, effectiveAt);
+        if (!changed.isEmpty()) {
+            eventPublisher.publishEvent(new ExchangeRatesChangedEvent(Set.copyOf(changed.keySet()), effectiveAt));
+        }
+
+        IngestionResult result = new IngestionResult(rates.size(), Duration.ofNanos(System.nanoTime() - start));
+        log.info("RateSnapshotIngestionService - Ingested {} rates in {} ms",
+                result.currencies(), result.elapsed().toMillis());
+        return result;
+    }
+
+    Map<String, BigDecimal> parse(InputStream inputStream) {
+        Map<String, BigDecimal> rates = new HashMap<>();
+        try (JsonParser parser = objectMapper.createParser(inputStream)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IllegalArgumentException("Rate payload must be a JSON object");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                if (!"data".equals(field)) {
+                    parser.skipChildren();
+                    continue;
+                }
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String key = parser.currentName();
+                    parser.nextToken();
+                    CurrencyConversionResponseDto.CurrencyDto currency =
+                            parser.readValueAs(CurrencyConversionResponseDto.CurrencyDto.class);
+                    if (currency == null || currency.getValue() == null) {
+                        log.warn("RateSnapshotIngestionService - Skipping {} without a value", key);
+                        continue;
+                    }
+                    rates.put(currency.getCode() == null ? key : currency.getCode(), currency.getValue());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to parse rate payload", e);
+        }
+        return rates;
+    }
+
+    public record IngestionResult(int currencies, Duration elapsed) {
+    }
+}
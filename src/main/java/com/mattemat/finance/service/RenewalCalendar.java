@@ -0,0 +1,174 @@
+package com.mattemat.finance.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Timing wheel of subscription renewal dates with one bucket per day.
+ * <p>
+ * The wheel covers {@code horizonDays} days from {@link #today()}. Renewals further out wait in an
+ * overflow map keyed by day and move onto the wheel as it turns. {@link #upcoming} walks only the
+ * buckets of the days asked for, so a lookup costs one step per day plus one per renewal returned,
+ * however many subscriptions are tracked. Once the wheel turns past a day, the renewals on it roll
+ * forward by whole billing cycles, the same way {@link SubscriptionRenewalService} rolls their rows.
+ * Subscriptions without a positive billing cycle are tracked only until their date passes.
+ * <p>
+ * Not thread-safe; {@link RenewalCalendarService} guards it.
+ */
+public final class RenewalCalendar {
+
+    private final int horizonDays;
+    private final Map<Long, Renewal>[] buckets;
+    private final Map<Long, Renewal> byId = new HashMap<>();
+    private final TreeMap<Long, Map<Long, Renewal>> overflow = new TreeMap<>();
+    private long today;
+
+    @SuppressWarnings("unchecked")
+    public RenewalCalendar(int horizonDays, LocalDate today) {
+        if (horizonDays < 1) {
+            throw new IllegalArgumentException("Horizon must be at least one day: " + horizonDays);
+        }
+        this.horizonDays = horizonDays;
+        this.buckets = new Map[horizonDays];
+        this.today = today.toEpochDay();
+    }
+
+    public LocalDate today() {
+        return LocalDate.ofEpochDay(today);
+    }
+
+    public int horizonDays() {
+        return horizonDays;
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    /**
+     * Adds the renewal, replacing any earlier one for the same subscription. A date before
+     * {@link #today()} is rolled forward first.
+     */
+    public void put(Renewal renewal) {
+        remove(renewal.id());
+        Renewal rolled = rollForward(renewal);
+        if (rolled == null) {
+            return;
+        }
+        long day = rolled.nextSubscriptionDate().toEpochDay();
+        if (day - today < horizonDays) {
+            bucket(day, true).put(rolled.id(), rolled);
+        } else {
+            overflow.computeIfAbsent(day, key -> new LinkedHashMap<>()).put(rolled.id(), rolled);
+        }
+        byId.put(rolled.id(), rolled);
+    }
+
+    public void remove(long id) {
+        Renewal renewal = byId.remove(id);
+        if (renewal == null) {
+            return;
+        }
+        long day = renewal.nextSubscriptionDate().toEpochDay();
+        if (day - today < horizonDays) {
+            Map<Long, Renewal> bucket = bucket(day, false);
+            if (bucket != null) {
+                bucket.remove(id);
+            }
+        } else {
+            Map<Long, Renewal> renewals = overflow.get(day);
+            renewals.remove(id);
+            if (renewals.isEmpty()) {
+                overflow.remove(day);
+            }
+        }
+    }
+
+    /**
+     * Turns the wheel so it starts at {@code date}; earlier dates are ignored.
+     */
+    public void advanceTo(LocalDate date) {
+        long target = date.toEpochDay();
+        if (target <= today) {
+            return;
+        }
+        List<Renewal> passed = new ArrayList<>();
+        for (long day = today; day < Math.min(target, today + horizonDays); day++) {
+            Map<Long, Renewal> bucket = bucket(day, false);
+            if (bucket != null) {
+                passed.addAll(bucket.values());
+                bucket.clear();
+            }
+        }
+        today = target;
+
+        Map.Entry<Long, Map<Long, Renewal>> next;
+        while ((next = overflow.firstEntry()) != null && next.getKey() - today < horizonDays) {
+            overflow.pollFirstEntry();
+            if (next.getKey() < today) {
+                passed.addAll(next.getValue().values());
+            } else {
+                bucket(next.getKey(), true).putAll(next.getValue());
+            }
+        }
+        for (Renewal renewal : passed) {
+            byId.remove(renewal.id());
+            put(renewal);
+        }
+    }
+
+    /**
+     * Returns the renewals due from {@link #today()} through {@code days - 1} days later, by date.
+     */
+    public List<Renewal> upcoming(int days) {
+        if (days < 0 || days > horizonDays) {
+            throw new IllegalArgumentException("Days must be between 0 and " + horizonDays + ": " + days);
+        }
+        List<Renewal> renewals = new ArrayList<>();
+        for (long day = today; day < today + days; day++) {
+            Map<Long, Renewal> bucket = bucket(day, false);
+            if (bucket != null) {
+                renewals.addAll(bucket.values());
+            }
+        }
+        return renewals;
+    }
+
+    private Map<Long, Renewal> bucket(long day, boolean create) {
+        int index = (int) Math.floorMod(day, (long) horizonDays);
+        Map<Long, Renewal> bucket = buckets[index];
+        if (bucket == null && create) {
+            bucket = new LinkedHashMap<>();
+            buckets[index] = bucket;
+        }
+        return bucket;
+    }
+
+    private Renewal rollForward(Renewal renewal) {
+        LocalDate next = renewal.nextSubscriptionDate();
+        if (next.toEpochDay() >= today) {
+            return renewal;
+        }
+        if (renewal.billingCycle() <= 0) {
+            return null;
+        }
+        LocalDate first = today();
+        while (next.isBefore(first)) {
+            next = next.plusMonths(renewal.billingCycle());
+        }
+        return renewal.withNextSubscriptionDate(next);
+    }
+
+    public record Renewal(long id, String currency, BigDecimal amount, int billingCycle, LocalDate nextSubscriptionDate) {
+
+        Renewal withNextSubscriptionDate(LocalDate date) {
+            return new Renewal(id, currency, amount, billingCycle, date);
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.mattemat.finance.service;
+
+import com.mattemat.finance.dto.response.UpcomingRenewalsResponseDto;
+import com.mattemat.finance.repository.SubscriptionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Answers "what renews in the next N days" from a {@link RenewalCalendar} per owner, without a
+ * query.
+ * <p>
+ * The calendars are loaded from {@code subscriptions} at startup and kept current from
+ * {@link SubscriptionChangedEvent}s; they turn to the current day on the first lookup of each day.
+ * Writes that bypass {@link SubscriptionServiceImpl}, or happen on another instance, are only
+ * picked up by the next rebuild ({@code finance.renewal.calendar.rebuild-cron}).
+ */
+@Service
+@Slf4j
+public class RenewalCalendarService {
+
+    private final SubscriptionRepository subscriptionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int horizonDays;
+
+    // A ReentrantReadWriteLock rather than synchronized: rebuild() queries the database while
+    // holding it, which would pin a virtual thread to its carrier.
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Map<String, RenewalCalendar> calendars = new HashMap<>();
+    private volatile LocalDate calendarDay;
+
+    public RenewalCalendarService(
+            SubscriptionRepository subscriptionRepository,
+            TransactionTemplate transactionTemplate,
+            @Value("${finance.renewal.calendar.horizon-days:400}") int horizonDays) {
+        this.subscriptionRepository = subscriptionRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.horizonDays = horizonDays;
+        this.calendarDay = LocalDate.now();
+    }
+
+    public int horizonDays() {
+        return horizonDays;
+    }
+
+    /**
+     * Returns the renewals of the current {@link OwnerContext owner} due from today through
+     * {@code days - 1} days later, by date.
+     *
+     * @throws IllegalArgumentException if {@code days} is negative or beyond the horizon
+     */
+    public UpcomingRenewalsResponseDto upcoming(int days) {
+        if (days < 0 || days > horizonDays) {
+            throw new IllegalArgumentException("Days must be between 0 and " + horizonDays + ": " + days);
+        }
+        advanceTo(LocalDate.now());
+        List<RenewalCalendar.Renewal> renewals;
+        LocalDate from;
+        lock.readLock().lock();
+        try {
+            RenewalCalendar calendar = calendars.get(OwnerContext.current());
+            renewals = calendar == null ? List.of() : calendar.upcoming(days);
+            from = calendarDay;
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<UpcomingRenewalsResponseDto.Renewal> items = new ArrayList<>(renewals.size());
+        for (RenewalCalendar.Renewal renewal : renewals) {
+            UpcomingRenewalsResponseDto.Renewal item = new UpcomingRenewalsResponseDto.Renewal();
+            item.setId(renewal.id());
+            item.setCurrency(renewal.currency());
+            item.setAmount(renewal.amount());
+            item.setBillingCycle(renewal.billingCycle());
+            item.setNextSubscriptionDate(renewal.nextSubscriptionDate());
+            items.add(item);
+        }
+        UpcomingRenewalsResponseDto response = new UpcomingRenewalsResponseDto();
+        response.setFrom(from);
+        response.setUntil(from.plusDays(days));
+        response.setRenewals(items);
+        return response;
+    }
+
+    /**
+     * Rebuilds the calendars of every owner and returns the number of renewals tracked.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${finance.renewal.calendar.rebuild-cron:-}")
+    public int rebuild() {
+        lock.writeLock().lock();
+        try {
+            long start = System.nanoTime();
+            LocalDate today = LocalDate.now();
+            Map<String, RenewalCalendar> rebuilt = new HashMap<>();
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<SubscriptionRepository.RenewalView> views = subscriptionRepository.streamRenewals()) {
+                    views.forEach(view -> rebuilt.computeIfAbsent(
+                            view.getOwnerId(), owner -> new RenewalCalendar(horizonDays, today)
+                    ).put(new RenewalCalendar.Renewal(
+                            view.getId(),
+                            view.getCurrency(),
+                            view.getAmount(),
+                            view.getBillingCycle() == null ? 0 : view.getBillingCycle(),
+                            view.getNextSubscriptionDate())));
+                }
+            });
+            calendars = rebuilt;
+            calendarDay = today;
+            int size = rebuilt.values().stream().mapToInt(RenewalCalendar::size).sum();
+            log.info("RenewalCalendarService - Rebuilt calendars of {} owners with {} renewals in {} ms",
+                    rebuilt.size(), size, (System.nanoTime() - start) / 1_000_000);
+            return size;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSubscriptionChanged(SubscriptionChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            for (SubscriptionChangedEvent.Change change : event.changes()) {
+                SubscriptionChangedEvent.State after = change.after();
+                if (after != null && after.id() != null && after.nextSubscriptionDate() != null) {
+                    RenewalCalendar calendar = calendars.computeIfAbsent(
+                            after.ownerId(), owner -> new RenewalCalendar(horizonDays, calendarDay));
+                    calendar.put(new RenewalCalendar.Renewal(
+                            after.id(),
+                            after.currency(),
+                            after.amount(),
+                            after.billingCycle() == null ? 0 : after.billingCycle(),
+                            after.nextSubscriptionDate()));
+                } else if (change.before() != null && change.before().id() != null) {
+                    RenewalCalendar calendar = calendars.get(change.before().ownerId());
+                    if (calendar != null) {
+                        calendar.remove(change.before().id());
+                    }
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void advanceTo(LocalDate today) {
+        if (!calendarDay.isBefore(today)) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            calendars.values().forEach(calendar -> calendar.advanceTo(today));
+            calendarDay = today;
+            log.info("RenewalCalendarService - Calendar advanced to {}", today);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
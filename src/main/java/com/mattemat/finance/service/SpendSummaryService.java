@@ -0,0 +1,216 @@
+package com.mattemat.finance.service;
+
+import com.mattemat.finance.dto.response.SpendSummaryResponseDto;
+import com.mattemat.finance.repository.SubscriptionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Spend totals maintained from {@link SubscriptionChangedEvent}s, separately for each owner.
+ * <p>
+ * Totals are kept per (owner, target currency, billing cycle) cell with exact sums, so an incremental
+ * update and a {@link #rebuild()} from {@code subscriptions} agree to the last digit. Converted
+ * amounts are only added up within one target currency; the overall totals are reported only
+ * while an owner converts everything into the same currency. Every change republishes
+ * the summary; reads return it as is, so their cost depends on the number of cells, never on the
+ * number of subscriptions. Writes that bypass {@link SubscriptionServiceImpl}, or happen on another
+ * instance, are only picked up by the next rebuild ({@code finance.summary.rebuild-cron}).
+ */
+@Service
+@Slf4j
+public class SpendSummaryService {
+
+    private static final int MONTHLY_SCALE = 2;
+
+    private final SubscriptionRepository subscriptionRepository;
+
+    // A ReentrantLock rather than synchronized: rebuild() queries the database while holding it,
+    // which would pin a virtual thread to its carrier.
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<String, Map<Key, Cell>> cells = new HashMap<>();
+    private final Map<String, SpendSummaryResponseDto> summaries = new ConcurrentHashMap<>();
+    private volatile Instant rebuiltAt;
+
+    public SpendSummaryService(SubscriptionRepository subscriptionRepository) {
+        this.subscriptionRepository = subscriptionRepository;
+    }
+
+    /**
+     * Returns the summary of the current {@link OwnerContext owner}.
+     */
+    public SpendSummaryResponseDto summary() {
+        SpendSummaryResponseDto summary = summaries.get(OwnerContext.current());
+        return summary != null ? summary : summarize(Map.of(), rebuiltAt);
+    }
+
+    /**
+     * Rebuilds the totals of every owner and returns the summary of the current one.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${finance.summary.rebuild-cron:-}")
+    public SpendSummaryResponseDto rebuild() {
+        lock.lock();
+        try {
+            long start = System.nanoTime();
+            cells.clear();
+            subscriptionRepository.sumByOwnerConvertedCurrencyAndBillingCycle().forEach(total ->
+                    cells.computeIfAbsent(total.getOwnerId(), owner -> new HashMap<>()).put(
+                            new Key(total.getConvertedCurrency(), total.getBillingCycle()),
+                            new Cell(total.getSubscriptions(), orZero(total.getConvertedAmount()))));
+            rebuiltAt = Instant.now();
+            summaries.clear();
+            cells.forEach((owner, ownerCells) -> summaries.put(owner, summarize(ownerCells, rebuiltAt)));
+            log.info("SpendSummaryService - Rebuilt summaries of {} owners in {} ms",
+                    cells.size(), (System.nanoTime() - start) / 1_000_000);
+            return summary();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSubscriptionChanged(SubscriptionChangedEvent event) {
+        lock.lock();
+        try {
+            Set<String> owners = new HashSet<>();
+            for (SubscriptionChangedEvent.Change change : event.changes()) {
+                if (change.before() != null) {
+                    apply(change.before(), -1);
+                    owners.add(change.before().ownerId());
+                }
+                if (change.after() != null) {
+                    apply(change.after(), 1);
+                    owners.add(change.after().ownerId());
+                }
+            }
+            for (String owner : owners) {
+                Map<Key, Cell> ownerCells = cells.get(owner);
+                if (ownerCells == null) {
+                    summaries.remove(owner);
+                } else {
+                    summaries.put(owner, summarize(ownerCells, rebuiltAt));
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void apply(SubscriptionChangedEvent.State state, int sign) {
+        Map<Key, Cell> ownerCells = cells.computeIfAbsent(state.ownerId(), owner -> new HashMap<>());
+        Key key = new Key(state.convertedCurrency(), state.billingCycle());
+        Cell cell = ownerCells.getOrDefault(key, Cell.EMPTY).plus(
+                sign, orZero(state.convertedAmount()).multiply(BigDecimal.valueOf(sign)));
+        if (cell.subscriptions() == 0) {
+            ownerCells.remove(key);
+            if (ownerCells.isEmpty()) {
+                cells.remove(state.ownerId());
+            }
+        } else {
+            ownerCells.put(key, cell);
+        }
+    }
+
+    private static SpendSummaryResponseDto summarize(Map<Key, Cell> cells, Instant rebuiltAt) {
+        Map<String, SpendSummaryResponseDto.CurrencyTotal> byCurrency = new TreeMap<>();
+        Map<Key, SpendSummaryResponseDto.BillingCycleTotal> byBillingCycle = new HashMap<>();
+        long subscriptions = 0;
+        BigDecimal total = BigDecimal.ZERO;
+        BigDecimal monthly = BigDecimal.ZERO;
+
+        for (Map.Entry<Key, Cell> entry : cells.entrySet()) {
+            Key key = entry.getKey();
+            Cell cell = entry.getValue();
+            BigDecimal cellMonthly = monthly(cell.convertedAmount(), key.billingCycle());
+
+            SpendSummaryResponseDto.CurrencyTotal currencyTotal = byCurrency.computeIfAbsent(
+                    Objects.toString(key.currency(), ""), currency -> {
+                        SpendSummaryResponseDto.CurrencyTotal created = new SpendSummaryResponseDto.CurrencyTotal();
+                        created.setCurrency(key.currency());
+                        created.setConvertedAmount(BigDecimal.ZERO);
+                        created.setMonthlyConvertedAmount(BigDecimal.ZERO);
+                        return created;
+                    });
+            currencyTotal.setSubscriptions(currencyTotal.getSubscriptions() + cell.subscriptions());
+            currencyTotal.setConvertedAmount(currencyTotal.getConvertedAmount().add(cell.convertedAmount()));
+            currencyTotal.setMonthlyConvertedAmount(currencyTotal.getMonthlyConvertedAmount().add(cellMonthly));
+
+            SpendSummaryResponseDto.BillingCycleTotal cycleTotal = byBillingCycle.computeIfAbsent(
+                    key, cycle -> {
+                        SpendSummaryResponseDto.BillingCycleTotal created = new SpendSummaryResponseDto.BillingCycleTotal();
+                        created.setCurrency(cycle.currency());
+                        created.setBillingCycle(cycle.billingCycle());
+                        created.setConvertedAmount(BigDecimal.ZERO);
+                        created.setMonthlyConvertedAmount(BigDecimal.ZERO);
+                        return created;
+                    });
+            cycleTotal.setSubscriptions(cycleTotal.getSubscriptions() + cell.subscriptions());
+            cycleTotal.setConvertedAmount(cycleTotal.getConvertedAmount().add(cell.convertedAmount()));
+            cycleTotal.setMonthlyConvertedAmount(cycleTotal.getMonthlyConvertedAmount().add(cellMonthly));
+
+            subscriptions += cell.subscriptions();
+            total = total.add(cell.convertedAmount());
+            monthly = monthly.add(cellMonthly);
+        }
+
+        List<SpendSummaryResponseDto.BillingCycleTotal> cycles = new ArrayList<>(byBillingCycle.values());
+        cycles.sort(Comparator.comparing(SpendSummaryResponseDto.BillingCycleTotal::getCurrency,
+                        Comparator.nullsLast(Comparator.<String>naturalOrder()))
+                .thenComparing(SpendSummaryResponseDto.BillingCycleTotal::getBillingCycle,
+                        Comparator.nullsLast(Comparator.naturalOrder())));
+
+        SpendSummaryResponseDto response = new SpendSummaryResponseDto();
+        response.setSubscriptions(subscriptions);
+        if (byCurrency.size() <= 1) {
+            response.setCurrency(byCurrency.isEmpty() ? null : byCurrency.values().iterator().next().getCurrency());
+            response.setTotalConvertedAmount(total);
+            response.setMonthlyConvertedAmount(monthly);
+        }
+        response.setByCurrency(List.copyOf(byCurrency.values()));
+        response.setByBillingCycle(List.copyOf(cycles));
+        response.setRebuiltAt(rebuiltAt);
+        return response;
+    }
+
+    private static BigDecimal monthly(BigDecimal convertedAmount, Integer billingCycle) {
+        if (billingCycle == null || billingCycle <= 0) {
+            return BigDecimal.ZERO;
+        }
+        return convertedAmount.divide(BigDecimal.valueOf(billingCycle), MONTHLY_SCALE, RoundingMode.HALF_UP);
+    }
+
+    private static BigDecimal orZero(BigDecimal value) {
+        return value == null ? BigDecimal.ZERO : value;
+    }
+
+    private record Key(String currency, Integer billingCycle) {
+    }
+
+    private record Cell(long subscriptions, BigDecimal convertedAmount) {
+
+        static final Cell EMPTY = new Cell(0, BigDecimal.ZERO);
+
+        Cell plus(long count, BigDecimal convertedDelta) {
+            return new Cell(subscriptions + count, convertedAmount.add(convertedDelta));
+        }
+    }
+}
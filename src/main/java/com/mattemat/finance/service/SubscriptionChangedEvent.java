@@ -0,0 +1,41 @@
+package com.mattemat.finance.service;
+
+import com.mattemat.finance.entity.Subscription;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Published by {@link SubscriptionServiceImpl} after subscriptions are written. Each change holds
+ * the state before and after the write; {@code before} is {@code null} for a create and
+ * {@code after} is {@code null} for a delete.
+ */
+public record SubscriptionChangedEvent(List<Change> changes) {
+
+    public record Change(State before, State after) {
+    }
+
+    public record State(
+            Long id,
+            String ownerId,
+            String currency,
+            String convertedCurrency,
+            BigDecimal amount,
+            BigDecimal convertedAmount,
+            Integer billingCycle,
+            LocalDate nextSubscriptionDate) {
+
+        public static State of(Subscription subscription) {
+            return new State(
+                    subscription.getId(),
+                    subscription.getOwnerId(),
+                    subscription.getCurrency(),
+                    subscription.getConvertedCurrency(),
+                    subscription.getAmount(),
+                    subscription.getConvertedAmount(),
+                    subscription.getBillingCycle(),
+                    subscription.getNextSubscriptionDate());
+        }
+    }
+}
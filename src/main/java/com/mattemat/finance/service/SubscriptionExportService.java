@@ -0,0 +1,210 @@
+package com.mattemat.finance.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mattemat.finance.dto.response.SubscriptionResponseDto;
+import com.mattemat.finance.repository.SubscriptionExportRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes the whole subscriptions table as CSV or NDJSON straight from a database cursor. Rows are
+ * formatted and written one at a time into a fixed-size buffer, so memory does not grow with the
+ * table and the response keeps pace with the cursor.
+ */
+@Service
+@Slf4j
+public class SubscriptionExportService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final String[] COLUMNS = {
+            "id", "name", "currency", "amount", "convertedAmount", "billingCycle", "subscriptionDate",
+            "nextSubscriptionDate", "createdAt", "updatedAt", "version"};
+
+    private final SubscriptionExportRepository exportRepository;
+    private final SubscriptionMetrics subscriptionMetrics;
+    private final JsonFactory jsonFactory;
+    private final int fetchSize;
+
+    public SubscriptionExportService(
+            SubscriptionExportRepository exportRepository,
+            SubscriptionMetrics subscriptionMetrics,
+            ObjectMapper objectMapper,
+            @Value("${finance.export.fetch-size:1000}") int fetchSize) {
+        this.exportRepository = exportRepository;
+        this.subscriptionMetrics = subscriptionMetrics;
+        this.jsonFactory = objectMapper.getFactory();
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Writes every subscription of {@code ownerId} to {@code outputStream} in id order,
+     * gzip-compressed if requested, and closes it.
+     */
+    @Transactional(readOnly = true)
+    public long export(String ownerId, Format format, boolean gzip, OutputStream outputStream) throws IOException {
+        log.info("SubscriptionExportService - Exporting subscriptions as {}{}", format, gzip ? " (gzip)" : "");
+        OutputStream target = gzip ? new GZIPOutputStream(outputStream, BUFFER_SIZE) : outputStream;
+        long count;
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8), BUFFER_SIZE)) {
+            count = switch (format) {
+                case CSV -> writeCsv(ownerId, writer);
+                case NDJSON -> writeNdjson(ownerId, writer);
+            };
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        subscriptionMetrics.countRows("export", count);
+        log.info("SubscriptionExportService - Exported {} subscriptions as {}", count, format);
+        return count;
+    }
+
+    private long writeCsv(String ownerId, Writer writer) throws IOException {
+        writer.write(String.join(",", COLUMNS));
+        writer.write("\r\n");
+        // Each row is built here and written once; every Writer call takes the writer's lock.
+        StringBuilder row = new StringBuilder(256);
+        return exportRepository.forEach(ownerId, fetchSize, subscription -> {
+            row.setLength(0);
+            row.append(subscription.getId()).append(',');
+            appendCsvText(row, subscription.getName());
+            row.append(',');
+            appendCsvText(row, subscription.getCurrency());
+            row.append(',').append(subscription.getAmount().toPlainString())
+                    .append(',').append(subscription.getConvertedAmount().toPlainString())
+                    .append(',').append(subscription.getBillingCycle())
+                    .append(',');
+            appendCsvValue(row, format(subscription.getSubscriptionDate()));
+            row.append(',');
+            appendCsvValue(row, format(subscription.getNextSubscriptionDate()));
+            row.append(',');
+            appendCsvValue(row, format(subscription.getCreatedAt()));
+            row.append(',');
+            appendCsvValue(row, format(subscription.getUpdatedAt()));
+            row.append(',').append(subscription.getVersion()).append("\r\n");
+            try {
+                writer.append(row);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private long writeNdjson(String ownerId, Writer writer) throws IOException {
+        try (JsonGenerator generator = jsonFactory.createGenerator(writer)) {
+            // Records are separated by the newline written after each one, not by Jackson.
+            generator.setRootValueSeparator(null);
+            return exportRepository.forEach(ownerId, fetchSize, subscription -> {
+                try {
+                    writeJson(generator, subscription);
+                    generator.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    private static void writeJson(JsonGenerator generator, SubscriptionResponseDto subscription) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField(COLUMNS[0], subscription.getId());
+        generator.writeStringField(COLUMNS[1], subscription.getName());
+        generator.writeStringField(COLUMNS[2], subscription.getCurrency());
+        generator.writeNumberField(COLUMNS[3], subscription.getAmount());
+        generator.writeNumberField(COLUMNS[4], subscription.getConvertedAmount());
+        generator.writeNumberField(COLUMNS[5], subscription.getBillingCycle());
+        generator.writeStringField(COLUMNS[6], format(subscription.getSubscriptionDate()));
+        generator.writeStringField(COLUMNS[7], format(subscription.getNextSubscriptionDate()));
+        generator.writeStringField(COLUMNS[8], format(subscription.getCreatedAt()));
+        generator.writeStringField(COLUMNS[9], format(subscription.getUpdatedAt()));
+        generator.writeNumberField(COLUMNS[10], subscription.getVersion());
+        generator.writeEndObject();
+    }
+
+    private static void appendCsvValue(StringBuilder row, String value) {
+        if (value != null) {
+            row.append(value);
+        }
+    }
+
+    /**
+     * Quotes fields containing a delimiter, quote or line break, doubling embedded quotes (RFC 4180).
+     */
+    private static void appendCsvText(StringBuilder row, String value) {
+        if (value == null) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\r' || c == '\n';
+        }
+        if (!quote) {
+            row.append(value);
+            return;
+        }
+        row.append('"').append(value.replace("\"", "\"\"")).append('"');
+    }
+
+    private static String format(LocalDate date) {
+        return date == null ? null : date.toString();
+    }
+
+    /**
+     * Always writes seconds, as Jackson does for {@code LocalDateTime}; {@code toString()} drops them
+     * when they are zero.
+     */
+    private static String format(LocalDateTime dateTime) {
+        return dateTime == null ? null : DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(dateTime);
+    }
+
+    public enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String mediaType;
+        private final String extension;
+
+        Format(String mediaType, String extension) {
+            this.mediaType = mediaType;
+            this.extension = extension;
+        }
+
+        public String mediaType() {
+            return mediaType;
+        }
+
+        public String extension() {
+            return extension;
+        }
+
+        /**
+         * Returns the format named by {@code value}, ignoring case, or {@code null} if there is none.
+         */
+        public static Format parse(String value) {
+            for (Format format : values()) {
+                if (format.name().equals(value.toUpperCase(Locale.ROOT))) {
+                    return format;
+                }
+            }
+            return null;
+        }
+    }
+}
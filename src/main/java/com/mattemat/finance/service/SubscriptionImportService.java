@@ -0,0 +1,351 @@
+package com.mattemat.finance.service;
+
+import com.mattemat.finance.dto.response.SubscriptionImportResponseDto;
+import com.mattemat.finance.repository.SubscriptionImportRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Loads subscriptions from CSV in one pass and one transaction.
+ * <p>
+ * Records are parsed, validated and converted one at a time, at the rates
+ * {@link SubscriptionServiceImpl#create} would use, and handed to
+ * {@link SubscriptionImportRepository} in chunks of {@code finance.import.chunk-size}, so memory
+ * does not grow with the file. Invalid records are reported by line and skipped; the rest commit
+ * together. The spend summary and the renewal calendar are rebuilt once afterwards instead of
+ * following each row.
+ */
+@Service
+@Slf4j
+public class SubscriptionImportService {
+
+    public static final List<String> COLUMNS = List.of(
+            "name", "fromCurrency", "toCurrency", "amount", "billingCycle", "subscriptionDate");
+    public static final int MAX_REPORTED_REJECTIONS = 1000;
+
+    // Bounds of the name, currency and DECIMAL(8, 2) amount columns.
+    private static final int MAX_NAME_LENGTH = 255;
+    private static final int MAX_CURRENCY_LENGTH = 10;
+    private static final BigDecimal MAX_AMOUNT = new BigDecimal("1000000");
+
+    private final SubscriptionImportRepository importRepository;
+    private final SubscriptionServiceImpl subscriptionService;
+    private final SpendSummaryService spendSummaryService;
+    private final RenewalCalendarService renewalCalendarService;
+    private final EntityCacheEvictor entityCacheEvictor;
+    private final TransactionTemplate transactionTemplate;
+    private final SubscriptionMetrics subscriptionMetrics;
+    private final int chunkSize;
+
+    public SubscriptionImportService(
+            SubscriptionImportRepository importRepository,
+            SubscriptionServiceImpl subscriptionService,
+            SpendSummaryService spendSummaryService,
+            RenewalCalendarService renewalCalendarService,
+            EntityCacheEvictor entityCacheEvictor,
+            TransactionTemplate transactionTemplate,
+            SubscriptionMetrics subscriptionMetrics,
+            @Value("${finance.import.chunk-size:5000}") int chunkSize) {
+        this.importRepository = importRepository;
+        this.subscriptionService = subscriptionService;
+        this.spendSummaryService = spendSummaryService;
+        this.renewalCalendarService = renewalCalendarService;
+        this.entityCacheEvictor = entityCacheEvictor;
+        this.transactionTemplate = transactionTemplate;
+        this.subscriptionMetrics = subscriptionMetrics;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Imports CSV with a header row naming at least the {@link #COLUMNS}, in any order, as
+     * subscriptions of the current {@link OwnerContext owner}.
+     *
+     * @throws IllegalArgumentException if the header is missing or lacks a column
+     */
+    public SubscriptionImportResponseDto importCsv(InputStream inputStream) throws IOException {
+        long start = System.nanoTime();
+        CsvReader reader = new CsvReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        int[] columns = columnIndexes(reader.next());
+        log.info("SubscriptionImportService - Importing subscriptions");
+
+        SubscriptionImportResponseDto response;
+        try {
+            String ownerId = OwnerContext.current();
+            response = transactionTemplate.execute(status -> load(ownerId, reader, columns));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        response.setElapsedMillis((System.nanoTime() - start) / 1_000_000);
+
+        if (response.getImported() > 0) {
+            entityCacheEvictor.evictSubscriptions(List.of());
+            subscriptionMetrics.countRows("import", response.getImported());
+            spendSummaryService.rebuild();
+            renewalCalendarService.rebuild();
+        }
+        log.info("SubscriptionImportService - Imported {} subscriptions and rejected {} in {} ms",
+                response.getImported(), response.getRejected(), response.getElapsedMillis());
+        return response;
+    }
+
+    private SubscriptionImportResponseDto load(String ownerId, CsvReader reader, int[] columns) {
+        LocalDateTime createdAt = LocalDateTime.now();
+        List<SubscriptionImportRepository.Row> chunk = new ArrayList<>(chunkSize);
+        List<SubscriptionImportResponseDto.Rejection> rejections = new ArrayList<>();
+        long imported = 0;
+        long rejected = 0;
+        try {
+            while (true) {
+                try {
+                    List<String> fields = reader.next();
+                    if (fields == null) {
+                        break;
+                    }
+                    chunk.add(toRow(fields, columns));
+                } catch (IllegalArgumentException | ArithmeticException e) {
+                    rejected++;
+                    if (rejections.size() < MAX_REPORTED_REJECTIONS) {
+                        rejections.add(rejection(reader.recordLine(), e));
+                    }
+                    continue;
+                }
+                if (chunk.size() == chunkSize) {
+                    imported += importRepository.insert(ownerId, chunk, createdAt);
+                    chunk.clear();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        imported += importRepository.insert(ownerId, chunk, createdAt);
+
+        SubscriptionImportResponseDto response = new SubscriptionImportResponseDto();
+        response.setImported(imported);
+        response.setRejected(rejected);
+        response.setRejections(rejections);
+        return response;
+    }
+
+    private SubscriptionImportRepository.Row toRow(List<String> fields, int[] columns) {
+        if (fields.size() < maxIndex(columns) + 1) {
+            throw new IllegalArgumentException("Expected " + (maxIndex(columns) + 1) + " fields, found " + fields.size());
+        }
+        String name = required(fields.get(columns[0]), COLUMNS.get(0), MAX_NAME_LENGTH);
+        String fromCurrency = required(fields.get(columns[1]), COLUMNS.get(1), MAX_CURRENCY_LENGTH);
+        String toCurrency = required(fields.get(columns[2]), COLUMNS.get(2), MAX_CURRENCY_LENGTH);
+        BigDecimal amount = amount(fields.get(columns[3]));
+        int billingCycle = billingCycle(fields.get(columns[4]));
+        LocalDate subscriptionDate = date(fields.get(columns[5]));
+
+        BigDecimal convertedAmount;
+        try {
+            convertedAmount = subscriptionService.convertedAmount(amount, fromCurrency, toCurrency);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Converted amount is out of range");
+        }
+        if (convertedAmount.abs().compareTo(MAX_AMOUNT) >= 0) {
+            throw new IllegalArgumentException("Converted amount is out of range");
+        }
+        return new SubscriptionImportRepository.Row(name, fromCurrency, amount, convertedAmount, toCurrency,
+                billingCycle, subscriptionDate, subscriptionDate.plusMonths(billingCycle));
+    }
+
+    private static String required(String value, String column, int maxLength) {
+        if (value.isBlank()) {
+            throw new IllegalArgumentException(column + " is required");
+        }
+        if (value.length() > maxLength) {
+            throw new IllegalArgumentException(column + " is longer than " + maxLength + " characters");
+        }
+        return value;
+    }
+
+    private static BigDecimal amount(String value) {
+        BigDecimal amount;
+        try {
+            amount = new BigDecimal(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("amount is not a number: " + value);
+        }
+        if (amount.scale() > FixedPointMoney.AMOUNT_SCALE && amount.stripTrailingZeros().scale() > FixedPointMoney.AMOUNT_SCALE) {
+            throw new IllegalArgumentException("amount has more than " + FixedPointMoney.AMOUNT_SCALE + " decimal places");
+        }
+        if (amount.abs().compareTo(MAX_AMOUNT) >= 0) {
+            throw new IllegalArgumentException("amount is out of range");
+        }
+        return amount;
+    }
+
+    private static int billingCycle(String value) {
+        int billingCycle;
+        try {
+            billingCycle = Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("billingCycle is not a whole number: " + value);
+        }
+        if (billingCycle < 0) {
+            throw new IllegalArgumentException("billingCycle must not be negative");
+        }
+        return billingCycle;
+    }
+
+    private static LocalDate date(String value) {
+        try {
+            return LocalDate.parse(value.trim());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("subscriptionDate is not an ISO date: " + value);
+        }
+    }
+
+    private static int[] columnIndexes(List<String> header) {
+        if (header == null) {
+            throw new IllegalArgumentException("CSV is empty");
+        }
+        int[] indexes = new int[COLUMNS.size()];
+        for (int i = 0; i < COLUMNS.size(); i++) {
+            int index = -1;
+            for (int j = 0; j < header.size() && index < 0; j++) {
+                // Spreadsheets often save UTF-8 with a byte order mark.
+                String name = j == 0 ? header.get(j).replace("\uFEFF", "") : header.get(j);
+                if (name.trim().equalsIgnoreCase(COLUMNS.get(i))) {
+                    index = j;
+                }
+            }
+            if (index < 0) {
+                throw new IllegalArgumentException("Missing column " + COLUMNS.get(i));
+            }
+            indexes[i] = index;
+        }
+        return indexes;
+    }
+
+    private static int maxIndex(int[] columns) {
+        int max = 0;
+        for (int column : columns) {
+            max = Math.max(max, column);
+        }
+        return max;
+    }
+
+    private static SubscriptionImportResponseDto.Rejection rejection(long line, RuntimeException e) {
+        SubscriptionImportResponseDto.Rejection rejection = new SubscriptionImportResponseDto.Rejection();
+        rejection.setLine(line);
+        rejection.setMessage(e.getMessage());
+        return rejection;
+    }
+
+    /**
+     * Reads RFC 4180 records, including quoted fields spanning lines, from its own buffer rather
+     * than a {@link java.io.BufferedReader}, whose per-character reads each take a lock.
+     */
+    static final class CsvReader {
+
+        private final Reader reader;
+        private final char[] buffer = new char[64 * 1024];
+        private final StringBuilder field = new StringBuilder();
+        private int position;
+        private int limit;
+        private long line = 1;
+        private long recordLine;
+
+        CsvReader(Reader reader) {
+            this.reader = reader;
+        }
+
+        /**
+         * Line on which the record last returned by {@link #next()} starts.
+         */
+        long recordLine() {
+            return recordLine;
+        }
+
+        /**
+         * Returns the fields of the next non-blank record, or {@code null} at the end of input.
+         *
+         * @throws IllegalArgumentException if a quoted field is not closed before the end of input,
+         *                                  which is then consumed
+         */
+        List<String> next() throws IOException {
+            int c = read();
+            while (c == '\r' || c == '\n') {
+                skipLineBreak(c);
+                c = read();
+            }
+            if (c < 0) {
+                return null;
+            }
+            recordLine = line;
+            List<String> fields = new ArrayList<>(8);
+            field.setLength(0);
+            boolean quoted = false;
+            while (true) {
+                if (quoted) {
+                    if (c < 0) {
+                        throw new IllegalArgumentException("Quoted field is not closed");
+                    }
+                    if (c == '"') {
+                        c = read();
+                        if (c != '"') {
+                            quoted = false;
+                            continue;
+                        }
+                    } else if (c == '\n') {
+                        line++;
+                    }
+                    field.append((char) c);
+                } else if (c == '"' && field.isEmpty()) {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c < 0 || c == '\r' || c == '\n') {
+                    fields.add(field.toString());
+                    if (c >= 0) {
+                        skipLineBreak(c);
+                    }
+                    return fields;
+                } else {
+                    field.append((char) c);
+                }
+                c = read();
+            }
+        }
+
+        /**
+         * Consumes the rest of a line break starting with {@code c}.
+         */
+        private void skipLineBreak(int c) throws IOException {
+            line++;
+            if (c == '\r' && fill() && buffer[position] == '\n') {
+                position++;
+            }
+        }
+
+        private int read() throws IOException {
+            return fill() ? buffer[position++] : -1;
+        }
+
+        private boolean fill() throws IOException {
+            if (position == limit) {
+                limit = Math.max(reader.read(buffer, 0, buffer.length), 0);
+                position = 0;
+            }
+            return position < limit;
+        }
+    }
+}
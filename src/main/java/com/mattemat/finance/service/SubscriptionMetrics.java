@@ -0,0 +1,108 @@
+package com.mattemat.finance.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Meters for {@link SubscriptionServiceImpl}.
+ * <p>
+ * {@code finance.subscriptions.operation} times each service operation, tagged with
+ * {@code operation} and an {@code outcome} of {@code success}, {@code not_found} or
+ * {@code error}. {@code finance.conversion} times {@code convertedAmount}; it runs once per converted
+ * amount, so it keeps count, total and max but no percentile histogram, which would double the cost
+ * of a conversion under Prometheus. Timers and row counters are registered once per operation and
+ * outcome, so recording costs one {@link System#nanoTime()} pair and a histogram update, with no
+ * meter lookup. Controller and repository calls are timed by Spring Boot as
+ * {@code http.server.requests} and {@code spring.data.repository.invocations}.
+ */
+@Component
+public class SubscriptionMetrics {
+
+    public static final String OPERATION_TIMER = "finance.subscriptions.operation";
+    public static final String CONVERSION_TIMER = "finance.conversion";
+    public static final String ROWS_COUNTER = "finance.subscriptions.rows";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, OperationTimers> operationTimers = new ConcurrentHashMap<>();
+    private final Map<String, Counter> rowCounters = new ConcurrentHashMap<>();
+    private final Timer conversionSuccess;
+    private final Timer conversionError;
+
+    public SubscriptionMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.conversionSuccess = conversionTimer("success");
+        this.conversionError = conversionTimer("error");
+    }
+
+    /**
+     * Runs {@code call} and records it under {@code operation}; a {@code null} result is recorded as
+     * {@code not_found}.
+     */
+    public <T> T time(String operation, Supplier<T> call) {
+        OperationTimers timers = operationTimers.get(operation);
+        if (timers == null) {
+            timers = operationTimers.computeIfAbsent(operation, OperationTimers::new);
+        }
+        long start = System.nanoTime();
+        Timer timer = timers.error;
+        try {
+            T result = call.get();
+            timer = result == null ? timers.notFound : timers.success;
+            return result;
+        } finally {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public void recordConversion(long nanos, boolean success) {
+        (success ? conversionSuccess : conversionError).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void countRows(String operation, long rows) {
+        Counter counter = rowCounters.get(operation);
+        if (counter == null) {
+            counter = rowCounters.computeIfAbsent(operation, this::rowCounter);
+        }
+        counter.increment(rows);
+    }
+
+    private final class OperationTimers {
+
+        private final Timer success;
+        private final Timer notFound;
+        private final Timer error;
+
+        private OperationTimers(String operation) {
+            this.success = operationTimer(operation, "success");
+            this.notFound = operationTimer(operation, "not_found");
+            this.error = operationTimer(operation, "error");
+        }
+    }
+
+    private Timer operationTimer(String operation, String outcome) {
+        return Timer.builder(OPERATION_TIMER)
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private Counter rowCounter(String operation) {
+        return Counter.builder(ROWS_COUNTER)
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+
+    private Timer conversionTimer(String outcome) {
+        return Timer.builder(CONVERSION_TIMER)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,261 @@
+package com.mattemat.finance.service;
+
+import com.mattemat.finance.dto.response.ReconversionProgressResponseDto;
+import com.mattemat.finance.repository.SubscriptionReconversionRepository;
+import com.mattemat.finance.repository.SubscriptionReconversionRepository.AffectedRow;
+import com.mattemat.finance.repository.SubscriptionReconversionRepository.Job;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Recomputes {@code converted_amount} at current rates after an {@link ExchangeRatesChangedEvent}.
+ * The column always holds the amount at current rates, so an amount converted at older rates is
+ * overwritten; conversion as of a past date is offered by
+ * {@link CurrencyConversionService#convertAsOf} and never stored.
+ * <p>
+ * Every rate change is queued as a job in {@code subscription_reconversions}, and jobs are worked
+ * off oldest first on a background thread. A job walks the subscriptions in its currencies by id,
+ * one keyset chunk at a time; each chunk gets one set-based UPDATE per currency pair at the cross
+ * rate of the current {@link ExchangeRateCache} snapshot, and the job's last id is checkpointed in
+ * the same short transaction. A restarted instance resumes from the checkpoint, repeating a chunk
+ * changes nothing, and throughput is capped at {@code finance.reconversion.max-rows-per-second}.
+ * Rows written before {@code converted_currency} was recorded are left as they are.
+ */
+@Service
+@Slf4j
+public class SubscriptionReconversionService {
+
+    private final SubscriptionReconversionRepository reconversionRepository;
+    private final ExchangeRateCache exchangeRateCache;
+    private final SpendSummaryService spendSummaryService;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityCacheEvictor entityCacheEvictor;
+    private final SubscriptionMetrics subscriptionMetrics;
+    private final int chunkSize;
+    private final int maxRowsPerSecond;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private volatile JobProgress progress;
+
+    public SubscriptionReconversionService(
+            SubscriptionReconversionRepository reconversionRepository,
+            ExchangeRateCache exchangeRateCache,
+            SpendSummaryService spendSummaryService,
+            TransactionTemplate transactionTemplate,
+            EntityCacheEvictor entityCacheEvictor,
+            SubscriptionMetrics subscriptionMetrics,
+            @Value("${finance.reconversion.chunk-size:1000}") int chunkSize,
+            @Value("${finance.reconversion.max-rows-per-second:5000}") int maxRowsPerSecond) {
+        this.reconversionRepository = reconversionRepository;
+        this.exchangeRateCache = exchangeRateCache;
+        this.spendSummaryService = spendSummaryService;
+        this.transactionTemplate = transactionTemplate;
+        this.entityCacheEvictor = entityCacheEvictor;
+        this.subscriptionMetrics = subscriptionMetrics;
+        this.chunkSize = chunkSize;
+        this.maxRowsPerSecond = maxRowsPerSecond;
+    }
+
+    @EventListener
+    public void onRatesChanged(ExchangeRatesChangedEvent event) {
+        if (event.currencies().isEmpty()) {
+            return;
+        }
+        long jobId = enqueue(event.currencies());
+        log.info("SubscriptionReconversionService - Queued job {} for {} changed rates", jobId, event.currencies().size());
+        Thread.ofVirtual().name("subscription-reconversion").start(this::runInBackground);
+    }
+
+    /**
+     * Picks up jobs left by a restart or queued on another instance.
+     */
+    @Scheduled(fixedDelayString = "${finance.reconversion.check-interval:PT1M}",
+            initialDelayString = "${finance.reconversion.check-interval:PT1M}")
+    public void resumePending() {
+        if (!running.get() && reconversionRepository.countPending() > 0) {
+            runPending();
+        }
+    }
+
+    public long enqueue(Iterable<String> currencies) {
+        TreeSet<String> sorted = new TreeSet<>();
+        currencies.forEach(sorted::add);
+        return reconversionRepository.enqueue(sorted);
+    }
+
+    /**
+     * Runs every pending job to completion on the calling thread, or returns at once if jobs are
+     * already running.
+     */
+    public ReconversionResult runPending() {
+        if (!running.compareAndSet(false, true)) {
+            log.debug("SubscriptionReconversionService - Re-conversion already running");
+            return ReconversionResult.EMPTY;
+        }
+        try {
+            ReconversionResult total = ReconversionResult.EMPTY;
+            Optional<Job> job;
+            while ((job = reconversionRepository.findNextPending()).isPresent()) {
+                total = total.plus(runJob(job.get()));
+            }
+            if (total.rowsUpdated() > 0) {
+                spendSummaryService.rebuild();
+            }
+            return total;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private void runInBackground() {
+        try {
+            runPending();
+        } catch (RuntimeException e) {
+            log.warn("SubscriptionReconversionService - Re-conversion failed, resuming from checkpoint on next check", e);
+        }
+    }
+
+    public ReconversionProgressResponseDto progress() {
+        ReconversionProgressResponseDto dto = new ReconversionProgressResponseDto();
+        dto.setRunning(running.get());
+        dto.setPendingJobs(reconversionRepository.countPending());
+        JobProgress current = progress;
+        if (current != null) {
+            dto.setJobId(current.jobId());
+            dto.setCurrencies(current.currencies());
+            dto.setLastId(current.lastId());
+            dto.setRowsScanned(current.rowsScanned());
+            dto.setRowsUpdated(current.rowsUpdated());
+            dto.setRowsPerSecond(current.rowsPerSecond());
+            dto.setStartedAt(current.startedAt());
+            dto.setUpdatedAt(current.updatedAt());
+        }
+        return dto;
+    }
+
+    private ReconversionResult runJob(Job job) {
+        long start = System.nanoTime();
+        Instant startedAt = Instant.now();
+        long lastId = job.lastId();
+        long rowsScanned = 0;
+        long rowsUpdated = 0;
+        int chunks = 0;
+        log.info("SubscriptionReconversionService - Re-converting job {} for {} from ID {}",
+                job.id(), job.currencies(), lastId);
+
+        while (true) {
+            List<AffectedRow> rows = reconversionRepository.findAffectedRows(job.currencies(), lastId, chunkSize);
+            if (rows.isEmpty()) {
+                break;
+            }
+            long chunkLastId = rows.getLast().id();
+            int updated = transactionTemplate.execute(status -> reconvertChunk(job.id(), rows, chunkLastId));
+            if (updated > 0) {
+                entityCacheEvictor.evictSubscriptions(rows.stream().map(AffectedRow::id).toList());
+                subscriptionMetrics.countRows("reconvert", updated);
+            }
+            lastId = chunkLastId;
+            rowsScanned += rows.size();
+            rowsUpdated += updated;
+            chunks++;
+
+            JobProgress current = new JobProgress(job.id(), job.currencies(), lastId, rowsScanned,
+                    job.rowsUpdated() + rowsUpdated, System.nanoTime() - start, startedAt, Instant.now());
+            progress = current;
+            log.info("SubscriptionReconversionService - Job {} at ID {}: {} rows scanned, {} updated, {} rows/s",
+                    job.id(), lastId, rowsScanned, rowsUpdated, Math.round(current.rowsPerSecond()));
+            throttle(rowsScanned, start);
+        }
+
+        reconversionRepository.complete(job.id());
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        log.info("SubscriptionReconversionService - Completed job {}: {} rows scanned, {} updated in {} chunks and {} ms",
+                job.id(), rowsScanned, rowsUpdated, chunks, elapsed.toMillis());
+        return new ReconversionResult(1, rowsScanned, rowsUpdated, chunks, elapsed);
+    }
+
+    private int reconvertChunk(long jobId, List<AffectedRow> rows, long lastId) {
+        CrossRateMatrix crossRates = exchangeRateCache.crossRates();
+        Map<List<String>, List<Long>> idsByPair = new LinkedHashMap<>();
+        for (AffectedRow row : rows) {
+            idsByPair.computeIfAbsent(List.of(row.currency(), row.convertedCurrency()), pair -> new ArrayList<>())
+                    .add(row.id());
+        }
+
+        int updated = 0;
+        for (Map.Entry<List<String>, List<Long>> entry : idsByPair.entrySet()) {
+            String fromCurrency = entry.getKey().get(0);
+            String toCurrency = entry.getKey().get(1);
+            int from = crossRates.indexOf(fromCurrency);
+            int to = crossRates.indexOf(toCurrency);
+            if (from < 0 || to < 0) {
+                log.warn("SubscriptionReconversionService - No current rate for {} to {}, skipping {} subscriptions",
+                        fromCurrency, toCurrency, entry.getValue().size());
+                continue;
+            }
+            updated += reconversionRepository.reconvert(entry.getValue(), fromCurrency, toCurrency,
+                    crossRates.crossRate(from, to));
+        }
+        reconversionRepository.checkpoint(jobId, lastId, updated);
+        return updated;
+    }
+
+    private void throttle(long rowsScanned, long startNanos) {
+        if (maxRowsPerSecond <= 0) {
+            return;
+        }
+        long aheadNanos = rowsScanned * 1_000_000_000L / maxRowsPerSecond - (System.nanoTime() - startNanos);
+        if (aheadNanos <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(Duration.ofNanos(aheadNanos));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Re-conversion interrupted", e);
+        }
+    }
+
+    private record JobProgress(
+            long jobId,
+            List<String> currencies,
+            long lastId,
+            long rowsScanned,
+            long rowsUpdated,
+            long elapsedNanos,
+            Instant startedAt,
+            Instant updatedAt) {
+
+        double rowsPerSecond() {
+            return elapsedNanos == 0 ? 0 : rowsScanned * 1e9 / elapsedNanos;
+        }
+    }
+
+    public record ReconversionResult(int jobs, long rowsScanned, long rowsUpdated, int chunks, Duration elapsed) {
+
+        static final ReconversionResult EMPTY = new ReconversionResult(0, 0, 0, 0, Duration.ZERO);
+
+        ReconversionResult plus(ReconversionResult other) {
+            return new ReconversionResult(
+                    jobs + other.jobs,
+                    rowsScanned + other.rowsScanned,
+                    rowsUpdated + other.rowsUpdated,
+                    chunks + other.chunks,
+                    elapsed.plus(other.elapsed));
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.mattemat.finance.service;
+
+import com.mattemat.finance.repository.SubscriptionRenewalRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Rolls {@code next_subscription_date} forward by whole billing cycles once it has passed.
+ * <p>
+ * Overdue ids are split into contiguous ranges that are walked in parallel, one keyset chunk at a
+ * time, and each chunk is advanced by a single set-based UPDATE in its own short transaction. The
+ * new date is counted in whole cycles from {@code subscription_date}, so a subscription started on
+ * the 31st comes back to the 31st in longer months. Every statement is guarded by
+ * {@code next_subscription_date < asOf}, so a run can be interrupted and repeated at any point
+ * without advancing a row twice.
+ */
+@Service
+@Slf4j
+public class SubscriptionRenewalService {
+
+    private final SubscriptionRenewalRepository renewalRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityCacheEvictor entityCacheEvictor;
+    private final int chunkSize;
+    private final int partitions;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public SubscriptionRenewalService(
+            SubscriptionRenewalRepository renewalRepository,
+            TransactionTemplate transactionTemplate,
+            EntityCacheEvictor entityCacheEvictor,
+            @Value("${finance.renewal.chunk-size:1000}") int chunkSize,
+            @Value("${finance.renewal.partitions:4}") int partitions) {
+        this.renewalRepository = renewalRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.entityCacheEvictor = entityCacheEvictor;
+        this.chunkSize = chunkSize;
+        this.partitions = partitions;
+    }
+
+    @Scheduled(cron = "${finance.renewal.cron:0 15 0 * * *}")
+    public void renewOverdue() {
+        renew(LocalDate.now());
+    }
+
+    public RenewalResult renew(LocalDate asOf) {
+        if (!running.compareAndSet(false, true)) {
+            log.warn("SubscriptionRenewalService - Renewal already running, skipping run as of {}", asOf);
+            return RenewalResult.EMPTY;
+        }
+        try {
+            return renewPartitions(asOf);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private RenewalResult renewPartitions(LocalDate asOf) {
+        long start = System.nanoTime();
+        var range = renewalRepository.findOverdueIdRange(asOf);
+        if (range.isEmpty()) {
+            log.info("SubscriptionRenewalService - No overdue subscriptions as of {}", asOf);
+            return RenewalResult.EMPTY;
+        }
+
+        long minId = range.get()[0];
+        long maxId = range.get()[1];
+        long span = Math.max(1, (maxId - minId + partitions) / partitions);
+        log.info("SubscriptionRenewalService - Renewing subscriptions {}..{} as of {} in {} partitions",
+                minId, maxId, asOf, partitions);
+
+        List<Future<RenewalResult>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(partitions)) {
+            for (long lower = minId - 1; lower < maxId; lower += span) {
+                long afterId = lower;
+                long upToId = Math.min(maxId, lower + span);
+                futures.add(executor.submit(() -> renewRange(asOf, afterId, upToId)));
+            }
+        }
+
+        RenewalResult total = RenewalResult.EMPTY;
+        for (Future<RenewalResult> future : futures) {
+            try {
+                total = total.plus(future.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Renewal interrupted", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Renewal partition failed", e.getCause());
+            }
+        }
+        total = total.withElapsed(Duration.ofNanos(System.nanoTime() - start));
+        log.info("SubscriptionRenewalService - Renewed {} subscriptions in {} chunks and {} ms",
+                total.rowsRenewed(), total.chunks(), total.elapsed().toMillis());
+        return total;
+    }
+
+    private RenewalResult renewRange(LocalDate asOf, long afterId, long upToId) {
+        int rowsRenewed = 0;
+        int chunks = 0;
+        long lastId = afterId;
+        while (true) {
+            List<Long> ids = renewalRepository.findOverdueIds(asOf, lastId, upToId, chunkSize);
+            if (ids.isEmpty()) {
+                break;
+            }
+            rowsRenewed += advanceChunk(ids, asOf);
+            chunks++;
+            lastId = ids.getLast();
+        }
+        return new RenewalResult(rowsRenewed, chunks, Duration.ZERO);
+    }
+
+    private int advanceChunk(List<Long> ids, LocalDate asOf) {
+        int updated = transactionTemplate.execute(status -> renewalRepository.advanceToAsOf(ids, asOf));
+        if (updated > 0) {
+            entityCacheEvictor.evictSubscriptions(ids);
+        }
+        return updated;
+    }
+
+    public record RenewalResult(int rowsRenewed, int chunks, Duration elapsed) {
+
+        static final RenewalResult EMPTY = new RenewalResult(0, 0, Duration.ZERO);
+
+        RenewalResult plus(RenewalResult other) {
+            return new RenewalResult(
+                    rowsRenewed + other.rowsRenewed,
+                    chunks + other.chunks,
+                    elapsed);
+        }
+
+        RenewalResult withElapsed(Duration elapsed) {
+            return new RenewalResult(rowsRenewed, chunks, elapsed);
+        }
+    }
+}
@@ -1,112 +1,490 @@
 package com.mattemat.finance.service;
 
+import com.mattemat.finance.dto.request.SubscriptionBatchRequestDto;
+import com.mattemat.finance.dto.request.SubscriptionBatchRequestDto.OperationType;
+import com.mattemat.finance.dto.request.SubscriptionFilterDto;
 import com.mattemat.finance.dto.request.SubscriptionRequestDto;
+import com.mattemat.finance.dto.response.SubscriptionBatchResponseDto;
+import com.mattemat.finance.dto.response.SubscriptionPageResponseDto;
 import com.mattemat.finance.dto.response.SubscriptionResponseDto;
 import com.mattemat.finance.entity.Subscription;
 import com.mattemat.finance.mapper.SubscriptionMapper;
-import com.mattemat.finance.repository.CurrencyRepository;
 import com.mattemat.finance.repository.SubscriptionRepository;
+import com.mattemat.finance.repository.SubscriptionSearchRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Slf4j
 public class SubscriptionServiceImpl
         implements GenericCrudService<SubscriptionRequestDto, SubscriptionResponseDto> {
 
-    private final CurrencyRepository currencyRepository;
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+    public static final int MAX_BATCH_SIZE = 1000;
+
+    private final CurrencyConversionService currencyConversionService;
     private final SubscriptionRepository subscriptionRepository;
+    private final SubscriptionSearchRepository subscriptionSearchRepository;
     private final SubscriptionMapper subscriptionMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityCacheEvictor entityCacheEvictor;
+    private final SubscriptionWriteBehind writeBehind;
+    private final SubscriptionMetrics subscriptionMetrics;
 
     @Autowired
     public SubscriptionServiceImpl(
-            CurrencyRepository currencyRepository,
+            CurrencyConversionService currencyConversionService,
             SubscriptionRepository subscriptionRepository,
-            SubscriptionMapper subscriptionMapper) {
-        this.currencyRepository = currencyRepository;
+            SubscriptionSearchRepository subscriptionSearchRepository,
+            SubscriptionMapper subscriptionMapper,
+            ApplicationEventPublisher eventPublisher,
+            EntityCacheEvictor entityCacheEvictor,
+            SubscriptionWriteBehind writeBehind,
+            SubscriptionMetrics subscriptionMetrics) {
+        this.currencyConversionService = currencyConversionService;
         this.subscriptionRepository = subscriptionRepository;
+        this.subscriptionSearchRepository = subscriptionSearchRepository;
         this.subscriptionMapper = subscriptionMapper;
+        this.eventPublisher = eventPublisher;
+        this.entityCacheEvictor = entityCacheEvictor;
+        this.writeBehind = writeBehind;
+        this.subscriptionMetrics = subscriptionMetrics;
         log.info("SubscriptionService - SubscriptionServiceImpl initialized");
     }
 
+    /**
+     * Converts and saves a new subscription. With {@link SubscriptionWriteBehind} enabled the insert
+     * is group-committed with concurrent creates, and this returns once that batch has committed.
+     *
+     * @throws java.util.concurrent.RejectedExecutionException if the write-behind queue is full
+     */
     @Override
     public SubscriptionResponseDto create(SubscriptionRequestDto subscriptionRequestDto) {
-        log.info("SubscriptionService - Creating new subscription");
-        Subscription subscription = subscriptionMapper.toEntity(subscriptionRequestDto);
-        subscription.setConvertedAmount(convertedAmount(subscriptionRequestDto.getAmount(), subscriptionRequestDto.getFromCurrency(), subscriptionRequestDto.getToCurrency()));
-        subscription.setNextSubscriptionDate(
-                subscriptionRequestDto.getSubscriptionDate().plusMonths(subscriptionRequestDto.getBillingCycle()));
-        Subscription savedSubscription = subscriptionRepository.save(subscription);
-        log.info("SubscriptionService - Subscription created with ID: {}", savedSubscription.getId());
-        return subscriptionMapper.toDto(savedSubscription);
+        return subscriptionMetrics.time("create", () -> {
+            log.info("SubscriptionService - Creating new subscription");
+            Subscription subscription = newSubscription(OwnerContext.current(), subscriptionRequestDto);
+            if (writeBehind.isEnabled()) {
+                Subscription savedSubscription = writeBehind.save(subscription);
+                log.info("SubscriptionService - Subscription created with ID: {}", savedSubscription.getId());
+                return subscriptionMapper.toDto(savedSubscription);
+            }
+            Subscription savedSubscription = subscriptionRepository.save(subscription);
+            publishChanges(List.of(new SubscriptionChangedEvent.Change(null, SubscriptionChangedEvent.State.of(savedSubscription))));
+            log.info("SubscriptionService - Subscription created with ID: {}", savedSubscription.getId());
+            return subscriptionMapper.toDto(savedSubscription);
+        });
     }
 
+    /**
+     * Loads the entity so repeated reads can be served from the second-level cache; the read-only
+     * transaction keeps Hibernate from taking a dirty-checking snapshot of it.
+     */
     @Override
+    @Transactional(readOnly = true)
     public SubscriptionResponseDto read(Long id) {
-        log.info("SubscriptionService - Reading subscription with ID: {}", id);
-        return subscriptionRepository.findById(id)
-                .map(subscription -> {
-                    log.info("SubscriptionService - Subscription found with ID: {}", id);
-                    return subscriptionMapper.toDto(subscription);
-                })
-                .orElseGet(() -> {
-                    log.warn("Subscription not found with ID: {}", id);
-                    return null;
-                });
+        return subscriptionMetrics.time("read", () -> {
+            log.info("SubscriptionService - Reading subscription with ID: {}", id);
+            return findOwned(id)
+                    .map(subscription -> {
+                        log.info("SubscriptionService - Subscription found with ID: {}", id);
+                        return subscriptionMapper.toDto(subscription);
+                    })
+                    .orElseGet(() -> {
+                        log.warn("Subscription not found with ID: {}", id);
+                        return null;
+                    });
+        });
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<SubscriptionResponseDto> readAll() {
-        log.info("SubscriptionService - Reading all subscriptions");
-        List<SubscriptionResponseDto> subscriptions = subscriptionRepository.findAll()
-                .stream()
-                .map(subscriptionMapper::toDto)
-                .toList();
-        log.info("SubscriptionService - Found {} subscriptions", subscriptions.size());
-        return subscriptions;
+        return subscriptionMetrics.time("readAll", () -> {
+            log.info("SubscriptionService - Reading all subscriptions");
+            List<SubscriptionResponseDto> subscriptions = subscriptionRepository.findAllResponses(OwnerContext.current());
+            subscriptionMetrics.countRows("readAll", subscriptions.size());
+            log.info("SubscriptionService - Found {} subscriptions", subscriptions.size());
+            return subscriptions;
+        });
+    }
+
+    @Transactional(readOnly = true)
+    public SubscriptionPageResponseDto readPage(String cursor, Integer limit) {
+        long afterId = decodeCursor(cursor);
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.clamp(limit, 1, MAX_PAGE_SIZE);
+        log.info("SubscriptionService - Reading subscriptions after ID: {} with page size: {}", afterId, pageSize);
+
+        List<SubscriptionResponseDto> items = subscriptionRepository.findResponsesAfter(
+                OwnerContext.current(), afterId, Limit.of(pageSize));
+
+        SubscriptionPageResponseDto page = new SubscriptionPageResponseDto();
+        page.setItems(items);
+        page.setNextCursor(items.size() < pageSize ? null : encodeCursor(items.getLast().getId()));
+        subscriptionMetrics.countRows("readPage", items.size());
+        log.info("SubscriptionService - Found {} subscriptions in page", items.size());
+        return page;
+    }
+
+    /**
+     * Returns one keyset page of the subscriptions matching {@code filter}, ordered by id.
+     *
+     * @throws IllegalArgumentException if the cursor is invalid or a range is inverted
+     */
+    public SubscriptionPageResponseDto search(SubscriptionFilterDto filter, String cursor, Integer limit) {
+        checkRange(filter.getNextFrom(), filter.getNextTo(), "next subscription date");
+        checkRange(filter.getMinAmount(), filter.getMaxAmount(), "amount");
+        long afterId = decodeCursor(cursor);
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.clamp(limit, 1, MAX_PAGE_SIZE);
+        log.info("SubscriptionService - Searching subscriptions after ID: {} with page size: {}", afterId, pageSize);
+
+        List<SubscriptionResponseDto> items = subscriptionSearchRepository.search(
+                OwnerContext.current(), filter, afterId, pageSize);
+
+        SubscriptionPageResponseDto page = new SubscriptionPageResponseDto();
+        page.setItems(items);
+        page.setNextCursor(items.size() < pageSize ? null : encodeCursor(items.getLast().getId()));
+        subscriptionMetrics.countRows("search", items.size());
+        log.info("SubscriptionService - Found {} matching subscriptions in page", items.size());
+        return page;
+    }
+
+    private static <T extends Comparable<T>> void checkRange(T from, T to, String field) {
+        if (from != null && to != null && from.compareTo(to) > 0) {
+            throw new IllegalArgumentException("Invalid " + field + " range: " + from + " is after " + to);
+        }
+    }
+
+    /**
+     * Passes every subscription of {@code ownerId} to {@code consumer}. Takes the owner explicitly
+     * because streaming response bodies are written off the request thread.
+     */
+    @Transactional(readOnly = true)
+    public long streamAll(String ownerId, Consumer<SubscriptionResponseDto> consumer) {
+        log.info("SubscriptionService - Streaming all subscriptions");
+        long count = 0;
+        try (Stream<SubscriptionResponseDto> subscriptions = subscriptionRepository.streamAllResponses(ownerId)) {
+            for (SubscriptionResponseDto subscription : (Iterable<SubscriptionResponseDto>) subscriptions::iterator) {
+                consumer.accept(subscription);
+                count++;
+            }
+        }
+        subscriptionMetrics.countRows("streamAll", count);
+        log.info("SubscriptionService - Streamed {} subscriptions", count);
+        return count;
     }
 
     @Override
-    public void update(Long id, SubscriptionRequestDto request) {
-        log.info("SubscriptionService - Updating subscription with ID: {}", id);
-        Optional<Subscription> subscriptionOpt = subscriptionRepository.findById(id);
-        if (subscriptionOpt.isPresent()) {
+    @Transactional
+    public SubscriptionResponseDto update(Long id, SubscriptionRequestDto request) {
+        return update(id, request, null);
+    }
+
+    /**
+     * Updates the subscription and returns its persisted state, or {@code null} if it does not
+     * exist. The update is flushed before mapping so the returned version is the one written.
+     *
+     * @throws OptimisticLockingFailureException if {@code expectedVersion} is set and differs from
+     *                                           the stored version, or a concurrent write wins
+     */
+    @Transactional
+    public SubscriptionResponseDto update(Long id, SubscriptionRequestDto request, Long expectedVersion) {
+        return subscriptionMetrics.time("update", () -> {
+            log.info("SubscriptionService - Updating subscription with ID: {}", id);
+            Optional<Subscription> subscriptionOpt = findOwned(id);
+            if (subscriptionOpt.isEmpty()) {
+                log.warn("Subscription not found for update with ID: {}", id);
+                return null;
+            }
             Subscription subscription = subscriptionOpt.get();
+            checkVersion(subscription, expectedVersion);
+            SubscriptionChangedEvent.State before = SubscriptionChangedEvent.State.of(subscription);
+            applyUpdate(subscription, request);
+            Subscription savedSubscription = subscriptionRepository.saveAndFlush(subscription);
+            publishChanges(List.of(new SubscriptionChangedEvent.Change(before, SubscriptionChangedEvent.State.of(savedSubscription))));
+            log.info("SubscriptionService - Subscription updated successfully with ID: {}", id);
+            return subscriptionMapper.toDto(savedSubscription);
+        });
+    }
 
-            if (!request.getFromCurrency().equalsIgnoreCase(subscriptionOpt.get().getCurrency())) {
-                BigDecimal convertedAmount = convertedAmount(
-                        request.getAmount(),
-                        request.getFromCurrency(),
-                        request.getToCurrency());
-                log.info("SubscriptionService - Updating converted amount for ID: {}", id);
-                subscription.setConvertedAmount(convertedAmount);
+    @Override
+    @Transactional
+    public boolean delete(Long id) {
+        return delete(id, null);
+    }
+
+    /**
+     * Deletes the subscription and returns whether it existed.
+     *
+     * @throws OptimisticLockingFailureException if {@code expectedVersion} is set and differs from
+     *                                           the stored version
+     */
+    @Transactional
+    public boolean delete(Long id, Long expectedVersion) {
+        // A null result is recorded as not_found.
+        Boolean deleted = subscriptionMetrics.time("delete", () -> {
+            log.info("SubscriptionService - Deleting subscription with ID: {}", id);
+            Optional<Subscription> subscriptionOpt = findOwned(id);
+            if (subscriptionOpt.isEmpty()) {
+                log.warn("Subscription not found for delete with ID: {}", id);
+                return null;
             }
+            Subscription subscription = subscriptionOpt.get();
+            checkVersion(subscription, expectedVersion);
+            SubscriptionChangedEvent.State before = SubscriptionChangedEvent.State.of(subscription);
+            subscriptionRepository.delete(subscription);
+            publishChanges(List.of(new SubscriptionChangedEvent.Change(before, null)));
+            log.info("SubscriptionService - Subscription deleted with ID: {}", id);
+            return Boolean.TRUE;
+        });
+        return deleted != null;
+    }
 
-            subscriptionMapper.updateEntityFromDto(request, subscription);
-            subscriptionRepository.save(subscription);
-            log.info("SubscriptionService - Subscription updated successfully with ID: {}", id);
-        } else {
-            log.warn("Subscription not found for update with ID: {}", id);
+    /**
+     * Loads a subscription of the current owner by id. A cached entity is loaded by id alone, as it
+     * costs no query; otherwise the lookup carries the owner so PostgreSQL reads one partition.
+     */
+    private Optional<Subscription> findOwned(Long id) {
+        String ownerId = OwnerContext.current();
+        if (entityCacheEvictor.containsSubscription(id)) {
+            return subscriptionRepository.findById(id).filter(subscription -> ownerId.equals(subscription.getOwnerId()));
         }
+        return subscriptionRepository.findByOwnerIdAndId(ownerId, id);
     }
 
-    @Override
-    public void delete(Long id) {
-        log.info("SubscriptionService - Deleting subscription with ID: {}", id);
-        subscriptionRepository.deleteById(id);
-        log.info("SubscriptionService - Subscription deleted with ID: {}", id);
+    private static void checkVersion(Subscription subscription, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(subscription.getVersion())) {
+            log.warn("Subscription {} is at version {}, expected {}",
+                    subscription.getId(), subscription.getVersion(), expectedVersion);
+            throw new ObjectOptimisticLockingFailureException(Subscription.class, subscription.getId());
+        }
     }
 
-    private BigDecimal convertedAmount(BigDecimal amount, String fromCurrency, String toCurrency) {
-        BigDecimal fromCurrencyRate = currencyRepository.findByCurrency(fromCurrency);
-        BigDecimal toCurrencyRate = currencyRepository.findByCurrency(toCurrency);
-        BigDecimal amountInBaseCurrency = amount.divide(fromCurrencyRate, RoundingMode.HALF_UP);
-        return amountInBaseCurrency.multiply(toCurrencyRate);
+    @Transactional
+    public SubscriptionBatchResponseDto applyBatch(List<SubscriptionBatchRequestDto.Operation> operations) {
+        log.info("SubscriptionService - Applying batch of {} operations", operations.size());
+        Set<Long> ids = operations.stream()
+                .filter(operation -> operation.getType() == OperationType.UPDATE
+                        || operation.getType() == OperationType.DELETE)
+                .map(SubscriptionBatchRequestDto.Operation::getId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        String ownerId = OwnerContext.current();
+        Map<Long, Subscription> existing = new HashMap<>();
+        subscriptionRepository.findByOwnerIdAndIdIn(ownerId, ids).forEach(subscription -> existing.put(subscription.getId(), subscription));
+
+        List<SubscriptionBatchResponseDto.Result> results = new ArrayList<>(operations.size());
+        Map<SubscriptionBatchResponseDto.Result, Subscription> created = new IdentityHashMap<>();
+        Map<Subscription, SubscriptionChangedEvent.State> beforeStates = new IdentityHashMap<>();
+        List<Subscription> toSave = new ArrayList<>();
+        List<Subscription> toDelete = new ArrayList<>();
+
+        for (int i = 0; i < operations.size(); i++) {
+            SubscriptionBatchRequestDto.Operation operation = operations.get(i);
+            SubscriptionBatchResponseDto.Result result = new SubscriptionBatchResponseDto.Result();
+            result.setIndex(i);
+            result.setType(operation.getType());
+            result.setId(operation.getId());
+            results.add(result);
+
+            if (operation.getType() == null) {
+                reject(result, SubscriptionBatchResponseDto.Status.INVALID, "Operation type is required");
+                continue;
+            }
+            switch (operation.getType()) {
+                case CREATE -> {
+                    if (!isComplete(operation.getSubscription())) {
+                        reject(result, SubscriptionBatchResponseDto.Status.INVALID, "Subscription fields are incomplete");
+                        continue;
+                    }
+                    Subscription subscription;
+                    try {
+                        subscription = newSubscription(ownerId, operation.getSubscription());
+                    } catch (IllegalArgumentException e) {
+                        reject(result, SubscriptionBatchResponseDto.Status.INVALID, e.getMessage());
+                        continue;
+                    }
+                    toSave.add(subscription);
+                    created.put(result, subscription);
+                    result.setStatus(SubscriptionBatchResponseDto.Status.CREATED);
+                }
+                case UPDATE -> {
+                    if (!isComplete(operation.getSubscription())) {
+                        reject(result, SubscriptionBatchResponseDto.Status.INVALID, "Subscription fields are incomplete");
+                        continue;
+                    }
+                    Subscription subscription = existing.get(operation.getId());
+                    if (subscription == null) {
+                        reject(result, SubscriptionBatchResponseDto.Status.NOT_FOUND, "Subscription not found");
+                        continue;
+                    }
+                    SubscriptionChangedEvent.State before = SubscriptionChangedEvent.State.of(subscription);
+                    try {
+                        applyUpdate(subscription, operation.getSubscription());
+                    } catch (IllegalArgumentException e) {
+                        reject(result, SubscriptionBatchResponseDto.Status.INVALID, e.getMessage());
+                        continue;
+                    }
+                    // A later update of the same id keeps the state before the first one.
+                    if (beforeStates.putIfAbsent(subscription, before) == null) {
+                        toSave.add(subscription);
+                    }
+                    result.setStatus(SubscriptionBatchResponseDto.Status.UPDATED);
+                }
+                case DELETE -> {
+                    Subscription subscription = existing.remove(operation.getId());
+                    if (subscription == null) {
+                        reject(result, SubscriptionBatchResponseDto.Status.NOT_FOUND, "Subscription not found");
+                        continue;
+                    }
+                    beforeStates.computeIfAbsent(subscription, SubscriptionChangedEvent.State::of);
+                    toSave.remove(subscription);
+                    toDelete.add(subscription);
+                    result.setStatus(SubscriptionBatchResponseDto.Status.DELETED);
+                }
+            }
+        }
+
+        subscriptionRepository.saveAll(toSave);
+        if (!toDelete.isEmpty()) {
+            subscriptionRepository.deleteByOwnerIdAndIds(ownerId, toDelete.stream().map(Subscription::getId).toList());
+        }
+        created.forEach((result, subscription) -> result.setId(subscription.getId()));
+
+        List<SubscriptionChangedEvent.Change> changes = new ArrayList<>(toSave.size() + toDelete.size());
+        toSave.forEach(subscription -> changes.add(new SubscriptionChangedEvent.Change(
+                beforeStates.get(subscription), SubscriptionChangedEvent.State.of(subscription))));
+        toDelete.forEach(subscription -> changes.add(new SubscriptionChangedEvent.Change(
+                beforeStates.get(subscription), null)));
+        publishChanges(changes);
+
+        SubscriptionBatchResponseDto response = new SubscriptionBatchResponseDto();
+        response.setResults(results);
+        response.setFailed((int) results.stream().filter(result -> result.getMessage() != null).count());
+        response.setSucceeded(results.size() - response.getFailed());
+        log.info("SubscriptionService - Batch applied with {} succeeded and {} failed operations",
+                response.getSucceeded(), response.getFailed());
+        return response;
+    }
+
+    private Subscription newSubscription(String ownerId, SubscriptionRequestDto request) {
+        Subscription subscription = subscriptionMapper.toEntity(request);
+        subscription.setOwnerId(ownerId);
+        subscription.setConvertedAmount(convertedAmount(
+                request.getAmount(),
+                request.getFromCurrency(),
+                request.getToCurrency()));
+        subscription.setConvertedCurrency(request.getToCurrency());
+        subscription.setNextSubscriptionDate(request.getSubscriptionDate().plusMonths(request.getBillingCycle()));
+        return subscription;
+    }
+
+    /**
+     * Converts again when the source currency changes, or when the target currency changes on a
+     * row that records it; rows written before {@code converted_currency} existed do not.
+     */
+    private void applyUpdate(Subscription subscription, SubscriptionRequestDto request) {
+        if (!request.getFromCurrency().equalsIgnoreCase(subscription.getCurrency())
+                || subscription.getConvertedCurrency() != null && request.getToCurrency() != null
+                && !subscription.getConvertedCurrency().equalsIgnoreCase(request.getToCurrency())) {
+            BigDecimal convertedAmount = convertedAmount(
+                    request.getAmount(),
+                    request.getFromCurrency(),
+                    request.getToCurrency());
+            log.info("SubscriptionService - Updating converted amount for ID: {}", subscription.getId());
+            subscription.setConvertedAmount(convertedAmount);
+            subscription.setConvertedCurrency(request.getToCurrency());
+        }
+        subscriptionMapper.updateEntityFromDto(request, subscription);
+    }
+
+    private void publishChanges(List<SubscriptionChangedEvent.Change> changes) {
+        if (!changes.isEmpty()) {
+            eventPublisher.publishEvent(new SubscriptionChangedEvent(changes));
+        }
+    }
+
+    private static boolean isComplete(SubscriptionRequestDto request) {
+        return request != null
+                && request.getName() != null
+                && request.getFromCurrency() != null
+                && request.getToCurrency() != null
+                && request.getAmount() != null
+                && request.getBillingCycle() != null
+                && request.getSubscriptionDate() != null;
+    }
+
+    private static void reject(SubscriptionBatchResponseDto.Result result,
+                               SubscriptionBatchResponseDto.Status status,
+                               String message) {
+        result.setStatus(status);
+        result.setMessage(message);
+    }
+
+    /**
+     * Converts at current rates in fixed point, rounding once to {@link FixedPointMoney#AMOUNT_SCALE}
+     * places. {@code converted_amount} always holds the amount at current rates, which
+     * {@link SubscriptionReconversionService} keeps up to date when rates change; conversion as of a
+     * past date is offered by {@link CurrencyConversionService#convertAsOf} and never stored.
+     *
+     * @throws IllegalArgumentException if there is no rate for either currency
+     * @throws ArithmeticException      if the result does not fit a {@code long}
+     */
+    BigDecimal convertedAmount(BigDecimal amount, String fromCurrency, String toCurrency) {
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            long convertedAmount = currencyConversionService.convert(
+                    FixedPointMoney.toMinorUnits(amount), fromCurrency, toCurrency);
+            success = true;
+            return FixedPointMoney.toAmount(convertedAmount);
+        } finally {
+            subscriptionMetrics.recordConversion(System.nanoTime() - start, success);
+        }
+    }
+
+    /**
+     * Encodes the id a keyset page ends at as an opaque cursor.
+     */
+    public static String encodeCursor(Long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(Long.toString(id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor from {@link #encodeCursor}; blank cursors start at the beginning.
+     *
+     * @throws IllegalArgumentException if the cursor is invalid
+     */
+    public static long decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            return Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,265 @@
+package com.mattemat.finance.service;
+
+import com.mattemat.finance.entity.Subscription;
+import com.mattemat.finance.repository.SubscriptionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Group commit for {@link SubscriptionServiceImpl#create}, enabled by
+ * {@code finance.write-behind.enabled}.
+ * <p>
+ * Callers queue a converted, unsaved subscription and block until it is committed. One writer
+ * thread drains the queue into batches of up to {@code finance.write-behind.batch-size}, waiting at
+ * most {@code finance.write-behind.max-wait} after the first for more to arrive, and inserts each
+ * batch in one transaction. A burst of creates therefore costs one commit per batch instead of one
+ * per request, for at most {@code max-wait} of added latency when traffic is light.
+ * <p>
+ * The queue holds {@code finance.write-behind.queue-capacity} subscriptions. A caller waits up to
+ * {@code finance.write-behind.offer-timeout} for space and is rejected with
+ * {@link RejectedExecutionException} otherwise. When a batch fails, its subscriptions are retried
+ * one per transaction, so one bad row fails only its own request.
+ */
+@Slf4j
+@Component
+public class SubscriptionWriteBehind implements SmartLifecycle {
+
+    // Starts before the web server accepts requests and stops after it has drained them.
+    private static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+    private static final long IDLE_POLL_MILLIS = 100;
+
+    private final SubscriptionRepository subscriptionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long maxWaitNanos;
+    private final long offerTimeoutNanos;
+    private final BlockingQueue<Pending> queue;
+    private final DistributionSummary batchSizes;
+    private final Timer commitSuccess;
+    private final Timer commitError;
+    private final Counter rejected;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public SubscriptionWriteBehind(
+            SubscriptionRepository subscriptionRepository,
+            TransactionTemplate transactionTemplate,
+            ApplicationEventPublisher eventPublisher,
+            MeterRegistry meterRegistry,
+            @Value("${finance.write-behind.enabled:false}") boolean enabled,
+            @Value("${finance.write-behind.batch-size:100}") int batchSize,
+            @Value("${finance.write-behind.max-wait:PT0.005S}") Duration maxWait,
+            @Value("${finance.write-behind.queue-capacity:10000}") int queueCapacity,
+            @Value("${finance.write-behind.offer-timeout:PT1S}") Duration offerTimeout) {
+        this.subscriptionRepository = subscriptionRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.offerTimeoutNanos = offerTimeout.toNanos();
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSizes = DistributionSummary.builder("finance.subscriptions.write-behind.batch-size")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.commitSuccess = commitTimer(meterRegistry, "success");
+        this.commitError = commitTimer(meterRegistry, "error");
+        this.rejected = Counter.builder("finance.subscriptions.write-behind.rejected").register(meterRegistry);
+        Gauge.builder("finance.subscriptions.write-behind.queued", queue, BlockingQueue::size)
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queues {@code subscription} for insert and returns it once its batch has committed.
+     *
+     * @throws RejectedExecutionException if the queue stays full for the offer timeout, or the
+     *                                    writer is not running
+     */
+    public Subscription save(Subscription subscription) {
+        if (!running) {
+            throw new RejectedExecutionException("Subscription writer is not running");
+        }
+        Pending pending = new Pending(subscription, new CompletableFuture<>());
+        boolean queued;
+        try {
+            queued = queue.offer(pending, offerTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            queued = false;
+        }
+        if (!queued) {
+            rejected.increment();
+            throw new RejectedExecutionException("Subscription write queue is full");
+        }
+        // stop() may have drained the queue for the last time between the check above and the
+        // offer. Whoever removes the entry completes it: the writer, stop(), or this caller.
+        if (!running && queue.remove(pending)) {
+            throw new RejectedExecutionException("Subscription writer is not running");
+        }
+        try {
+            return pending.saved().join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        writer = Thread.ofPlatform().name("subscription-writer").daemon().start(this::drain);
+        log.info("SubscriptionWriteBehind - Writing creates in batches of up to {} after at most {}",
+                batchSize, Duration.ofNanos(maxWaitNanos));
+    }
+
+    @Override
+    public void stop() {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writer = null;
+        // Creates that were queued as the writer finished.
+        List<Pending> leftover = new ArrayList<>();
+        queue.drainTo(leftover);
+        leftover.forEach(pending -> pending.saved().completeExceptionally(
+                new RejectedExecutionException("Subscription writer is not running")));
+        log.info("SubscriptionWriteBehind - Writer stopped");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    /**
+     * Runs on the writer thread until stopped, then commits whatever is still queued.
+     */
+    private void drain() {
+        List<Pending> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + maxWaitNanos;
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    Pending next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // Stop is signalled through running; keep draining what is queued.
+                log.debug("SubscriptionWriteBehind - Writer interrupted while waiting");
+            }
+            if (!batch.isEmpty()) {
+                commit(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void commit(List<Pending> batch) {
+        long start = System.nanoTime();
+        try {
+            insert(batch);
+            commitSuccess.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            batchSizes.record(batch.size());
+            batch.forEach(pending -> pending.saved().complete(pending.subscription()));
+        } catch (RuntimeException e) {
+            commitError.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            log.warn("SubscriptionWriteBehind - Batch of {} failed, retrying one at a time", batch.size(), e);
+            for (Pending pending : batch) {
+                commitAlone(pending);
+            }
+        }
+    }
+
+    private void commitAlone(Pending pending) {
+        // The failed batch assigned an id and version that were rolled back.
+        pending.subscription().setId(null);
+        pending.subscription().setVersion(null);
+        long start = System.nanoTime();
+        try {
+            insert(List.of(pending));
+            commitSuccess.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            batchSizes.record(1);
+            pending.saved().complete(pending.subscription());
+        } catch (RuntimeException e) {
+            commitError.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            pending.saved().completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Inserts the batch in one transaction; its change event is delivered to listeners after the
+     * commit.
+     */
+    private void insert(List<Pending> batch) {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<SubscriptionChangedEvent.Change> changes = new ArrayList<>(batch.size());
+            for (Pending pending : batch) {
+                Subscription saved = subscriptionRepository.save(pending.subscription());
+                changes.add(new SubscriptionChangedEvent.Change(null, SubscriptionChangedEvent.State.of(saved)));
+            }
+            eventPublisher.publishEvent(new SubscriptionChangedEvent(changes));
+        });
+    }
+
+    private static Timer commitTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("finance.subscriptions.write-behind.commit")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private record Pending(Subscription subscription, CompletableFuture<Subscription> saved) {
+    }
+}
@@ -0,0 +1 @@
+CREATE INDEX idx_subscriptions_next_subscription_date ON subscriptions (next_subscription_date);
@@ -0,0 +1,7 @@
+CREATE TABLE currency_rate_history
+(
+    code         VARCHAR(10)              NOT NULL,
+    effective_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    rate         DECIMAL(20, 10)          NOT NULL,
+    CONSTRAINT pk_currency_rate_history PRIMARY KEY (code, effective_at)
+);
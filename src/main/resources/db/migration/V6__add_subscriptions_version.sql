@@ -0,0 +1 @@
+ALTER TABLE subscriptions ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
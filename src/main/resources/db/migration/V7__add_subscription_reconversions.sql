@@ -0,0 +1,15 @@
+ALTER TABLE subscriptions ADD COLUMN converted_currency VARCHAR(10);
+
+CREATE INDEX idx_subscriptions_currency ON subscriptions (currency, id);
+CREATE INDEX idx_subscriptions_converted_currency ON subscriptions (converted_currency, id);
+
+CREATE TABLE subscription_reconversions
+(
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    currencies   VARCHAR(2000) NOT NULL,
+    last_id      BIGINT        NOT NULL DEFAULT 0,
+    rows_updated BIGINT        NOT NULL DEFAULT 0,
+    created_at   TIMESTAMP     NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at   TIMESTAMP     NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    completed_at TIMESTAMP
+);
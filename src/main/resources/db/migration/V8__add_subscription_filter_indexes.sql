@@ -0,0 +1,3 @@
+CREATE INDEX idx_subscriptions_currency_next_date ON subscriptions (currency, next_subscription_date);
+CREATE INDEX idx_subscriptions_billing_cycle_next_date ON subscriptions (billing_cycle, next_subscription_date);
+CREATE INDEX idx_subscriptions_amount ON subscriptions (amount);
@@ -0,0 +1,162 @@
+package com.mattemat.finance.reactive.benchmark;
+
+import com.mattemat.finance.FinanceApplication;
+import com.mattemat.finance.dto.request.SubscriptionBatchRequestDto;
+import com.mattemat.finance.dto.request.SubscriptionRequestDto;
+import com.mattemat.finance.reactive.ReactiveFinanceApplication;
+import com.mattemat.finance.service.ExchangeRateCache;
+import com.mattemat.finance.service.SubscriptionServiceImpl;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Drives the same read mix through the servlet application and {@link ReactiveFinanceApplication},
+ * both serving one in-memory H2 database: four reads by id for every page of 20. The servlet side
+ * reads through JDBC and Hibernate, the reactive side through R2DBC-H2.
+ * <p>
+ * H2 answers in microseconds and R2DBC-H2 runs each statement on the calling thread, so this
+ * measures per-request overhead and thread use under {@link #CLIENTS} concurrent callers rather
+ * than how each stack waits on a remote database. Peak platform threads are counted across the JVM,
+ * so the reactive figure includes the servlet application's idle Tomcat workers.
+ */
+@Slf4j
+@Tag("benchmark")
+class StackComparisonBenchmarkTest {
+
+    private static final int SUBSCRIPTIONS = 1_000;
+    private static final int CLIENTS = 500;
+    private static final int WARMUP_REQUESTS = 5_000;
+    private static final int REQUESTS = 20_000;
+
+    @Test
+    void compareServletAndReactiveStacks() throws Exception {
+        // Arguments rather than default properties, which the YAML files override.
+        try (ConfigurableApplicationContext servlet = new SpringApplicationBuilder(FinanceApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:stacks;NON_KEYWORDS=VALUE;DB_CLOSE_DELAY=-1",
+                "--logging.level.com.mattemat.finance.controller=WARN",
+                "--logging.level.com.mattemat.finance.service=WARN")) {
+            long firstId = seed(servlet);
+            try (ConfigurableApplicationContext reactive = new SpringApplicationBuilder(ReactiveFinanceApplication.class)
+                    .properties(ReactiveFinanceApplication.CONFIG_NAME)
+                    .run(
+                            "--server.port=0",
+                            "--spring.r2dbc.url=r2dbc:h2:mem:///stacks?options=NON_KEYWORDS=VALUE;DB_CLOSE_DELAY=-1",
+                            "--spring.r2dbc.username=sa",
+                            "--spring.r2dbc.password=password",
+                            "--spring.flyway.enabled=false")) {
+                Result servletResult = load(base(servlet), firstId);
+                Result reactiveResult = load(base(reactive), firstId);
+
+                log.info("StackComparisonBenchmark - servlet:  {}", servletResult);
+                log.info("StackComparisonBenchmark - reactive: {}", reactiveResult);
+                assertEquals(0, servletResult.errors(), "servlet errors");
+                assertEquals(0, reactiveResult.errors(), "reactive errors");
+            }
+        }
+    }
+
+    private static URI base(ConfigurableApplicationContext context) {
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        return URI.create("http://localhost:" + port + "/api/v1/subscriptions/");
+    }
+
+    private static long seed(ConfigurableApplicationContext context) {
+        context.getBean(ExchangeRateCache.class).publish(Map.of("USD", BigDecimal.ONE, "SGD", new BigDecimal("1.35")));
+        List<SubscriptionBatchRequestDto.Operation> operations = new ArrayList<>();
+        for (int i = 0; i < SUBSCRIPTIONS; i++) {
+            SubscriptionRequestDto request = new SubscriptionRequestDto();
+            request.setName("Subscription " + i);
+            request.setFromCurrency("USD");
+            request.setToCurrency("SGD");
+            request.setAmount(new BigDecimal("9.99"));
+            request.setBillingCycle(1);
+            request.setSubscriptionDate(LocalDate.of(2024, 1, 1));
+            SubscriptionBatchRequestDto.Operation operation = new SubscriptionBatchRequestDto.Operation();
+            operation.setType(SubscriptionBatchRequestDto.OperationType.CREATE);
+            operation.setSubscription(request);
+            operations.add(operation);
+        }
+        return context.getBean(SubscriptionServiceImpl.class).applyBatch(operations).getResults().getFirst().getId();
+    }
+
+    private static Result load(URI base, long firstId) throws Exception {
+        run(base, firstId, WARMUP_REQUESTS, new long[WARMUP_REQUESTS], new AtomicInteger());
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        threads.resetPeakThreadCount();
+        long[] latencies = new long[REQUESTS];
+        AtomicInteger errors = new AtomicInteger();
+        long start = System.nanoTime();
+        run(base, firstId, REQUESTS, latencies, errors);
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        Arrays.sort(latencies);
+        return new Result(
+                Math.round(REQUESTS / seconds),
+                latencies[REQUESTS / 2] / 1_000_000.0,
+                latencies[REQUESTS * 99 / 100] / 1_000_000.0,
+                threads.getPeakThreadCount(),
+                errors.get());
+    }
+
+    private static void run(URI base, long firstId, int requests, long[] latencies, AtomicInteger errors) throws Exception {
+        AtomicInteger next = new AtomicInteger();
+        try (HttpClient client = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+             ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int c = 0; c < CLIENTS; c++) {
+                futures.add(clients.submit(() -> {
+                    for (int i = next.getAndIncrement(); i < requests; i = next.getAndIncrement()) {
+                        String path = i % 5 == 4 ? "page?limit=20" : String.valueOf(firstId + i % SUBSCRIPTIONS);
+                        HttpRequest request = HttpRequest.newBuilder(base.resolve(path)).build();
+                        long sent = System.nanoTime();
+                        try {
+                            if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() != 200) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                        latencies[i] = System.nanoTime() - sent;
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+    }
+
+    private record Result(long requestsPerSecond, double p50Millis, double p99Millis, int peakPlatformThreads,
+                          int errors) {
+
+        @Override
+        public String toString() {
+            return String.format("%d req/s, p50 %.1f ms, p99 %.1f ms, %d peak platform threads, %d errors",
+                    requestsPerSecond, p50Millis, p99Millis, peakPlatformThreads, errors);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.mattemat.finance.reactive.controller;
+
+import com.mattemat.finance.controller.OwnerFilter;
+import com.mattemat.finance.dto.request.SubscriptionRequestDto;
+import com.mattemat.finance.dto.response.SubscriptionPageResponseDto;
+import com.mattemat.finance.dto.response.SubscriptionResponseDto;
+import com.mattemat.finance.reactive.ReactiveFinanceApplication;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(
+        classes = ReactiveFinanceApplication.class,
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                ReactiveFinanceApplication.CONFIG_NAME,
+                "spring.r2dbc.url=r2dbc:h2:mem:///reactive?options=NON_KEYWORDS=VALUE;DB_CLOSE_DELAY=-1",
+                "spring.r2dbc.username=sa",
+                "spring.r2dbc.password=",
+                "spring.flyway.url=jdbc:h2:mem:reactive;NON_KEYWORDS=VALUE;DB_CLOSE_DELAY=-1",
+                "spring.flyway.user=sa",
+                "spring.flyway.password="
+        })
+class ReactiveSubscriptionControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @BeforeEach
+    void setUp() {
+        databaseClient.sql("INSERT INTO currencies (code, value) VALUES ('USD', 1), ('SGD', 1.35)").then().block();
+    }
+
+    @AfterEach
+    void tearDown() {
+        databaseClient.sql("DELETE FROM subscriptions").then().block();
+        databaseClient.sql("DELETE FROM currencies").then().block();
+    }
+
+    @Test
+    void subscription_shouldBeCreatedReadUpdatedAndDeleted() {
+        SubscriptionResponseDto created = webTestClient.post().uri("/api/v1/subscriptions")
+                .bodyValue(request("USD"))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectHeader().valueMatches(HttpHeaders.LOCATION, ".*/api/v1/subscriptions/\\d+")
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"0\"")
+                .expectBody(SubscriptionResponseDto.class)
+                .returnResult().getResponseBody();
+        assertNotNull(created);
+        assertEquals(new BigDecimal("13.49"), created.getConvertedAmount());
+        assertEquals(LocalDate.of(2025, 2, 15), created.getNextSubscriptionDate());
+
+        String path = "/api/v1/subscriptions/" + created.getId();
+        webTestClient.get().uri(path).exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"0\"");
+        webTestClient.get().uri(path).header(HttpHeaders.IF_NONE_MATCH, "\"0\"").exchange()
+                .expectStatus().isNotModified();
+
+        SubscriptionResponseDto updated = webTestClient.put().uri(path)
+                .header(HttpHeaders.IF_MATCH, "\"0\"")
+                .bodyValue(request("SGD"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"1\"")
+                .expectBody(SubscriptionResponseDto.class)
+                .returnResult().getResponseBody();
+        assertNotNull(updated);
+        assertEquals("SGD", updated.getCurrency());
+        assertEquals(new BigDecimal("9.99"), updated.getConvertedAmount());
+        assertEquals(created.getCreatedAt(), updated.getCreatedAt());
+
+        webTestClient.put().uri(path).header(HttpHeaders.IF_MATCH, "\"0\"").bodyValue(request("SGD")).exchange()
+                .expectStatus().isEqualTo(412);
+        webTestClient.delete().uri(path).header(HttpHeaders.IF_MATCH, "\"0\"").exchange()
+                .expectStatus().isEqualTo(412);
+        webTestClient.delete().uri(path).header(HttpHeaders.IF_MATCH, "\"1\"").exchange()
+                .expectStatus().isNoContent();
+        webTestClient.get().uri(path).exchange().expectStatus().isNotFound();
+        webTestClient.delete().uri(path).exchange().expectStatus().isNotFound();
+    }
+
+    @Test
+    void subscriptions_shouldBeScopedToOwnerAndPaged() {
+        for (int i = 0; i < 3; i++) {
+            webTestClient.post().uri("/api/v1/subscriptions").header(OwnerFilter.OWNER_HEADER, "acme")
+                    .bodyValue(request("USD")).exchange().expectStatus().isCreated();
+        }
+        webTestClient.post().uri("/api/v1/subscriptions").bodyValue(request("USD")).exchange().expectStatus().isCreated();
+
+        webTestClient.get().uri("/api/v1/subscriptions").header(OwnerFilter.OWNER_HEADER, "acme").exchange()
+                .expectStatus().isOk()
+                .expectBodyList(SubscriptionResponseDto.class).hasSize(3);
+        List<SubscriptionResponseDto> streamed = webTestClient.get().uri("/api/v1/subscriptions/stream")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(SubscriptionResponseDto.class)
+                .getResponseBody().collectList().block();
+        assertEquals(1, streamed.size());
+
+        SubscriptionPageResponseDto first = webTestClient.get().uri("/api/v1/subscriptions/page?limit=2")
+                .header(OwnerFilter.OWNER_HEADER, "acme")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(SubscriptionPageResponseDto.class)
+                .returnResult().getResponseBody();
+        assertNotNull(first);
+        assertEquals(2, first.getItems().size());
+        SubscriptionPageResponseDto second = webTestClient.get()
+                .uri("/api/v1/subscriptions/page?limit=2&cursor=" + first.getNextCursor())
+                .header(OwnerFilter.OWNER_HEADER, "acme")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(SubscriptionPageResponseDto.class)
+                .returnResult().getResponseBody();
+        assertNotNull(second);
+        assertEquals(1, second.getItems().size());
+        assertNull(second.getNextCursor());
+
+        webTestClient.get().uri("/api/v1/subscriptions/" + second.getItems().getFirst().getId()).exchange()
+                .expectStatus().isNotFound();
+        webTestClient.get().uri("/api/v1/subscriptions/page?cursor=abc").exchange()
+                .expectStatus().isBadRequest();
+        webTestClient.get().uri("/api/v1/subscriptions").header(OwnerFilter.OWNER_HEADER, "not an owner").exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    private static SubscriptionRequestDto request(String fromCurrency) {
+        SubscriptionRequestDto request = new SubscriptionRequestDto();
+        request.setName("Netflix");
+        request.setFromCurrency(fromCurrency);
+        request.setToCurrency("SGD");
+        request.setAmount(new BigDecimal("9.99"));
+        request.setBillingCycle(1);
+        request.setSubscriptionDate(LocalDate.of(2025, 1, 15));
+        return request;
+    }
+}
@@ -0,0 +1,28 @@
+package com.mattemat.finance.reactive;
+
+import com.mattemat.finance.mapper.SubscriptionMapper;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.annotation.Import;
+
+/**
+ * WebFlux + R2DBC variant of the subscription API, built with {@code -Preactive}. Reads
+ * {@code reactive.yaml} instead of {@code application.yaml}.
+ * <p>
+ * Its beans only register in a reactive web application, so {@code FinanceApplication}, whose
+ * component scan covers this package, ignores them.
+ */
+@SpringBootApplication
+@Import(SubscriptionMapper.class)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveFinanceApplication {
+
+    public static final String CONFIG_NAME = "spring.config.name=reactive";
+
+    public static void main(String[] args) {
+        new SpringApplicationBuilder(ReactiveFinanceApplication.class)
+                .properties(CONFIG_NAME)
+                .run(args);
+    }
+}
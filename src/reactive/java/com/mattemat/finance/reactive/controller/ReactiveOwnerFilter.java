@@ -0,0 +1,48 @@
+package com.mattemat.finance.reactive.controller;
+
+import com.mattemat.finance.controller.OwnerFilter;
+import com.mattemat.finance.entity.Subscription;
+import com.mattemat.finance.reactive.service.ReactiveOwnerContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+/**
+ * Resolves the owner of an API request as {@link OwnerFilter} does and binds it to
+ * {@link ReactiveOwnerContext} for the rest of the chain.
+ */
+@Slf4j
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveOwnerFilter implements WebFilter {
+
+    private final boolean required;
+
+    public ReactiveOwnerFilter(@Value("${finance.owner.required:false}") boolean required) {
+        this.required = required;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (!exchange.getRequest().getPath().value().startsWith("/api/")) {
+            return chain.filter(exchange);
+        }
+        String owner = exchange.getRequest().getHeaders().getFirst(OwnerFilter.OWNER_HEADER);
+        if (owner == null && !required) {
+            owner = Subscription.DEFAULT_OWNER;
+        }
+        if (!OwnerFilter.isValidOwnerId(owner)) {
+            log.warn("ReactiveOwnerFilter - Rejecting {} {} without a valid owner id",
+                    exchange.getRequest().getMethod(), exchange.getRequest().getPath());
+            exchange.getResponse().setStatusCode(HttpStatus.BAD_REQUEST);
+            return exchange.getResponse().setComplete();
+        }
+        return chain.filter(exchange).contextWrite(ReactiveOwnerContext.with(owner));
+    }
+}
@@ -0,0 +1,142 @@
+package com.mattemat.finance.reactive.controller;
+
+import com.mattemat.finance.controller.SubscriptionController;
+import com.mattemat.finance.dto.request.SubscriptionRequestDto;
+import com.mattemat.finance.dto.response.SubscriptionPageResponseDto;
+import com.mattemat.finance.dto.response.SubscriptionResponseDto;
+import com.mattemat.finance.reactive.service.ReactiveSubscriptionServiceImpl;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+
+/**
+ * The CRUD, page and stream routes of {@link SubscriptionController} on WebFlux, with the same
+ * status codes, ETags and If-Match handling. Requests are logged at DEBUG, as appenders write on the
+ * event loop.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/subscriptions")
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveSubscriptionController {
+
+    private final ReactiveSubscriptionServiceImpl subscriptionService;
+
+    @GetMapping
+    public Flux<SubscriptionResponseDto> getSubscriptions() {
+        log.debug("ReactiveSubscriptionController - getSubscriptions() called");
+        return subscriptionService.readAll();
+    }
+
+    @GetMapping("/page")
+    public Mono<ResponseEntity<SubscriptionPageResponseDto>> getSubscriptionPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        log.debug("ReactiveSubscriptionController - getSubscriptionPage() called with cursor {} and limit {}", cursor, limit);
+        return subscriptionService.readPage(cursor, limit)
+                .map(ResponseEntity::ok)
+                .onErrorResume(IllegalArgumentException.class, e -> {
+                    log.warn("getSubscriptionPage() received an invalid cursor {}", cursor);
+                    return Mono.just(ResponseEntity.badRequest().build());
+                });
+    }
+
+    /**
+     * Written as one JSON array, or one object per line for {@code application/x-ndjson}, as rows
+     * arrive from the database.
+     */
+    @GetMapping(value = "/stream", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<SubscriptionResponseDto> streamSubscriptions() {
+        log.debug("ReactiveSubscriptionController - streamSubscriptions() called");
+        return subscriptionService.readAll();
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<SubscriptionResponseDto>> getSubscription(@PathVariable Long id) {
+        log.debug("ReactiveSubscriptionController - getSubscription() called with id {}", id);
+        // WebFlux answers 304 instead when If-None-Match matches the ETag.
+        return subscriptionService.read(id)
+                .map(subscription -> ResponseEntity.ok().eTag(SubscriptionController.etag(subscription)).body(subscription))
+                .switchIfEmpty(Mono.fromSupplier(() -> {
+                    log.warn("getSubscription() found no subscription with id {}", id);
+                    return ResponseEntity.notFound().build();
+                }));
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<SubscriptionResponseDto>> createSubscription(
+            @RequestBody SubscriptionRequestDto request,
+            ServerHttpRequest httpRequest) {
+        log.debug("ReactiveSubscriptionController - createSubscription() called");
+        return subscriptionService.create(request)
+                .map(subscription -> {
+                    URI location = UriComponentsBuilder.fromUri(httpRequest.getURI())
+                            .path("/{id}")
+                            .buildAndExpand(subscription.getId())
+                            .toUri();
+                    log.debug("ReactiveSubscriptionController - createSubscription() created record with id: {}", subscription.getId());
+                    return ResponseEntity.created(location).eTag(SubscriptionController.etag(subscription)).body(subscription);
+                })
+                .onErrorResume(ReactiveSubscriptionController::isConversionFailure, e -> {
+                    log.warn("createSubscription() could not convert the amount: {}", e.getMessage());
+                    return Mono.just(ResponseEntity.badRequest().build());
+                });
+    }
+
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<SubscriptionResponseDto>> updateSubscription(
+            @PathVariable Long id,
+            @RequestBody SubscriptionRequestDto request,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        log.debug("ReactiveSubscriptionController - updateSubscription() called with id {} and If-Match {}", id, ifMatch);
+        return subscriptionService.update(id, request, SubscriptionController.expectedVersion(ifMatch))
+                .map(subscription -> ResponseEntity.ok().eTag(SubscriptionController.etag(subscription)).body(subscription))
+                .switchIfEmpty(Mono.fromSupplier(() -> {
+                    log.warn("updateSubscription() found no subscription with id {}", id);
+                    return ResponseEntity.notFound().build();
+                }))
+                .onErrorResume(OptimisticLockingFailureException.class, e -> {
+                    log.warn("updateSubscription() lost a concurrent write for id {} with If-Match {}", id, ifMatch);
+                    return Mono.just(ResponseEntity.status(SubscriptionController.lockFailureStatus(ifMatch)).build());
+                })
+                .onErrorResume(ReactiveSubscriptionController::isConversionFailure, e -> {
+                    log.warn("updateSubscription() could not convert the amount for id {}: {}", id, e.getMessage());
+                    return Mono.just(ResponseEntity.badRequest().build());
+                });
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deleteSubscription(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        log.debug("ReactiveSubscriptionController - deleteSubscription() called with id {} and If-Match {}", id, ifMatch);
+        return subscriptionService.delete(id, SubscriptionController.expectedVersion(ifMatch))
+                .map(deleted -> {
+                    if (!deleted) {
+                        log.warn("deleteSubscription() found no subscription with id {}", id);
+                        return ResponseEntity.notFound().<Void>build();
+                    }
+                    return ResponseEntity.noContent().<Void>build();
+                })
+                .onErrorResume(OptimisticLockingFailureException.class, e -> {
+                    log.warn("deleteSubscription() lost a concurrent write for id {} with If-Match {}", id, ifMatch);
+                    return Mono.just(ResponseEntity.status(SubscriptionController.lockFailureStatus(ifMatch)).build());
+                });
+    }
+
+    private static boolean isConversionFailure(Throwable e) {
+        return e instanceof IllegalArgumentException || e instanceof ArithmeticException;
+    }
+}
@@ -0,0 +1,40 @@
+package com.mattemat.finance.reactive.repository;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Reads exchange rates from {@code currencies} over R2DBC.
+ */
+@Repository
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveCurrencyRepository {
+
+    private static final String RATES = """
+            SELECT code, value AS rate
+            FROM currencies
+            WHERE code IN (:codes)
+            """;
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveCurrencyRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    /**
+     * Emits the current rate of each code that has one.
+     */
+    public Mono<Map<String, BigDecimal>> findRates(Collection<String> codes) {
+        return databaseClient.sql(RATES).bind("codes", codes)
+                .map((row, metadata) -> Map.entry(row.get("code", String.class), row.get("rate", BigDecimal.class)))
+                .all()
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue);
+    }
+}
@@ -0,0 +1,234 @@
+package com.mattemat.finance.reactive.repository;
+
+import com.mattemat.finance.entity.Subscription;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Readable;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Reads and writes {@code subscriptions} over R2DBC, scoped to an owner like
+ * {@code SubscriptionRepository}. Rows map onto the {@link Subscription} entity so they can go
+ * through {@code SubscriptionMapper}; Hibernate is not involved.
+ * <p>
+ * Ids come from {@code subscriptions_seq} in the blocks of 50 that Hibernate's pooled optimizer
+ * takes, so both stacks can write to the same table.
+ */
+@Repository
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveSubscriptionRepository {
+
+    private static final int ID_BLOCK = 50;
+
+    private static final String COLUMNS = """
+            id, owner_id, name, currency, amount, converted_amount, converted_currency, billing_cycle,
+            subscription_date, next_subscription_date, version, created_at, updated_at""";
+
+    private static final String FIND_BY_ID = "SELECT " + COLUMNS + "\n" + """
+            FROM subscriptions
+            WHERE owner_id = :ownerId AND id = :id
+            """;
+
+    private static final String FIND_ALL = "SELECT " + COLUMNS + "\n" + """
+            FROM subscriptions
+            WHERE owner_id = :ownerId
+            ORDER BY id
+            """;
+
+    private static final String FIND_AFTER = "SELECT " + COLUMNS + "\n" + """
+            FROM subscriptions
+            WHERE owner_id = :ownerId AND id > :afterId
+            ORDER BY id
+            LIMIT :limit
+            """;
+
+    private static final String INSERT = "INSERT INTO subscriptions (" + COLUMNS + ")\n" + """
+            VALUES (:id, :ownerId, :name, :currency, :amount, :convertedAmount, :convertedCurrency, :billingCycle,
+                    :subscriptionDate, :nextSubscriptionDate, :version, :createdAt, :updatedAt)
+            """;
+
+    private static final String UPDATE = """
+            UPDATE subscriptions
+            SET name = :name, currency = :currency, amount = :amount, converted_amount = :convertedAmount,
+                converted_currency = :convertedCurrency, billing_cycle = :billingCycle,
+                subscription_date = :subscriptionDate, updated_at = :updatedAt, version = version + 1
+            WHERE owner_id = :ownerId AND id = :id AND version = :version
+            """;
+
+    private static final String DELETE = """
+            DELETE FROM subscriptions
+            WHERE owner_id = :ownerId AND id = :id AND version = :version
+            """;
+
+    private static final String POSTGRESQL_NEXT_ID_BLOCK = "SELECT nextval('subscriptions_seq')";
+
+    private static final String H2_NEXT_ID_BLOCK = "SELECT NEXT VALUE FOR subscriptions_seq";
+
+    private final DatabaseClient databaseClient;
+    private final String nextIdBlock;
+    private final AtomicReference<IdBlock> ids = new AtomicReference<>(new IdBlock(1, 0));
+
+    public ReactiveSubscriptionRepository(DatabaseClient databaseClient, ConnectionFactory connectionFactory) {
+        this.databaseClient = databaseClient;
+        this.nextIdBlock = connectionFactory.getMetadata().getName().toLowerCase().contains("postgres")
+                ? POSTGRESQL_NEXT_ID_BLOCK : H2_NEXT_ID_BLOCK;
+    }
+
+    public Mono<Subscription> findByOwnerIdAndId(String ownerId, Long id) {
+        return databaseClient.sql(FIND_BY_ID)
+                .bind("ownerId", ownerId)
+                .bind("id", id)
+                .map(ReactiveSubscriptionRepository::toSubscription)
+                .one();
+    }
+
+    public Flux<Subscription> findAll(String ownerId) {
+        return databaseClient.sql(FIND_ALL)
+                .bind("ownerId", ownerId)
+                .map(ReactiveSubscriptionRepository::toSubscription)
+                .all();
+    }
+
+    public Flux<Subscription> findAfter(String ownerId, long afterId, int limit) {
+        return databaseClient.sql(FIND_AFTER)
+                .bind("ownerId", ownerId)
+                .bind("afterId", afterId)
+                .bind("limit", limit)
+                .map(ReactiveSubscriptionRepository::toSubscription)
+                .all();
+    }
+
+    /**
+     * Inserts the subscription with a fresh id at version 0 and emits it.
+     */
+    public Mono<Subscription> insert(Subscription subscription) {
+        return nextId().flatMap(id -> {
+            subscription.setId(id);
+            subscription.setVersion(0L);
+            return bindColumns(databaseClient.sql(INSERT), subscription)
+                    .bind("nextSubscriptionDate", subscription.getNextSubscriptionDate())
+                    .bind("createdAt", subscription.getCreatedAt())
+                    .fetch()
+                    .rowsUpdated()
+                    .thenReturn(subscription);
+        });
+    }
+
+    /**
+     * Writes the subscription if it is still at its version and emits it at the next one.
+     *
+     * @throws OptimisticLockingFailureException if another write changed or deleted it first
+     */
+    public Mono<Subscription> update(Subscription subscription) {
+        return bindColumns(databaseClient.sql(UPDATE), subscription)
+                .fetch()
+                .rowsUpdated()
+                .flatMap(updated -> {
+                    if (updated == 0) {
+                        return Mono.error(new OptimisticLockingFailureException(
+                                "Subscription " + subscription.getId() + " changed since version " + subscription.getVersion()));
+                    }
+                    subscription.setVersion(subscription.getVersion() + 1);
+                    return Mono.just(subscription);
+                });
+    }
+
+    /**
+     * Deletes the subscription if it is still at {@code version} and emits whether it did.
+     */
+    public Mono<Boolean> delete(String ownerId, Long id, Long version) {
+        return databaseClient.sql(DELETE)
+                .bind("ownerId", ownerId)
+                .bind("id", id)
+                .bind("version", version)
+                .fetch()
+                .rowsUpdated()
+                .map(deleted -> deleted > 0);
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bindColumns(DatabaseClient.GenericExecuteSpec spec, Subscription subscription) {
+        DatabaseClient.GenericExecuteSpec bound = spec.bind("id", subscription.getId())
+                .bind("ownerId", subscription.getOwnerId())
+                .bind("name", subscription.getName())
+                .bind("currency", subscription.getCurrency())
+                .bind("amount", subscription.getAmount())
+                .bind("convertedAmount", subscription.getConvertedAmount())
+                .bind("billingCycle", subscription.getBillingCycle())
+                .bind("subscriptionDate", subscription.getSubscriptionDate())
+                .bind("version", subscription.getVersion())
+                .bind("updatedAt", subscription.getUpdatedAt());
+        return subscription.getConvertedCurrency() == null
+                ? bound.bindNull("convertedCurrency", String.class)
+                : bound.bind("convertedCurrency", subscription.getConvertedCurrency());
+    }
+
+    /**
+     * Takes the next id of the current block, fetching a new block once it runs out. Concurrent
+     * callers may each fetch one; the ids of a replaced block are skipped, never reused.
+     */
+    private Mono<Long> nextId() {
+        return Mono.defer(() -> {
+            long id = ids.get().take();
+            if (id > 0) {
+                return Mono.just(id);
+            }
+            return databaseClient.sql(nextIdBlock)
+                    .map(row -> row.get(0, Long.class))
+                    .one()
+                    .map(value -> {
+                        // A fresh sequence starts at 1, whose block holds only id 1.
+                        IdBlock block = new IdBlock(Math.max(value - ID_BLOCK + 1, 1), value);
+                        long taken = block.take();
+                        ids.set(block);
+                        return taken;
+                    });
+        });
+    }
+
+    private static Subscription toSubscription(Readable row) {
+        Subscription subscription = new Subscription();
+        subscription.setId(row.get("id", Long.class));
+        subscription.setOwnerId(row.get("owner_id", String.class));
+        subscription.setName(row.get("name", String.class));
+        subscription.setCurrency(row.get("currency", String.class));
+        subscription.setAmount(row.get("amount", BigDecimal.class));
+        subscription.setConvertedAmount(row.get("converted_amount", BigDecimal.class));
+        subscription.setConvertedCurrency(row.get("converted_currency", String.class));
+        subscription.setBillingCycle(row.get("billing_cycle", Integer.class));
+        subscription.setSubscriptionDate(row.get("subscription_date", LocalDate.class));
+        subscription.setNextSubscriptionDate(row.get("next_subscription_date", LocalDate.class));
+        subscription.setVersion(row.get("version", Long.class));
+        subscription.setCreatedAt(row.get("created_at", LocalDateTime.class));
+        subscription.setUpdatedAt(row.get("updated_at", LocalDateTime.class));
+        return subscription;
+    }
+
+    private static final class IdBlock {
+
+        private final AtomicLong next;
+        private final long last;
+
+        IdBlock(long first, long last) {
+            this.next = new AtomicLong(first);
+            this.last = last;
+        }
+
+        /**
+         * Returns the next id, or 0 once the block is used up.
+         */
+        long take() {
+            long id = next.getAndIncrement();
+            return id <= last ? id : 0;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.mattemat.finance.reactive.service;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterpart of {@code GenericCrudService}; a missing record completes empty.
+ */
+public interface ReactiveCrudService<T, K> {
+    Mono<K> create(T t);
+
+    Mono<K> read(Long id);
+
+    Flux<K> readAll();
+
+    Mono<K> update(Long id, T t);
+
+    Mono<Boolean> delete(Long id);
+}
@@ -0,0 +1,29 @@
+package com.mattemat.finance.reactive.service;
+
+import com.mattemat.finance.entity.Subscription;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+/**
+ * Owner of the current request in the Reactor {@link Context}, the reactive counterpart of
+ * {@code OwnerContext}. A request runs on whichever event-loop thread is free, so the owner travels
+ * with the subscription rather than a thread.
+ */
+public final class ReactiveOwnerContext {
+
+    private static final String KEY = ReactiveOwnerContext.class.getName();
+
+    private ReactiveOwnerContext() {
+    }
+
+    /**
+     * Emits the owner bound upstream, or {@link Subscription#DEFAULT_OWNER} when none is bound.
+     */
+    public static Mono<String> current() {
+        return Mono.deferContextual(context -> Mono.just(context.getOrDefault(KEY, Subscription.DEFAULT_OWNER)));
+    }
+
+    public static Context with(String ownerId) {
+        return Context.of(KEY, ownerId);
+    }
+}
@@ -0,0 +1,207 @@
+package com.mattemat.finance.reactive.service;
+
+import com.mattemat.finance.dto.request.SubscriptionRequestDto;
+import com.mattemat.finance.dto.response.SubscriptionPageResponseDto;
+import com.mattemat.finance.dto.response.SubscriptionResponseDto;
+import com.mattemat.finance.entity.Subscription;
+import com.mattemat.finance.mapper.SubscriptionMapper;
+import com.mattemat.finance.reactive.repository.ReactiveCurrencyRepository;
+import com.mattemat.finance.reactive.repository.ReactiveSubscriptionRepository;
+import com.mattemat.finance.service.FixedPointMoney;
+import com.mattemat.finance.service.SubscriptionServiceImpl;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Subscription CRUD on R2DBC with the semantics of {@link SubscriptionServiceImpl}: owner scoping,
+ * keyset pages with the same cursors, versions checked against If-Match, and conversion at current
+ * rates. Changes are not published as {@code SubscriptionChangedEvent}s;
+ * the servlet application's summaries and renewal calendar pick them up on their next rebuild.
+ */
+@Service
+@Slf4j
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveSubscriptionServiceImpl
+        implements ReactiveCrudService<SubscriptionRequestDto, SubscriptionResponseDto> {
+
+    private final ReactiveSubscriptionRepository subscriptionRepository;
+    private final ReactiveCurrencyRepository currencyRepository;
+    private final SubscriptionMapper subscriptionMapper;
+
+    public ReactiveSubscriptionServiceImpl(
+            ReactiveSubscriptionRepository subscriptionRepository,
+            ReactiveCurrencyRepository currencyRepository,
+            SubscriptionMapper subscriptionMapper) {
+        this.subscriptionRepository = subscriptionRepository;
+        this.currencyRepository = currencyRepository;
+        this.subscriptionMapper = subscriptionMapper;
+        log.info("ReactiveSubscriptionService - ReactiveSubscriptionServiceImpl initialized");
+    }
+
+    @Override
+    public Mono<SubscriptionResponseDto> create(SubscriptionRequestDto request) {
+        return ReactiveOwnerContext.current().flatMap(ownerId -> {
+            log.debug("ReactiveSubscriptionService - Creating new subscription");
+            Subscription subscription = subscriptionMapper.toEntity(request);
+            subscription.setOwnerId(ownerId);
+            subscription.setConvertedCurrency(request.getToCurrency());
+            subscription.setNextSubscriptionDate(request.getSubscriptionDate().plusMonths(request.getBillingCycle()));
+            LocalDateTime now = now();
+            subscription.setCreatedAt(now);
+            subscription.setUpdatedAt(now);
+            return convertedAmount(request.getAmount(), request.getFromCurrency(), request.getToCurrency())
+                    .flatMap(convertedAmount -> {
+                        subscription.setConvertedAmount(convertedAmount);
+                        return subscriptionRepository.insert(subscription);
+                    });
+        }).map(subscriptionMapper::toDto);
+    }
+
+    @Override
+    public Mono<SubscriptionResponseDto> read(Long id) {
+        return ReactiveOwnerContext.current()
+                .flatMap(ownerId -> subscriptionRepository.findByOwnerIdAndId(ownerId, id))
+                .map(subscriptionMapper::toDto);
+    }
+
+    @Override
+    public Flux<SubscriptionResponseDto> readAll() {
+        return ReactiveOwnerContext.current()
+                .flatMapMany(subscriptionRepository::findAll)
+                .map(subscriptionMapper::toDto);
+    }
+
+    /**
+     * Emits one keyset page, with cursors interchangeable with {@link SubscriptionServiceImpl#readPage}.
+     * An invalid cursor is signalled as {@link IllegalArgumentException}.
+     */
+    public Mono<SubscriptionPageResponseDto> readPage(String cursor, Integer limit) {
+        int pageSize = limit == null ? SubscriptionServiceImpl.DEFAULT_PAGE_SIZE
+                : Math.clamp(limit, 1, SubscriptionServiceImpl.MAX_PAGE_SIZE);
+        return Mono.fromCallable(() -> SubscriptionServiceImpl.decodeCursor(cursor))
+                .zipWith(ReactiveOwnerContext.current())
+                .flatMap(afterOwner -> subscriptionRepository.findAfter(afterOwner.getT2(), afterOwner.getT1(), pageSize)
+                        .map(subscriptionMapper::toDto)
+                        .collectList())
+                .map(items -> {
+                    SubscriptionPageResponseDto page = new SubscriptionPageResponseDto();
+                    page.setItems(items);
+                    page.setNextCursor(items.size() < pageSize ? null : SubscriptionServiceImpl.encodeCursor(items.getLast().getId()));
+                    return page;
+                });
+    }
+
+    @Override
+    public Mono<SubscriptionResponseDto> update(Long id, SubscriptionRequestDto request) {
+        return update(id, request, null);
+    }
+
+    /**
+     * Updates the subscription and emits its persisted state, or completes empty if it does not
+     * exist.
+     *
+     * @throws OptimisticLockingFailureException if {@code expectedVersion} is set and differs from
+     *                                           the stored version, or a concurrent write wins
+     */
+    public Mono<SubscriptionResponseDto> update(Long id, SubscriptionRequestDto request, Long expectedVersion) {
+        return ReactiveOwnerContext.current()
+                .flatMap(ownerId -> subscriptionRepository.findByOwnerIdAndId(ownerId, id))
+                .flatMap(subscription -> checkVersion(subscription, expectedVersion))
+                .flatMap(subscription -> applyUpdate(subscription, request))
+                .flatMap(subscriptionRepository::update)
+                .map(subscriptionMapper::toDto);
+    }
+
+    @Override
+    public Mono<Boolean> delete(Long id) {
+        return delete(id, null);
+    }
+
+    /**
+     * Deletes the subscription and emits whether it existed.
+     *
+     * @throws OptimisticLockingFailureException if {@code expectedVersion} is set and differs from
+     *                                           the stored version, or a concurrent write wins
+     */
+    public Mono<Boolean> delete(Long id, Long expectedVersion) {
+        return ReactiveOwnerContext.current()
+                .flatMap(ownerId -> subscriptionRepository.findByOwnerIdAndId(ownerId, id))
+                .flatMap(subscription -> checkVersion(subscription, expectedVersion))
+                .flatMap(subscription -> subscriptionRepository.delete(subscription.getOwnerId(), id, subscription.getVersion())
+                        .flatMap(deleted -> deleted ? Mono.just(true) : Mono.<Boolean>error(
+                                new OptimisticLockingFailureException("Subscription " + id + " changed while deleting"))))
+                .defaultIfEmpty(false);
+    }
+
+    private static Mono<Subscription> checkVersion(Subscription subscription, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(subscription.getVersion())) {
+            log.warn("Subscription {} is at version {}, expected {}",
+                    subscription.getId(), subscription.getVersion(), expectedVersion);
+            return Mono.error(new OptimisticLockingFailureException(
+                    "Subscription " + subscription.getId() + " is at version " + subscription.getVersion()));
+        }
+        return Mono.just(subscription);
+    }
+
+    /**
+     * Converts again under the same conditions as {@link SubscriptionServiceImpl}, then copies the
+     * request over. The stored creation time is kept.
+     */
+    private Mono<Subscription> applyUpdate(Subscription subscription, SubscriptionRequestDto request) {
+        LocalDateTime createdAt = subscription.getCreatedAt();
+        Mono<Subscription> converted = Mono.just(subscription);
+        if (!request.getFromCurrency().equalsIgnoreCase(subscription.getCurrency())
+                || subscription.getConvertedCurrency() != null && request.getToCurrency() != null
+                && !subscription.getConvertedCurrency().equalsIgnoreCase(request.getToCurrency())) {
+            converted = convertedAmount(request.getAmount(), request.getFromCurrency(), request.getToCurrency())
+                    .map(convertedAmount -> {
+                        subscription.setConvertedAmount(convertedAmount);
+                        subscription.setConvertedCurrency(request.getToCurrency());
+                        return subscription;
+                    });
+        }
+        return converted.map(updated -> {
+            subscriptionMapper.updateEntityFromDto(request, updated);
+            updated.setCreatedAt(createdAt);
+            updated.setUpdatedAt(now());
+            return updated;
+        });
+    }
+
+    /**
+     * Returns the current time at the precision of a {@code TIMESTAMP} column, so a returned
+     * subscription matches what later reads load.
+     */
+    private static LocalDateTime now() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    }
+
+    /**
+     * Converts at current rates in fixed point, with both rates read in one round trip.
+     */
+    Mono<BigDecimal> convertedAmount(BigDecimal amount, String fromCurrency, String toCurrency) {
+        return currencyRepository.findRates(List.of(fromCurrency, toCurrency))
+                .map(rates -> FixedPointMoney.toAmount(FixedPointMoney.convert(
+                        FixedPointMoney.toMinorUnits(amount),
+                        scaledRate(rates, fromCurrency),
+                        scaledRate(rates, toCurrency))));
+    }
+
+    private static long scaledRate(Map<String, BigDecimal> rates, String code) {
+        BigDecimal rate = rates.get(code);
+        if (rate == null) {
+            throw new IllegalArgumentException("No exchange rate for currency: " + code);
+        }
+        return FixedPointMoney.toScaledRate(rate);
+    }
+}
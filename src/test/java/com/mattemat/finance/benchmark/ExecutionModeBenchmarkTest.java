@@ -0,0 +1,197 @@
+package com.mattemat.finance.benchmark;
+
+import com.mattemat.finance.FinanceApplication;
+import com.mattemat.finance.dto.request.SubscriptionBatchRequestDto;
+import com.mattemat.finance.dto.request.SubscriptionRequestDto;
+import com.mattemat.finance.service.ExchangeRateCache;
+import com.mattemat.finance.service.SubscriptionServiceImpl;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares request handling on Tomcat's platform-thread pool with virtual threads. Each mode runs in
+ * its own application context against its own H2 database, with every JDBC statement delayed by
+ * {@link #STATEMENT_LATENCY_MS} to stand in for the round trip to Postgres. {@link #CLIENTS} callers
+ * exceed both Tomcat's 200 workers and the virtual-thread mode's in-flight limit, so the run shows
+ * how each mode behaves under overload: platform threads queue in Tomcat's accept backlog, virtual
+ * threads queue briefly on the limiter and shed the rest with 503.
+ */
+@Slf4j
+@Tag("benchmark")
+class ExecutionModeBenchmarkTest {
+
+    private static final int SUBSCRIPTIONS = 200;
+    private static final int CLIENTS = 1_000;
+    private static final int REQUESTS = 10_000;
+    private static final long STATEMENT_LATENCY_MS = 2;
+
+    @Test
+    void comparePlatformAndVirtualThreads() throws Exception {
+        Result platform = run(false);
+        Result virtual = run(true);
+
+        log.info("ExecutionModeBenchmark - platform threads: {}", platform);
+        log.info("ExecutionModeBenchmark - virtual threads:  {}", virtual);
+        assertEquals(0, platform.errors(), "platform-thread errors");
+        assertEquals(0, virtual.errors(), "virtual-thread errors");
+    }
+
+    private Result run(boolean virtualThreads) throws Exception {
+        String mode = virtualThreads ? "virtual" : "platform";
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(FinanceApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.threads.virtual.enabled=" + virtualThreads,
+                        "spring.datasource.url=jdbc:h2:mem:" + mode + ";NON_KEYWORDS=VALUE",
+                        "spring.jpa.open-in-view=false",
+                        "logging.level.com.mattemat.finance.controller=WARN",
+                        "logging.level.com.mattemat.finance.service=WARN")
+                .initializers(ctx -> ctx.getBeanFactory().addBeanPostProcessor(new StatementLatency()))
+                .run()) {
+            seed(context);
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            return load(URI.create("http://localhost:" + port + "/api/v1/subscriptions/"));
+        }
+    }
+
+    private static void seed(ConfigurableApplicationContext context) {
+        context.getBean(ExchangeRateCache.class).publish(Map.of("USD", BigDecimal.ONE, "SGD", new BigDecimal("1.35")));
+        List<SubscriptionBatchRequestDto.Operation> operations = new ArrayList<>();
+        for (int i = 0; i < SUBSCRIPTIONS; i++) {
+            SubscriptionRequestDto request = new SubscriptionRequestDto();
+            request.setName("Subscription " + i);
+            request.setFromCurrency("USD");
+            request.setToCurrency("SGD");
+            request.setAmount(new BigDecimal("9.99"));
+            request.setBillingCycle(1);
+            request.setSubscriptionDate(LocalDate.of(2024, 1, 1));
+            SubscriptionBatchRequestDto.Operation operation = new SubscriptionBatchRequestDto.Operation();
+            operation.setType(SubscriptionBatchRequestDto.OperationType.CREATE);
+            operation.setSubscription(request);
+            operations.add(operation);
+        }
+        context.getBean(SubscriptionServiceImpl.class).applyBatch(operations);
+    }
+
+    private static Result load(URI base) throws Exception {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        long[] latencies = new long[REQUESTS];
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+
+        try (HttpClient client = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+             ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            threads.resetPeakThreadCount();
+            long start = System.nanoTime();
+            List<Future<?>> futures = new ArrayList<>();
+            for (int c = 0; c < CLIENTS; c++) {
+                futures.add(clients.submit(() -> {
+                    for (int i = next.getAndIncrement(); i < REQUESTS; i = next.getAndIncrement()) {
+                        HttpRequest request = HttpRequest.newBuilder(base.resolve(String.valueOf(1 + i % SUBSCRIPTIONS))).build();
+                        long sent = System.nanoTime();
+                        try {
+                            int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                            if (status == 503) {
+                                rejected.incrementAndGet();
+                            } else if (status != 200) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                        latencies[i] = System.nanoTime() - sent;
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+            Arrays.sort(latencies);
+            return new Result(
+                    Math.round(REQUESTS / seconds),
+                    latencies[REQUESTS / 2] / 1_000_000.0,
+                    latencies[REQUESTS * 99 / 100] / 1_000_000.0,
+                    threads.getPeakThreadCount(),
+                    rejected.get(),
+                    errors.get());
+        }
+    }
+
+    private record Result(long requestsPerSecond, double p50Millis, double p99Millis, int peakPlatformThreads,
+                          int rejected, int errors) {
+
+        @Override
+        public String toString() {
+            return String.format("%d req/s, p50 %.1f ms, p99 %.1f ms, %d peak platform threads, %d rejected, %d errors",
+                    requestsPerSecond, p50Millis, p99Millis, peakPlatformThreads, rejected, errors);
+        }
+    }
+
+    /**
+     * Wraps the DataSource so every statement execution sleeps first, holding its pooled connection
+     * the way a network round trip would.
+     */
+    private static final class StatementLatency implements BeanPostProcessor {
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof DataSource dataSource) {
+                return proxy(DataSource.class, dataSource);
+            }
+            return bean;
+        }
+
+        private static <T> T proxy(Class<T> type, T target) {
+            return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (self, method, args) -> {
+                if (type == PreparedStatement.class && method.getName().startsWith("execute")) {
+                    Thread.sleep(STATEMENT_LATENCY_MS);
+                }
+                Object result;
+                try {
+                    result = method.invoke(target, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+                if (result instanceof Connection connection && type != Connection.class) {
+                    return proxy(Connection.class, connection);
+                }
+                if (result instanceof PreparedStatement statement && type == Connection.class) {
+                    return proxy(PreparedStatement.class, statement);
+                }
+                return result;
+            }));
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.mattemat.finance.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mattemat.finance.dto.request.SubscriptionBatchRequestDto;
+import com.mattemat.finance.dto.request.SubscriptionRequestDto;
+import com.mattemat.finance.entity.Subscription;
+import com.mattemat.finance.repository.SubscriptionExportRepository;
+import com.mattemat.finance.repository.SubscriptionRepository;
+import com.mattemat.finance.service.ExchangeRateCache;
+import com.mattemat.finance.service.SubscriptionExportService;
+import com.mattemat.finance.service.SubscriptionServiceImpl;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares {@link SubscriptionExportService} with reading the same cursor and discarding the rows,
+ * the most an export could do, and with serializing the list {@link SubscriptionServiceImpl#readAll()}
+ * returns, as a client of the list endpoint would.
+ */
+@Slf4j
+@Tag("benchmark")
+@SpringBootTest
+class ExportBenchmarkTest {
+
+    private static final int ROWS = 50_000;
+    private static final int WARMUP = 3;
+    private static final int ITERATIONS = 10;
+
+    @Autowired
+    private SubscriptionServiceImpl subscriptionService;
+
+    @Autowired
+    private SubscriptionRepository subscriptionRepository;
+
+    @Autowired
+    private SubscriptionExportRepository exportRepository;
+
+    @Autowired
+    private SubscriptionExportService exportService;
+
+    @Autowired
+    private ExchangeRateCache exchangeRateCache;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @AfterEach
+    void tearDown() {
+        subscriptionRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void compareExportWithCursorAndList() {
+        seed();
+        LongSupplier cursor = () -> transactionTemplate.execute(status -> exportRepository.forEach(Subscription.DEFAULT_OWNER, 1000, row -> {
+        }));
+        LongSupplier csv = () -> export(SubscriptionExportService.Format.CSV);
+        LongSupplier ndjson = () -> export(SubscriptionExportService.Format.NDJSON);
+        LongSupplier list = () -> {
+            try {
+                var subscriptions = subscriptionService.readAll();
+                objectMapper.writeValue(OutputStream.nullOutputStream(), subscriptions);
+                return subscriptions.size();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+
+        double cursorMillis = measure(cursor);
+        double csvMillis = measure(csv);
+        double ndjsonMillis = measure(ndjson);
+        double listMillis = measure(list);
+
+        log.info("ExportBenchmark - cursor only:      {} ms per {} rows", String.format("%.1f", cursorMillis), ROWS);
+        log.info("ExportBenchmark - CSV export:       {} ms per {} rows", String.format("%.1f", csvMillis), ROWS);
+        log.info("ExportBenchmark - NDJSON export:    {} ms per {} rows", String.format("%.1f", ndjsonMillis), ROWS);
+        log.info("ExportBenchmark - list + JSON body: {} ms per {} rows", String.format("%.1f", listMillis), ROWS);
+        assertTrue(csvMillis < cursorMillis * 3, "CSV export should stay close to the speed of the cursor");
+    }
+
+    private long export(SubscriptionExportService.Format format) {
+        try {
+            return exportService.export(Subscription.DEFAULT_OWNER, format, false, OutputStream.nullOutputStream());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void seed() {
+        exchangeRateCache.publish(Map.of("USD", BigDecimal.ONE, "SGD", new BigDecimal("1.35")));
+        for (int offset = 0; offset < ROWS; offset += SubscriptionServiceImpl.MAX_BATCH_SIZE) {
+            List<SubscriptionBatchRequestDto.Operation> operations = new ArrayList<>();
+            for (int i = offset; i < offset + SubscriptionServiceImpl.MAX_BATCH_SIZE; i++) {
+                SubscriptionBatchRequestDto.Operation operation = new SubscriptionBatchRequestDto.Operation();
+                operation.setType(SubscriptionBatchRequestDto.OperationType.CREATE);
+                operation.setSubscription(request(i));
+                operations.add(operation);
+            }
+            subscriptionService.applyBatch(operations);
+        }
+    }
+
+    private static double measure(LongSupplier export) {
+        for (int i = 0; i < WARMUP; i++) {
+            assertEquals(ROWS, export.getAsLong());
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            assertEquals(ROWS, export.getAsLong());
+        }
+        return (System.nanoTime() - start) / 1_000_000.0 / ITERATIONS;
+    }
+
+    private static SubscriptionRequestDto request(int i) {
+        SubscriptionRequestDto request = new SubscriptionRequestDto();
+        request.setName("Subscription " + i);
+        request.setFromCurrency("USD");
+        request.setToCurrency("SGD");
+        request.setAmount(new BigDecimal("9.99"));
+        request.setBillingCycle(1 + i % 12);
+        request.setSubscriptionDate(LocalDate.of(2024, 1, 1).plusDays(i % 365));
+        return request;
+    }
+}
@@ -0,0 +1,121 @@
+package com.mattemat.finance.benchmark;
+
+import com.mattemat.finance.dto.request.SubscriptionBatchRequestDto;
+import com.mattemat.finance.dto.request.SubscriptionRequestDto;
+import com.mattemat.finance.dto.response.SubscriptionImportResponseDto;
+import com.mattemat.finance.repository.SubscriptionRepository;
+import com.mattemat.finance.service.ExchangeRateCache;
+import com.mattemat.finance.service.SubscriptionImportService;
+import com.mattemat.finance.service.SubscriptionServiceImpl;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares loading subscriptions through {@link SubscriptionImportService} with the fastest path
+ * before it, {@link SubscriptionServiceImpl#applyBatch} in batches of
+ * {@link SubscriptionServiceImpl#MAX_BATCH_SIZE} creates.
+ */
+@Slf4j
+@Tag("benchmark")
+@SpringBootTest
+class ImportBenchmarkTest {
+
+    private static final int ROWS = 50_000;
+    private static final int ROUNDS = 3;
+
+    @Autowired
+    private SubscriptionImportService importService;
+
+    @Autowired
+    private SubscriptionServiceImpl subscriptionService;
+
+    @Autowired
+    private SubscriptionRepository subscriptionRepository;
+
+    @Autowired
+    private ExchangeRateCache exchangeRateCache;
+
+    @AfterEach
+    void tearDown() {
+        subscriptionRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void compareImportWithBatchCreates() throws IOException {
+        exchangeRateCache.publish(Map.of("USD", BigDecimal.ONE, "SGD", new BigDecimal("1.35")));
+        byte[] csv = csv();
+
+        double importRate = 0;
+        double batchRate = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            SubscriptionImportResponseDto response = importService.importCsv(new ByteArrayInputStream(csv));
+            importRate = ROWS * 1e9 / (System.nanoTime() - start);
+            assertEquals(ROWS, response.getImported());
+            subscriptionRepository.deleteAllInBatch();
+
+            start = System.nanoTime();
+            applyBatches();
+            batchRate = ROWS * 1e9 / (System.nanoTime() - start);
+            subscriptionRepository.deleteAllInBatch();
+        }
+
+        log.info("ImportBenchmark - CSV import:    {} rows/s", Math.round(importRate));
+        log.info("ImportBenchmark - batch creates: {} rows/s", Math.round(batchRate));
+        assertTrue(importRate > batchRate, "CSV import should load faster than batch creates");
+    }
+
+    private void applyBatches() {
+        for (int offset = 0; offset < ROWS; offset += SubscriptionServiceImpl.MAX_BATCH_SIZE) {
+            List<SubscriptionBatchRequestDto.Operation> operations = new ArrayList<>();
+            for (int i = offset; i < offset + SubscriptionServiceImpl.MAX_BATCH_SIZE; i++) {
+                SubscriptionBatchRequestDto.Operation operation = new SubscriptionBatchRequestDto.Operation();
+                operation.setType(SubscriptionBatchRequestDto.OperationType.CREATE);
+                operation.setSubscription(request(i));
+                operations.add(operation);
+            }
+            subscriptionService.applyBatch(operations);
+        }
+    }
+
+    private static byte[] csv() {
+        StringBuilder csv = new StringBuilder("name,fromCurrency,toCurrency,amount,billingCycle,subscriptionDate\n");
+        for (int i = 0; i < ROWS; i++) {
+            SubscriptionRequestDto request = request(i);
+            csv.append(request.getName()).append(',')
+                    .append(request.getFromCurrency()).append(',')
+                    .append(request.getToCurrency()).append(',')
+                    .append(request.getAmount()).append(',')
+                    .append(request.getBillingCycle()).append(',')
+                    .append(request.getSubscriptionDate()).append('\n');
+        }
+        return csv.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static SubscriptionRequestDto request(int i) {
+        SubscriptionRequestDto request = new SubscriptionRequestDto();
+        request.setName("Subscription " + i);
+        request.setFromCurrency("USD");
+        request.setToCurrency("SGD");
+        request.setAmount(new BigDecimal("9.99"));
+        request.setBillingCycle(1 + i % 12);
+        request.setSubscriptionDate(LocalDate.of(2024, 1, 1).plusDays(i % 365));
+        return request;
+    }
+}
@@ -0,0 +1,138 @@
+package com.mattemat.finance.benchmark;
+
+import com.mattemat.finance.dto.request.SubscriptionBatchRequestDto;
+import com.mattemat.finance.dto.request.SubscriptionRequestDto;
+import com.mattemat.finance.dto.response.SubscriptionResponseDto;
+import com.mattemat.finance.mapper.SubscriptionMapper;
+import com.mattemat.finance.repository.SubscriptionRepository;
+import com.mattemat.finance.service.ExchangeRateCache;
+import com.mattemat.finance.service.SubscriptionServiceImpl;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares listing subscriptions through managed entities mapped to DTOs, the read path before
+ * projections, with the read-only projection query {@link SubscriptionServiceImpl#readAll()} uses now.
+ */
+@Slf4j
+@Tag("benchmark")
+@SpringBootTest
+class ReadPathBenchmarkTest {
+
+    private static final int ROWS = 10_000;
+    private static final int WARMUP = 5;
+    private static final int ITERATIONS = 20;
+
+    @Autowired
+    private SubscriptionServiceImpl subscriptionService;
+
+    @Autowired
+    private SubscriptionRepository subscriptionRepository;
+
+    @Autowired
+    private SubscriptionMapper subscriptionMapper;
+
+    @Autowired
+    private ExchangeRateCache exchangeRateCache;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void tearDown() {
+        subscriptionRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void compareEntityAndProjectionReads() {
+        seed();
+        Supplier<List<SubscriptionResponseDto>> entities = () -> transactionTemplate.execute(status ->
+                subscriptionRepository.findAll().stream().map(subscriptionMapper::toDto).toList());
+        Supplier<List<SubscriptionResponseDto>> projections = subscriptionService::readAll;
+
+        Result entityResult = measure(entities);
+        Result projectionResult = measure(projections);
+
+        log.info("ReadPathBenchmark - entity hydration: {}", entityResult);
+        log.info("ReadPathBenchmark - DTO projection:   {}", projectionResult);
+        assertTrue(projectionResult.bytesPerRow() < entityResult.bytesPerRow(),
+                "Projection should allocate less per row than entity hydration");
+    }
+
+    private void seed() {
+        exchangeRateCache.publish(Map.of("USD", BigDecimal.ONE, "SGD", new BigDecimal("1.35")));
+        for (int offset = 0; offset < ROWS; offset += SubscriptionServiceImpl.MAX_BATCH_SIZE) {
+            List<SubscriptionBatchRequestDto.Operation> operations = new ArrayList<>();
+            for (int i = offset; i < offset + SubscriptionServiceImpl.MAX_BATCH_SIZE; i++) {
+                SubscriptionBatchRequestDto.Operation operation = new SubscriptionBatchRequestDto.Operation();
+                operation.setType(SubscriptionBatchRequestDto.OperationType.CREATE);
+                operation.setSubscription(request(i));
+                operations.add(operation);
+            }
+            subscriptionService.applyBatch(operations);
+        }
+    }
+
+    private static Result measure(Supplier<List<SubscriptionResponseDto>> read) {
+        for (int i = 0; i < WARMUP; i++) {
+            assertEquals(ROWS, read.get().size());
+        }
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long gcBefore = gcCount();
+        long bytesBefore = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            assertEquals(ROWS, read.get().size());
+        }
+        long elapsed = System.nanoTime() - start;
+        long bytes = threads.getCurrentThreadAllocatedBytes() - bytesBefore;
+        return new Result(
+                (double) bytes / ((long) ROWS * ITERATIONS),
+                elapsed / 1_000_000.0 / ITERATIONS,
+                gcCount() - gcBefore);
+    }
+
+    private static long gcCount() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionCount)
+                .filter(count -> count > 0)
+                .sum();
+    }
+
+    private record Result(double bytesPerRow, double millisPerList, long collections) {
+
+        @Override
+        public String toString() {
+            return String.format("%.0f bytes/row, %.1f ms per %d-row list, %d GCs",
+                    bytesPerRow, millisPerList, ROWS, collections);
+        }
+    }
+
+    private static SubscriptionRequestDto request(int i) {
+        SubscriptionRequestDto request = new SubscriptionRequestDto();
+        request.setName("Subscription " + i);
+        request.setFromCurrency("USD");
+        request.setToCurrency("SGD");
+        request.setAmount(new BigDecimal("9.99"));
+        request.setBillingCycle(1 + i % 12);
+        request.setSubscriptionDate(LocalDate.of(2024, 1, 1).plusDays(i % 365));
+        return request;
+    }
+}
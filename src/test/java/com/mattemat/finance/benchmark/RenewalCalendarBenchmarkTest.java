@@ -0,0 +1,130 @@
+package com.mattemat.finance.benchmark;
+
+import com.mattemat.finance.dto.request.SubscriptionBatchRequestDto;
+import com.mattemat.finance.dto.request.SubscriptionRequestDto;
+import com.mattemat.finance.repository.SubscriptionRepository;
+import com.mattemat.finance.service.ExchangeRateCache;
+import com.mattemat.finance.service.RenewalCalendarService;
+import com.mattemat.finance.service.SubscriptionServiceImpl;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares a 7-day upcoming-renewals lookup on the {@link RenewalCalendarService} timing wheel with
+ * the equivalent range query on {@code idx_subscriptions_next_subscription_date}.
+ */
+@Slf4j
+@Tag("benchmark")
+@SpringBootTest
+class RenewalCalendarBenchmarkTest {
+
+    private static final int ROWS = 50_000;
+    private static final int DAYS = 7;
+    private static final int WARMUP = 200;
+    private static final int ITERATIONS = 2_000;
+
+    private static final String UPCOMING_SQL = """
+            SELECT id, currency, amount, billing_cycle, next_subscription_date
+            FROM subscriptions
+            WHERE next_subscription_date >= :from AND next_subscription_date < :until
+            ORDER BY next_subscription_date
+            """;
+
+    @Autowired
+    private SubscriptionServiceImpl subscriptionService;
+
+    @Autowired
+    private SubscriptionRepository subscriptionRepository;
+
+    @Autowired
+    private RenewalCalendarService renewalCalendarService;
+
+    @Autowired
+    private ExchangeRateCache exchangeRateCache;
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        subscriptionRepository.deleteAllInBatch();
+        renewalCalendarService.rebuild();
+    }
+
+    @Test
+    void compareCalendarAndIndexedQuery() {
+        seed();
+        LocalDate today = LocalDate.now();
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("from", today)
+                .addValue("until", today.plusDays(DAYS));
+        IntSupplier calendar = () -> renewalCalendarService.upcoming(DAYS).getRenewals().size();
+        IntSupplier query = () -> jdbcTemplate.queryForList(UPCOMING_SQL, params).size();
+
+        int expected = query.getAsInt();
+        assertTrue(expected > 0, "Seed should have renewals in the window");
+        assertEquals(expected, calendar.getAsInt(), "Calendar and query should agree");
+
+        double calendarMicros = measure(calendar, expected);
+        double queryMicros = measure(query, expected);
+
+        log.info("RenewalCalendarBenchmark - {} of {} rows due in {} days", expected, ROWS, DAYS);
+        log.info("RenewalCalendarBenchmark - timing wheel:  {} us per lookup", String.format("%.1f", calendarMicros));
+        log.info("RenewalCalendarBenchmark - indexed query: {} us per lookup", String.format("%.1f", queryMicros));
+        assertTrue(calendarMicros < queryMicros, "Calendar lookup should beat the indexed query");
+    }
+
+    private void seed() {
+        exchangeRateCache.publish(Map.of("USD", BigDecimal.ONE, "SGD", new BigDecimal("1.35")));
+        LocalDate today = LocalDate.now();
+        for (int offset = 0; offset < ROWS; offset += SubscriptionServiceImpl.MAX_BATCH_SIZE) {
+            List<SubscriptionBatchRequestDto.Operation> operations = new ArrayList<>();
+            for (int i = offset; i < offset + SubscriptionServiceImpl.MAX_BATCH_SIZE; i++) {
+                SubscriptionBatchRequestDto.Operation operation = new SubscriptionBatchRequestDto.Operation();
+                operation.setType(SubscriptionBatchRequestDto.OperationType.CREATE);
+                operation.setSubscription(request(i, today));
+                operations.add(operation);
+            }
+            subscriptionService.applyBatch(operations);
+        }
+    }
+
+    private static double measure(IntSupplier lookup, int expected) {
+        for (int i = 0; i < WARMUP; i++) {
+            assertEquals(expected, lookup.getAsInt());
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            assertEquals(expected, lookup.getAsInt());
+        }
+        return (System.nanoTime() - start) / 1_000.0 / ITERATIONS;
+    }
+
+    private static SubscriptionRequestDto request(int i, LocalDate today) {
+        int billingCycle = 1 + i % 12;
+        SubscriptionRequestDto request = new SubscriptionRequestDto();
+        request.setName("Subscription " + i);
+        request.setFromCurrency("USD");
+        request.setToCurrency("SGD");
+        request.setAmount(new BigDecimal("9.99"));
+        request.setBillingCycle(billingCycle);
+        request.setSubscriptionDate(today.minusMonths(billingCycle).plusDays(i % 365));
+        return request;
+    }
+}
@@ -0,0 +1,89 @@
+package com.mattemat.finance.benchmark;
+
+import com.mattemat.finance.dto.request.SubscriptionBatchRequestDto;
+import com.mattemat.finance.dto.request.SubscriptionRequestDto;
+import com.mattemat.finance.repository.SubscriptionRepository;
+import com.mattemat.finance.service.ExchangeRateCache;
+import com.mattemat.finance.service.FixedPointMoney;
+import com.mattemat.finance.service.SubscriptionServiceImpl;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+@Slf4j
+@Tag("benchmark")
+@SpringBootTest
+class SubscriptionWriteBenchmarkTest {
+
+    private static final int ROWS = 5_000;
+
+    @Autowired
+    private SubscriptionServiceImpl subscriptionService;
+
+    @Autowired
+    private SubscriptionRepository subscriptionRepository;
+
+    @MockBean
+    private ExchangeRateCache exchangeRateCache;
+
+    @AfterEach
+    void tearDown() {
+        subscriptionRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void compareSingleRowAndBatchCreates() {
+        when(exchangeRateCache.scaledRate(anyString())).thenReturn(FixedPointMoney.toScaledRate(BigDecimal.ONE));
+
+        long singleStart = System.nanoTime();
+        for (int i = 0; i < ROWS; i++) {
+            subscriptionService.create(request(i));
+        }
+        double singleRowsPerSecond = rowsPerSecond(singleStart);
+
+        long batchStart = System.nanoTime();
+        for (int offset = 0; offset < ROWS; offset += SubscriptionServiceImpl.MAX_BATCH_SIZE) {
+            List<SubscriptionBatchRequestDto.Operation> operations = new ArrayList<>();
+            for (int i = offset; i < offset + SubscriptionServiceImpl.MAX_BATCH_SIZE; i++) {
+                SubscriptionBatchRequestDto.Operation operation = new SubscriptionBatchRequestDto.Operation();
+                operation.setType(SubscriptionBatchRequestDto.OperationType.CREATE);
+                operation.setSubscription(request(i));
+                operations.add(operation);
+            }
+            subscriptionService.applyBatch(operations);
+        }
+        double batchRowsPerSecond = rowsPerSecond(batchStart);
+
+        log.info("SubscriptionWriteBenchmark - single-row create: {} rows/sec, batch create: {} rows/sec",
+                Math.round(singleRowsPerSecond), Math.round(batchRowsPerSecond));
+        assertEquals(2L * ROWS, subscriptionRepository.count());
+    }
+
+    private static double rowsPerSecond(long startNanos) {
+        return ROWS / ((System.nanoTime() - startNanos) / 1_000_000_000.0);
+    }
+
+    private static SubscriptionRequestDto request(int i) {
+        SubscriptionRequestDto request = new SubscriptionRequestDto();
+        request.setName("Subscription " + i);
+        request.setFromCurrency("USD");
+        request.setToCurrency("SGD");
+        request.setAmount(new BigDecimal("9.99"));
+        request.setBillingCycle(1 + i % 12);
+        request.setSubscriptionDate(LocalDate.of(2024, 1, 1).plusDays(i % 365));
+        return request;
+    }
+}
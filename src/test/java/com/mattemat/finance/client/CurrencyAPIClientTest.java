@@ -0,0 +1,84 @@
+package com.mattemat.finance.client;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CurrencyAPIClientTest {
+
+    private ProviderStandInServer server;
+    private CurrencyAPIClient client;
+
+    @BeforeEach
+    void setUp() {
+        server = new ProviderStandInServer(ProviderStandInServer.payload(170, "1.25"));
+        client = new CurrencyAPIClient(server.url(), "key", Duration.ofSeconds(1), Duration.ofMillis(300));
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    @Test
+    void fetchLatest_shouldDecodeGzipPayload() throws IOException {
+        CurrencyAPIClient.ProviderResponse response = client.fetchLatest();
+
+        assertFalse(response.notModified());
+        assertTrue(response.gzip());
+        try (InputStream inputStream = response.openBody()) {
+            String json = new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+            assertTrue(json.startsWith("{\"data\":{\"C0\""));
+            assertTrue(server.bytesSent() < json.length() / 4, "Payload should be compressed on the wire");
+        }
+    }
+
+    @Test
+    void fetchLatest_shouldRevalidateWithRememberedEtag() {
+        CurrencyAPIClient.ProviderResponse first = client.fetchLatest();
+        client.remember(first);
+
+        CurrencyAPIClient.ProviderResponse second = client.fetchLatest();
+        server.payload(ProviderStandInServer.payload(170, "1.5"));
+        CurrencyAPIClient.ProviderResponse third = client.fetchLatest();
+
+        assertTrue(second.notModified());
+        assertFalse(third.notModified());
+        assertEquals(1, server.notModified());
+    }
+
+    @Test
+    void fetchLatest_shouldNotRevalidateWithoutRemember() {
+        client.fetchLatest();
+
+        assertFalse(client.fetchLatest().notModified(), "Validators should only be sent once a payload was ingested");
+    }
+
+    @Test
+    void fetchLatest_shouldTimeOutOnSlowProvider() {
+        server.latency(Duration.ofSeconds(2));
+
+        long start = System.nanoTime();
+        UncheckedIOException exception = assertThrows(UncheckedIOException.class, client::fetchLatest);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertInstanceOf(HttpTimeoutException.class, exception.getCause());
+        assertTrue(elapsedMillis < 1500, "Request should give up after the read timeout, took " + elapsedMillis + " ms");
+    }
+
+    @Test
+    void fetchLatest_shouldRejectErrorStatus() {
+        server.failWith(503);
+
+        assertThrows(IllegalStateException.class, client::fetchLatest);
+    }
+}
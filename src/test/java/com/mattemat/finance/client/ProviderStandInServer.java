@@ -0,0 +1,133 @@
+package com.mattemat.finance.client;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Local stand-in for the currency rate provider with injectable latency and failures.
+ * Honours {@code If-None-Match} and {@code Accept-Encoding: gzip} like the real provider.
+ */
+public class ProviderStandInServer implements AutoCloseable {
+
+    private final HttpServer server;
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger notModified = new AtomicInteger();
+    private final AtomicLong bytesSent = new AtomicLong();
+
+    private volatile String payload;
+    private volatile int version;
+    private volatile Duration latency = Duration.ZERO;
+    private volatile int failureStatus;
+
+    public ProviderStandInServer(String payload) {
+        this.payload = payload;
+        try {
+            server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/latest", this::handle);
+        server.start();
+    }
+
+    public String url() {
+        return "http://localhost:" + server.getAddress().getPort() + "/latest";
+    }
+
+    public void payload(String payload) {
+        this.payload = payload;
+        this.version++;
+    }
+
+    public void latency(Duration latency) {
+        this.latency = latency;
+    }
+
+    public void failWith(int status) {
+        this.failureStatus = status;
+    }
+
+    public void recover() {
+        this.failureStatus = 0;
+        this.latency = Duration.ZERO;
+    }
+
+    public int requests() {
+        return requests.get();
+    }
+
+    public int notModified() {
+        return notModified.get();
+    }
+
+    public long bytesSent() {
+        return bytesSent.get();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        try (exchange) {
+            if (!latency.isZero()) {
+                Thread.sleep(latency);
+            }
+            if (failureStatus != 0) {
+                exchange.sendResponseHeaders(failureStatus, -1);
+                return;
+            }
+            String etag = "\"v" + version + "\"";
+            if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                notModified.incrementAndGet();
+                exchange.sendResponseHeaders(304, -1);
+                return;
+            }
+            byte[] body = payload.getBytes(StandardCharsets.UTF_8);
+            String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+            if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+                ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+                try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                    gzip.write(body);
+                }
+                body = compressed.toByteArray();
+                exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+            }
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.getResponseHeaders().add("ETag", etag);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream outputStream = exchange.getResponseBody()) {
+                outputStream.write(body);
+            }
+            bytesSent.addAndGet(body.length);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public static String payload(int currencies, String value) {
+        StringBuilder json = new StringBuilder("{\"data\":{");
+        for (int i = 0; i < currencies; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("\"C").append(i).append("\":{\"code\":\"C").append(i).append("\",\"value\":").append(value).append('}');
+        }
+        return json.append("}}").toString();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
@@ -0,0 +1,85 @@
+package com.mattemat.finance.controller;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ConcurrencyLimitFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(meterRegistry, 1, Duration.ofMillis(50));
+
+    @Test
+    void doFilter_shouldRejectApiRequestsBeyondLimit() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<MockHttpServletResponse> held = executor.submit(() -> {
+                MockHttpServletResponse response = new MockHttpServletResponse();
+                filter.doFilter(request("/api/v1/subscriptions"), response, (req, res) -> {
+                    entered.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+                return response;
+            });
+            entered.await(5, TimeUnit.SECONDS);
+
+            MockHttpServletResponse rejected = new MockHttpServletResponse();
+            filter.doFilter(request("/api/v1/subscriptions/1"), rejected, new MockFilterChain());
+            assertEquals(503, rejected.getStatus());
+            assertEquals("1", rejected.getHeader("Retry-After"));
+
+            MockHttpServletResponse actuator = new MockHttpServletResponse();
+            filter.doFilter(request("/actuator/health"), actuator, new MockFilterChain());
+            assertEquals(200, actuator.getStatus(), "non-API paths are not limited");
+
+            release.countDown();
+            assertEquals(200, held.get().getStatus());
+        }
+
+        MockHttpServletResponse afterRelease = new MockHttpServletResponse();
+        filter.doFilter(request("/api/v1/subscriptions/1"), afterRelease, new MockFilterChain());
+        assertEquals(200, afterRelease.getStatus());
+        assertEquals(1.0, meterRegistry.get("finance.concurrency.rejected").counter().count());
+    }
+
+    @Test
+    void doFilter_shouldHoldPermitUntilAsyncRequestCompletes() throws Exception {
+        MockHttpServletRequest streaming = request("/api/v1/subscriptions/stream");
+        streaming.setAsyncSupported(true);
+        filter.doFilter(streaming, new MockHttpServletResponse(), (req, res) -> req.startAsync());
+
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        filter.doFilter(request("/api/v1/subscriptions/1"), rejected, new MockFilterChain());
+        assertEquals(503, rejected.getStatus(), "permit should be held while the response streams");
+
+        ((MockAsyncContext) streaming.getAsyncContext()).complete();
+
+        MockHttpServletResponse afterCompletion = new MockHttpServletResponse();
+        filter.doFilter(request("/api/v1/subscriptions/1"), afterCompletion, new MockFilterChain());
+        assertEquals(200, afterCompletion.getStatus());
+    }
+
+    private static MockHttpServletRequest request(String uri) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        request.setRequestURI(uri);
+        return request;
+    }
+}
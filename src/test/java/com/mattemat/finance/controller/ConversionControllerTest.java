@@ -0,0 +1,58 @@
+package com.mattemat.finance.controller;
+
+import com.mattemat.finance.dto.response.ConversionResponseDto;
+import com.mattemat.finance.service.CurrencyConversionService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ConversionController.class)
+class ConversionControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private CurrencyConversionService currencyConversionService;
+
+    @Test
+    void convert_shouldReturnPerItemResults() throws Exception {
+        ConversionResponseDto.Result result = new ConversionResponseDto.Result();
+        result.setAmount(new BigDecimal("10.00"));
+        result.setFromCurrency("USD");
+        result.setToCurrency("SGD");
+        result.setConvertedAmount(new BigDecimal("13.50"));
+        ConversionResponseDto response = new ConversionResponseDto();
+        response.setSucceeded(1);
+        response.setResults(List.of(result));
+        when(currencyConversionService.convertAll(anyList(), isNull())).thenReturn(response);
+
+        mockMvc.perform(post("/api/v1/conversions")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"conversions\":[{\"amount\":10.00,\"fromCurrency\":\"USD\",\"toCurrency\":\"SGD\"}]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.succeeded").value(1))
+                .andExpect(jsonPath("$.results[0].convertedAmount").value(13.50));
+    }
+
+    @Test
+    void convert_withoutConversions_shouldReturnBadRequest() throws Exception {
+        mockMvc.perform(post("/api/v1/conversions")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"conversions\":[]}"))
+                .andExpect(status().isBadRequest());
+
+        verify(currencyConversionService, never()).convertAll(anyList(), any());
+    }
+}
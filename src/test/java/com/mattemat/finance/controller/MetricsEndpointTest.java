@@ -0,0 +1,38 @@
+package com.mattemat.finance.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class MetricsEndpointTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void prometheus_shouldExposeLatencyHistogramsForEachLayer() throws Exception {
+        mockMvc.perform(get("/api/v1/subscriptions")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/v1/subscriptions/{id}", 999_999L));
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertTrue(scrape.contains("http_server_requests_seconds_bucket{"), "controller histogram");
+        assertTrue(scrape.contains("finance_subscriptions_operation_seconds_bucket{"), "service histogram");
+        assertTrue(scrape.contains("outcome=\"not_found\""), "not-found outcome");
+        assertTrue(scrape.contains("spring_data_repository_invocations_seconds_bucket{"), "repository histogram");
+        assertTrue(scrape.contains("finance_subscriptions_rows_total{"), "row counter");
+        assertTrue(scrape.contains("hikaricp_connections_active{"), "pool gauges");
+    }
+}
@@ -0,0 +1,57 @@
+package com.mattemat.finance.controller;
+
+import com.mattemat.finance.entity.Subscription;
+import com.mattemat.finance.service.OwnerContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OwnerFilterTest {
+
+    @Test
+    void doFilter_shouldBindOwnerForRequestOnly() throws Exception {
+        OwnerFilter filter = new OwnerFilter(false);
+        List<String> owners = new ArrayList<>();
+
+        MockHttpServletRequest withOwner = request("/api/v1/subscriptions");
+        withOwner.addHeader(OwnerFilter.OWNER_HEADER, "acme-1");
+        filter.doFilter(withOwner, new MockHttpServletResponse(), (req, res) -> owners.add(OwnerContext.current()));
+        filter.doFilter(request("/api/v1/subscriptions"), new MockHttpServletResponse(),
+                (req, res) -> owners.add(OwnerContext.current()));
+
+        assertEquals(List.of("acme-1", Subscription.DEFAULT_OWNER), owners);
+        assertEquals(Subscription.DEFAULT_OWNER, OwnerContext.current(), "owner should be cleared after the request");
+    }
+
+    @Test
+    void doFilter_shouldRejectMissingOwnerWhenRequired() throws Exception {
+        OwnerFilter filter = new OwnerFilter(true);
+
+        MockHttpServletResponse missing = new MockHttpServletResponse();
+        filter.doFilter(request("/api/v1/subscriptions"), missing, new MockFilterChain());
+        assertEquals(400, missing.getStatus());
+
+        MockHttpServletRequest tooLong = request("/api/v1/subscriptions");
+        tooLong.addHeader(OwnerFilter.OWNER_HEADER, "a".repeat(65));
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        filter.doFilter(tooLong, rejected, new MockFilterChain());
+        assertEquals(400, rejected.getStatus());
+
+        MockHttpServletResponse actuator = new MockHttpServletResponse();
+        filter.doFilter(request("/actuator/health"), actuator, new MockFilterChain());
+        assertTrue(actuator.getStatus() < 400, "non-API paths need no owner");
+    }
+
+    private static MockHttpServletRequest request(String uri) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        request.setRequestURI(uri);
+        return request;
+    }
+}
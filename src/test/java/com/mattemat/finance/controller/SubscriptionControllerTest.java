@@ -4,8 +4,21 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.mattemat.finance.dto.request.SubscriptionBatchRequestDto;
+import com.mattemat.finance.dto.request.SubscriptionFilterDto;
 import com.mattemat.finance.dto.request.SubscriptionRequestDto;
+import com.mattemat.finance.dto.response.SpendSummaryResponseDto;
+import com.mattemat.finance.dto.response.SubscriptionBatchResponseDto;
+import com.mattemat.finance.dto.response.SubscriptionImportResponseDto;
+import com.mattemat.finance.dto.response.SubscriptionPageResponseDto;
 import com.mattemat.finance.dto.response.SubscriptionResponseDto;
+import com.mattemat.finance.dto.response.UpcomingRenewalsResponseDto;
+import com.mattemat.finance.entity.Subscription;
+import com.mattemat.finance.service.RenewalCalendarService;
+import com.mattemat.finance.service.SpendSummaryService;
+import com.mattemat.finance.service.SubscriptionExportService;
+import com.mattemat.finance.service.SubscriptionImportService;
+import com.mattemat.finance.service.SubscriptionReconversionService;
 import com.mattemat.finance.service.SubscriptionServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,13 +27,26 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -37,6 +63,21 @@ class SubscriptionControllerTest {
     @MockBean
     private SubscriptionServiceImpl subscriptionService;
 
+    @MockBean
+    private SpendSummaryService spendSummaryService;
+
+    @MockBean
+    private SubscriptionReconversionService reconversionService;
+
+    @MockBean
+    private RenewalCalendarService renewalCalendarService;
+
+    @MockBean
+    private SubscriptionExportService exportService;
+
+    @MockBean
+    private SubscriptionImportService importService;
+
     private List<SubscriptionResponseDto> subscriptionResponseDtos;
     private SubscriptionRequestDto subscriptionRequestDto;
 
@@ -60,6 +101,165 @@ class SubscriptionControllerTest {
                 .andExpect(jsonPath("$[0].name").value(subscriptionResponseDtos.get(0).getName()));
     }
 
+    @Test
+    void getSubscriptions_withInvalidOwner_shouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/v1/subscriptions").header(OwnerFilter.OWNER_HEADER, "acme/../other"))
+                .andExpect(status().isBadRequest());
+
+        verify(subscriptionService, never()).readAll();
+    }
+
+    @Test
+    void getSummary_shouldReturnCurrentSummary() throws Exception {
+        SpendSummaryResponseDto summary = new SpendSummaryResponseDto();
+        summary.setSubscriptions(3);
+        summary.setMonthlyConvertedAmount(new BigDecimal("42.50"));
+        when(spendSummaryService.summary()).thenReturn(summary);
+
+        mockMvc.perform(get("/api/v1/subscriptions/summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.subscriptions").value(3))
+                .andExpect(jsonPath("$.monthlyConvertedAmount").value(42.50));
+        verify(subscriptionService, never()).readAll();
+    }
+
+    @Test
+    void getSubscriptionPage_shouldReturnItemsAndNextCursor() throws Exception {
+        SubscriptionPageResponseDto page = new SubscriptionPageResponseDto();
+        page.setItems(subscriptionResponseDtos);
+        page.setNextCursor("Mg");
+        when(subscriptionService.readPage("MQ", 2)).thenReturn(page);
+
+        mockMvc.perform(get("/api/v1/subscriptions/page").param("cursor", "MQ").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(subscriptionResponseDtos.size()))
+                .andExpect(jsonPath("$.items[0].id").value(subscriptionResponseDtos.get(0).getId()))
+                .andExpect(jsonPath("$.nextCursor").value("Mg"));
+    }
+
+    @Test
+    void getSubscriptionPage_withInvalidCursor_shouldReturnBadRequest() throws Exception {
+        when(subscriptionService.readPage("bogus", null)).thenThrow(new IllegalArgumentException("Invalid cursor"));
+
+        mockMvc.perform(get("/api/v1/subscriptions/page").param("cursor", "bogus"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getUpcomingRenewals_shouldReturnCalendarWindowAndRejectDaysBeyondHorizon() throws Exception {
+        UpcomingRenewalsResponseDto.Renewal renewal = new UpcomingRenewalsResponseDto.Renewal();
+        renewal.setId(7L);
+        renewal.setNextSubscriptionDate(LocalDate.of(2024, 6, 12));
+        UpcomingRenewalsResponseDto renewals = new UpcomingRenewalsResponseDto();
+        renewals.setFrom(LocalDate.of(2024, 6, 10));
+        renewals.setUntil(LocalDate.of(2024, 6, 17));
+        renewals.setRenewals(List.of(renewal));
+        when(renewalCalendarService.horizonDays()).thenReturn(400);
+        when(renewalCalendarService.upcoming(7)).thenReturn(renewals);
+
+        mockMvc.perform(get("/api/v1/subscriptions/renewals"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.from").value("2024-06-10"))
+                .andExpect(jsonPath("$.renewals[0].id").value(7));
+        mockMvc.perform(get("/api/v1/subscriptions/renewals").param("days", "401"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void searchSubscriptions_shouldBindFilterFromQueryParameters() throws Exception {
+        SubscriptionPageResponseDto page = new SubscriptionPageResponseDto();
+        page.setItems(subscriptionResponseDtos);
+        when(subscriptionService.search(argThat(filter -> "EUR".equals(filter.getCurrency())
+                && "Net".equals(filter.getNamePrefix())
+                && LocalDate.of(2024, 6, 17).equals(filter.getNextFrom())
+                && new BigDecimal("9.99").equals(filter.getMinAmount())), isNull(), eq(20))).thenReturn(page);
+
+        mockMvc.perform(get("/api/v1/subscriptions/search")
+                        .param("currency", "EUR")
+                        .param("namePrefix", "Net")
+                        .param("nextFrom", "2024-06-17")
+                        .param("minAmount", "9.99")
+                        .param("limit", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(subscriptionResponseDtos.size()))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    void searchSubscriptions_withInvertedRange_shouldReturnBadRequest() throws Exception {
+        when(subscriptionService.search(any(SubscriptionFilterDto.class), isNull(), isNull()))
+                .thenThrow(new IllegalArgumentException("Invalid amount range"));
+
+        mockMvc.perform(get("/api/v1/subscriptions/search").param("minAmount", "10").param("maxAmount", "1"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void streamSubscriptions_shouldWriteJsonArrayOfRequestOwner() throws Exception {
+        when(subscriptionService.streamAll(eq("acme"), any(Consumer.class))).thenAnswer(invocation -> {
+            Consumer<SubscriptionResponseDto> consumer = invocation.getArgument(1);
+            subscriptionResponseDtos.forEach(consumer);
+            return (long) subscriptionResponseDtos.size();
+        });
+
+        MvcResult result = mockMvc.perform(get("/api/v1/subscriptions/stream").header(OwnerFilter.OWNER_HEADER, "acme"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(subscriptionResponseDtos.size()))
+                .andExpect(jsonPath("$[1].id").value(subscriptionResponseDtos.get(1).getId()));
+    }
+
+    @Test
+    void exportSubscriptions_shouldStreamAttachmentAndRejectUnknownFormat() throws Exception {
+        when(exportService.export(eq(Subscription.DEFAULT_OWNER), eq(SubscriptionExportService.Format.NDJSON), eq(true),
+                any(OutputStream.class)))
+                .thenAnswer(invocation -> {
+                    OutputStream outputStream = invocation.getArgument(3);
+                    outputStream.write("{\"id\":1}\n".getBytes(StandardCharsets.UTF_8));
+                    return 1L;
+                });
+
+        MvcResult result = mockMvc.perform(get("/api/v1/subscriptions/export").param("format", "ndjson").param("gzip", "true"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/gzip"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"subscriptions.ndjson.gz\""))
+                .andExpect(content().string("{\"id\":1}\n"));
+
+        mockMvc.perform(get("/api/v1/subscriptions/export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+        verify(exportService, never()).export(any(), eq(SubscriptionExportService.Format.CSV), anyBoolean(), any());
+    }
+
+    @Test
+    void importSubscriptions_shouldPassBodyToServiceAndRejectInvalidHeader() throws Exception {
+        SubscriptionImportResponseDto response = new SubscriptionImportResponseDto();
+        response.setImported(1);
+        response.setRejected(0);
+        response.setRejections(List.of());
+        String csv = "name,fromCurrency,toCurrency,amount,billingCycle,subscriptionDate\nNetflix,USD,SGD,9.99,1,2025-01-15\n";
+        when(importService.importCsv(any(InputStream.class))).thenAnswer(invocation -> {
+            InputStream body = invocation.getArgument(0);
+            return new String(body.readAllBytes(), StandardCharsets.UTF_8).equals(csv) ? response : null;
+        });
+
+        mockMvc.perform(post("/api/v1/subscriptions/import").contentType("text/csv").content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.rejected").value(0));
+
+        when(importService.importCsv(any(InputStream.class))).thenThrow(new IllegalArgumentException("Missing column name"));
+        mockMvc.perform(post("/api/v1/subscriptions/import").contentType("text/csv").content("id\n"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void getSubscription_withValidId_shouldReturnSubscriptionResponseDto() throws Exception {
         Long id = 1L;
@@ -73,6 +273,21 @@ class SubscriptionControllerTest {
                 .andExpect(jsonPath("$.name").value(expectedDto.getName()));
     }
 
+    @Test
+    void getSubscription_withMatchingIfNoneMatch_shouldReturnNotModified() throws Exception {
+        Long id = 1L;
+        when(subscriptionService.read(id)).thenReturn(subscriptionResponseDtos.get(0));
+
+        mockMvc.perform(get("/api/v1/subscriptions/{id}", id).header("If-None-Match", "\"1\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"1\""))
+                .andExpect(content().string(""));
+
+        mockMvc.perform(get("/api/v1/subscriptions/{id}", id).header("If-None-Match", "\"0\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1\""));
+    }
+
     @Test
     void getSubscription_withInvalidId_shouldReturnNotFound() throws Exception {
         Long id = 999L;
@@ -94,29 +309,90 @@ class SubscriptionControllerTest {
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.id").value(createdDto.getId()))
                 .andExpect(jsonPath("$.name").value(createdDto.getName()))
-                .andExpect(header().string("Location", "http://localhost/api/v1/subscriptions/" + createdDto.getId()));
+                .andExpect(header().string("Location", "http://localhost/api/v1/subscriptions/" + createdDto.getId()))
+                .andExpect(header().string("ETag", "\"1\""));
+    }
+
+    @Test
+    void createSubscription_shouldReturnServiceUnavailable_whenWriteQueueIsFull() throws Exception {
+        when(subscriptionService.create(any(SubscriptionRequestDto.class)))
+                .thenThrow(new RejectedExecutionException("Subscription write queue is full"));
+
+        mockMvc.perform(post("/api/v1/subscriptions")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(subscriptionRequestDto)))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
+    }
+
+    @Test
+    void createSubscription_shouldReturnBadRequest_whenAmountCannotBeConverted() throws Exception {
+        when(subscriptionService.create(any(SubscriptionRequestDto.class)))
+                .thenThrow(new IllegalArgumentException("Unknown currency XYZ"));
+
+        mockMvc.perform(post("/api/v1/subscriptions")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(subscriptionRequestDto)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void applyBatch_shouldReturnPerItemResults() throws Exception {
+        SubscriptionBatchRequestDto.Operation operation = new SubscriptionBatchRequestDto.Operation();
+        operation.setType(SubscriptionBatchRequestDto.OperationType.CREATE);
+        operation.setSubscription(subscriptionRequestDto);
+        SubscriptionBatchRequestDto batchRequest = new SubscriptionBatchRequestDto();
+        batchRequest.setOperations(List.of(operation));
+
+        SubscriptionBatchResponseDto.Result result = new SubscriptionBatchResponseDto.Result();
+        result.setType(SubscriptionBatchRequestDto.OperationType.CREATE);
+        result.setId(1L);
+        result.setStatus(SubscriptionBatchResponseDto.Status.CREATED);
+        SubscriptionBatchResponseDto batchResponse = new SubscriptionBatchResponseDto();
+        batchResponse.setSucceeded(1);
+        batchResponse.setResults(List.of(result));
+        when(subscriptionService.applyBatch(anyList())).thenReturn(batchResponse);
+
+        mockMvc.perform(post("/api/v1/subscriptions/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(batchRequest)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.succeeded").value(1))
+                .andExpect(jsonPath("$.results[0].id").value(1))
+                .andExpect(jsonPath("$.results[0].status").value("CREATED"));
+    }
+
+    @Test
+    void applyBatch_withoutOperations_shouldReturnBadRequest() throws Exception {
+        mockMvc.perform(post("/api/v1/subscriptions/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"operations\":[]}"))
+                .andExpect(status().isBadRequest());
+
+        verify(subscriptionService, never()).applyBatch(anyList());
     }
 
     @Test
     void updateSubscription_withValidId_shouldReturnUpdatedSubscriptionResponseDto() throws Exception {
         Long id = 1L;
         SubscriptionResponseDto updatedDto = subscriptionResponseDtos.get(0);
-        when(subscriptionService.read(id)).thenReturn(updatedDto);
+        when(subscriptionService.update(eq(id), any(SubscriptionRequestDto.class), isNull())).thenReturn(updatedDto);
 
         mockMvc.perform(put("/api/v1/subscriptions/{id}", id)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(subscriptionRequestDto)))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(header().string("ETag", "\"1\""))
                 .andExpect(jsonPath("$.id").value(updatedDto.getId()))
                 .andExpect(jsonPath("$.name").value(updatedDto.getName()));
+        verify(subscriptionService, never()).read(anyLong());
     }
 
     @Test
     void updateSubscription_withValidIdButNullResult_shouldReturnNotFound() throws Exception {
         Long id = 1L;
-        doNothing().when(subscriptionService).update(eq(id), any(SubscriptionRequestDto.class));
-        when(subscriptionService.read(id)).thenReturn(null);
+        when(subscriptionService.update(eq(id), any(SubscriptionRequestDto.class), isNull())).thenReturn(null);
 
         mockMvc.perform(put("/api/v1/subscriptions/{id}", id)
                         .contentType(MediaType.APPLICATION_JSON)
@@ -124,22 +400,48 @@ class SubscriptionControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    void updateSubscription_withStaleIfMatch_shouldReturnPreconditionFailed() throws Exception {
+        Long id = 1L;
+        when(subscriptionService.update(eq(id), any(SubscriptionRequestDto.class), eq(4L)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Subscription.class, id));
+
+        mockMvc.perform(put("/api/v1/subscriptions/{id}", id)
+                        .header("If-Match", "\"4\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(subscriptionRequestDto)))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void updateSubscription_withoutIfMatch_shouldReturnConflict_whenConcurrentWriteWins() throws Exception {
+        Long id = 1L;
+        when(subscriptionService.update(eq(id), any(SubscriptionRequestDto.class), isNull()))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Subscription.class, id));
+
+        mockMvc.perform(put("/api/v1/subscriptions/{id}", id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(subscriptionRequestDto)))
+                .andExpect(status().isConflict());
+    }
+
     @Test
     void deleteSubscription_withValidId_shouldReturnNoContent() throws Exception {
         Long id = 1L;
-        when(subscriptionService.read(id)).thenReturn(null);
+        when(subscriptionService.delete(id, null)).thenReturn(true);
 
         mockMvc.perform(delete("/api/v1/subscriptions/{id}", id))
                 .andExpect(status().isNoContent());
+        verify(subscriptionService, never()).read(anyLong());
     }
 
     @Test
-    void deleteSubscription_withInvalidId_shouldReturnBadRequest() throws Exception {
+    void deleteSubscription_withInvalidId_shouldReturnNotFound() throws Exception {
         Long id = 999L;
-        when(subscriptionService.read(id)).thenReturn(subscriptionResponseDtos.get(0));
+        when(subscriptionService.delete(id, null)).thenReturn(false);
 
         mockMvc.perform(delete("/api/v1/subscriptions/{id}", id))
-                .andExpect(status().isBadRequest());
+                .andExpect(status().isNotFound());
     }
 
     private <T> T readValue(String path, TypeReference<T> typeReference) throws IOException {
@@ -1,5 +1,6 @@
 package com.mattemat.finance.entity;
 
+import jakarta.persistence.OptimisticLockException;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
@@ -55,6 +56,28 @@ class SubscriptionTest {
         assertTrue(isWithinLastSecond(updatedSubscription.getUpdatedAt()));
     }
 
+    @Test
+    void testVersion() {
+        // Given
+        Subscription savedSubscription = testEntityManager.persistAndFlush(createSubscription());
+        testEntityManager.detach(savedSubscription);
+        assertEquals(0L, savedSubscription.getVersion());
+
+        // When
+        savedSubscription.setAmount(new BigDecimal("10.99"));
+        Subscription updatedSubscription = testEntityManager.merge(savedSubscription);
+        testEntityManager.flush();
+        testEntityManager.detach(updatedSubscription);
+
+        // Then
+        assertEquals(1L, updatedSubscription.getVersion());
+        savedSubscription.setAmount(new BigDecimal("11.99"));
+        assertThrows(OptimisticLockException.class, () -> {
+            testEntityManager.merge(savedSubscription);
+            testEntityManager.flush();
+        });
+    }
+
     private Subscription createSubscription() {
         Subscription subscription = new Subscription();
         subscription.setName("Netflix");
@@ -0,0 +1,178 @@
+package com.mattemat.finance.repository;
+
+import com.mattemat.finance.dto.request.SubscriptionFilterDto;
+import com.mattemat.finance.dto.response.SubscriptionResponseDto;
+import com.mattemat.finance.entity.Subscription;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// The schema is built by the Flyway migrations alone, so the plans are checked against the indexes
+// they create rather than a schema Hibernate generated from the entities.
+@SpringBootTest(properties = "spring.jpa.hibernate.ddl-auto=validate")
+class SubscriptionSearchRepositoryTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 6, 10);
+    private static final String[] CURRENCIES = {"USD", "EUR", "SGD", "GBP", "JPY"};
+    private static final String OWNER = Subscription.DEFAULT_OWNER;
+
+    @Autowired
+    private SubscriptionSearchRepository searchRepository;
+
+    @Autowired
+    private SubscriptionRepository subscriptionRepository;
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        List<Subscription> subscriptions = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            subscriptions.add(subscription(
+                    (i % 7 == 0 ? "Netflix " : "Service ") + i,
+                    CURRENCIES[i % CURRENCIES.length],
+                    new BigDecimal(i).add(new BigDecimal("0.99")),
+                    i % 3 == 0 ? 12 : 1,
+                    TODAY.plusDays(i % 60)));
+        }
+        subscriptions.add(subscription("100% Net_work", "EUR", new BigDecimal("5.00"), 1, TODAY));
+        Subscription otherOwner = subscription("Netflix other", "EUR", new BigDecimal("50.00"), 1, TODAY.plusDays(7));
+        otherOwner.setOwnerId("other");
+        subscriptions.add(otherOwner);
+        subscriptionRepository.saveAll(subscriptions);
+        jdbcTemplate.getJdbcTemplate().execute("ANALYZE");
+    }
+
+    @AfterEach
+    void tearDown() {
+        subscriptionRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void search_shouldApplyEveryCriterion() {
+        List<SubscriptionResponseDto> results = searchRepository.search(OWNER, filter(f -> {
+            f.setCurrency("EUR");
+            f.setNamePrefix("Net");
+            f.setBillingCycle(1);
+            f.setNextFrom(TODAY.plusDays(7));
+            f.setNextTo(TODAY.plusDays(13));
+            f.setMinAmount(new BigDecimal("10.00"));
+            f.setMaxAmount(new BigDecimal("400.00"));
+        }), 0, 500);
+
+        assertFalse(results.isEmpty());
+        results.forEach(result -> assertAll(
+                "Subscription " + result.getId(),
+                () -> assertEquals("EUR", result.getCurrency()),
+                () -> assertTrue(result.getName().startsWith("Net")),
+                () -> assertEquals(1, result.getBillingCycle()),
+                () -> assertFalse(result.getNextSubscriptionDate().isBefore(TODAY.plusDays(7))),
+                () -> assertFalse(result.getNextSubscriptionDate().isAfter(TODAY.plusDays(13))),
+                () -> assertTrue(result.getAmount().compareTo(new BigDecimal("10.00")) >= 0),
+                () -> assertTrue(result.getAmount().compareTo(new BigDecimal("400.00")) <= 0)
+        ));
+        assertEquals(expectedCount(s -> s.getOwnerId().equals(OWNER) && s.getCurrency().equals("EUR") && s.getName().startsWith("Net")
+                && s.getBillingCycle() == 1
+                && !s.getNextSubscriptionDate().isBefore(TODAY.plusDays(7))
+                && !s.getNextSubscriptionDate().isAfter(TODAY.plusDays(13))
+                && s.getAmount().compareTo(new BigDecimal("10.00")) >= 0
+                && s.getAmount().compareTo(new BigDecimal("400.00")) <= 0), results.size());
+    }
+
+    @Test
+    void search_shouldTreatLikeWildcardsInPrefixLiterally() {
+        List<SubscriptionResponseDto> results = searchRepository.search(OWNER, filter(f -> f.setNamePrefix("100% Net_")), 0, 10);
+
+        assertEquals(1, results.size());
+        assertEquals("100% Net_work", results.getFirst().getName());
+        assertTrue(searchRepository.search(OWNER, filter(f -> f.setNamePrefix("1_0")), 0, 10).isEmpty());
+    }
+
+    @Test
+    void search_shouldOnlyReturnSubscriptionsOfOwner() {
+        List<SubscriptionResponseDto> other = searchRepository.search("other", filter(f -> f.setCurrency("EUR")), 0, 500);
+
+        assertEquals(List.of("Netflix other"), other.stream().map(SubscriptionResponseDto::getName).toList());
+        assertTrue(searchRepository.search(OWNER, filter(f -> f.setNamePrefix("Netflix o")), 0, 10).isEmpty());
+    }
+
+    @Test
+    void search_shouldPageByIdWithoutGapsOrDuplicates() {
+        SubscriptionFilterDto filter = filter(f -> f.setCurrency("SGD"));
+        List<Long> ids = new ArrayList<>();
+        long afterId = 0;
+        List<SubscriptionResponseDto> page;
+        while (!(page = searchRepository.search(OWNER, filter, afterId, 17)).isEmpty()) {
+            page.forEach(result -> ids.add(result.getId()));
+            afterId = page.getLast().getId();
+        }
+
+        assertEquals(100, ids.size());
+        assertEquals(ids.stream().sorted().distinct().toList(), ids);
+    }
+
+    @Test
+    void buildQuery_shouldUseMatchingIndexes() {
+        assertPlanUses("IDX_SUBSCRIPTIONS_CURRENCY_NEXT_DATE", filter(f -> {
+            f.setCurrency("EUR");
+            f.setNextFrom(TODAY.plusDays(7));
+            f.setNextTo(TODAY.plusDays(13));
+        }));
+        assertPlanUses("IDX_SUBSCRIPTIONS_CURRENCY_NEXT_DATE", filter(f -> f.setCurrency("EUR")));
+        assertPlanUses("IDX_SUBSCRIPTIONS_NAME", filter(f -> f.setNamePrefix("Net")));
+        assertPlanUses("IDX_SUBSCRIPTIONS_BILLING_CYCLE_NEXT_DATE", filter(f -> {
+            f.setBillingCycle(12);
+            f.setNextFrom(TODAY);
+            f.setNextTo(TODAY.plusDays(1));
+        }));
+        assertPlanUses("IDX_SUBSCRIPTIONS_OWNER_NEXT_DATE", filter(f -> {
+            f.setNextFrom(TODAY.plusDays(7));
+            f.setNextTo(TODAY.plusDays(13));
+        }));
+        assertPlanUses("IDX_SUBSCRIPTIONS_AMOUNT", filter(f -> {
+            f.setMinAmount(new BigDecimal("10.00"));
+            f.setMaxAmount(new BigDecimal("20.00"));
+        }));
+    }
+
+    private void assertPlanUses(String index, SubscriptionFilterDto filter) {
+        SubscriptionSearchRepository.SearchQuery query = searchRepository.buildQuery(OWNER, filter, 0, 50);
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + query.sql(), query.params(), String.class);
+        assertTrue(plan.contains("/* PUBLIC." + index + ":"), () -> "Expected " + index + " in plan:\n" + plan);
+    }
+
+    private long expectedCount(java.util.function.Predicate<Subscription> predicate) {
+        return subscriptionRepository.findAll().stream().filter(predicate).count();
+    }
+
+    private static SubscriptionFilterDto filter(Consumer<SubscriptionFilterDto> criteria) {
+        SubscriptionFilterDto filter = new SubscriptionFilterDto();
+        criteria.accept(filter);
+        return filter;
+    }
+
+    private static Subscription subscription(String name, String currency, BigDecimal amount, int billingCycle,
+                                             LocalDate nextSubscriptionDate) {
+        Subscription subscription = new Subscription();
+        subscription.setName(name);
+        subscription.setCurrency(currency);
+        subscription.setAmount(amount);
+        subscription.setConvertedAmount(amount);
+        subscription.setBillingCycle(billingCycle);
+        subscription.setSubscriptionDate(nextSubscriptionDate.minusMonths(billingCycle));
+        subscription.setNextSubscriptionDate(nextSubscriptionDate);
+        return subscription;
+    }
+}
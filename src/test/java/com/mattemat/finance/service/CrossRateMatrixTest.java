@@ -0,0 +1,82 @@
+package com.mattemat.finance.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CrossRateMatrixTest {
+
+    private static final long SEED = 20_240_602L;
+    private static final int CURRENCIES = 170;
+    private static final int SAMPLES = 500_000;
+
+    @Test
+    void convert_shouldStayWithinOneMinorUnitOfFixedPointConversion() {
+        SplittableRandom random = new SplittableRandom(SEED);
+        Map<String, Long> rates = new HashMap<>();
+        for (int i = 0; i < CURRENCIES; i++) {
+            // Rates from 10^-4 to 10^5 with ten decimal places, as stored in the currencies table.
+            rates.put("C" + i, random.nextLong(1_000_000L, 1_000_000_000_000_000L));
+        }
+        rates.put("TINY", 1L);
+        rates.put("HUGE", Long.MAX_VALUE / 10);
+        CrossRateMatrix matrix = CrossRateMatrix.of(rates, Instant.EPOCH);
+
+        int ties = 0;
+        for (int i = 0; i < SAMPLES; i++) {
+            int from = random.nextInt(matrix.size());
+            int to = random.nextInt(matrix.size());
+            long amount = random.nextLong(-10_000_000_000L, 10_000_000_000L);
+            String inputs = "seed " + SEED + ", sample " + i + ": " + amount + " from " + from + " to " + to;
+
+            long expected;
+            try {
+                expected = FixedPointMoney.convert(amount, matrix.scaledRate(from), matrix.scaledRate(to));
+            } catch (ArithmeticException e) {
+                assertThrows(ArithmeticException.class, () -> matrix.convert(amount, from, to), inputs);
+                continue;
+            }
+            long actual = matrix.convert(amount, from, to);
+            assertTrue(Math.abs(actual - expected) <= 1, inputs + " gave " + actual + ", expected " + expected);
+            if (actual != expected) {
+                ties++;
+            }
+        }
+        assertTrue(ties < SAMPLES / 10_000, "Only results next to a rounding tie may differ, got " + ties);
+    }
+
+    @Test
+    void convert_shouldRoundTiesAwayFromZeroAndMatchSmallAmounts() {
+        CrossRateMatrix matrix = CrossRateMatrix.of(Map.of(
+                "USD", FixedPointMoney.toScaledRate(BigDecimal.ONE),
+                "EUR", FixedPointMoney.toScaledRate(new BigDecimal("2")),
+                "SGD", FixedPointMoney.toScaledRate(new BigDecimal("1.35"))), Instant.EPOCH);
+        int usd = matrix.indexOf("USD");
+        int eur = matrix.indexOf("EUR");
+        int sgd = matrix.indexOf("SGD");
+
+        assertEquals(3, matrix.convert(5, eur, usd), "2.5 rounds up");
+        assertEquals(-3, matrix.convert(-5, eur, usd), "-2.5 rounds away from zero");
+        assertEquals(1_350, matrix.convert(1_000, usd, sgd));
+        assertEquals(1_000, matrix.convert(1_350, sgd, usd));
+        assertEquals(999, matrix.convert(999, usd, usd));
+        assertEquals(0, new BigDecimal("1.35").compareTo(matrix.crossRate(usd, sgd)));
+        assertThrows(ArithmeticException.class, () -> matrix.convert(Long.MAX_VALUE, usd, eur));
+    }
+
+    @Test
+    void indexOf_shouldMatchCodesCaseInsensitively() {
+        CrossRateMatrix matrix = CrossRateMatrix.of(Map.of("USD", 10_000_000_000L, "SGD", 13_500_000_000L), Instant.EPOCH);
+
+        assertEquals(matrix.indexOf("SGD"), matrix.indexOf("sgd"));
+        assertEquals(-1, matrix.indexOf("EUR"));
+        assertEquals(2, matrix.size());
+        assertEquals(13_500_000_000L, matrix.scaledRate(matrix.indexOf("SGD")));
+    }
+}
@@ -0,0 +1,101 @@
+package com.mattemat.finance.service;
+
+import com.mattemat.finance.dto.request.ConversionRequestDto;
+import com.mattemat.finance.dto.response.ConversionResponseDto;
+import com.mattemat.finance.repository.CurrencyRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CurrencyConversionServiceTest {
+
+    @Mock
+    private CurrencyRepository currencyRepository;
+    @Mock
+    private RateHistoryService rateHistoryService;
+
+    private ExchangeRateCache exchangeRateCache;
+    private CurrencyConversionService currencyConversionService;
+
+    @BeforeEach
+    void setUp() {
+        exchangeRateCache = new ExchangeRateCache(currencyRepository, Duration.ofMinutes(5));
+        exchangeRateCache.publish(Map.of("USD", BigDecimal.ONE, "SGD", new BigDecimal("1.35")));
+        currencyConversionService = new CurrencyConversionService(exchangeRateCache, rateHistoryService);
+    }
+
+    @Test
+    void convertAll_shouldReportEachItemAgainstOneSnapshot() {
+        ConversionResponseDto response = currencyConversionService.convertAll(Arrays.asList(
+                conversion("10", "USD", "SGD"),
+                conversion("13.50", "sgd", "usd"),
+                conversion("1", "USD", "XXX"),
+                conversion(null, "USD", "SGD"),
+                conversion("1e30", "USD", "SGD")), null);
+
+        assertEquals(2, response.getSucceeded());
+        assertEquals(3, response.getFailed());
+        assertEquals(exchangeRateCache.crossRates().loadedAt(), response.getRatesLoadedAt());
+        assertEquals(new BigDecimal("13.50"), response.getResults().get(0).getConvertedAmount());
+        assertEquals(new BigDecimal("10.00"), response.getResults().get(1).getConvertedAmount());
+        assertEquals("Unknown currency XXX", response.getResults().get(2).getMessage());
+        assertEquals("Amount and currencies are required", response.getResults().get(3).getMessage());
+        assertEquals("Amount is out of range", response.getResults().get(4).getMessage());
+        verifyNoInteractions(currencyRepository, rateHistoryService);
+    }
+
+    @Test
+    void convertAll_withAsOf_shouldUseRatesInEffectOnThatDate() {
+        LocalDate asOf = LocalDate.of(2024, 1, 15);
+        when(rateHistoryService.scaledRateOn("USD", asOf)).thenReturn(FixedPointMoney.toScaledRate(BigDecimal.ONE));
+        when(rateHistoryService.scaledRateOn("SGD", asOf)).thenReturn(FixedPointMoney.toScaledRate(new BigDecimal("1.30")));
+        when(rateHistoryService.scaledRateOn("EUR", asOf)).thenReturn(FixedPointMoney.NO_RATE);
+
+        ConversionResponseDto response = currencyConversionService.convertAll(Arrays.asList(
+                conversion("10", "USD", "SGD"),
+                conversion("10", "USD", "EUR")), asOf);
+
+        assertEquals(1, response.getSucceeded());
+        assertEquals(new BigDecimal("13.00"), response.getResults().get(0).getConvertedAmount());
+        assertTrue(response.getResults().get(1).getMessage().contains("EUR"), "Message should name the currency without history");
+    }
+
+    @Test
+    void convertAsOf_shouldFallBackToCurrentRates_whenNeitherCurrencyHasHistory() {
+        LocalDate asOf = LocalDate.of(2024, 1, 15);
+        when(rateHistoryService.scaledRateOn(anyString(), eq(asOf))).thenReturn(FixedPointMoney.NO_RATE);
+
+        assertEquals(1_350, currencyConversionService.convertAsOf(1_000, "USD", "SGD", asOf));
+    }
+
+    @Test
+    void convert_shouldLoadCurrenciesMissingFromSnapshot() {
+        when(currencyRepository.findByCurrency("EUR")).thenReturn(new BigDecimal("0.5"));
+
+        assertEquals(500, currencyConversionService.convert(1_000, "USD", "EUR"));
+        assertEquals(1_350, currencyConversionService.convert(1_000, "USD", "SGD"));
+        assertThrows(IllegalArgumentException.class, () -> currencyConversionService.convert(1_000, "USD", "XXX"));
+    }
+
+    private static ConversionRequestDto.Conversion conversion(String amount, String from, String to) {
+        ConversionRequestDto.Conversion conversion = new ConversionRequestDto.Conversion();
+        conversion.setAmount(amount == null ? null : new BigDecimal(amount));
+        conversion.setFromCurrency(from);
+        conversion.setToCurrency(to);
+        return conversion;
+    }
+}
@@ -0,0 +1,126 @@
+package com.mattemat.finance.service;
+
+import com.mattemat.finance.repository.CurrencyRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExchangeRateCacheTest {
+
+    @Mock
+    private CurrencyRepository currencyRepository;
+
+    private ExchangeRateCache exchangeRateCache;
+
+    @BeforeEach
+    void setUp() {
+        exchangeRateCache = new ExchangeRateCache(currencyRepository, Duration.ofMinutes(5));
+    }
+
+    @Test
+    void scaledRate_shouldServeFromSnapshot_afterRefresh() {
+        when(currencyRepository.findAllRates()).thenReturn(List.of(rate("USD", "1.00"), rate("SGD", "1.35")));
+
+        exchangeRateCache.refresh();
+
+        assertEquals(FixedPointMoney.toScaledRate(new BigDecimal("1.35")), exchangeRateCache.scaledRate("SGD"));
+        assertEquals(FixedPointMoney.toScaledRate(new BigDecimal("1.00")), exchangeRateCache.scaledRate("USD"));
+        verify(currencyRepository, never()).findByCurrency(anyString());
+
+        ExchangeRateCache.Stats stats = exchangeRateCache.stats();
+        assertAll(
+                "Cache stats",
+                () -> assertEquals(2, stats.hits(), "Both lookups should hit"),
+                () -> assertEquals(0, stats.misses(), "No lookup should miss"),
+                () -> assertEquals(1, stats.refreshes(), "One refresh should be recorded"),
+                () -> assertEquals(2, stats.size(), "Snapshot should hold both rates")
+        );
+    }
+
+    @Test
+    void scaledRate_shouldFallBackToRepository_onMiss() {
+        when(currencyRepository.findByCurrency("EUR")).thenReturn(new BigDecimal("0.92"));
+
+        long rate = exchangeRateCache.scaledRate("EUR");
+
+        assertEquals(FixedPointMoney.toScaledRate(new BigDecimal("0.92")), rate);
+        assertEquals(1, exchangeRateCache.stats().misses());
+        verify(currencyRepository).findByCurrency("EUR");
+    }
+
+    @Test
+    void scaledRate_shouldServeScaledSnapshotAndRejectUnknownCurrency() {
+        when(currencyRepository.findAllRates()).thenReturn(List.of(rate("SGD", "1.35")));
+
+        exchangeRateCache.refresh();
+
+        assertEquals(FixedPointMoney.toScaledRate(new BigDecimal("1.35")), exchangeRateCache.scaledRate("SGD"));
+        assertThrows(IllegalArgumentException.class, () -> exchangeRateCache.scaledRate("XXX"));
+        assertEquals(1, exchangeRateCache.stats().hits());
+        assertEquals(1, exchangeRateCache.stats().misses());
+    }
+
+    @Test
+    void refresh_shouldKeepPreviousSnapshot_whenLoadFails() {
+        when(currencyRepository.findAllRates())
+                .thenReturn(List.of(rate("USD", "1.00")))
+                .thenThrow(new IllegalStateException("database unavailable"));
+
+        exchangeRateCache.refresh();
+        exchangeRateCache.refresh();
+
+        assertEquals(new BigDecimal("1.00"), exchangeRateCache.rates().get("USD"));
+        assertEquals(1, exchangeRateCache.stats().refreshes());
+        assertEquals(1, exchangeRateCache.stats().refreshFailures());
+    }
+
+    @Test
+    void refresh_shouldNotOverwriteRatesPublishedWhileLoading() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        when(currencyRepository.findAllRates()).thenAnswer(invocation -> {
+            loading.countDown();
+            Thread.sleep(100);
+            return List.of(rate("SGD", "1.35"), rate("USD", "1.00"));
+        });
+
+        Thread publisher = Thread.ofVirtual().start(() -> {
+            try {
+                loading.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchangeRateCache.publish(Map.of("SGD", new BigDecimal("1.40")));
+        });
+        exchangeRateCache.refresh();
+        publisher.join();
+
+        assertEquals(new BigDecimal("1.40"), exchangeRateCache.rates().get("SGD"), "Rate published while loading should win");
+        assertEquals(new BigDecimal("1.00"), exchangeRateCache.rates().get("USD"), "Loaded rates should still be applied");
+    }
+
+    private CurrencyRepository.CurrencyRate rate(String code, String value) {
+        return new CurrencyRepository.CurrencyRate() {
+            @Override
+            public String getCode() {
+                return code;
+            }
+
+            @Override
+            public BigDecimal getValue() {
+                return new BigDecimal(value);
+            }
+        };
+    }
+}
@@ -0,0 +1,113 @@
+package com.mattemat.finance.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Property tests against {@link BigDecimal} references over seeded random inputs, so a failure
+ * reports the seed and inputs and can be replayed.
+ */
+class FixedPointMoneyTest {
+
+    private static final long SEED = 20_240_601L;
+    private static final int SAMPLES = 200_000;
+
+    @Test
+    void convert_shouldEqualExactQuotientRoundedHalfUp() {
+        SplittableRandom random = new SplittableRandom(SEED);
+        for (int i = 0; i < SAMPLES; i++) {
+            // Alternate small inputs on the 64-bit path with products that need all 128 bits.
+            long amount = i % 2 == 0 ? random.nextLong(-100_000_000L, 100_000_000L) : random.nextLong(Long.MIN_VALUE + 1, Long.MAX_VALUE);
+            long fromRate = random.nextLong(1, i % 3 == 0 ? 1_000_000_000_000L : Long.MAX_VALUE);
+            long toRate = random.nextLong(1, i % 3 == 0 ? 1_000_000_000_000_000L : Long.MAX_VALUE);
+
+            BigDecimal exact = BigDecimal.valueOf(amount).multiply(BigDecimal.valueOf(toRate))
+                    .divide(BigDecimal.valueOf(fromRate), 0, RoundingMode.HALF_UP);
+            String inputs = "seed " + SEED + ", sample " + i + ": " + amount + " * " + toRate + " / " + fromRate;
+            if (exact.toBigInteger().bitLength() > 63) {
+                assertThrows(ArithmeticException.class, () -> FixedPointMoney.convert(amount, fromRate, toRate), inputs);
+            } else {
+                assertEquals(exact.longValueExact(), FixedPointMoney.convert(amount, fromRate, toRate), inputs);
+            }
+        }
+    }
+
+    @Test
+    void convert_shouldMatchUnroundedRatesWithinDocumentedTolerance() {
+        SplittableRandom random = new SplittableRandom(SEED);
+        for (int i = 0; i < SAMPLES; i++) {
+            BigDecimal amount = BigDecimal.valueOf(random.nextLong(0, 100_000_000L), FixedPointMoney.AMOUNT_SCALE);
+            BigDecimal fromRate = randomRate(random);
+            BigDecimal toRate = randomRate(random);
+
+            BigDecimal reference = amount.multiply(toRate).divide(fromRate, MathContext.DECIMAL128);
+            long fromScaled = FixedPointMoney.toScaledRate(fromRate);
+            long toScaled = FixedPointMoney.toScaledRate(toRate);
+            BigDecimal actual = FixedPointMoney.toAmount(
+                    FixedPointMoney.convert(FixedPointMoney.toMinorUnits(amount), fromScaled, toScaled));
+
+            BigDecimal relativeRateError = relativeRoundingError(fromRate).add(relativeRoundingError(toRate));
+            BigDecimal tolerance = new BigDecimal("0.005")
+                    .add(reference.multiply(relativeRateError).multiply(new BigDecimal("1.000001")));
+            BigDecimal error = actual.subtract(reference).abs();
+            assertTrue(error.compareTo(tolerance) <= 0, "seed " + SEED + ", sample " + i + ": " + amount
+                    + " from " + fromRate + " to " + toRate + " gave " + actual + ", reference " + reference);
+        }
+    }
+
+    @Test
+    void convert_shouldRoundTiesAwayFromZero() {
+        long one = FixedPointMoney.toScaledRate(BigDecimal.ONE);
+        long two = FixedPointMoney.toScaledRate(new BigDecimal("2"));
+
+        assertEquals(3, FixedPointMoney.convert(5, two, one), "2.5 rounds up");
+        assertEquals(-3, FixedPointMoney.convert(-5, two, one), "-2.5 rounds away from zero");
+        assertEquals(2, FixedPointMoney.convert(4, two, one));
+        assertEquals(0, FixedPointMoney.convert(0, two, one));
+    }
+
+    @Test
+    void convert_shouldRejectOverflowAndInvalidRates() {
+        long one = FixedPointMoney.toScaledRate(BigDecimal.ONE);
+
+        assertThrows(ArithmeticException.class, () -> FixedPointMoney.convert(Long.MAX_VALUE, one, 2 * one));
+        assertThrows(ArithmeticException.class, () -> FixedPointMoney.convert(Long.MIN_VALUE, one, one));
+        assertThrows(ArithmeticException.class, () -> FixedPointMoney.convert(1, FixedPointMoney.NO_RATE, one));
+        assertThrows(ArithmeticException.class, () -> FixedPointMoney.convert(1, one, -one));
+        assertEquals(Long.MAX_VALUE, FixedPointMoney.convert(Long.MAX_VALUE, one, one));
+    }
+
+    @Test
+    void scaling_shouldRoundHalfUpAndRejectUnrepresentableValues() {
+        assertEquals(1_000, FixedPointMoney.toMinorUnits(new BigDecimal("9.995")));
+        assertEquals(-1_000, FixedPointMoney.toMinorUnits(new BigDecimal("-9.995")));
+        assertEquals(new BigDecimal("13.50"), FixedPointMoney.toAmount(1_350));
+        assertEquals(13_500_000_000L, FixedPointMoney.toScaledRate(new BigDecimal("1.35")));
+        assertEquals(1L, FixedPointMoney.toScaledRate(new BigDecimal("0.00000000005")));
+
+        assertThrows(ArithmeticException.class, () -> FixedPointMoney.toMinorUnits(new BigDecimal("1e20")));
+        assertThrows(ArithmeticException.class, () -> FixedPointMoney.toScaledRate(new BigDecimal("1e9")));
+        assertThrows(ArithmeticException.class, () -> FixedPointMoney.toScaledRate(new BigDecimal("0.00000000004")));
+        assertThrows(ArithmeticException.class, () -> FixedPointMoney.toScaledRate(BigDecimal.ZERO));
+    }
+
+    /**
+     * A rate between 10^-4 and 10^5 with up to 16 significant digits.
+     */
+    private static BigDecimal randomRate(SplittableRandom random) {
+        return BigDecimal.valueOf(random.nextLong(1_000_000_000_000_000L, 10_000_000_000_000_000L), 15)
+                .movePointRight(random.nextInt(-4, 5))
+                .stripTrailingZeros();
+    }
+
+    private static BigDecimal relativeRoundingError(BigDecimal rate) {
+        BigDecimal rounded = rate.setScale(FixedPointMoney.RATE_SCALE, RoundingMode.HALF_UP);
+        return rounded.subtract(rate).abs().divide(rounded, MathContext.DECIMAL64);
+    }
+}
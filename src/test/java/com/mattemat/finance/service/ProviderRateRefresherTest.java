@@ -0,0 +1,150 @@
+package com.mattemat.finance.service;
+
+import com.mattemat.finance.client.ProviderStandInServer;
+import com.mattemat.finance.repository.CurrencyRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Slf4j
+@SpringBootTest(properties = {
+        "finance.rates.provider.read-timeout=PT1S",
+        "finance.rates.provider.max-age=PT0S",
+        "finance.rates.provider.retry-backoff=PT1H",
+        "finance.rates.provider.check-interval=PT1H"})
+class ProviderRateRefresherTest {
+
+    private static final int CURRENCIES = 170;
+    private static final ProviderStandInServer SERVER =
+            new ProviderStandInServer(ProviderStandInServer.payload(CURRENCIES, "1.5"));
+
+    @Autowired
+    private ProviderRateRefresher refresher;
+
+    @Autowired
+    private ExchangeRateCache exchangeRateCache;
+
+    @Autowired
+    private CurrencyRepository currencyRepository;
+
+    @DynamicPropertySource
+    static void providerProperties(DynamicPropertyRegistry registry) {
+        registry.add("finance.rates.provider.url", SERVER::url);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SERVER.recover();
+        currencyRepository.deleteAllInBatch();
+    }
+
+    @AfterAll
+    static void stopServer() {
+        SERVER.close();
+    }
+
+    @Test
+    void refresh_shouldCoalesceConcurrentCallers() throws Exception {
+        SERVER.payload(ProviderStandInServer.payload(CURRENCIES, "2.5"));
+        SERVER.latency(Duration.ofMillis(300));
+        int before = SERVER.requests();
+
+        int callers = 50;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<CompletableFuture<ProviderRateRefresher.RefreshOutcome>>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < callers; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return refresher.refresh();
+                }));
+            }
+            start.countDown();
+        }
+
+        Set<CompletableFuture<ProviderRateRefresher.RefreshOutcome>> distinct = new HashSet<>();
+        for (Future<CompletableFuture<ProviderRateRefresher.RefreshOutcome>> future : futures) {
+            distinct.add(future.get());
+        }
+        ProviderRateRefresher.RefreshOutcome outcome = distinct.iterator().next().join();
+
+        assertEquals(1, distinct.size(), "All callers should share one in-flight refresh");
+        assertEquals(1, SERVER.requests() - before, "Provider should be called once");
+        assertEquals(CURRENCIES, outcome.currencies());
+        assertEquals(0, new BigDecimal("2.5").compareTo(exchangeRateCache.rates().get("C7")));
+    }
+
+    @Test
+    void refresh_shouldServeLastGoodSnapshotDuringOutage() throws Exception {
+        SERVER.payload(ProviderStandInServer.payload(CURRENCIES, "3.5"));
+        refresher.refresh().join();
+        assertEquals(0, new BigDecimal("3.5").compareTo(exchangeRateCache.rates().get("C1")));
+
+        SERVER.latency(Duration.ofSeconds(3));
+        long failuresBefore = refresher.stats().failures();
+        CompletableFuture<ProviderRateRefresher.RefreshOutcome> refresh = refresher.refresh();
+
+        int readers = 8;
+        int lookups = 2_000;
+        long[] latencies = new long[readers * lookups];
+        try (ExecutorService executor = Executors.newFixedThreadPool(readers)) {
+            for (int r = 0; r < readers; r++) {
+                int offset = r * lookups;
+                executor.submit(() -> {
+                    for (int i = 0; i < lookups; i++) {
+                        long begin = System.nanoTime();
+                        BigDecimal rate = exchangeRateCache.rates().get("C" + (i % CURRENCIES));
+                        latencies[offset + i] = System.nanoTime() - begin;
+                        assertNotNull(rate);
+                    }
+                });
+            }
+        }
+
+        assertFalse(refresh.isDone(), "Lookups should not wait for the provider");
+        CompletionException failure = assertThrows(CompletionException.class, refresh::join);
+        Arrays.sort(latencies);
+        long p50 = latencies[latencies.length / 2];
+        long p99 = latencies[(int) (latencies.length * 0.99)];
+        long max = latencies[latencies.length - 1];
+        log.info("ProviderRateRefresherTest - Lookup latency during outage: p50={} us, p99={} us, max={} us",
+                p50 / 1_000, p99 / 1_000, max / 1_000);
+
+        assertNotNull(failure.getCause());
+        assertEquals(failuresBefore + 1, refresher.stats().failures());
+        assertEquals(0, new BigDecimal("3.5").compareTo(exchangeRateCache.rates().get("C1")), "Last good snapshot should be served");
+        assertTrue(p99 < Duration.ofMillis(50).toNanos(), "p99 lookup latency should not include the provider timeout");
+    }
+
+    @Test
+    void revalidateIfStale_shouldBackOffAfterFailure() {
+        SERVER.failWith(503);
+        assertThrows(CompletionException.class, () -> refresher.refresh().join());
+        int before = SERVER.requests();
+
+        refresher.revalidateIfStale();
+
+        assertEquals(before, SERVER.requests(), "A failed provider should not be retried inside the backoff window");
+    }
+}
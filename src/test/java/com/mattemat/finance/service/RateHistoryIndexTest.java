@@ -0,0 +1,89 @@
+package com.mattemat.finance.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Slf4j
+class RateHistoryIndexTest {
+
+    private static final Instant START = Instant.parse("2024-01-01T00:00:00Z");
+
+    @Test
+    void rateAt_shouldReturnRateEffectiveAtOrBeforeTime() {
+        RateHistoryIndex index = new RateHistoryIndex(START);
+        index.append("SGD", START.plusSeconds(60), new BigDecimal("1.35"));
+        index.append("SGD", START.plusSeconds(120), new BigDecimal("1.36"));
+
+        assertNull(index.rateAt("SGD", START), "No rate before the first point");
+        assertEquals(new BigDecimal("1.35"), index.rateAt("SGD", START.plusSeconds(60)));
+        assertEquals(new BigDecimal("1.35"), index.rateAt("SGD", START.plusSeconds(119)));
+        assertEquals(new BigDecimal("1.36"), index.rateAt("SGD", START.plusSeconds(3600)));
+        assertNull(index.rateAt("EUR", START.plusSeconds(3600)));
+    }
+
+    @Test
+    void append_shouldKeepPointsOrderedWhenOutOfOrder() {
+        RateHistoryIndex index = new RateHistoryIndex(START);
+        index.append("EUR", START.plusSeconds(30), new BigDecimal("0.93"));
+        index.append("EUR", START.plusSeconds(10), new BigDecimal("0.91"));
+        index.append("EUR", START.plusSeconds(20), new BigDecimal("0.92"));
+        index.append("EUR", START.plusSeconds(20), new BigDecimal("0.925"));
+
+        assertEquals(3, index.size());
+        assertEquals(new BigDecimal("0.91"), index.rateAt("EUR", START.plusSeconds(15)));
+        assertEquals(new BigDecimal("0.925"), index.rateAt("EUR", START.plusSeconds(25)));
+        assertEquals(new BigDecimal("0.93"), index.latest("EUR"));
+    }
+
+    @Test
+    void append_shouldLeaveOversizedRatesToTheDatabase() {
+        RateHistoryIndex index = new RateHistoryIndex(START);
+        index.append("XXX", START, new BigDecimal("1000000000"));
+
+        assertFalse(index.covers("XXX", START.plusSeconds(1)));
+        assertTrue(index.covers("SGD", START.plusSeconds(1)));
+        assertFalse(index.covers("SGD", START.minusSeconds(1)));
+    }
+
+    @Test
+    void index_shouldHoldAYearOfHourlyRatesCompactly() {
+        int currencies = 170;
+        int hours = 365 * 24;
+        String[] codes = new String[currencies];
+        for (int currency = 0; currency < currencies; currency++) {
+            codes[currency] = "C" + currency;
+        }
+        RateHistoryIndex index = new RateHistoryIndex(START);
+        for (int hour = 0; hour < hours; hour++) {
+            Instant at = START.plus(Duration.ofHours(hour));
+            for (int currency = 0; currency < currencies; currency++) {
+                index.append(codes[currency], at, BigDecimal.valueOf(currency * 100_000L + hour, 4));
+            }
+        }
+        index.compact();
+
+        int lookups = 1_000_000;
+        int found = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < lookups; i++) {
+            if (index.rateAt(codes[i % currencies], START.plusSeconds(i * 31L)) != null) {
+                found++;
+            }
+        }
+        long nanosPerLookup = (System.nanoTime() - start) / lookups;
+        log.info("RateHistoryIndexTest - {} points in {} KiB, {} ns per lookup",
+                index.size(), index.footprintBytes() / 1024, nanosPerLookup);
+
+        assertEquals((long) currencies * hours, index.size());
+        assertEquals(16L * currencies * hours, index.footprintBytes(), "Each point should cost two longs");
+        assertEquals(BigDecimal.valueOf(5 * 100_000L + 49, 4).stripTrailingZeros(),
+                index.rateAt("C5", START.plus(Duration.ofHours(49)).plusSeconds(1800)));
+        assertEquals(lookups, found);
+    }
+}
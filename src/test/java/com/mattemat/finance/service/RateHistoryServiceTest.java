@@ -0,0 +1,108 @@
+package com.mattemat.finance.service;
+
+import com.mattemat.finance.repository.CurrencyRepository;
+import com.mattemat.finance.repository.RateHistoryRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "finance.rates.history.retention=P30D")
+class RateHistoryServiceTest {
+
+    @Autowired
+    private RateHistoryService rateHistoryService;
+
+    @Autowired
+    private RateHistoryRepository rateHistoryRepository;
+
+    @Autowired
+    private RateSnapshotIngestionService ingestionService;
+
+    @Autowired
+    private CurrencyRepository currencyRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void tearDown() {
+        transactionTemplate.executeWithoutResult(status ->
+                jdbcTemplate.update("DELETE FROM currency_rate_history WHERE code LIKE 'H%'"));
+        currencyRepository.deleteAllInBatch();
+        rateHistoryService.reload();
+    }
+
+    @Test
+    void ingest_shouldAppendOnlyChangedRates() throws InterruptedException {
+        Instant beforeFirst = Instant.now();
+        ingest("{\"data\":{\"HA\":{\"value\":1.10},\"HB\":{\"value\":2.00}}}");
+        Thread.sleep(5);
+        Instant between = Instant.now();
+        Thread.sleep(5);
+        ingest("{\"data\":{\"HA\":{\"value\":1.20},\"HB\":{\"value\":2.00}}}");
+
+        assertEquals(3, historyRows(), "Unchanged HB should not be appended again");
+        assertNull(rateHistoryService.rateAt("HA", beforeFirst.minusSeconds(1)));
+        assertEquals(0, new BigDecimal("1.10").compareTo(rateHistoryService.rateAt("HA", between)));
+        assertEquals(0, new BigDecimal("1.20").compareTo(rateHistoryService.rateAt("HA", Instant.now())));
+        assertEquals(0, new BigDecimal("2.00").compareTo(rateHistoryService.rateAt("HB", Instant.now())));
+
+        rateHistoryService.reload();
+
+        assertEquals(0, new BigDecimal("1.10").compareTo(rateHistoryService.rateAt("HA", between)),
+                "Reloaded index should answer like the live one");
+    }
+
+    @Test
+    void rateOn_shouldUseDatabaseOutsideRetentionAndCarryInTheLastRate() {
+        Instant old = LocalDate.now().minusDays(90).atStartOfDay(ZoneOffset.UTC).toInstant();
+        rateHistoryRepository.appendAll(Map.of("HC", new BigDecimal("3.30")), old);
+        rateHistoryRepository.appendAll(Map.of("HC", new BigDecimal("3.40")), old.plus(Duration.ofDays(10)));
+        rateHistoryService.reload();
+
+        assertEquals(0, new BigDecimal("3.30").compareTo(rateHistoryService.rateOn("HC", LocalDate.now().minusDays(85))));
+        assertEquals(0, new BigDecimal("3.40").compareTo(rateHistoryService.rateOn("HC", LocalDate.now().minusDays(1))),
+                "Last rate before the window should still be served from the index");
+        assertNull(rateHistoryService.rateOn("HC", LocalDate.now().minusDays(120)));
+    }
+
+    @Test
+    void appendAll_shouldStoreEffectiveAtAsUtc() {
+        Instant effectiveAt = Instant.parse("2024-03-10T23:30:00Z");
+        rateHistoryRepository.appendAll(Map.of("HD", new BigDecimal("4.40")), effectiveAt);
+
+        OffsetDateTime stored = jdbcTemplate.queryForObject(
+                "SELECT effective_at FROM currency_rate_history WHERE code = 'HD'", OffsetDateTime.class);
+
+        assertEquals(effectiveAt, stored.toInstant());
+        assertEquals(0, new BigDecimal("4.40").compareTo(rateHistoryRepository.findRateAt("HD", effectiveAt)));
+        assertNull(rateHistoryRepository.findRateAt("HD", effectiveAt.minusMillis(1)));
+    }
+
+    private void ingest(String json) {
+        ingestionService.ingest(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private int historyRows() {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM currency_rate_history WHERE code LIKE 'H%'", Integer.class);
+    }
+}
@@ -0,0 +1,107 @@
+package com.mattemat.finance.service;
+
+import com.mattemat.finance.repository.CurrencyRepository;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class RateSnapshotIngestionServiceTest {
+
+    private static final int CURRENCIES = 170;
+
+    @Autowired
+    private RateSnapshotIngestionService ingestionService;
+
+    @Autowired
+    private CurrencyRepository currencyRepository;
+
+    @Autowired
+    private ExchangeRateCache exchangeRateCache;
+
+    private HttpServer server;
+
+    @AfterEach
+    void tearDown() {
+        if (server != null) {
+            server.stop(0);
+        }
+        currencyRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void ingest_shouldLoadRatesFromLocalFile() throws IOException {
+        URI source = new ClassPathResource("data/response/currencies.json").getURI();
+
+        RateSnapshotIngestionService.IngestionResult result = ingestionService.ingest(source);
+
+        assertEquals(2, result.currencies());
+        assertEquals(0, new BigDecimal("871.9743748021").compareTo(currencyRepository.findByCurrency("MYR")));
+        assertEquals(0, new BigDecimal("261.0820617405").compareTo(exchangeRateCache.rates().get("SGD")));
+    }
+
+    @Test
+    void ingest_shouldUpsertRatesFromHttpSource() throws IOException {
+        String[] payload = {payload("1.5")};
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/latest", exchange -> {
+            byte[] body = payload[0].getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream outputStream = exchange.getResponseBody()) {
+                outputStream.write(body);
+            }
+        });
+        server.start();
+        URI source = URI.create("http://localhost:" + server.getAddress().getPort() + "/latest");
+
+        RateSnapshotIngestionService.IngestionResult first = ingestionService.ingest(source);
+        payload[0] = payload("2.5");
+        RateSnapshotIngestionService.IngestionResult second = ingestionService.ingest(source);
+
+        assertEquals(CURRENCIES, first.currencies());
+        assertEquals(CURRENCIES, second.currencies());
+        assertEquals(CURRENCIES, currencyRepository.count(), "Second ingestion should update, not insert");
+        assertEquals(0, new BigDecimal("2.5").compareTo(currencyRepository.findByCurrency("C42")));
+        assertEquals(0, new BigDecimal("2.5").compareTo(exchangeRateCache.rates().get("C42")));
+    }
+
+    @Test
+    void parse_shouldSkipUnknownFieldsAndFallBackToKey() {
+        String json = """
+                {"meta": {"last_updated_at": "2024-08-18T00:00:00Z"},
+                 "data": {"EUR": {"value": 0.91}, "JPY": {"code": "JPY", "value": 146.5}, "XXX": {"code": "XXX"}}}
+                """;
+
+        Map<String, BigDecimal> rates = ingestionService.parse(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(2, rates.size());
+        assertEquals(new BigDecimal("0.91"), rates.get("EUR"));
+        assertEquals(new BigDecimal("146.5"), rates.get("JPY"));
+    }
+
+    private static String payload(String value) {
+        StringBuilder json = new StringBuilder("{\"data\":{");
+        for (int i = 0; i < CURRENCIES; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("\"C").append(i).append("\":{\"code\":\"C").append(i).append("\",\"value\":").append(value).append('}');
+        }
+        return json.append("}}").toString();
+    }
+}
@@ -0,0 +1,86 @@
+package com.mattemat.finance.service;
+
+import com.mattemat.finance.dto.request.SubscriptionRequestDto;
+import com.mattemat.finance.dto.response.SubscriptionResponseDto;
+import com.mattemat.finance.dto.response.UpcomingRenewalsResponseDto;
+import com.mattemat.finance.repository.SubscriptionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class RenewalCalendarServiceTest {
+
+    @Autowired
+    private RenewalCalendarService renewalCalendarService;
+
+    @Autowired
+    private SubscriptionServiceImpl subscriptionService;
+
+    @Autowired
+    private SubscriptionRepository subscriptionRepository;
+
+    @Autowired
+    private ExchangeRateCache exchangeRateCache;
+
+    @BeforeEach
+    void setUp() {
+        exchangeRateCache.publish(Map.of("USD", BigDecimal.ONE, "SGD", new BigDecimal("1.35")));
+        renewalCalendarService.rebuild();
+    }
+
+    @AfterEach
+    void tearDown() {
+        subscriptionRepository.deleteAllInBatch();
+        renewalCalendarService.rebuild();
+    }
+
+    @Test
+    void upcoming_shouldFollowWritesThroughTheServiceAndMatchRebuild() {
+        LocalDate today = LocalDate.now();
+        SubscriptionResponseDto soon = subscriptionService.create(request(today.minusMonths(1).plusDays(2)));
+        SubscriptionResponseDto later = subscriptionService.create(request(today.minusMonths(1).plusDays(20)));
+
+        assertEquals(List.of(soon.getId()), ids(renewalCalendarService.upcoming(7)));
+
+        SubscriptionRequestDto update = request(today.minusMonths(1).plusDays(20));
+        update.setAmount(new BigDecimal("19.99"));
+        subscriptionService.update(later.getId(), update);
+        UpcomingRenewalsResponseDto month = renewalCalendarService.upcoming(30);
+        assertEquals(List.of(soon.getId(), later.getId()), ids(month));
+        assertEquals(new BigDecimal("19.99"), month.getRenewals().get(1).getAmount());
+
+        subscriptionService.delete(soon.getId());
+        assertEquals(List.of(later.getId()), ids(renewalCalendarService.upcoming(30)));
+
+        assertEquals(1, renewalCalendarService.rebuild());
+        UpcomingRenewalsResponseDto rebuilt = renewalCalendarService.upcoming(30);
+        assertEquals(List.of(later.getId()), ids(rebuilt));
+        assertEquals(today, rebuilt.getFrom());
+        assertEquals(today.plusDays(30), rebuilt.getUntil());
+    }
+
+    private static List<Long> ids(UpcomingRenewalsResponseDto renewals) {
+        return renewals.getRenewals().stream().map(UpcomingRenewalsResponseDto.Renewal::getId).toList();
+    }
+
+    private static SubscriptionRequestDto request(LocalDate subscriptionDate) {
+        SubscriptionRequestDto request = new SubscriptionRequestDto();
+        request.setName("Renewal calendar");
+        request.setFromCurrency("USD");
+        request.setToCurrency("SGD");
+        request.setAmount(new BigDecimal("9.99"));
+        request.setBillingCycle(1);
+        request.setSubscriptionDate(subscriptionDate);
+        return request;
+    }
+}
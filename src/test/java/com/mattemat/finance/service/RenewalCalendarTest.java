@@ -0,0 +1,144 @@
+package com.mattemat.finance.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RenewalCalendarTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 6, 10);
+
+    @Test
+    void upcoming_shouldReturnOnlyRenewalsInWindowByDate() {
+        RenewalCalendar calendar = new RenewalCalendar(30, TODAY);
+        calendar.put(renewal(1, TODAY.plusDays(3), 1));
+        calendar.put(renewal(2, TODAY, 1));
+        calendar.put(renewal(3, TODAY.plusDays(7), 1));
+        calendar.put(renewal(4, TODAY.plusDays(45), 12));
+
+        assertEquals(List.of(2L, 1L), ids(calendar.upcoming(7)));
+        assertEquals(List.of(2L, 1L, 3L), ids(calendar.upcoming(8)));
+        assertTrue(calendar.upcoming(0).isEmpty());
+        assertEquals(4, calendar.size(), "Renewals past the horizon should still be tracked");
+        assertThrows(IllegalArgumentException.class, () -> calendar.upcoming(31));
+    }
+
+    @Test
+    void put_shouldReplaceAndRemoveByIdAndRollPastDatesForward() {
+        RenewalCalendar calendar = new RenewalCalendar(30, TODAY);
+        calendar.put(renewal(1, TODAY.plusDays(2), 1));
+        calendar.put(renewal(1, TODAY.plusDays(5), 1));
+        calendar.put(renewal(2, LocalDate.of(2024, 1, 31), 1));
+        calendar.put(renewal(3, TODAY.minusDays(1), 0));
+
+        List<RenewalCalendar.Renewal> upcoming = calendar.upcoming(30);
+        assertEquals(List.of(1L, 2L), ids(upcoming));
+        assertEquals(TODAY.plusDays(5), upcoming.get(0).nextSubscriptionDate());
+        assertEquals(LocalDate.of(2024, 6, 29), upcoming.get(1).nextSubscriptionDate(),
+                "Month ends should roll one cycle at a time, like the renewal UPDATE");
+        assertEquals(2, calendar.size(), "A passed renewal without a billing cycle should not be kept");
+
+        calendar.remove(1);
+        assertEquals(List.of(2L), ids(calendar.upcoming(30)));
+    }
+
+    @Test
+    void advanceTo_shouldRollPassedRenewalsAndPullOverflowOntoWheel() {
+        RenewalCalendar calendar = new RenewalCalendar(10, TODAY);
+        calendar.put(renewal(1, TODAY.plusDays(1), 1));
+        calendar.put(renewal(2, TODAY.plusDays(12), 1));
+        calendar.put(renewal(3, TODAY, 0));
+
+        calendar.advanceTo(TODAY.plusDays(5));
+
+        assertEquals(TODAY.plusDays(5), calendar.today());
+        List<RenewalCalendar.Renewal> upcoming = calendar.upcoming(10);
+        assertEquals(List.of(2L), ids(upcoming));
+        assertEquals(2, calendar.size());
+        assertEquals(TODAY.plusDays(12), upcoming.getFirst().nextSubscriptionDate());
+
+        calendar.advanceTo(LocalDate.of(2025, 8, 5));
+
+        upcoming = calendar.upcoming(10);
+        assertEquals(List.of(1L), ids(upcoming), "A jump past the whole wheel should roll every renewal");
+        assertEquals(LocalDate.of(2025, 8, 11), upcoming.getFirst().nextSubscriptionDate());
+        assertEquals(2, calendar.size());
+    }
+
+    @Test
+    void upcoming_shouldMatchBruteForceUnderRandomWrites() {
+        SplittableRandom random = new SplittableRandom(19);
+        RenewalCalendar calendar = new RenewalCalendar(64, TODAY);
+        Map<Long, RenewalCalendar.Renewal> reference = new HashMap<>();
+        LocalDate today = TODAY;
+
+        for (int step = 0; step < 20_000; step++) {
+            int operation = random.nextInt(10);
+            long id = random.nextInt(500);
+            if (operation < 6) {
+                RenewalCalendar.Renewal renewal = renewal(id, today.plusDays(random.nextInt(-40, 200)), random.nextInt(0, 13));
+                calendar.put(renewal);
+                RenewalCalendar.Renewal rolled = roll(renewal, today);
+                if (rolled == null) {
+                    reference.remove(id);
+                } else {
+                    reference.put(id, rolled);
+                }
+            } else if (operation < 9) {
+                calendar.remove(id);
+                reference.remove(id);
+            } else {
+                today = today.plusDays(random.nextInt(1, 90));
+                calendar.advanceTo(today);
+                LocalDate day = today;
+                reference.replaceAll((key, renewal) -> roll(renewal, day));
+                reference.values().removeIf(Objects::isNull);
+            }
+
+            int days = random.nextInt(65);
+            LocalDate until = today.plusDays(days);
+            LocalDate from = today;
+            List<Long> expected = reference.values().stream()
+                    .filter(renewal -> !renewal.nextSubscriptionDate().isBefore(from)
+                            && renewal.nextSubscriptionDate().isBefore(until))
+                    .map(RenewalCalendar.Renewal::id)
+                    .sorted()
+                    .toList();
+            List<Long> actual = new ArrayList<>(ids(calendar.upcoming(days)));
+            actual.sort(null);
+            assertEquals(expected, actual, "Step " + step);
+            assertEquals(reference.size(), calendar.size(), "Step " + step);
+        }
+    }
+
+    private static RenewalCalendar.Renewal roll(RenewalCalendar.Renewal renewal, LocalDate today) {
+        if (renewal == null || !renewal.nextSubscriptionDate().isBefore(today)) {
+            return renewal;
+        }
+        if (renewal.billingCycle() <= 0) {
+            return null;
+        }
+        LocalDate next = renewal.nextSubscriptionDate();
+        while (next.isBefore(today)) {
+            next = next.plusMonths(renewal.billingCycle());
+        }
+        return renewal(renewal.id(), next, renewal.billingCycle());
+    }
+
+    private static List<Long> ids(List<RenewalCalendar.Renewal> renewals) {
+        return renewals.stream().map(RenewalCalendar.Renewal::id).toList();
+    }
+
+    private static RenewalCalendar.Renewal renewal(long id, LocalDate nextSubscriptionDate, int billingCycle) {
+        return new RenewalCalendar.Renewal(id, "USD", new BigDecimal("9.99"), billingCycle, nextSubscriptionDate);
+    }
+}
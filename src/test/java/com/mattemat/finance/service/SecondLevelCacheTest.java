@@ -0,0 +1,125 @@
+package com.mattemat.finance.service;
+
+import com.mattemat.finance.dto.request.SubscriptionRequestDto;
+import com.mattemat.finance.dto.response.SubscriptionResponseDto;
+import com.mattemat.finance.repository.SubscriptionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "finance.cache.enabled=true")
+class SecondLevelCacheTest {
+
+    @Autowired
+    private SubscriptionServiceImpl subscriptionService;
+
+    @Autowired
+    private SubscriptionRenewalService renewalService;
+
+    @Autowired
+    private SubscriptionRepository subscriptionRepository;
+
+    @Autowired
+    private ExchangeRateCache exchangeRateCache;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        exchangeRateCache.publish(Map.of("USD", BigDecimal.ONE, "SGD", new BigDecimal("1.35")));
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        subscriptionRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void read_shouldBeServedFromCacheAndSeeWrites() {
+        Long id = subscriptionService.create(request("9.99", LocalDate.now())).getId();
+
+        subscriptionService.read(id);
+        long statements = statistics.getPrepareStatementCount();
+        assertEquals("9.99", subscriptionService.read(id).getAmount().toPlainString());
+        assertEquals(statements, statistics.getPrepareStatementCount(), "Repeated read should not query");
+        assertTrue(statistics.getSecondLevelCacheHitCount() >= 2);
+
+        SubscriptionResponseDto updated = subscriptionService.update(id, request("19.99", LocalDate.now()));
+        assertEquals(updated.getVersion(), subscriptionService.read(id).getVersion());
+        assertEquals("19.99", subscriptionService.read(id).getAmount().toPlainString());
+
+        assertTrue(subscriptionService.delete(id));
+        assertNull(subscriptionService.read(id));
+
+        assertTrue(meterRegistry.get("hibernate.second.level.cache.requests")
+                .tag("result", "hit").functionCounters().stream()
+                .anyMatch(counter -> counter.count() > 0), "Hit ratio should be exported");
+    }
+
+    @Test
+    void readPage_shouldUseQueryCacheUntilSubscriptionsChange() {
+        subscriptionService.create(request("9.99", LocalDate.now()));
+
+        assertEquals(1, subscriptionService.readPage(null, null).getItems().size());
+        assertEquals(1, subscriptionService.readPage(null, null).getItems().size());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+
+        subscriptionService.create(request("4.99", LocalDate.now()));
+        assertEquals(2, subscriptionService.readPage(null, null).getItems().size(), "Insert should invalidate the cached query");
+    }
+
+    @Test
+    void readAll_shouldNotUseQueryCache() {
+        subscriptionService.create(request("9.99", LocalDate.now()));
+
+        subscriptionService.readAll();
+        subscriptionService.readAll();
+
+        assertEquals(0, statistics.getQueryCachePutCount(), "Unbounded result should not be cached");
+    }
+
+    @Test
+    void renew_shouldEvictSubscriptionsChangedWithJdbc() {
+        LocalDate asOf = LocalDate.of(2024, 6, 15);
+        Long id = subscriptionService.create(request("9.99", LocalDate.of(2024, 5, 1))).getId();
+        SubscriptionResponseDto cached = subscriptionService.read(id);
+        assertEquals(LocalDate.of(2024, 6, 1), cached.getNextSubscriptionDate());
+
+        renewalService.renew(asOf);
+
+        SubscriptionResponseDto renewed = subscriptionService.read(id);
+        assertEquals(LocalDate.of(2024, 7, 1), renewed.getNextSubscriptionDate());
+        assertEquals(cached.getVersion() + 1, renewed.getVersion());
+    }
+
+    private static SubscriptionRequestDto request(String amount, LocalDate subscriptionDate) {
+        SubscriptionRequestDto request = new SubscriptionRequestDto();
+        request.setName("Cached");
+        request.setFromCurrency("USD");
+        request.setToCurrency("SGD");
+        request.setAmount(new BigDecimal(amount));
+        request.setBillingCycle(1);
+        request.setSubscriptionDate(subscriptionDate);
+        return request;
+    }
+}
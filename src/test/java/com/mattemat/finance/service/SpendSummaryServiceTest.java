@@ -0,0 +1,187 @@
+package com.mattemat.finance.service;
+
+import com.mattemat.finance.dto.request.SubscriptionBatchRequestDto;
+import com.mattemat.finance.dto.request.SubscriptionBatchRequestDto.OperationType;
+import com.mattemat.finance.dto.request.SubscriptionRequestDto;
+import com.mattemat.finance.dto.response.SpendSummaryResponseDto;
+import com.mattemat.finance.dto.response.SubscriptionResponseDto;
+import com.mattemat.finance.repository.SubscriptionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class SpendSummaryServiceTest {
+
+    @Autowired
+    private SpendSummaryService spendSummaryService;
+
+    @Autowired
+    private SubscriptionServiceImpl subscriptionService;
+
+    @Autowired
+    private SubscriptionRepository subscriptionRepository;
+
+    @Autowired
+    private ExchangeRateCache exchangeRateCache;
+
+    @BeforeEach
+    void setUp() {
+        exchangeRateCache.publish(Map.of("USD", BigDecimal.ONE, "SGD", new BigDecimal("1.35"), "EUR", new BigDecimal("0.90")));
+        spendSummaryService.rebuild();
+    }
+
+    @AfterEach
+    void tearDown() {
+        subscriptionRepository.deleteAllInBatch();
+        spendSummaryService.rebuild();
+    }
+
+    @Test
+    void summary_shouldTrackCreateUpdateDelete() {
+        Long monthly = subscriptionService.create(request("USD", "12.00", 1)).getId();
+        Long yearly = subscriptionService.create(request("USD", "120.00", 12)).getId();
+        subscriptionService.create(request("EUR", "30.00", 3));
+
+        SpendSummaryResponseDto afterCreate = spendSummaryService.summary();
+        assertEquals(3, afterCreate.getSubscriptions());
+        assertEquals(0, new BigDecimal("165.33").compareTo(afterCreate.getTotalConvertedAmount()));
+        assertEquals(0, new BigDecimal("33.11").compareTo(afterCreate.getMonthlyConvertedAmount()),
+                "12.00 monthly + 120.00 / 12 + 33.33 / 3");
+
+        subscriptionService.update(yearly, request("SGD", "60.00", 6));
+        subscriptionService.delete(monthly);
+
+        assertMatchesRebuild();
+        SpendSummaryResponseDto summary = spendSummaryService.summary();
+        assertEquals(2, summary.getSubscriptions());
+        assertEquals("USD", summary.getCurrency());
+        assertEquals(List.of("USD"), summary.getByCurrency().stream()
+                .map(SpendSummaryResponseDto.CurrencyTotal::getCurrency).toList());
+        assertEquals(List.of(3, 6), summary.getByBillingCycle().stream()
+                .map(SpendSummaryResponseDto.BillingCycleTotal::getBillingCycle).toList());
+    }
+
+    @Test
+    void summary_shouldTrackBatchChanges() {
+        Long existing = subscriptionService.create(request("USD", "10.00", 1)).getId();
+        Long removed = subscriptionService.create(request("SGD", "13.50", 1)).getId();
+
+        subscriptionService.applyBatch(List.of(
+                operation(OperationType.CREATE, null, request("EUR", "9.00", 3)),
+                operation(OperationType.UPDATE, existing, request("USD", "20.00", 2)),
+                operation(OperationType.DELETE, removed, null),
+                operation(OperationType.DELETE, 999_999L, null)));
+
+        assertMatchesRebuild();
+        assertEquals(2, spendSummaryService.summary().getSubscriptions());
+    }
+
+    @Test
+    void summary_shouldTotalEachTargetCurrencySeparately() {
+        subscriptionService.create(request("USD", "USD", "10.00", 1));
+        Long converted = subscriptionService.create(request("USD", "SGD", "10.00", 1)).getId();
+
+        SpendSummaryResponseDto mixed = spendSummaryService.summary();
+        assertEquals(2, mixed.getSubscriptions());
+        assertNull(mixed.getCurrency());
+        assertNull(mixed.getTotalConvertedAmount(), "SGD and USD amounts are not added up");
+        assertNull(mixed.getMonthlyConvertedAmount());
+        assertEquals(List.of("SGD", "USD"), mixed.getByCurrency().stream()
+                .map(SpendSummaryResponseDto.CurrencyTotal::getCurrency).toList());
+        assertEquals(0, new BigDecimal("13.50").compareTo(mixed.getByCurrency().get(0).getConvertedAmount()));
+        assertEquals(0, new BigDecimal("10.00").compareTo(mixed.getByCurrency().get(1).getConvertedAmount()));
+        assertEquals(List.of("SGD", "USD"), mixed.getByBillingCycle().stream()
+                .map(SpendSummaryResponseDto.BillingCycleTotal::getCurrency).toList());
+        assertMatchesRebuild();
+
+        subscriptionService.update(converted, request("SGD", "USD", "13.50", 1));
+
+        assertMatchesRebuild();
+        SpendSummaryResponseDto single = spendSummaryService.summary();
+        assertEquals("USD", single.getCurrency());
+        assertEquals(0, new BigDecimal("20.00").compareTo(single.getTotalConvertedAmount()));
+        assertEquals(0, new BigDecimal("20.00").compareTo(single.getMonthlyConvertedAmount()));
+    }
+
+    @Test
+    void summary_shouldKeepOwnersApart() {
+        Long own = subscriptionService.create(request("USD", "10.00", 1)).getId();
+        Long other;
+        OwnerContext.set("acme");
+        try {
+            other = subscriptionService.create(request("EUR", "9.00", 1)).getId();
+            assertEquals(1, spendSummaryService.summary().getSubscriptions());
+            assertEquals(List.of(other), subscriptionService.readAll().stream().map(SubscriptionResponseDto::getId).toList());
+            assertNull(subscriptionService.read(own));
+            assertFalse(subscriptionService.delete(own));
+        } finally {
+            OwnerContext.clear();
+        }
+
+        assertNull(subscriptionService.update(other, request("USD", "1.00", 1)));
+        assertEquals(List.of(own), subscriptionService.readAll().stream().map(SubscriptionResponseDto::getId).toList());
+        assertMatchesRebuild();
+        assertEquals(1, spendSummaryService.summary().getSubscriptions());
+        assertEquals("USD", spendSummaryService.summary().getByCurrency().getFirst().getCurrency());
+    }
+
+    private void assertMatchesRebuild() {
+        SpendSummaryResponseDto incremental = spendSummaryService.summary();
+        SpendSummaryResponseDto rebuilt = spendSummaryService.rebuild();
+
+        assertEquals(rebuilt.getSubscriptions(), incremental.getSubscriptions());
+        assertEquals(rebuilt.getCurrency(), incremental.getCurrency());
+        assertSameAmount(rebuilt.getTotalConvertedAmount(), incremental.getTotalConvertedAmount());
+        assertSameAmount(rebuilt.getMonthlyConvertedAmount(), incremental.getMonthlyConvertedAmount());
+        assertEquals(rebuilt.getByCurrency().size(), incremental.getByCurrency().size());
+        for (int i = 0; i < rebuilt.getByCurrency().size(); i++) {
+            SpendSummaryResponseDto.CurrencyTotal expected = rebuilt.getByCurrency().get(i);
+            SpendSummaryResponseDto.CurrencyTotal actual = incremental.getByCurrency().get(i);
+            assertEquals(expected.getCurrency(), actual.getCurrency());
+            assertEquals(expected.getSubscriptions(), actual.getSubscriptions());
+            assertEquals(0, expected.getConvertedAmount().compareTo(actual.getConvertedAmount()));
+        }
+        assertEquals(rebuilt.getByBillingCycle().size(), incremental.getByBillingCycle().size());
+    }
+
+    private static void assertSameAmount(BigDecimal expected, BigDecimal actual) {
+        if (expected == null || actual == null) {
+            assertEquals(expected, actual);
+        } else {
+            assertEquals(0, expected.compareTo(actual), expected + " != " + actual);
+        }
+    }
+
+    private static SubscriptionRequestDto request(String currency, String amount, int billingCycle) {
+        return request(currency, "USD", amount, billingCycle);
+    }
+
+    private static SubscriptionRequestDto request(String currency, String toCurrency, String amount, int billingCycle) {
+        SubscriptionRequestDto request = new SubscriptionRequestDto();
+        request.setName("Summary");
+        request.setFromCurrency(currency);
+        request.setToCurrency(toCurrency);
+        request.setAmount(new BigDecimal(amount));
+        request.setBillingCycle(billingCycle);
+        request.setSubscriptionDate(LocalDate.now());
+        return request;
+    }
+
+    private static SubscriptionBatchRequestDto.Operation operation(OperationType type, Long id, SubscriptionRequestDto request) {
+        SubscriptionBatchRequestDto.Operation operation = new SubscriptionBatchRequestDto.Operation();
+        operation.setType(type);
+        operation.setId(id);
+        operation.setSubscription(request);
+        return operation;
+    }
+}
@@ -0,0 +1,95 @@
+package com.mattemat.finance.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mattemat.finance.dto.request.SubscriptionRequestDto;
+import com.mattemat.finance.dto.response.SubscriptionResponseDto;
+import com.mattemat.finance.entity.Subscription;
+import com.mattemat.finance.repository.SubscriptionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class SubscriptionExportServiceTest {
+
+    @Autowired
+    private SubscriptionExportService exportService;
+
+    @Autowired
+    private SubscriptionServiceImpl subscriptionService;
+
+    @Autowired
+    private SubscriptionRepository subscriptionRepository;
+
+    @Autowired
+    private ExchangeRateCache exchangeRateCache;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        exchangeRateCache.publish(Map.of("USD", BigDecimal.ONE, "SGD", new BigDecimal("1.35")));
+    }
+
+    @AfterEach
+    void tearDown() {
+        subscriptionRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void export_shouldWriteEveryRowAsCsvAndNdjsonInIdOrder() throws IOException {
+        SubscriptionResponseDto plain = subscriptionService.create(request("Netflix"));
+        SubscriptionResponseDto quoted = subscriptionService.create(request("Music, \"family\" plan"));
+
+        ByteArrayOutputStream csv = new ByteArrayOutputStream();
+        assertEquals(2, exportService.export(Subscription.DEFAULT_OWNER, SubscriptionExportService.Format.CSV, false, csv));
+        String[] lines = csv.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertEquals(3, lines.length);
+        assertEquals("id,name,currency,amount,convertedAmount,billingCycle,subscriptionDate,"
+                + "nextSubscriptionDate,createdAt,updatedAt,version", lines[0]);
+        assertTrue(lines[1].startsWith(plain.getId() + ",Netflix,USD,9.99,13.49,1,2025-01-15,"), lines[1]);
+        assertTrue(lines[2].startsWith(quoted.getId() + ",\"Music, \"\"family\"\" plan\",USD,9.99,"), lines[2]);
+
+        ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+        assertEquals(2, exportService.export(Subscription.DEFAULT_OWNER, SubscriptionExportService.Format.NDJSON, true, ndjson));
+        String[] records;
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(ndjson.toByteArray()))) {
+            String text = new String(gzip.readAllBytes(), StandardCharsets.UTF_8);
+            assertTrue(text.endsWith("\n"));
+            records = text.split("\n");
+        }
+        assertEquals(2, records.length);
+        JsonNode second = objectMapper.readTree(records[1]);
+        assertEquals(quoted.getId(), second.get("id").asLong());
+        assertEquals("Music, \"family\" plan", second.get("name").asText());
+        assertEquals(new BigDecimal("9.99"), second.get("amount").decimalValue());
+        assertEquals("2025-01-15", second.get("subscriptionDate").asText());
+        assertEquals(quoted.getVersion(), second.get("version").asLong());
+    }
+
+    private static SubscriptionRequestDto request(String name) {
+        SubscriptionRequestDto request = new SubscriptionRequestDto();
+        request.setName(name);
+        request.setFromCurrency("USD");
+        request.setToCurrency("SGD");
+        request.setAmount(new BigDecimal("9.99"));
+        request.setBillingCycle(1);
+        request.setSubscriptionDate(LocalDate.of(2025, 1, 15));
+        return request;
+    }
+}
@@ -0,0 +1,131 @@
+package com.mattemat.finance.service;
+
+import com.mattemat.finance.dto.request.SubscriptionRequestDto;
+import com.mattemat.finance.dto.response.SubscriptionImportResponseDto;
+import com.mattemat.finance.dto.response.SubscriptionResponseDto;
+import com.mattemat.finance.repository.SubscriptionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class SubscriptionImportServiceTest {
+
+    private static final String HEADER = "\uFEFFsubscriptionDate,name,fromCurrency,toCurrency,amount,billingCycle\r\n";
+
+    @Autowired
+    private SubscriptionImportService importService;
+
+    @Autowired
+    private SubscriptionServiceImpl subscriptionService;
+
+    @Autowired
+    private SubscriptionRepository subscriptionRepository;
+
+    @Autowired
+    private SpendSummaryService spendSummaryService;
+
+    @Autowired
+    private ExchangeRateCache exchangeRateCache;
+
+    @BeforeEach
+    void setUp() {
+        exchangeRateCache.publish(Map.of("USD", BigDecimal.ONE, "SGD", new BigDecimal("1.35")));
+    }
+
+    @AfterEach
+    void tearDown() {
+        subscriptionRepository.deleteAllInBatch();
+        spendSummaryService.rebuild();
+    }
+
+    @Test
+    void importCsv_shouldLoadValidRecordsAndReportRejectedLines() throws IOException {
+        String csv = HEADER
+                + "2025-01-15,Netflix,USD,SGD,9.99,1\r\n"
+                + "2025-02-01,\"Music, \"\"family\"\"\nplan\",USD,SGD,14.99,12\r\n"
+                + "\r\n"
+                + "2025-01-01,Unknown currency,XXX,SGD,1.00,1\r\n"
+                + "2025-01-01,Bad amount,USD,SGD,abc,1\r\n"
+                + "2025-01-01,Too short\r\n"
+                + "2025-01-01,\"Unclosed,USD,SGD,1.00,1\r\n";
+
+        SubscriptionImportResponseDto response = importService.importCsv(stream(csv));
+
+        assertEquals(2, response.getImported());
+        assertEquals(4, response.getRejected());
+        assertEquals(List.of(6L, 7L, 8L, 9L),
+                response.getRejections().stream().map(SubscriptionImportResponseDto.Rejection::getLine).toList());
+        assertEquals("No exchange rate for currency: XXX", response.getRejections().get(0).getMessage());
+
+        List<SubscriptionResponseDto> imported = subscriptionService.readAll();
+        assertEquals(2, imported.size());
+        SubscriptionResponseDto netflix = imported.get(0);
+        assertEquals("Netflix", netflix.getName());
+        assertEquals(LocalDate.of(2025, 2, 15), netflix.getNextSubscriptionDate());
+        assertEquals(0L, netflix.getVersion());
+        assertEquals("Music, \"family\"\nplan", imported.get(1).getName());
+        assertEquals(LocalDate.of(2026, 2, 1), imported.get(1).getNextSubscriptionDate());
+        assertEquals(2, spendSummaryService.summary().getSubscriptions());
+
+        SubscriptionResponseDto created = subscriptionService.create(request());
+        assertEquals(netflix.getConvertedAmount(), created.getConvertedAmount());
+        assertTrue(imported.stream().noneMatch(subscription -> subscription.getId().equals(created.getId())));
+    }
+
+    @Test
+    void importCsv_shouldAllocateDistinctIdsAcrossSequenceBlocks() throws IOException {
+        StringBuilder csv = new StringBuilder(HEADER);
+        for (int i = 0; i < 120; i++) {
+            csv.append("2025-01-15,Subscription ").append(i).append(",USD,SGD,9.99,1\n");
+        }
+        subscriptionService.create(request());
+
+        assertEquals(120, importService.importCsv(stream(csv.toString())).getImported());
+        SubscriptionResponseDto created = subscriptionService.create(request());
+
+        List<SubscriptionResponseDto> all = subscriptionService.readAll();
+        Set<Long> ids = new HashSet<>();
+        all.forEach(subscription -> ids.add(subscription.getId()));
+        assertEquals(122, ids.size());
+        assertTrue(all.stream().min(Comparator.comparing(SubscriptionResponseDto::getId)).orElseThrow().getId() > 0);
+        assertTrue(ids.contains(created.getId()));
+    }
+
+    @Test
+    void importCsv_shouldRejectHeaderWithoutRequiredColumn() {
+        assertThrows(IllegalArgumentException.class,
+                () -> importService.importCsv(stream("name,fromCurrency,toCurrency,amount,billingCycle\n")));
+        assertThrows(IllegalArgumentException.class, () -> importService.importCsv(stream("")));
+    }
+
+    private static ByteArrayInputStream stream(String csv) {
+        return new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static SubscriptionRequestDto request() {
+        SubscriptionRequestDto request = new SubscriptionRequestDto();
+        request.setName("Netflix");
+        request.setFromCurrency("USD");
+        request.setToCurrency("SGD");
+        request.setAmount(new BigDecimal("9.99"));
+        request.setBillingCycle(1);
+        request.setSubscriptionDate(LocalDate.of(2025, 1, 15));
+        return request;
+    }
+}
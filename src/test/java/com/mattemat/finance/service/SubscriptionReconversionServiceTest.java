@@ -0,0 +1,155 @@
+package com.mattemat.finance.service;
+
+import com.mattemat.finance.entity.Subscription;
+import com.mattemat.finance.repository.SubscriptionReconversionRepository;
+import com.mattemat.finance.repository.SubscriptionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "finance.reconversion.chunk-size=7",
+        "finance.reconversion.max-rows-per-second=0",
+        "finance.reconversion.check-interval=PT1H"})
+class SubscriptionReconversionServiceTest {
+
+    @Autowired
+    private SubscriptionReconversionService reconversionService;
+
+    @Autowired
+    private SubscriptionReconversionRepository reconversionRepository;
+
+    @Autowired
+    private SubscriptionRepository subscriptionRepository;
+
+    @Autowired
+    private ExchangeRateCache exchangeRateCache;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        clearJobs();
+        exchangeRateCache.publish(Map.of(
+                "USD", new BigDecimal("1.00"),
+                "EUR", new BigDecimal("0.90"),
+                "SGD", new BigDecimal("1.35")));
+    }
+
+    @AfterEach
+    void tearDown() {
+        subscriptionRepository.deleteAllInBatch();
+        clearJobs();
+    }
+
+    @Test
+    void runPending_shouldReconvertOnlySubscriptionsInChangedCurrencies() {
+        List<Subscription> eurToUsd = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            eurToUsd.add(subscription("EUR", "9.00", "USD", "1.00"));
+        }
+        Subscription eurToSgd = subscription("EUR", "9.00", "SGD", "1.00");
+        Subscription usdToSgd = subscription("USD", "10.00", "SGD", "1.00");
+        Subscription unknownTarget = subscription("EUR", "9.00", null, "1.00");
+        List<Subscription> subscriptions = new ArrayList<>(eurToUsd);
+        subscriptions.addAll(List.of(eurToSgd, usdToSgd, unknownTarget));
+        subscriptionRepository.saveAll(subscriptions);
+
+        reconversionService.enqueue(List.of("EUR"));
+        SubscriptionReconversionService.ReconversionResult result = reconversionService.runPending();
+
+        assertAll(
+                "Re-conversion result",
+                () -> assertEquals(1, result.jobs(), "One job should run"),
+                () -> assertEquals(21, result.rowsScanned(), "Only rows with a recorded EUR side should be scanned"),
+                () -> assertEquals(21, result.rowsUpdated(), "Every scanned row was stale"),
+                () -> assertTrue(result.chunks() >= 21 / 7, "Work should be split into bounded chunks")
+        );
+        Subscription reloaded = reload(eurToUsd.getFirst());
+        assertEquals(new BigDecimal("10.00"), reloaded.getConvertedAmount());
+        assertEquals(eurToUsd.getFirst().getVersion() + 1, reloaded.getVersion(), "JDBC update should bump the version");
+        assertEquals(new BigDecimal("13.50"), reload(eurToSgd).getConvertedAmount());
+        assertEquals(new BigDecimal("1.00"), reload(usdToSgd).getConvertedAmount(), "Unaffected currency should not change");
+        assertEquals(new BigDecimal("1.00"), reload(unknownTarget).getConvertedAmount(), "Rows without a target currency are skipped");
+        assertEquals(0, reconversionRepository.countPending());
+        assertEquals(21, reconversionService.progress().getRowsUpdated());
+    }
+
+    @Test
+    void runPending_shouldResumeFromCheckpointAndBeIdempotent() {
+        List<Subscription> subscriptions = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            subscriptions.add(subscription("SGD", "13.50", "USD", "1.00"));
+        }
+        subscriptionRepository.saveAll(subscriptions);
+        long checkpointId = subscriptions.get(3).getId();
+
+        long jobId = reconversionService.enqueue(List.of("SGD"));
+        transactionTemplate.executeWithoutResult(status -> reconversionRepository.checkpoint(jobId, checkpointId, 4));
+        SubscriptionReconversionService.ReconversionResult resumed = reconversionService.runPending();
+
+        assertEquals(6, resumed.rowsUpdated(), "Rows up to the checkpoint should not be scanned again");
+        assertEquals(new BigDecimal("1.00"), reload(subscriptions.get(3)).getConvertedAmount());
+        assertEquals(new BigDecimal("10.00"), reload(subscriptions.get(4)).getConvertedAmount());
+
+        reconversionService.enqueue(List.of("SGD"));
+        SubscriptionReconversionService.ReconversionResult repeated = reconversionService.runPending();
+
+        assertEquals(10, repeated.rowsScanned());
+        assertEquals(4, repeated.rowsUpdated(), "Rows already at the current rate should not be written again");
+    }
+
+    @Test
+    void runPending_shouldReplaceAmountConvertedAtHistoricalRatesWithCurrentRates() {
+        BigDecimal historicalAmount = FixedPointMoney.toAmount(FixedPointMoney.convert(
+                FixedPointMoney.toMinorUnits(new BigDecimal("9.00")),
+                FixedPointMoney.toScaledRate(new BigDecimal("0.80")),
+                FixedPointMoney.toScaledRate(new BigDecimal("1.00"))));
+        Subscription historical = subscriptionRepository.save(subscription("EUR", "9.00", "USD", historicalAmount.toPlainString()));
+
+        reconversionService.enqueue(List.of("EUR"));
+        SubscriptionReconversionService.ReconversionResult result = reconversionService.runPending();
+
+        assertEquals(new BigDecimal("11.25"), historicalAmount);
+        assertEquals(1, result.rowsUpdated());
+        assertEquals(new BigDecimal("10.00"), reload(historical).getConvertedAmount(),
+                "converted_amount should hold the amount at current rates");
+    }
+
+    private Subscription reload(Subscription subscription) {
+        return subscriptionRepository.findById(subscription.getId()).orElseThrow();
+    }
+
+    private void clearJobs() {
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update("DELETE FROM subscription_reconversions"));
+    }
+
+    private static Subscription subscription(String currency, String amount, String convertedCurrency, String convertedAmount) {
+        Subscription subscription = new Subscription();
+        subscription.setName("Reconversion");
+        subscription.setCurrency(currency);
+        subscription.setAmount(new BigDecimal(amount));
+        subscription.setConvertedCurrency(convertedCurrency);
+        subscription.setConvertedAmount(new BigDecimal(convertedAmount));
+        subscription.setBillingCycle(1);
+        subscription.setSubscriptionDate(LocalDate.of(2024, 1, 1));
+        subscription.setNextSubscriptionDate(LocalDate.of(2024, 2, 1));
+        return subscription;
+    }
+}
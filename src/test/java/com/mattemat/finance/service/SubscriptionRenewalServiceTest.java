@@ -0,0 +1,103 @@
+package com.mattemat.finance.service;
+
+import com.mattemat.finance.entity.Subscription;
+import com.mattemat.finance.repository.SubscriptionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {"finance.renewal.chunk-size=7", "finance.renewal.partitions=3"})
+class SubscriptionRenewalServiceTest {
+
+    private static final LocalDate AS_OF = LocalDate.of(2024, 6, 15);
+
+    @Autowired
+    private SubscriptionRenewalService renewalService;
+
+    @Autowired
+    private SubscriptionRepository subscriptionRepository;
+
+    @AfterEach
+    void tearDown() {
+        subscriptionRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void renew_shouldAdvanceOverdueSubscriptionsByWholeCycles() {
+        List<Subscription> subscriptions = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            subscriptions.add(subscription(LocalDate.of(2024, 1, 10), 1));
+        }
+        Subscription yearly = subscription(LocalDate.of(2022, 3, 1), 12);
+        Subscription current = subscription(LocalDate.of(2024, 7, 1), 1);
+        Subscription dueToday = subscription(AS_OF, 3);
+        subscriptions.addAll(List.of(yearly, current, dueToday));
+        subscriptionRepository.saveAll(subscriptions);
+
+        SubscriptionRenewalService.RenewalResult result = renewalService.renew(AS_OF);
+
+        assertAll(
+                "Renewal result",
+                () -> assertEquals(51, result.rowsRenewed(), "Only overdue subscriptions should be renewed"),
+                () -> assertTrue(result.chunks() >= 51 / 7, "Work should be split into bounded chunks")
+        );
+        assertEquals(LocalDate.of(2024, 7, 10), nextDate(subscriptions.getFirst()));
+        assertEquals(LocalDate.of(2025, 3, 1), nextDate(yearly));
+        assertEquals(LocalDate.of(2024, 7, 1), nextDate(current));
+        assertEquals(AS_OF, nextDate(dueToday));
+    }
+
+    @Test
+    void renew_shouldBeIdempotent() {
+        subscriptionRepository.saveAll(List.of(
+                subscription(LocalDate.of(2024, 5, 31), 1),
+                subscription(LocalDate.of(2023, 1, 15), 6)));
+
+        SubscriptionRenewalService.RenewalResult first = renewalService.renew(AS_OF);
+        SubscriptionRenewalService.RenewalResult second = renewalService.renew(AS_OF);
+
+        assertEquals(2, first.rowsRenewed());
+        assertEquals(0, second.rowsRenewed(), "A repeated run should not advance anything");
+    }
+
+    @Test
+    void renew_shouldKeepTheDayOfMonthOfTheSubscriptionDate() {
+        Subscription monthEnd = subscription(LocalDate.of(2024, 2, 29), 1);
+        monthEnd.setSubscriptionDate(LocalDate.of(2024, 1, 31));
+        Subscription quarterly = subscription(LocalDate.of(2023, 11, 30), 3);
+        quarterly.setSubscriptionDate(LocalDate.of(2023, 8, 31));
+        subscriptionRepository.saveAll(List.of(monthEnd, quarterly));
+
+        SubscriptionRenewalService.RenewalResult result = renewalService.renew(LocalDate.of(2024, 5, 1));
+
+        assertEquals(2, result.rowsRenewed());
+        assertEquals(LocalDate.of(2024, 5, 31), nextDate(monthEnd), "Jan 31 should not drift to the 29th");
+        assertEquals(LocalDate.of(2024, 5, 31), nextDate(quarterly));
+    }
+
+    private LocalDate nextDate(Subscription subscription) {
+        return subscriptionRepository.findById(subscription.getId())
+                .map(Subscription::getNextSubscriptionDate)
+                .orElseThrow();
+    }
+
+    private static Subscription subscription(LocalDate nextSubscriptionDate, int billingCycle) {
+        Subscription subscription = new Subscription();
+        subscription.setName("Renewal");
+        subscription.setCurrency("USD");
+        subscription.setAmount(new BigDecimal("9.99"));
+        subscription.setConvertedAmount(new BigDecimal("9.99"));
+        subscription.setBillingCycle(billingCycle);
+        subscription.setSubscriptionDate(nextSubscriptionDate.minusMonths(billingCycle));
+        subscription.setNextSubscriptionDate(nextSubscriptionDate);
+        return subscription;
+    }
+}
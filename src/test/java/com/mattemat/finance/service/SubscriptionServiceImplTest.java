@@ -4,28 +4,42 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.mattemat.finance.dto.request.SubscriptionBatchRequestDto;
+import com.mattemat.finance.dto.request.SubscriptionBatchRequestDto.OperationType;
+import com.mattemat.finance.dto.request.SubscriptionFilterDto;
 import com.mattemat.finance.dto.request.SubscriptionRequestDto;
+import com.mattemat.finance.dto.response.SubscriptionBatchResponseDto;
+import com.mattemat.finance.dto.response.SubscriptionPageResponseDto;
 import com.mattemat.finance.dto.response.SubscriptionResponseDto;
 import com.mattemat.finance.entity.Subscription;
 import com.mattemat.finance.mapper.SubscriptionMapper;
-import com.mattemat.finance.repository.CurrencyRepository;
 import com.mattemat.finance.repository.SubscriptionRepository;
+import com.mattemat.finance.repository.SubscriptionSearchRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 
 import java.io.IOException;
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
@@ -36,13 +50,26 @@ import static org.mockito.Mockito.*;
 class SubscriptionServiceImplTest {
 
     private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final String OWNER = Subscription.DEFAULT_OWNER;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
 
     @Mock
-    private CurrencyRepository currencyRepository;
+    private CurrencyConversionService currencyConversionService;
     @Mock
     private SubscriptionRepository subscriptionRepository;
     @Mock
+    private SubscriptionSearchRepository subscriptionSearchRepository;
+    @Mock
     private SubscriptionMapper subscriptionMapper;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private EntityCacheEvictor entityCacheEvictor;
+    @Mock
+    private SubscriptionWriteBehind writeBehind;
+    @Spy
+    private SubscriptionMetrics subscriptionMetrics = new SubscriptionMetrics(meterRegistry);
     @InjectMocks
     private SubscriptionServiceImpl subscriptionService;
 
@@ -52,9 +79,9 @@ class SubscriptionServiceImplTest {
 
     private static Stream<Arguments> provideEdgeCases() {
         return Stream.of(
-                Arguments.of(Collections.singletonList(new Subscription()), 1),
+                Arguments.of(Collections.singletonList(new SubscriptionResponseDto()), 1),
                 Arguments.of(Collections.emptyList(), 0),
-                Arguments.of(List.of(new Subscription(), new Subscription(), new Subscription()), 3)
+                Arguments.of(List.of(new SubscriptionResponseDto(), new SubscriptionResponseDto(), new SubscriptionResponseDto()), 3)
         );
     }
 
@@ -71,12 +98,8 @@ class SubscriptionServiceImplTest {
     }
 
     @Test
-    void readAll_shouldReturnListOfSubscriptionResponseDtos() {
-        when(subscriptionRepository.findAll()).thenReturn(testSubscriptions);
-
-        IntStream.range(0, testSubscriptions.size())
-                .forEach(i -> when(subscriptionMapper.toDto(testSubscriptions.get(i)))
-                        .thenReturn(testResponseDtos.get(i)));
+    void readAll_shouldReturnProjectedSubscriptionResponseDtos() {
+        when(subscriptionRepository.findAllResponses(OWNER)).thenReturn(testResponseDtos);
 
         List<SubscriptionResponseDto> actualDtos = subscriptionService.readAll();
 
@@ -87,13 +110,13 @@ class SubscriptionServiceImplTest {
                 () -> IntStream.range(0, testResponseDtos.size()).forEach(i ->
                         assertSubscriptionDto(actualDtos.get(i), testResponseDtos.get(i)))
         );
-        verify(subscriptionRepository).findAll();
-        verify(subscriptionMapper, times(testSubscriptions.size())).toDto(any(Subscription.class));
+        verify(subscriptionRepository).findAllResponses(OWNER);
+        verifyNoInteractions(subscriptionMapper);
     }
 
     @Test
     void readAll_shouldReturnEmptyList_whenNoSubscriptions() {
-        when(subscriptionRepository.findAll()).thenReturn(Collections.emptyList());
+        when(subscriptionRepository.findAllResponses(OWNER)).thenReturn(Collections.emptyList());
 
         List<SubscriptionResponseDto> dtos = subscriptionService.readAll();
 
@@ -102,15 +125,33 @@ class SubscriptionServiceImplTest {
                 () -> assertNotNull(dtos, "DTOs list should not be null"),
                 () -> assertTrue(dtos.isEmpty(), "DTOs list should be empty")
         );
-        verify(subscriptionRepository).findAll();
-        verify(subscriptionMapper, never()).toDto(any(Subscription.class));
+        verify(subscriptionRepository).findAllResponses(OWNER);
+        verify(subscriptionRepository, never()).findAll();
+    }
+
+    @Test
+    void readAll_shouldRecordTimerAndRowCount() {
+        when(subscriptionRepository.findAllResponses(OWNER)).thenReturn(testResponseDtos);
+        when(subscriptionRepository.findByOwnerIdAndId(eq(OWNER), anyLong())).thenReturn(Optional.empty());
+
+        subscriptionService.readAll();
+        subscriptionService.read(42L);
+
+        assertAll(
+                "Subscription metrics",
+                () -> assertEquals(1, meterRegistry.get(SubscriptionMetrics.OPERATION_TIMER)
+                        .tags("operation", "readAll", "outcome", "success").timer().count()),
+                () -> assertEquals(testResponseDtos.size(), meterRegistry.get(SubscriptionMetrics.ROWS_COUNTER)
+                        .tags("operation", "readAll").counter().count()),
+                () -> assertEquals(1, meterRegistry.get(SubscriptionMetrics.OPERATION_TIMER)
+                        .tags("operation", "read", "outcome", "not_found").timer().count())
+        );
     }
 
     @ParameterizedTest
     @MethodSource("provideEdgeCases")
-    void readAll_shouldHandleEdgeCases(List<Subscription> input, int expectedSize) {
-        when(subscriptionRepository.findAll()).thenReturn(input);
-        input.forEach(subscription -> when(subscriptionMapper.toDto(subscription)).thenReturn(new SubscriptionResponseDto()));
+    void readAll_shouldHandleEdgeCases(List<SubscriptionResponseDto> input, int expectedSize) {
+        when(subscriptionRepository.findAllResponses(OWNER)).thenReturn(input);
 
         List<SubscriptionResponseDto> dtos = subscriptionService.readAll();
 
@@ -119,14 +160,77 @@ class SubscriptionServiceImplTest {
                 () -> assertNotNull(dtos, "DTOs list should not be null"),
                 () -> assertEquals(expectedSize, dtos.size(), "DTOs list size should match expected")
         );
-        verify(subscriptionRepository).findAll();
-        verify(subscriptionMapper, times(expectedSize)).toDto(any(Subscription.class));
+        verify(subscriptionRepository).findAllResponses(OWNER);
+    }
+
+    @Test
+    void readPage_shouldReturnNextCursor_whenPageIsFull() {
+        when(subscriptionRepository.findResponsesAfter(OWNER, 0L, Limit.of(2))).thenReturn(testResponseDtos);
+
+        SubscriptionPageResponseDto page = subscriptionService.readPage(null, 2);
+
+        assertEquals(2, page.getItems().size(), "Page should contain both subscriptions");
+        assertNotNull(page.getNextCursor(), "Full page should carry a next cursor");
+
+        when(subscriptionRepository.findResponsesAfter(OWNER, 2L, Limit.of(2))).thenReturn(Collections.emptyList());
+
+        SubscriptionPageResponseDto nextPage = subscriptionService.readPage(page.getNextCursor(), 2);
+
+        assertTrue(nextPage.getItems().isEmpty(), "Next page should be empty");
+        assertNull(nextPage.getNextCursor(), "Last page should not carry a next cursor");
+    }
+
+    @Test
+    void readPage_shouldClampLimitToMaxPageSize() {
+        when(subscriptionRepository.findResponsesAfter(OWNER, 0L, Limit.of(SubscriptionServiceImpl.MAX_PAGE_SIZE)))
+                .thenReturn(Collections.emptyList());
+
+        SubscriptionPageResponseDto page = subscriptionService.readPage("", 1_000_000);
+
+        assertTrue(page.getItems().isEmpty());
+        verify(subscriptionRepository).findResponsesAfter(OWNER, 0L, Limit.of(SubscriptionServiceImpl.MAX_PAGE_SIZE));
+    }
+
+    @Test
+    void readPage_shouldRejectInvalidCursor() {
+        assertThrows(IllegalArgumentException.class, () -> subscriptionService.readPage("not-a-cursor", 10));
+        verify(subscriptionRepository, never()).findResponsesAfter(anyString(), anyLong(), any(Limit.class));
+    }
+
+    @Test
+    void search_shouldPageMatchesAndRejectInvertedRanges() {
+        SubscriptionFilterDto filter = new SubscriptionFilterDto();
+        filter.setCurrency("USD");
+        when(subscriptionSearchRepository.search(OWNER, filter, 0L, 2)).thenReturn(testResponseDtos);
+
+        SubscriptionPageResponseDto page = subscriptionService.search(filter, null, 2);
+
+        assertEquals(2, page.getItems().size());
+        assertNotNull(page.getNextCursor(), "Full page should carry a next cursor");
+
+        filter.setNextFrom(LocalDate.of(2024, 7, 1));
+        filter.setNextTo(LocalDate.of(2024, 6, 1));
+        assertThrows(IllegalArgumentException.class, () -> subscriptionService.search(filter, null, 2));
+        verify(subscriptionSearchRepository).search(eq(OWNER), any(SubscriptionFilterDto.class), anyLong(), anyInt());
+    }
+
+    @Test
+    void streamAll_shouldPassEveryProjectedSubscriptionToConsumer() {
+        when(subscriptionRepository.streamAllResponses(OWNER)).thenReturn(testResponseDtos.stream());
+        List<SubscriptionResponseDto> streamed = new ArrayList<>();
+
+        long count = subscriptionService.streamAll(OWNER, streamed::add);
+
+        assertEquals(testResponseDtos.size(), count);
+        IntStream.range(0, testResponseDtos.size()).forEach(i ->
+                assertSubscriptionDto(streamed.get(i), testResponseDtos.get(i)));
+        verifyNoInteractions(subscriptionMapper);
     }
 
     @Test
     void create_shouldReturnSubscriptionResponseDto() {
         when(subscriptionMapper.toEntity(any(SubscriptionRequestDto.class))).thenReturn(testSubscriptions.getFirst());
-        when(currencyRepository.findByCurrency(anyString())).thenReturn(BigDecimal.TEN);
+        when(currencyConversionService.convert(anyLong(), anyString(), anyString())).thenAnswer(invocation -> invocation.getArgument(0));
         when(subscriptionRepository.save(any(Subscription.class))).thenReturn(testSubscriptions.getFirst());
         when(subscriptionMapper.toDto(any(Subscription.class))).thenReturn(testResponseDtos.getFirst());
 
@@ -137,42 +241,59 @@ class SubscriptionServiceImplTest {
         verify(subscriptionMapper).toDto(testSubscriptions.getFirst());
     }
 
+    @Test
+    void create_shouldSaveThroughWriteBehind_whenEnabled() {
+        when(writeBehind.isEnabled()).thenReturn(true);
+        when(subscriptionMapper.toEntity(any(SubscriptionRequestDto.class))).thenReturn(testSubscriptions.getFirst());
+        when(currencyConversionService.convert(anyLong(), anyString(), anyString())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(writeBehind.save(testSubscriptions.getFirst())).thenReturn(testSubscriptions.getFirst());
+        when(subscriptionMapper.toDto(testSubscriptions.getFirst())).thenReturn(testResponseDtos.getFirst());
+
+        SubscriptionResponseDto actualResponseDto = subscriptionService.create(testRequestDto);
+
+        assertSubscriptionDto(actualResponseDto, testResponseDtos.getFirst());
+        verify(subscriptionRepository, never()).save(any(Subscription.class));
+        verifyNoInteractions(eventPublisher);
+    }
+
     @Test
     void read_shouldReturnSubscriptionResponseDto_whenSubscriptionExists() {
         Long id = 1L;
-        when(subscriptionRepository.findById(anyLong())).thenReturn(Optional.of(testSubscriptions.getFirst()));
+        when(subscriptionRepository.findByOwnerIdAndId(eq(OWNER), anyLong())).thenReturn(Optional.of(testSubscriptions.getFirst()));
         when(subscriptionMapper.toDto(testSubscriptions.getFirst())).thenReturn(testResponseDtos.getFirst());
 
         SubscriptionResponseDto actualResponseDto = subscriptionService.read(id);
 
         assertSubscriptionDto(actualResponseDto, testResponseDtos.getFirst());
-        verify(subscriptionRepository).findById(id);
+        verify(subscriptionRepository).findByOwnerIdAndId(OWNER, id);
         verify(subscriptionMapper).toDto(testSubscriptions.getFirst());
     }
 
     @Test
     void read_shouldReturnNull_whenSubscriptionDoesNotExist() {
         Long id = 1L;
-        when(subscriptionRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(subscriptionRepository.findByOwnerIdAndId(eq(OWNER), anyLong())).thenReturn(Optional.empty());
 
         SubscriptionResponseDto responseDto = subscriptionService.read(id);
 
         assertNull(responseDto, "Response DTO should be null for non-existent subscription");
-        verify(subscriptionRepository).findById(id);
+        verify(subscriptionRepository).findByOwnerIdAndId(OWNER, id);
         verify(subscriptionMapper, never()).toDto(any(Subscription.class));
     }
 
     @Test
     void update_shouldUpdateSubscription_whenSubscriptionExists() {
         Long id = 1L;
-        when(subscriptionRepository.findById(anyLong())).thenReturn(Optional.of(testSubscriptions.getFirst()));
-        when(subscriptionRepository.save(any(Subscription.class))).thenReturn(testSubscriptions.getFirst());
+        when(subscriptionRepository.findByOwnerIdAndId(eq(OWNER), anyLong())).thenReturn(Optional.of(testSubscriptions.getFirst()));
+        when(subscriptionRepository.saveAndFlush(any(Subscription.class))).thenReturn(testSubscriptions.getFirst());
+        when(subscriptionMapper.toDto(testSubscriptions.getFirst())).thenReturn(testResponseDtos.getFirst());
         doNothing().when(subscriptionMapper).updateEntityFromDto(any(SubscriptionRequestDto.class), any(Subscription.class));
 
-        subscriptionService.update(id, testRequestDto);
+        SubscriptionResponseDto updated = subscriptionService.update(id, testRequestDto);
 
-        verify(subscriptionRepository).findById(id);
-        verify(subscriptionRepository).save(argThat(subscription -> {
+        assertSame(testResponseDtos.getFirst(), updated, "Update should return the persisted state");
+        verify(subscriptionRepository).findByOwnerIdAndId(OWNER, id);
+        verify(subscriptionRepository).saveAndFlush(argThat(subscription -> {
             assertEquals(id, subscription.getId(), "ID should not change");
             assertEquals(testRequestDto.getName(), subscription.getName(), "Name should be updated");
             assertEquals(testRequestDto.getFromCurrency(), subscription.getCurrency(), "Currency should be updated");
@@ -181,7 +302,7 @@ class SubscriptionServiceImplTest {
             assertEquals(testRequestDto.getSubscriptionDate(), subscription.getSubscriptionDate(), "Subscription date should be updated");
             return true;
         }));
-        verify(subscriptionMapper, never()).toDto(any(Subscription.class));
+        verify(subscriptionRepository, times(1)).findByOwnerIdAndId(eq(OWNER), anyLong());
     }
 
     @Test
@@ -197,15 +318,15 @@ class SubscriptionServiceImplTest {
 
         BigDecimal convertedAmount = new BigDecimal("100.00");
 
-        when(subscriptionRepository.findById(anyLong())).thenReturn(Optional.of(existingSubscription));
-        when(currencyRepository.findByCurrency(anyString())).thenReturn(BigDecimal.TEN);
-        when(subscriptionRepository.save(any(Subscription.class))).thenReturn(existingSubscription);
+        when(subscriptionRepository.findByOwnerIdAndId(eq(OWNER), anyLong())).thenReturn(Optional.of(existingSubscription));
+        when(currencyConversionService.convert(anyLong(), anyString(), anyString())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(subscriptionRepository.saveAndFlush(any(Subscription.class))).thenReturn(existingSubscription);
         doNothing().when(subscriptionMapper).updateEntityFromDto(any(SubscriptionRequestDto.class), any(Subscription.class));
 
         subscriptionService.update(id, updatedRequest);
 
-        verify(subscriptionRepository).findById(id);
-        verify(subscriptionRepository).save(argThat(subscription -> {
+        verify(subscriptionRepository).findByOwnerIdAndId(OWNER, id);
+        verify(subscriptionRepository).saveAndFlush(argThat(subscription -> {
             assertEquals(id, subscription.getId(), "ID should not change");
             assertEquals("USD", subscription.getCurrency(), "Currency should be updated");
             assertEquals(convertedAmount, subscription.getConvertedAmount(), "Converted amount should be set");
@@ -217,21 +338,140 @@ class SubscriptionServiceImplTest {
     @Test
     void update_shouldNotUpdateSubscription_whenSubscriptionDoesNotExist() {
         Long id = 1L;
-        when(subscriptionRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(subscriptionRepository.findByOwnerIdAndId(eq(OWNER), anyLong())).thenReturn(Optional.empty());
 
-        subscriptionService.update(id, testRequestDto);
+        assertNull(subscriptionService.update(id, testRequestDto));
+
+        verify(subscriptionRepository).findByOwnerIdAndId(OWNER, id);
+        verify(subscriptionRepository, never()).saveAndFlush(any(Subscription.class));
+    }
+
+    @Test
+    void update_shouldRejectStaleVersion() {
+        Long id = 1L;
+        when(subscriptionRepository.findByOwnerIdAndId(OWNER, id)).thenReturn(Optional.of(testSubscriptions.getFirst()));
+
+        assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> subscriptionService.update(id, testRequestDto, 0L));
+
+        verify(subscriptionRepository, never()).saveAndFlush(any(Subscription.class));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void applyBatch_shouldReportOutcomePerOperation() {
+        when(subscriptionRepository.findByOwnerIdAndIdIn(eq(OWNER), anySet())).thenReturn(testSubscriptions);
+        when(subscriptionMapper.toEntity(any(SubscriptionRequestDto.class))).thenReturn(new Subscription());
+        when(currencyConversionService.convert(anyLong(), anyString(), anyString())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(subscriptionRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Subscription> subscriptions = invocation.getArgument(0);
+            subscriptions.stream().filter(subscription -> subscription.getId() == null)
+                    .forEach(subscription -> subscription.setId(100L));
+            return subscriptions;
+        });
 
-        verify(subscriptionRepository).findById(id);
+        SubscriptionRequestDto incomplete = new SubscriptionRequestDto();
+        List<SubscriptionBatchRequestDto.Operation> operations = List.of(
+                operation(OperationType.CREATE, null, testRequestDto),
+                operation(OperationType.CREATE, null, incomplete),
+                operation(OperationType.UPDATE, 1L, testRequestDto),
+                operation(OperationType.UPDATE, 99L, testRequestDto),
+                operation(OperationType.DELETE, 2L, null),
+                operation(null, 3L, null)
+        );
+
+        SubscriptionBatchResponseDto response = subscriptionService.applyBatch(operations);
+
+        List<SubscriptionBatchResponseDto.Result> results = response.getResults();
+        assertAll(
+                "Batch results",
+                () -> assertEquals(3, response.getSucceeded(), "Three operations should succeed"),
+                () -> assertEquals(3, response.getFailed(), "Three operations should fail"),
+                () -> assertEquals(SubscriptionBatchResponseDto.Status.CREATED, results.get(0).getStatus()),
+                () -> assertEquals(100L, results.get(0).getId(), "Created ID should be reported"),
+                () -> assertEquals(SubscriptionBatchResponseDto.Status.INVALID, results.get(1).getStatus()),
+                () -> assertEquals(SubscriptionBatchResponseDto.Status.UPDATED, results.get(2).getStatus()),
+                () -> assertEquals(SubscriptionBatchResponseDto.Status.NOT_FOUND, results.get(3).getStatus()),
+                () -> assertEquals(SubscriptionBatchResponseDto.Status.DELETED, results.get(4).getStatus()),
+                () -> assertEquals(SubscriptionBatchResponseDto.Status.INVALID, results.get(5).getStatus())
+        );
+        verify(subscriptionRepository).findByOwnerIdAndIdIn(OWNER, Set.of(1L, 99L, 2L));
+        verify(subscriptionRepository).saveAll(argThat(subscriptions -> ((List<Subscription>) subscriptions).size() == 2));
+        verify(subscriptionRepository).deleteByOwnerIdAndIds(OWNER, List.of(testSubscriptions.get(1).getId()));
         verify(subscriptionRepository, never()).save(any(Subscription.class));
     }
 
+    @Test
+    void applyBatch_shouldSaveAndReportEachSubscriptionOnce_whenIdsRepeat() throws IOException {
+        when(subscriptionRepository.findByOwnerIdAndIdIn(eq(OWNER), anySet())).thenReturn(testSubscriptions);
+        when(subscriptionMapper.toEntity(any(SubscriptionRequestDto.class))).thenReturn(new Subscription());
+        when(currencyConversionService.convert(anyLong(), anyString(), anyString())).thenAnswer(invocation -> {
+            if ("XXX".equals(invocation.getArgument(1))) {
+                throw new IllegalArgumentException("No exchange rate for currency: XXX");
+            }
+            return invocation.getArgument(0);
+        });
+        when(subscriptionRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        SubscriptionRequestDto unknownCurrency = readValue("data/request/subscriptions.json", new TypeReference<>() {
+        });
+        unknownCurrency.setFromCurrency("XXX");
+        List<SubscriptionBatchRequestDto.Operation> operations = List.of(
+                operation(OperationType.UPDATE, 1L, testRequestDto),
+                operation(OperationType.UPDATE, 1L, testRequestDto),
+                operation(OperationType.UPDATE, 2L, testRequestDto),
+                operation(OperationType.UPDATE, 2L, testRequestDto),
+                operation(OperationType.DELETE, 2L, null),
+                operation(OperationType.CREATE, null, unknownCurrency)
+        );
+
+        SubscriptionBatchResponseDto response = subscriptionService.applyBatch(operations);
+
+        List<SubscriptionBatchResponseDto.Result> results = response.getResults();
+        assertEquals(5, response.getSucceeded());
+        assertEquals(SubscriptionBatchResponseDto.Status.INVALID, results.get(5).getStatus());
+        assertEquals("No exchange rate for currency: XXX", results.get(5).getMessage());
+        verify(subscriptionRepository).saveAll(List.of(testSubscriptions.get(0)));
+        verify(subscriptionRepository).deleteByOwnerIdAndIds(OWNER, List.of(2L));
+
+        ArgumentCaptor<SubscriptionChangedEvent> event = ArgumentCaptor.forClass(SubscriptionChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        List<SubscriptionChangedEvent.Change> changes = event.getValue().changes();
+        assertEquals(2, changes.size(), "One change per subscription");
+        assertEquals(1L, changes.get(0).before().id());
+        assertNotNull(changes.get(0).after());
+        assertEquals(2L, changes.get(1).before().id());
+        assertEquals("EUR", changes.get(1).before().currency(), "State before the first update");
+        assertNull(changes.get(1).after());
+    }
+
     @Test
     void delete_shouldDeleteSubscription() {
         Long id = 1L;
+        when(subscriptionRepository.findByOwnerIdAndId(OWNER, id)).thenReturn(Optional.of(testSubscriptions.getFirst()));
+
+        assertTrue(subscriptionService.delete(id));
+
+        verify(subscriptionRepository).delete(testSubscriptions.getFirst());
+        verify(subscriptionRepository, never()).deleteById(anyLong());
+    }
+
+    @Test
+    void delete_shouldReportMissingSubscription() {
+        Long id = 1L;
+        when(subscriptionRepository.findByOwnerIdAndId(OWNER, id)).thenReturn(Optional.empty());
 
-        subscriptionService.delete(id);
+        assertFalse(subscriptionService.delete(id, 3L));
+
+        verify(subscriptionRepository, never()).delete(any(Subscription.class));
+    }
 
-        verify(subscriptionRepository).deleteById(id);
+    private SubscriptionBatchRequestDto.Operation operation(OperationType type, Long id, SubscriptionRequestDto request) {
+        SubscriptionBatchRequestDto.Operation operation = new SubscriptionBatchRequestDto.Operation();
+        operation.setType(type);
+        operation.setId(id);
+        operation.setSubscription(request);
+        return operation;
     }
 
     private void assertSubscriptionDto(SubscriptionResponseDto actual, SubscriptionResponseDto expected) {
@@ -0,0 +1,175 @@
+package com.mattemat.finance.service;
+
+import com.mattemat.finance.dto.request.SubscriptionRequestDto;
+import com.mattemat.finance.entity.Subscription;
+import com.mattemat.finance.repository.SubscriptionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+@SpringBootTest(properties = {
+        "finance.write-behind.enabled=true",
+        "finance.write-behind.max-wait=PT0.05S"
+})
+class SubscriptionWriteBehindTest {
+
+    private static final int CREATES = 200;
+
+    @Autowired
+    private SubscriptionServiceImpl subscriptionService;
+
+    @Autowired
+    private SubscriptionRepository subscriptionRepository;
+
+    @Autowired
+    private SpendSummaryService spendSummaryService;
+
+    @Autowired
+    private ExchangeRateCache exchangeRateCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        exchangeRateCache.publish(Map.of("USD", BigDecimal.ONE, "SGD", new BigDecimal("1.35")));
+        spendSummaryService.rebuild();
+    }
+
+    @AfterEach
+    void tearDown() {
+        subscriptionRepository.deleteAllInBatch();
+        spendSummaryService.rebuild();
+    }
+
+    @Test
+    void create_shouldGroupCommitConcurrentCreates() throws Exception {
+        List<Future<Long>> ids = new ArrayList<>();
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CREATES; i++) {
+                ids.add(callers.submit(() -> subscriptionService.create(request()).getId()));
+            }
+        }
+
+        Set<Long> distinct = new HashSet<>();
+        for (Future<Long> id : ids) {
+            distinct.add(id.get());
+        }
+        assertEquals(CREATES, distinct.size());
+        assertEquals(CREATES, subscriptionRepository.count());
+        assertEquals(CREATES, spendSummaryService.summary().getSubscriptions(), "summary updated before create returns");
+        assertTrue(meterRegistry.get("finance.subscriptions.write-behind.batch-size").summary().max() > 1,
+                "at least one batch held several creates");
+    }
+
+    @Test
+    void save_shouldRejectWhenQueueStaysFull() throws Exception {
+        CountDownLatch committing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        doAnswer(invocation -> {
+            committing.countDown();
+            release.await();
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        SubscriptionWriteBehind writeBehind = new SubscriptionWriteBehind(
+                mock(SubscriptionRepository.class), transactionTemplate, mock(ApplicationEventPublisher.class), registry,
+                true, 10, Duration.ZERO, 1, Duration.ofMillis(50));
+        writeBehind.start();
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<Subscription> inBatch = callers.submit(() -> writeBehind.save(new Subscription()));
+            assertTrue(committing.await(5, TimeUnit.SECONDS));
+            Future<Subscription> queued = callers.submit(() -> writeBehind.save(new Subscription()));
+            waitUntilQueued(registry);
+
+            assertThrows(RejectedExecutionException.class, () -> writeBehind.save(new Subscription()));
+            assertEquals(1, registry.get("finance.subscriptions.write-behind.rejected").counter().count());
+
+            release.countDown();
+            assertNotNull(inBatch.get(5, TimeUnit.SECONDS));
+            assertNotNull(queued.get(5, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+            writeBehind.stop();
+        }
+        assertThrows(RejectedExecutionException.class, () -> writeBehind.save(new Subscription()));
+    }
+
+    @Test
+    void save_shouldNeverLeaveCallerWaiting_whenStoppedWhileSaving() throws Exception {
+        SubscriptionWriteBehind writeBehind = new SubscriptionWriteBehind(
+                mock(SubscriptionRepository.class), mock(TransactionTemplate.class), mock(ApplicationEventPublisher.class),
+                new SimpleMeterRegistry(), true, 10, Duration.ZERO, 1, Duration.ofSeconds(1));
+        writeBehind.start();
+        List<Future<?>> callers = new ArrayList<>();
+        // Not closed with try-with-resources: a stranded caller blocks in join() and would hang close().
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            for (int i = 0; i < 16; i++) {
+                callers.add(executor.submit(() -> {
+                    try {
+                        while (true) {
+                            writeBehind.save(new Subscription());
+                        }
+                    } catch (RejectedExecutionException e) {
+                        return null;
+                    }
+                }));
+            }
+            Thread.sleep(50);
+            writeBehind.stop();
+
+            for (Future<?> caller : callers) {
+                assertNull(caller.get(5, TimeUnit.SECONDS), "every save should return or be rejected after stop");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void waitUntilQueued(MeterRegistry registry) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (registry.get("finance.subscriptions.write-behind.queued").gauge().value() < 1) {
+            assertTrue(System.nanoTime() < deadline, "second create never queued");
+            Thread.sleep(1);
+        }
+    }
+
+    private static SubscriptionRequestDto request() {
+        SubscriptionRequestDto request = new SubscriptionRequestDto();
+        request.setName("Netflix");
+        request.setFromCurrency("USD");
+        request.setToCurrency("SGD");
+        request.setAmount(new BigDecimal("9.99"));
+        request.setBillingCycle(1);
+        request.setSubscriptionDate(LocalDate.of(2025, 1, 15));
+        return request;
+    }
+}